@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * Writes and parses a deeply nested document, where the context stacks are a large part of the work. Run through
+ * {@link BenchmarkMain} to compare gc.alloc.rate.norm, the parser context array is reused across operations and
+ * {@link SerializerFeature#DETECT_CYCLES_ONLY} keeps no map of the written objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+
+    @Param({"16", "256"})
+    int        depth;
+
+    String     json;
+    JSONObject tree;
+
+    @Setup
+    public void setup() {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < depth; ++i) {
+            buf.append("{\"id\":").append(i).append(",\"child\":");
+        }
+        buf.append("null");
+        for (int i = 0; i < depth; ++i) {
+            buf.append('}');
+        }
+        json = buf.toString();
+        tree = JSON.parseObject(json);
+    }
+
+    @Benchmark
+    public String write() {
+        return JSON.toJSONString(tree, SerializerFeature.DETECT_CYCLES_ONLY);
+    }
+
+    @Benchmark
+    public JSONObject parse() {
+        return JSON.parseObject(json);
+    }
+}
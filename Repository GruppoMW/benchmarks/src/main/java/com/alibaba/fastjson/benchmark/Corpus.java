@@ -0,0 +1,185 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generated documents shaped like the usual json benchmark corpora: twitter.json (small objects, unicode text,
+ * nested user and entities), citm_catalog.json (large maps keyed by numeric ids, many small ints) and canada.json
+ * (deep arrays of doubles). They are produced with a fixed seed so every run measures the same bytes.
+ */
+public enum Corpus {
+    TWITTER {
+        String generate(Random r) {
+            StringBuilder buf = new StringBuilder(1024 * 512);
+            buf.append("{\"statuses\":[");
+            for (int i = 0; i < 400; ++i) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                long id = 505874924095815681L + i * 7919L;
+                buf.append("{\"created_at\":\"Sun Aug 31 00:29:").append(10 + i % 50).append(" +0000 2014\"");
+                buf.append(",\"id\":").append(id);
+                buf.append(",\"id_str\":\"").append(id).append('"');
+                buf.append(",\"text\":\"").append(text(r, 40 + r.nextInt(100))).append('"');
+                buf.append(",\"source\":\"<a href=\\\"http://twitter.com/download/iphone\\\" rel=\\\"nofollow\\\">Twitter for iPhone</a>\"");
+                buf.append(",\"truncated\":false,\"in_reply_to_status_id\":null");
+                buf.append(",\"user\":{\"id\":").append(1186275104 + r.nextInt(100000));
+                buf.append(",\"name\":\"").append(text(r, 4 + r.nextInt(12))).append('"');
+                buf.append(",\"screen_name\":\"user_").append(r.nextInt(1000000)).append('"');
+                buf.append(",\"location\":\"").append(text(r, r.nextInt(16))).append('"');
+                buf.append(",\"description\":\"").append(text(r, r.nextInt(120))).append('"');
+                buf.append(",\"followers_count\":").append(r.nextInt(100000));
+                buf.append(",\"friends_count\":").append(r.nextInt(5000));
+                buf.append(",\"verified\":").append(r.nextBoolean());
+                buf.append(",\"profile_image_url\":\"http://pbs.twimg.com/profile_images/").append(r.nextInt(1 << 30))
+                        .append("/normal.jpeg\"}");
+                buf.append(",\"entities\":{\"hashtags\":[");
+                int tags = r.nextInt(4);
+                for (int j = 0; j < tags; ++j) {
+                    if (j != 0) {
+                        buf.append(',');
+                    }
+                    int start = r.nextInt(100);
+                    buf.append("{\"text\":\"").append(text(r, 3 + r.nextInt(8))).append("\",\"indices\":[")
+                            .append(start).append(',').append(start + 8).append("]}");
+                }
+                buf.append("],\"urls\":[],\"user_mentions\":[]}");
+                buf.append(",\"retweet_count\":").append(r.nextInt(1000));
+                buf.append(",\"favorite_count\":").append(r.nextInt(1000));
+                buf.append(",\"favorited\":false,\"retweeted\":false,\"lang\":\"ja\"}");
+            }
+            buf.append("],\"search_metadata\":{\"completed_in\":0.087,\"max_id\":505874924095815681");
+            buf.append(",\"query\":\"%E4%B8%80\",\"count\":400,\"since_id\":0}}");
+            return buf.toString();
+        }
+    },
+
+    CITM {
+        String generate(Random r) {
+            StringBuilder buf = new StringBuilder(1024 * 1024);
+            buf.append("{\"areaNames\":{");
+            for (int i = 0; i < 20; ++i) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                buf.append('"').append(205705993 + i).append("\":\"Arrière-scène ").append(i).append('"');
+            }
+            buf.append("},\"events\":{");
+            for (int i = 0; i < 180; ++i) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                int id = 138586341 + i;
+                buf.append('"').append(id).append("\":{\"description\":null,\"id\":").append(id);
+                buf.append(",\"logo\":null,\"name\":\"").append(text(r, 10 + r.nextInt(20))).append('"');
+                buf.append(",\"subTopicIds\":[337184269,337184283],\"subjectCode\":null,\"subtitle\":null");
+                buf.append(",\"topicIds\":[324846099,107888604]}");
+            }
+            buf.append("},\"performances\":[");
+            for (int i = 0; i < 240; ++i) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                buf.append("{\"eventId\":").append(138586341 + r.nextInt(180));
+                buf.append(",\"id\":").append(339887544 + i).append(",\"logo\":null,\"name\":null,\"prices\":[");
+                int prices = 2 + r.nextInt(4);
+                for (int j = 0; j < prices; ++j) {
+                    if (j != 0) {
+                        buf.append(',');
+                    }
+                    buf.append("{\"amount\":").append(9000 + r.nextInt(100) * 1000);
+                    buf.append(",\"audienceSubCategoryId\":337100890,\"seatCategoryId\":").append(338937295 + j)
+                            .append('}');
+                }
+                buf.append("],\"seatCategories\":[");
+                for (int j = 0; j < prices; ++j) {
+                    if (j != 0) {
+                        buf.append(',');
+                    }
+                    buf.append("{\"areas\":[{\"areaId\":").append(205705993 + r.nextInt(20));
+                    buf.append(",\"blockIds\":[]},{\"areaId\":").append(205705993 + r.nextInt(20));
+                    buf.append(",\"blockIds\":[]}],\"seatCategoryId\":").append(338937295 + j).append('}');
+                }
+                buf.append("],\"seatMapImage\":null,\"start\":").append(1372701600000L + i * 86400000L);
+                buf.append(",\"venueCode\":\"PLEYEL_PLEYEL\"}");
+            }
+            buf.append("]}");
+            return buf.toString();
+        }
+    },
+
+    CANADA {
+        String generate(Random r) {
+            StringBuilder buf = new StringBuilder(1024 * 1024 * 2);
+            buf.append("{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\"");
+            buf.append(",\"properties\":{\"name\":\"Canada\"},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[");
+            for (int i = 0; i < 48; ++i) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                buf.append('[');
+                int points = 200 + r.nextInt(1200);
+                for (int j = 0; j < points; ++j) {
+                    if (j != 0) {
+                        buf.append(',');
+                    }
+                    buf.append('[').append(-141.0 + r.nextDouble() * 88.0).append(',')
+                            .append(41.6 + r.nextDouble() * 41.5).append(']');
+                }
+                buf.append(']');
+            }
+            buf.append("]}}]}");
+            return buf.toString();
+        }
+    };
+
+    /**
+     * pieces of string literal content, escapes are kept whole
+     */
+    private static final String[] TOKENS = { "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", " ",
+            " ", " ", "RT", "@fastjson", "#json", "2014", "一", "日本語", "のテキスト", "です", "éàüß", "\\n", "\\\"",
+            "\\\\", "\\u00e9", "\uD83D\uDE00", "http://t.co/x9aVbLc" };
+
+    private String json;
+    private byte[] utf8;
+
+    abstract String generate(Random r);
+
+    public synchronized String json() {
+        if (json == null) {
+            json = generate(new Random(ordinal() * 31L + 17L));
+        }
+        return json;
+    }
+
+    public synchronized byte[] utf8() {
+        if (utf8 == null) {
+            utf8 = json().getBytes(StandardCharsets.UTF_8);
+        }
+        return utf8;
+    }
+
+    private static String text(Random r, int len) {
+        StringBuilder buf = new StringBuilder(len + 16);
+        while (buf.length() < len) {
+            buf.append(TOKENS[r.nextInt(TOKENS.length)]);
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPath;
+
+/**
+ * {@link JSONPath#eval} on a parsed tree against {@link JSONPath#extract}, which evaluates while scanning the text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONPathBenchmark {
+
+    static final String PATH_SCALAR = "$.search_metadata.count";
+    static final String PATH_ARRAY  = "$.statuses[3].user.screen_name";
+
+    String json;
+    Object tree;
+
+    @Setup
+    public void setup() {
+        json = Corpus.TWITTER.json();
+        tree = JSON.parse(json);
+    }
+
+    @Benchmark
+    public Object evalScalar() {
+        return JSONPath.eval(tree, PATH_SCALAR);
+    }
+
+    @Benchmark
+    public Object evalArray() {
+        return JSONPath.eval(tree, PATH_ARRAY);
+    }
+
+    @Benchmark
+    public Object extractScalar() {
+        return JSONPath.extract(json, PATH_SCALAR);
+    }
+
+    @Benchmark
+    public Object extractArray() {
+        return JSONPath.extract(json, PATH_ARRAY);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * {@link JSON#parseObject} over the three input kinds: String, UTF-8 byte[] and InputStream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"TWITTER", "CITM", "CANADA"})
+    Corpus corpus;
+
+    String json;
+    byte[] utf8;
+
+    @Setup
+    public void setup() {
+        json = corpus.json();
+        utf8 = corpus.utf8();
+    }
+
+    @Benchmark
+    public JSONObject string() {
+        return JSON.parseObject(json);
+    }
+
+    @Benchmark
+    public JSONObject bytes() {
+        return JSON.parseObject(utf8, JSONObject.class);
+    }
+
+    @Benchmark
+    public JSONObject inputStream() throws Exception {
+        return JSON.parseObject(new ByteArrayInputStream(utf8), IOUtils.UTF8, JSONObject.class);
+    }
+}
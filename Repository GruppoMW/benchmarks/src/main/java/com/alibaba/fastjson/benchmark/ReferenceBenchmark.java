@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Parses a graph-shaped document where every node refers to its predecessor and to the first node with $ref paths,
+ * as written by producers with circular reference detection on. The cost of a $ref should not grow with the size of
+ * the document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReferenceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int    nodes;
+
+    String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder buf = new StringBuilder("{\"nodes\":[");
+        for (int i = 0; i < nodes; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append("{\"id\":").append(i);
+            if (i != 0) {
+                buf.append(",\"prev\":{\"$ref\":\"$.nodes[").append(i - 1).append("]\"}");
+                buf.append(",\"first\":{\"$ref\":\"$.nodes[0]\"}");
+            }
+            buf.append('}');
+        }
+        buf.append("]}");
+        json = buf.toString();
+    }
+
+    @Benchmark
+    public JSONObject parse() {
+        return JSON.parseObject(json);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * {@link JSON#toJSONString(Object)} against {@link JSON#toJSONBytes}, for the parsed tree of every corpus and for
+ * the twitter bean model (ASM serializers).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializeBenchmark {
+
+    @Param({"TWITTER", "CITM", "CANADA"})
+    Corpus  corpus;
+
+    Object  tree;
+    Twitter twitter;
+
+    @Setup
+    public void setup() {
+        tree = JSON.parse(corpus.json());
+        twitter = JSON.parseObject(Corpus.TWITTER.json(), Twitter.class);
+    }
+
+    @Benchmark
+    public String treeToString() {
+        return JSON.toJSONString(tree);
+    }
+
+    @Benchmark
+    public byte[] treeToBytes() {
+        return JSON.toJSONBytes(tree);
+    }
+
+    @Benchmark
+    public String beanToString() {
+        return JSON.toJSONString(twitter);
+    }
+
+    @Benchmark
+    public byte[] beanToBytes() {
+        return JSON.toJSONBytes(twitter);
+    }
+}
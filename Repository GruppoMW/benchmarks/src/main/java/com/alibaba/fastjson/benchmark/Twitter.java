@@ -0,0 +1,97 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.benchmark;
+
+import java.util.List;
+
+import com.alibaba.fastjson.annotation.JSONField;
+
+/**
+ * Bean model of {@link Corpus#TWITTER}, used for the typed binding benchmarks.
+ */
+public class Twitter {
+
+    public List<Status>   statuses;
+
+    @JSONField(name = "search_metadata")
+    public SearchMetadata searchMetadata;
+
+    public static class Status {
+
+        @JSONField(name = "created_at")
+        public String   createdAt;
+        public long     id;
+        @JSONField(name = "id_str")
+        public String   idStr;
+        public String   text;
+        public String   source;
+        public boolean  truncated;
+        @JSONField(name = "in_reply_to_status_id")
+        public Long     inReplyToStatusId;
+        public User     user;
+        public Entities entities;
+        @JSONField(name = "retweet_count")
+        public int      retweetCount;
+        @JSONField(name = "favorite_count")
+        public int      favoriteCount;
+        public boolean  favorited;
+        public boolean  retweeted;
+        public String   lang;
+    }
+
+    public static class User {
+
+        public long    id;
+        public String  name;
+        @JSONField(name = "screen_name")
+        public String  screenName;
+        public String  location;
+        public String  description;
+        @JSONField(name = "followers_count")
+        public int     followersCount;
+        @JSONField(name = "friends_count")
+        public int     friendsCount;
+        public boolean verified;
+        @JSONField(name = "profile_image_url")
+        public String  profileImageUrl;
+    }
+
+    public static class Entities {
+
+        public List<Hashtag>      hashtags;
+        public List<Object>       urls;
+        @JSONField(name = "user_mentions")
+        public List<Object>       userMentions;
+    }
+
+    public static class Hashtag {
+
+        public String text;
+        public int[]  indices;
+    }
+
+    public static class SearchMetadata {
+
+        @JSONField(name = "completed_in")
+        public double completedIn;
+        @JSONField(name = "max_id")
+        public long   maxId;
+        public String query;
+        public int    count;
+        @JSONField(name = "since_id")
+        public long   sinceId;
+    }
+}
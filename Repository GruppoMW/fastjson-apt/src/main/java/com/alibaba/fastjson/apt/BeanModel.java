@@ -0,0 +1,358 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.apt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+
+import com.alibaba.fastjson.PropertyNamingStrategy;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * The properties of a {@code @JSONType} class, found the way {@code TypeUtils.computeGetters} and
+ * {@code JavaBeanInfo.build} find them at runtime: public getters and setters, then public fields, with the
+ * {@link JSONField} of the method or else of the field of the same name.
+ *
+ * @since 1.2.80
+ */
+final class BeanModel {
+
+    final TypeElement         type;
+    final String              packageName;
+    final String              codecName;
+    final int                 serializeFeatures;
+    final int                 parseFeatures;
+    final List<PropertyModel> getters;
+    final List<PropertyModel> setters;
+
+    private BeanModel(TypeElement type, String packageName, String codecName, int serializeFeatures,
+                      int parseFeatures, List<PropertyModel> getters, List<PropertyModel> setters){
+        this.type = type;
+        this.packageName = packageName;
+        this.codecName = codecName;
+        this.serializeFeatures = serializeFeatures;
+        this.parseFeatures = parseFeatures;
+        this.getters = getters;
+        this.setters = setters;
+    }
+
+    /**
+     * @throws UnsupportedBeanException when the class is left to the codecs generated at runtime
+     */
+    static BeanModel of(ProcessingEnvironment env, TypeElement type) throws UnsupportedBeanException {
+        checkType(type);
+
+        JSONType jsonType = type.getAnnotation(JSONType.class);
+        if (!isVoid(jsonType::mappingTo) || !isVoid(jsonType::builder) || !isVoid(jsonType::serializer)
+            || !isVoid(jsonType::deserializer) || !isEmpty(jsonType::seeAlso) || !isEmpty(jsonType::serialzeFilters)
+            || jsonType.typeName().length() != 0) {
+            throw new UnsupportedBeanException("custom codecs, type names and filters are resolved at runtime");
+        }
+
+        Map<String, VariableElement> fields = new LinkedHashMap<>();
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (TypeElement t = type; t != null && !t.getQualifiedName().contentEquals("java.lang.Object");) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                String name = field.getSimpleName().toString();
+                if (!fields.containsKey(name)) {
+                    fields.put(name, field);
+                }
+            }
+            methods.addAll(ElementFilter.methodsIn(t.getEnclosedElements()));
+
+            TypeMirror superclass = t.getSuperclass();
+            t = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+
+        PropertyNamingStrategy naming = jsonType.naming();
+        Set<String> ignores = new HashSet<>(Arrays.asList(jsonType.ignores()));
+        Set<String> includes = new HashSet<>(Arrays.asList(jsonType.includes()));
+
+        Map<String, PropertyModel> getters = new LinkedHashMap<>();
+        Map<String, PropertyModel> setters = new LinkedHashMap<>();
+        for (ExecutableElement method : methods) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            String methodName = method.getSimpleName().toString();
+            List<? extends VariableElement> params = method.getParameters();
+            TypeMirror returnType = method.getReturnType();
+            if (params.isEmpty() && returnType.getKind() != TypeKind.VOID && !"getClass".equals(methodName)) {
+                String propertyName = null;
+                if (methodName.startsWith("get") && methodName.length() > 3) {
+                    propertyName = propertyName(methodName, 3);
+                } else if (methodName.startsWith("is") && methodName.length() > 2
+                           && returnType.getKind() == TypeKind.BOOLEAN) {
+                    propertyName = propertyName(methodName, 2);
+                }
+                if (propertyName != null && !getters.containsKey(propertyName)) {
+                    JSONField annotation = annotation(method, fields.get(propertyName));
+                    if (annotation == null || annotation.serialize()) {
+                        getters.put(propertyName, property(naming, propertyName, annotation, returnType,
+                                                           methodName, null, true));
+                    }
+                }
+            } else if (params.size() == 1 && methodName.startsWith("set") && methodName.length() > 3) {
+                String propertyName = propertyName(methodName, 3);
+                if (propertyName != null && !setters.containsKey(propertyName)) {
+                    JSONField annotation = annotation(method, fields.get(propertyName));
+                    if (annotation == null || annotation.deserialize()) {
+                        setters.put(propertyName, property(naming, propertyName, annotation,
+                                                           params.get(0).asType(), methodName, null, false));
+                    }
+                }
+            }
+        }
+
+        for (VariableElement field : fields.values()) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+
+            String propertyName = field.getSimpleName().toString();
+            JSONField annotation = field.getAnnotation(JSONField.class);
+            if (!getters.containsKey(propertyName) && (annotation == null || annotation.serialize())) {
+                getters.put(propertyName, property(naming, propertyName, annotation, field.asType(), null,
+                                                   propertyName, true));
+            }
+            if (!setters.containsKey(propertyName) && !modifiers.contains(Modifier.FINAL)
+                && (annotation == null || annotation.deserialize())) {
+                setters.put(propertyName, property(naming, propertyName, annotation, field.asType(), null,
+                                                   propertyName, false));
+            }
+        }
+
+        for (Map<String, PropertyModel> properties : Arrays.asList(getters, setters)) {
+            properties.keySet().removeAll(ignores);
+            if (!includes.isEmpty()) {
+                properties.keySet().retainAll(includes);
+            }
+        }
+
+        String codecName = type.getSimpleName() + "_FastjsonCodec";
+        for (Element e = type.getEnclosingElement(); e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            codecName = e.getSimpleName() + "_" + codecName;
+        }
+
+        return new BeanModel(type,
+                             env.getElementUtils().getPackageOf(type).getQualifiedName().toString(),
+                             codecName,
+                             SerializerFeature.of(jsonType.serialzeFeatures()),
+                             Feature.of(jsonType.parseFeatures()),
+                             sort(getters, jsonType),
+                             new ArrayList<>(setters.values()));
+    }
+
+    private static void checkType(TypeElement type) throws UnsupportedBeanException {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedBeanException("not a concrete class");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedBeanException("generic class");
+        }
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            boolean nested = e.getEnclosingElement().getKind() != ElementKind.PACKAGE;
+            if (!e.getModifiers().contains(Modifier.PUBLIC) || (nested && !e.getModifiers().contains(Modifier.STATIC))) {
+                throw new UnsupportedBeanException("not a public top level or static nested class");
+            }
+        }
+
+        boolean defaultConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC) && constructor.getParameters().isEmpty()) {
+                defaultConstructor = true;
+            }
+        }
+        if (!defaultConstructor) {
+            throw new UnsupportedBeanException("no public default constructor");
+        }
+    }
+
+    private static PropertyModel property(PropertyNamingStrategy naming, String propertyName, JSONField annotation,
+                                          TypeMirror type, String method, String field,
+                                          boolean serialize) throws UnsupportedBeanException {
+        if (containsTypeVariable(type)) {
+            throw new UnsupportedBeanException("property " + propertyName + " has a type variable");
+        }
+
+        String name = naming.translate(propertyName);
+        if (annotation == null) {
+            return new PropertyModel(name, new String[0], 0, null, 0, type, method, field);
+        }
+
+        if (annotation.jsonDirect() || annotation.unwrapped() || !isVoid(annotation::serializeUsing)
+            || !isVoid(annotation::deserializeUsing)) {
+            throw new UnsupportedBeanException("property " + propertyName + " needs the runtime codec");
+        }
+
+        if (annotation.name().length() != 0) {
+            name = annotation.name();
+        }
+        String format = annotation.format().length() != 0 ? annotation.format() : null;
+        int features = serialize
+            ? SerializerFeature.of(annotation.serialzeFeatures())
+            : Feature.of(annotation.parseFeatures());
+        return new PropertyModel(name, annotation.alternateNames(), annotation.ordinal(), format, features, type,
+                                 method, field);
+    }
+
+    /**
+     * names properties as TypeUtils does, getURL is URL and getUrl is url
+     */
+    private static String propertyName(String methodName, int prefix) {
+        char c = methodName.charAt(prefix);
+        if (c == '_') {
+            return methodName.length() > prefix + 1 ? methodName.substring(prefix + 1) : null;
+        }
+        if (!Character.isUpperCase(c) && c <= 512) {
+            return null;
+        }
+        if (methodName.length() > prefix + 1 && Character.isUpperCase(methodName.charAt(prefix + 1))) {
+            return methodName.substring(prefix);
+        }
+        return Character.toLowerCase(c) + methodName.substring(prefix + 1);
+    }
+
+    private static JSONField annotation(ExecutableElement method, VariableElement field) {
+        JSONField annotation = method.getAnnotation(JSONField.class);
+        if (annotation == null && field != null) {
+            annotation = field.getAnnotation(JSONField.class);
+        }
+        return annotation;
+    }
+
+    private static List<PropertyModel> sort(Map<String, PropertyModel> properties, JSONType jsonType) {
+        List<PropertyModel> sorted = new ArrayList<>(properties.values());
+        if (jsonType.alphabetic()) {
+            Collections.sort(sorted);
+        }
+
+        String[] orders = jsonType.orders();
+        if (orders.length == 0) {
+            return sorted;
+        }
+
+        List<PropertyModel> ordered = new ArrayList<>(sorted.size());
+        for (String name : orders) {
+            for (PropertyModel property : sorted) {
+                if (property.name.equals(name)) {
+                    ordered.add(property);
+                }
+            }
+        }
+        for (PropertyModel property : sorted) {
+            if (!ordered.contains(property)) {
+                ordered.add(property);
+            }
+        }
+        return ordered;
+    }
+
+    private static boolean containsTypeVariable(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+            case INTERSECTION:
+            case UNION:
+                return true;
+            case ARRAY:
+                return containsTypeVariable(((ArrayType) type).getComponentType());
+            case WILDCARD: {
+                WildcardType wildcard = (WildcardType) type;
+                return (wildcard.getExtendsBound() != null && containsTypeVariable(wildcard.getExtendsBound()))
+                       || (wildcard.getSuperBound() != null && containsTypeVariable(wildcard.getSuperBound()));
+            }
+            case DECLARED:
+                for (TypeMirror arg : ((DeclaredType) type).getTypeArguments()) {
+                    if (containsTypeVariable(arg)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * class valued members can only be read as mirrors at compile time
+     */
+    private static boolean isVoid(ClassMember member) {
+        try {
+            return member.get() == Void.class;
+        } catch (MirroredTypeException ex) {
+            return "java.lang.Void".equals(ex.getTypeMirror().toString());
+        }
+    }
+
+    private static boolean isEmpty(ClassArrayMember member) {
+        try {
+            return member.get().length == 0;
+        } catch (MirroredTypesException ex) {
+            return ex.getTypeMirrors().isEmpty();
+        }
+    }
+
+    /**
+     * the reason a class keeps its runtime codec
+     */
+    static final class UnsupportedBeanException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedBeanException(String reason){
+            super(reason, null, false, false);
+        }
+    }
+
+    interface ClassMember {
+
+        Class<?> get();
+    }
+
+    interface ClassArrayMember {
+
+        Class<?>[] get();
+    }
+}
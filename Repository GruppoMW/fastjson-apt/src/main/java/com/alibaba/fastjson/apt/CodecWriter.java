@@ -0,0 +1,588 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.apt;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * Writes the source of the codec of a {@link BeanModel}. The codec implements {@code AutowiredObjectSerializer} and
+ * {@code AutowiredObjectDeserializer}, the configs find it with the other autowired codecs before generating one.
+ *
+ * <p>Properties are written and read directly, without reflection or filters. When filters are set or a feature
+ * changes the layout of the object (BeanToArray, PrettyFormat, WriteClassName, ...) the codec hands the bean to a
+ * {@code JavaBeanSerializer} of the config in use, and input that is not an object goes to a
+ * {@code JavaBeanDeserializer}. A {@code $ref} object is resolved as {@code JavaBeanDeserializer} resolves it, a
+ * reference to an object not parsed yet goes to the resolve tasks of the parser.
+ *
+ * @since 1.2.80
+ */
+final class CodecWriter {
+
+    static final int            UNSUPPORTED_FEATURES = SerializerFeature.BEAN_TO_ARRAY.mask
+                                                       | SerializerFeature.PRETTY_FORMAT.mask
+                                                       | SerializerFeature.WRITE_CLASS_NAME.mask
+                                                       | SerializerFeature.NOT_WRITE_DEFAULT_VALUE.mask
+                                                       | SerializerFeature.WRITE_NON_STRING_VALUE_AS_STRING.mask;
+
+    private final Types               types;
+    private final Elements            elements;
+    private final BeanModel           bean;
+    private final String              beanName;
+    private final StringBuilder       buf   = new StringBuilder(4096);
+    private final Map<String, String> typeConstants = new LinkedHashMap<>();
+
+    /**
+     * the properties whose value may be a pending $ref, set by the FieldResolver of the codec
+     */
+    private final List<PropertyModel> resolved      = new ArrayList<>();
+
+    CodecWriter(Types types, Elements elements, BeanModel bean){
+        this.types = types;
+        this.elements = elements;
+        this.bean = bean;
+        this.beanName = bean.type.getQualifiedName().toString();
+    }
+
+    String write() {
+        StringBuilder body = new StringBuilder(4096);
+        writeSerializer(body);
+        writeDeserializer(body);
+
+        if (bean.packageName.length() != 0) {
+            buf.append("package ").append(bean.packageName).append(";\n\n");
+        }
+        buf.append("import java.io.IOException;\n")
+           .append("import java.lang.reflect.Type;\n")
+           .append("import java.util.Collections;\n")
+           .append("import java.util.HashMap;\n")
+           .append("import java.util.Map;\n")
+           .append("import java.util.Set;\n")
+           .append("import java.util.WeakHashMap;\n\n")
+           .append("import com.alibaba.fastjson.JSONException;\n")
+           .append("import com.alibaba.fastjson.TypeReference;\n")
+           .append("import com.alibaba.fastjson.parser.DefaultJSONParser;\n")
+           .append("import com.alibaba.fastjson.parser.Feature;\n")
+           .append("import com.alibaba.fastjson.parser.JSONLexer;\n")
+           .append("import com.alibaba.fastjson.parser.JSONToken;\n")
+           .append("import com.alibaba.fastjson.parser.ParseContext;\n")
+           .append("import com.alibaba.fastjson.parser.deserializer.AutowiredObjectDeserializer;\n")
+           .append("import com.alibaba.fastjson.parser.deserializer.ContextObjectDeserializer;\n")
+           .append("import com.alibaba.fastjson.parser.deserializer.FieldDeserializer;\n")
+           .append("import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;\n")
+           .append("import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;\n")
+           .append("import com.alibaba.fastjson.serializer.AutowiredObjectSerializer;\n")
+           .append("import com.alibaba.fastjson.serializer.JSONSerializer;\n")
+           .append("import com.alibaba.fastjson.serializer.ObjectSerializer;\n")
+           .append("import com.alibaba.fastjson.serializer.SerialContext;\n")
+           .append("import com.alibaba.fastjson.serializer.SerializeConfig;\n")
+           .append("import com.alibaba.fastjson.serializer.SerializeWriter;\n")
+           .append("import com.alibaba.fastjson.serializer.SerializerFeature;\n\n")
+           .append("/**\n * Codec of {@link ").append(beanName).append("}, generated by fastjson-apt.\n */\n")
+           .append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n")
+           .append("public final class ").append(bean.codecName)
+           .append(" implements AutowiredObjectSerializer, AutowiredObjectDeserializer {\n\n")
+           .append("    private static final int UNSUPPORTED_FEATURES = ").append(UNSUPPORTED_FEATURES).append(";\n");
+        for (Map.Entry<String, String> entry : typeConstants.entrySet()) {
+            buf.append("    private static final Type ").append(entry.getValue()).append(" = ").append(entry.getKey())
+               .append(";\n");
+        }
+        buf.append("    private static final Map<String, String> SMART_NAMES = new HashMap<String, String>();\n\n")
+           .append("    static {\n");
+        Set<String> smartKeys = new LinkedHashSet<>();
+        for (PropertyModel property : bean.setters) {
+            for (String name : names(property)) {
+                String smartKey = smartKey(name);
+                if (smartKeys.add(smartKey)) {
+                    buf.append("        SMART_NAMES.put(").append(literal(smartKey)).append(", ").append(literal(name))
+                       .append(");\n");
+                }
+            }
+        }
+        buf.append("    }\n\n")
+           .append("    /**\n")
+           .append("     * the java bean serializer of each config, a codec may be registered in several\n")
+           .append("     */\n")
+           .append("    private final Map<SerializeConfig, ObjectSerializer> fallbackSerializers\n")
+           .append("        = new WeakHashMap<SerializeConfig, ObjectSerializer>();\n\n")
+           .append("    public Set<Type> getAutowiredFor() {\n")
+           .append("        return Collections.<Type> singleton(").append(beanName).append(".class);\n")
+           .append("    }\n\n")
+           .append(body)
+           .append("}\n");
+        return buf.toString();
+    }
+
+    private void writeSerializer(StringBuilder out) {
+        out.append("    public void write(JSONSerializer serializer, Object object, Object fieldName, Type fieldType,"
+                   + " int features) throws IOException {\n")
+           .append("        SerializeWriter out = serializer.out;\n")
+           .append("        if (object == null) {\n")
+           .append("            out.writeNull();\n")
+           .append("            return;\n")
+           .append("        }\n")
+           .append("        if (!serializer.isWriteDirect() || out.isEnabled(UNSUPPORTED_FEATURES)"
+                   + " || (features & UNSUPPORTED_FEATURES) != 0) {\n")
+           .append("            fallbackSerializer(serializer.getMapping())\n")
+           .append("                .write(serializer, object, fieldName, fieldType, features);\n")
+           .append("            return;\n")
+           .append("        }\n\n")
+           .append("        SerialContext parent = serializer.getContext();\n")
+           .append("        if (parent != null && !out.isEnabled(SerializerFeature.DISABLE_CIRCULAR_REFERENCE_DETECT)"
+                   + " && serializer.containsReference(object)) {\n")
+           .append("            serializer.writeReference(object);\n")
+           .append("            return;\n")
+           .append("        }\n")
+           .append("        serializer.setContext(parent, object, fieldName, ").append(bean.serializeFeatures)
+           .append(", features);\n")
+           .append("        try {\n")
+           .append("            ").append(beanName).append(" bean = (").append(beanName).append(") object;\n")
+           .append("            char seperator = '{';\n");
+
+        for (PropertyModel property : bean.getters) {
+            writeProperty(out, property);
+        }
+
+        out.append("            if (seperator == '{') {\n")
+           .append("                out.write('{');\n")
+           .append("            }\n")
+           .append("            out.write('}');\n")
+           .append("        } finally {\n")
+           .append("            serializer.setContext(parent);\n")
+           .append("        }\n")
+           .append("    }\n\n")
+           .append("    private ObjectSerializer fallbackSerializer(SerializeConfig config) {\n")
+           .append("        synchronized (fallbackSerializers) {\n")
+           .append("            ObjectSerializer fallback = fallbackSerializers.get(config);\n")
+           .append("            if (fallback == null) {\n")
+           .append("                fallback = config.createJavaBeanSerializer(").append(beanName).append(".class);\n")
+           .append("                fallbackSerializers.put(config, fallback);\n")
+           .append("            }\n")
+           .append("            return fallback;\n")
+           .append("        }\n")
+           .append("    }\n\n");
+    }
+
+    private void writeProperty(StringBuilder out, PropertyModel property) {
+        String name = literal(property.name);
+        String value = property.method != null ? "bean." + property.method + "()" : "bean." + property.field;
+        int features = bean.serializeFeatures | property.features;
+        TypeKind kind = property.type.getKind();
+
+        if (property.format == null && features == 0
+            && (kind == TypeKind.INT || kind == TypeKind.SHORT || kind == TypeKind.BYTE || kind == TypeKind.LONG
+                || kind == TypeKind.BOOLEAN)) {
+            out.append("            out.writeFieldValue(seperator, ").append(name).append(", ").append(value)
+               .append(");\n")
+               .append("            seperator = ',';\n");
+            return;
+        }
+
+        out.append("            {\n")
+           .append("                ").append(property.type).append(" value = ").append(value)
+           .append(";\n");
+        if (!kind.isPrimitive()) {
+            out.append("                if (value != null) {\n");
+        }
+
+        String indent = kind.isPrimitive() ? "                " : "                    ";
+        out.append(indent).append("out.write(seperator);\n")
+           .append(indent).append("out.writeFieldName(").append(name).append(");\n");
+        if (property.format == null && features == 0 && isString(property.type)) {
+            out.append(indent).append("out.writeString(value);\n");
+        } else {
+            if (property.format != null) {
+                out.append(indent).append("serializer.writeWithFormat(value, ").append(literal(property.format))
+                   .append(");\n");
+            } else {
+                out.append(indent).append("serializer.writeWithFieldName(value, ").append(name).append(", ")
+                   .append(typeConstant(property.type)).append(", ").append(features).append(");\n");
+            }
+        }
+        out.append(indent).append("seperator = ',';\n");
+
+        if (!kind.isPrimitive()) {
+            out.append((features & SerializerFeature.WRITE_MAP_NULL_VALUE.mask) != 0
+                       ? "                } else {\n"
+                       : "                } else if (out.isEnabled(SerializerFeature.WRITE_MAP_NULL_VALUE)) {\n")
+               .append("                    out.write(seperator);\n")
+               .append("                    out.writeFieldName(").append(name).append(");\n")
+               .append("                    out.writeNull(").append(features).append(", ").append(nullFeature(property.type))
+               .append(");\n")
+               .append("                    seperator = ',';\n")
+               .append("                }\n");
+        }
+        out.append("            }\n");
+    }
+
+    private void writeDeserializer(StringBuilder out) {
+        out.append("    public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName) {\n")
+           .append("        JSONLexer lexer = parser.lexer;\n")
+           .append("        if (lexer.token() == JSONToken.NULL) {\n")
+           .append("            lexer.nextToken(JSONToken.COMMA);\n")
+           .append("            return null;\n")
+           .append("        }\n")
+           .append("        if (lexer.token() != JSONToken.LBRACE) {\n")
+           .append("            return new JavaBeanDeserializer(parser.getConfig(), ").append(beanName)
+           .append(".class).deserialze(parser, type, fieldName);\n")
+           .append("        }\n\n")
+           .append("        ParseContext context = parser.getContext();\n")
+           .append("        ").append(beanName).append(" bean = null;\n")
+           .append("        boolean smartMatch = !lexer.isEnabled(Feature.DISABLE_FIELD_SMART_MATCH);\n")
+           .append("        for (;;) {\n")
+           .append("            String key = lexer.scanSymbol(parser.getSymbolTable());\n")
+           .append("            if (key == null) {\n")
+           .append("                if (lexer.token() == JSONToken.RBRACE) {\n")
+           .append("                    lexer.nextToken(JSONToken.COMMA);\n")
+           .append("                    break;\n")
+           .append("                }\n")
+           .append("                if (lexer.token() == JSONToken.COMMA"
+                   + " && lexer.isEnabled(Feature.ALLOW_ARBITRARY_COMMAS)) {\n")
+           .append("                    continue;\n")
+           .append("                }\n")
+           .append("                throw new JSONException(\"syntax error, \" + lexer.info());\n")
+           .append("            }\n\n")
+           .append("            if (bean == null) {\n")
+           .append("                if (context != null && \"$ref\".equals(key)) {\n")
+           .append("                    return (T) ref(parser, context, fieldName);\n")
+           .append("                }\n")
+           .append("                bean = new ").append(beanName).append("();\n")
+           .append("                parser.setContext(context, bean, fieldName);\n")
+           .append("            }\n\n")
+           .append("            lexer.nextTokenWithColon();\n")
+           .append("            if (!set(parser, bean, key)) {\n")
+           .append("                String name = smartMatch ? SMART_NAMES.get(smartKey(key)) : null;\n")
+           .append("                if (name == null || !set(parser, bean, name)) {\n")
+           .append("                    parser.parse(key);\n")
+           .append("                }\n")
+           .append("            }\n\n")
+           .append("            if (lexer.token() == JSONToken.RBRACE) {\n")
+           .append("                lexer.nextToken(JSONToken.COMMA);\n")
+           .append("                break;\n")
+           .append("            }\n")
+           .append("            if (lexer.token() != JSONToken.COMMA) {\n")
+           .append("                throw new JSONException(\"syntax error, expect , or }, actual \""
+                   + " + lexer.tokenName());\n")
+           .append("            }\n")
+           .append("        }\n")
+           .append("        if (bean == null) {\n")
+           .append("            return (T) new ").append(beanName).append("();\n")
+           .append("        }\n")
+           .append("        parser.setContext(context);\n")
+           .append("        return (T) bean;\n")
+           .append("    }\n\n")
+           .append("    public int getFastMatchToken() {\n")
+           .append("        return JSONToken.LBRACE;\n")
+           .append("    }\n\n");
+
+        out.append("    private static boolean set(DefaultJSONParser parser, ").append(beanName)
+           .append(" bean, String key) {\n")
+           .append("        JSONLexer lexer = parser.lexer;\n")
+           .append("        switch (key) {\n");
+        Set<String> labels = new LinkedHashSet<>();
+        for (PropertyModel property : bean.setters) {
+            boolean matched = false;
+            for (String name : names(property)) {
+                if (labels.add(name)) {
+                    out.append("            case ").append(literal(name)).append(":\n");
+                    matched = true;
+                }
+            }
+            if (matched) {
+                writeSetter(out, property);
+            }
+        }
+        out.append("            default:\n")
+           .append("                return false;\n")
+           .append("        }\n")
+           .append("    }\n\n");
+
+        writeRef(out);
+        if (!resolved.isEmpty()) {
+            writeFieldResolver(out);
+        }
+
+        out.append("    private static Object deserialze(DefaultJSONParser parser, Type type, String name,"
+                   + " String format, int features) {\n")
+           .append("        ObjectDeserializer deserializer = parser.getConfig().getDeserializer(type);\n")
+           .append("        if (deserializer instanceof ContextObjectDeserializer) {\n")
+           .append("            return ((ContextObjectDeserializer) deserializer).deserialze(parser, type, name, format,"
+                   + " features);\n")
+           .append("        }\n")
+           .append("        return deserializer.deserialze(parser, type, name);\n")
+           .append("    }\n\n")
+           .append("    private static String smartKey(String key) {\n")
+           .append("        StringBuilder buf = new StringBuilder(key.length());\n")
+           .append("        for (int i = 0; i < key.length(); ++i) {\n")
+           .append("            char ch = key.charAt(i);\n")
+           .append("            if (ch != '_' && ch != '-') {\n")
+           .append("                buf.append(Character.toLowerCase(ch));\n")
+           .append("            }\n")
+           .append("        }\n")
+           .append("        return buf.toString();\n")
+           .append("    }\n");
+    }
+
+    private void writeSetter(StringBuilder out, PropertyModel property) {
+        TypeKind kind = property.type.getKind();
+        String name = literal(property.name);
+        int features = bean.parseFeatures | property.features;
+
+        if (property.format == null && features == 0) {
+            String fastToken = null;
+            String fastValue = null;
+            if (kind == TypeKind.INT) {
+                fastToken = "lexer.token() == JSONToken.LITERAL_INT";
+                fastValue = "lexer.intValue()";
+            } else if (kind == TypeKind.LONG) {
+                fastToken = "lexer.token() == JSONToken.LITERAL_INT";
+                fastValue = "lexer.longValue()";
+            } else if (kind == TypeKind.BOOLEAN) {
+                fastToken = "(lexer.token() == JSONToken.TRUE || lexer.token() == JSONToken.FALSE)";
+                fastValue = "lexer.token() == JSONToken.TRUE";
+            } else if (isString(property.type)) {
+                fastToken = "lexer.token() == JSONToken.LITERAL_STRING"
+                            + " && !lexer.isEnabled(Feature.TRIM_STRING_FIELD_VALUE)";
+                fastValue = "lexer.stringVal()";
+            }
+
+            if (fastToken != null) {
+                out.append("                if (").append(fastToken).append(") {\n")
+                   .append("                    ").append(assign(property, fastValue)).append('\n')
+                   .append("                    lexer.nextToken(JSONToken.COMMA);\n")
+                   .append("                    return true;\n")
+                   .append("                }\n");
+            }
+        }
+
+        String type = kind.isPrimitive() ? boxedType(property.type) : property.type.toString();
+        String typeLiteral = kind.isPrimitive() ? property.type + ".class" : typeConstant(property.type);
+        out.append("                {\n")
+           .append("                    ").append(type).append(" value = ");
+        if (property.format == null && features == 0) {
+            out.append("parser.parseObject(").append(typeLiteral).append(", ").append(name).append(");\n");
+        } else {
+            out.append('(').append(type).append(") deserialze(parser, ").append(typeLiteral).append(", ")
+               .append(name).append(", ").append(property.format == null ? "null" : literal(property.format))
+               .append(", ").append(features).append(");\n");
+        }
+        if (kind.isPrimitive()) {
+            out.append("                    if (value != null) {\n")
+               .append("                        ").append(assign(property, "value")).append('\n')
+               .append("                    }\n");
+        } else {
+            out.append("                    if (parser.getResolveStatus() == DefaultJSONParser.NEED_TO_RESOLVE) {\n")
+               .append("                        parser.checkFieldResolve(new FieldResolver(").append(resolved.size())
+               .append("));\n")
+               .append("                    } else {\n")
+               .append("                        ").append(assign(property, "value")).append('\n')
+               .append("                    }\n");
+            resolved.add(property);
+        }
+        out.append("                }\n")
+           .append("                return true;\n");
+    }
+
+    /**
+     * resolves a $ref object as JavaBeanDeserializer does, the context is that of the object holding it
+     */
+    private static void writeRef(StringBuilder out) {
+        out.append("    private static Object ref(DefaultJSONParser parser, ParseContext context,"
+                   + " Object fieldName) {\n")
+           .append("        JSONLexer lexer = parser.lexer;\n")
+           .append("        lexer.nextTokenWithColon(JSONToken.LITERAL_STRING);\n")
+           .append("        if (lexer.token() != JSONToken.LITERAL_STRING) {\n")
+           .append("            throw new JSONException(\"illegal ref, \" + JSONToken.name(lexer.token()));\n")
+           .append("        }\n")
+           .append("        String ref = lexer.stringVal();\n")
+           .append("        ParseContext refContext = null;\n")
+           .append("        Object object = null;\n")
+           .append("        if (\"@\".equals(ref)) {\n")
+           .append("            object = context.object;\n")
+           .append("        } else if (\"..\".equals(ref)) {\n")
+           .append("            refContext = context.parent != null ? context.parent : context;\n")
+           .append("        } else if (\"$\".equals(ref)) {\n")
+           .append("            refContext = context;\n")
+           .append("            while (refContext.parent != null) {\n")
+           .append("                refContext = refContext.parent;\n")
+           .append("            }\n")
+           .append("        } else {\n")
+           .append("            if (ref.indexOf('\\\\') >= 0) {\n")
+           .append("                StringBuilder buf = new StringBuilder(ref.length());\n")
+           .append("                for (int i = 0; i < ref.length(); ++i) {\n")
+           .append("                    char ch = ref.charAt(i);\n")
+           .append("                    if (ch == '\\\\' && i + 1 < ref.length()) {\n")
+           .append("                        ch = ref.charAt(++i);\n")
+           .append("                    }\n")
+           .append("                    buf.append(ch);\n")
+           .append("                }\n")
+           .append("                ref = buf.toString();\n")
+           .append("            }\n")
+           .append("            object = parser.resolveReference(ref);\n")
+           .append("            if (object == null) {\n")
+           .append("                parser.addResolveTask(new DefaultJSONParser.ResolveTask(context, ref));\n")
+           .append("                parser.setResolveStatus(DefaultJSONParser.NEED_TO_RESOLVE);\n")
+           .append("            }\n")
+           .append("        }\n")
+           .append("        if (refContext != null) {\n")
+           .append("            object = refContext.object;\n")
+           .append("            if (object == null) {\n")
+           .append("                parser.addResolveTask(new DefaultJSONParser.ResolveTask(refContext, ref));\n")
+           .append("                parser.setResolveStatus(DefaultJSONParser.NEED_TO_RESOLVE);\n")
+           .append("            }\n")
+           .append("        }\n\n")
+           .append("        lexer.nextToken(JSONToken.RBRACE);\n")
+           .append("        if (lexer.token() != JSONToken.RBRACE) {\n")
+           .append("            throw new JSONException(\"illegal ref\");\n")
+           .append("        }\n")
+           .append("        lexer.nextToken(JSONToken.COMMA);\n")
+           .append("        parser.setContext(context, object, fieldName);\n")
+           .append("        parser.setContext(context);\n")
+           .append("        return object;\n")
+           .append("    }\n\n");
+    }
+
+    /**
+     * sets a property once the $ref parsed for it is resolved
+     */
+    private void writeFieldResolver(StringBuilder out) {
+        out.append("    private static final class FieldResolver extends FieldDeserializer {\n\n")
+           .append("        private final int index;\n\n")
+           .append("        FieldResolver(int index) {\n")
+           .append("            super(").append(beanName).append(".class, null);\n")
+           .append("            this.index = index;\n")
+           .append("        }\n\n")
+           .append("        public void parseField(DefaultJSONParser parser, Object object, Type objectType,"
+                   + " Map<String, Object> fieldValues) {\n")
+           .append("            throw new UnsupportedOperationException();\n")
+           .append("        }\n\n")
+           .append("        public void setValue(Object object, Object value) {\n")
+           .append("            ").append(beanName).append(" bean = (").append(beanName).append(") object;\n")
+           .append("            switch (index) {\n");
+        for (int i = 0; i < resolved.size(); ++i) {
+            PropertyModel property = resolved.get(i);
+            out.append("                case ").append(i).append(":\n")
+               .append("                    ").append(assign(property, "(" + property.type + ") value")).append('\n')
+               .append("                    break;\n");
+        }
+        out.append("                default:\n")
+           .append("                    break;\n")
+           .append("            }\n")
+           .append("        }\n")
+           .append("    }\n\n");
+    }
+
+    private static String assign(PropertyModel property, String value) {
+        return property.method != null
+            ? "bean." + property.method + "(" + value + ");"
+            : "bean." + property.field + " = " + value + ";";
+    }
+
+    private static Set<String> names(PropertyModel property) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(property.name);
+        for (String name : property.alternateNames) {
+            names.add(name);
+        }
+        return names;
+    }
+
+    private String typeConstant(TypeMirror type) {
+        String literal;
+        TypeMirror erasure = types.erasure(type);
+        if (type.getKind() == TypeKind.DECLARED || type.getKind() == TypeKind.ARRAY) {
+            literal = types.isSameType(erasure, type)
+                ? erasure + ".class"
+                : "new TypeReference<" + type + ">() {}.getType()";
+        } else {
+            literal = erasure + ".class";
+        }
+
+        String constant = typeConstants.get(literal);
+        if (constant == null) {
+            constant = "TYPE_" + typeConstants.size();
+            typeConstants.put(literal, constant);
+        }
+        return constant;
+    }
+
+    private String boxedType(TypeMirror type) {
+        return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && "java.lang.String".equals(types.erasure(type).toString());
+    }
+
+    private String nullFeature(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY || isSubtype(type, "java.util.Collection")) {
+            return "SerializerFeature.WRITE_NULL_LIST_AS_EMPTY.mask";
+        }
+        if (isString(type)) {
+            return "SerializerFeature.WRITE_NULL_STRING_AS_EMPTY.mask";
+        }
+        if (isSubtype(type, "java.lang.Boolean")) {
+            return "SerializerFeature.WRITE_NULL_BOOLEAN_AS_FALSE.mask";
+        }
+        if (isSubtype(type, "java.lang.Number")) {
+            return "SerializerFeature.WRITE_NULL_NUMBER_AS_ZERO.mask";
+        }
+        return "0";
+    }
+
+    private boolean isSubtype(TypeMirror type, String className) {
+        return type.getKind() == TypeKind.DECLARED
+               && types.isSubtype(types.erasure(type), types.erasure(elements.getTypeElement(className).asType()));
+    }
+
+    static String smartKey(String key) {
+        StringBuilder buf = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); ++i) {
+            char ch = key.charAt(i);
+            if (ch != '_' && ch != '-') {
+                buf.append(Character.toLowerCase(ch));
+            }
+        }
+        return buf.toString();
+    }
+
+    static String literal(String text) {
+        StringBuilder buf = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); ++i) {
+            char ch = text.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                buf.append('\\').append(ch);
+            } else if (ch < 0x20 || ch > 0x7e) {
+                buf.append(String.format("\\u%04x", (int) ch));
+            } else {
+                buf.append(ch);
+            }
+        }
+        return buf.append('"').toString();
+    }
+}
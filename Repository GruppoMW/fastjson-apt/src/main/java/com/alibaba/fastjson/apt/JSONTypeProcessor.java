@@ -0,0 +1,155 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.apt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import com.alibaba.fastjson.parser.deserializer.AutowiredObjectDeserializer;
+import com.alibaba.fastjson.serializer.AutowiredObjectSerializer;
+
+/**
+ * Generates the serializer and deserializer of every {@code @JSONType} class at compile time, so the class needs
+ * neither ASM nor reflection at runtime. A codec is registered in {@code META-INF/services} as an autowired serializer
+ * and deserializer, {@code SerializeConfig} and {@code ParserConfig} load it before generating one.
+ *
+ * <p>{@code @JSONField} names, alternate names, ordinals, formats and features and the orders, includes, ignores,
+ * naming and features of {@code @JSONType} are honored. A class that cannot be handled here (not public, generic,
+ * without default constructor, with custom codecs or filters, ...) is reported as a note and keeps its runtime codec.
+ *
+ * @since 1.2.80
+ */
+@SupportedAnnotationTypes("com.alibaba.fastjson.annotation.JSONType")
+public class JSONTypeProcessor extends AbstractProcessor {
+
+    private static final List<String> SERVICES = Arrays.asList(AutowiredObjectSerializer.class.getName(),
+                                                               AutowiredObjectDeserializer.class.getName());
+
+    private final Set<String>         codecs   = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!codecs.isEmpty()) {
+                writeServices();
+            }
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement) {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        BeanModel bean;
+        try {
+            bean = BeanModel.of(processingEnv, type);
+        } catch (BeanModel.UnsupportedBeanException ex) {
+            note(type, ex.getMessage());
+            return;
+        }
+        if ((bean.serializeFeatures & CodecWriter.UNSUPPORTED_FEATURES) != 0) {
+            note(type, "serialzeFeatures need the runtime codec");
+            return;
+        }
+
+        String source = new CodecWriter(processingEnv.getTypeUtils(), processingEnv.getElementUtils(), bean).write();
+        String codecName = bean.packageName.length() == 0 ? bean.codecName : bean.packageName + "." + bean.codecName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(codecName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+            codecs.add(codecName);
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     "write fastjson codec error, " + ex.getMessage(), type);
+        }
+    }
+
+    private void note(TypeElement type, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "fastjson codec generated at runtime, " + reason,
+                                                 type);
+    }
+
+    /**
+     * merges with the services of a previous, incremental compilation
+     */
+    private void writeServices() {
+        for (String service : SERVICES) {
+            String path = "META-INF/services/" + service;
+            Set<String> names = new LinkedHashSet<>();
+            try {
+                FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+                try (Reader in = new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8);
+                        BufferedReader reader = new BufferedReader(in)) {
+                    for (String line; (line = reader.readLine()) != null;) {
+                        line = line.trim();
+                        if (line.length() != 0 && !line.startsWith("#")) {
+                            names.add(line);
+                        }
+                    }
+                }
+            } catch (IOException | IllegalArgumentException ex) {
+                // skip, no previous file
+            }
+            names.addAll(codecs);
+
+            try {
+                FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
+                try (Writer writer = file.openWriter()) {
+                    for (String name : names) {
+                        writer.write(name);
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                         "write " + path + " error, " + ex.getMessage());
+            }
+        }
+    }
+}
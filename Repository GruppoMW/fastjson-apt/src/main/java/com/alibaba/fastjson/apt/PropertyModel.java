@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.apt;
+
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A property as a generated codec reads or writes it, the counterpart of {@code FieldInfo} at compile time.
+ *
+ * @since 1.2.80
+ */
+final class PropertyModel implements Comparable<PropertyModel> {
+
+    final String     name;
+    final String[]   alternateNames;
+    final int        ordinal;
+    final String     format;
+    final int        features;
+    final TypeMirror type;
+
+    /**
+     * the getter or setter, null when the public field is accessed
+     */
+    final String     method;
+    final String     field;
+
+    PropertyModel(String name, String[] alternateNames, int ordinal, String format, int features, TypeMirror type,
+                  String method, String field){
+        this.name = name;
+        this.alternateNames = alternateNames;
+        this.ordinal = ordinal;
+        this.format = format;
+        this.features = features;
+        this.type = type;
+        this.method = method;
+        this.field = field;
+    }
+
+    public int compareTo(PropertyModel o) {
+        if (ordinal != o.ordinal) {
+            return ordinal < o.ordinal ? -1 : 1;
+        }
+        return name.compareTo(o.name);
+    }
+}
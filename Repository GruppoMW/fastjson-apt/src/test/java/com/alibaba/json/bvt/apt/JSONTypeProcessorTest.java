@@ -0,0 +1,258 @@
+package com.alibaba.json.bvt.apt;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.apt.JSONTypeProcessor;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+public class JSONTypeProcessorTest {
+
+    private static final String NODE = "package sample;\n"
+                                       + "\n"
+                                       + "import com.alibaba.fastjson.annotation.JSONField;\n"
+                                       + "import com.alibaba.fastjson.annotation.JSONType;\n"
+                                       + "\n"
+                                       + "@JSONType\n"
+                                       + "public class Node {\n"
+                                       + "\n"
+                                       + "    private int     id;\n"
+                                       + "    @JSONField(name = \"label\")\n"
+                                       + "    private String  name;\n"
+                                       + "    public long     size;\n"
+                                       + "    public boolean  leaf;\n"
+                                       + "    public Node     child;\n"
+                                       + "    public Node     parent;\n"
+                                       + "    public Node     peer;\n"
+                                       + "    public Node     root;\n"
+                                       + "\n"
+                                       + "    public int getId() {\n"
+                                       + "        return id;\n"
+                                       + "    }\n"
+                                       + "\n"
+                                       + "    public void setId(int id) {\n"
+                                       + "        this.id = id;\n"
+                                       + "    }\n"
+                                       + "\n"
+                                       + "    public String getName() {\n"
+                                       + "        return name;\n"
+                                       + "    }\n"
+                                       + "\n"
+                                       + "    public void setName(String name) {\n"
+                                       + "        this.name = name;\n"
+                                       + "    }\n"
+                                       + "}\n";
+
+    private static final String BOX  = "package sample;\n"
+                                       + "\n"
+                                       + "@com.alibaba.fastjson.annotation.JSONType\n"
+                                       + "public class Box<T> {\n"
+                                       + "\n"
+                                       + "    public T value;\n"
+                                       + "}\n";
+
+    private Path                dir;
+    private ClassLoader         contextClassLoader;
+    private Class<?>            nodeClass;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("fastjson-apt");
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        delete(dir.toFile());
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static String location(Class<?> clazz) throws Exception {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    /**
+     * compiles the sources with the processor, the classes and services are loaded by the context class loader
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile(String... sources) throws Exception {
+        Path src = Files.createDirectories(dir.resolve("src/sample"));
+        Path out = Files.createDirectories(dir.resolve("out"));
+        List<File> files = new ArrayList<File>();
+        for (String source : sources) {
+            String name = source.substring(source.indexOf("public class ") + 13).split("[ <]")[0];
+            Path file = src.resolve(name + ".java");
+            Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+            files.add(file.toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+                                                                              StandardCharsets.UTF_8);
+        try {
+            String classPath = location(JSON.class) + File.pathSeparator + location(JSONTypeProcessor.class);
+            List<String> options = Arrays.asList("-classpath", classPath, "-d", out.toString(), "-processor",
+                                                 JSONTypeProcessor.class.getName());
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                                               fileManager.getJavaFileObjectsFromFiles(files)).call();
+            Assert.assertTrue(diagnostics.getDiagnostics().toString(), success);
+        } finally {
+            fileManager.close();
+        }
+
+        ClassLoader classLoader = new URLClassLoader(new URL[] { out.toUri().toURL() },
+                                                     JSONTypeProcessorTest.class.getClassLoader());
+        Thread.currentThread().setContextClassLoader(classLoader);
+        nodeClass = classLoader.loadClass("sample.Node");
+        return diagnostics.getDiagnostics();
+    }
+
+    private Object node(int id, String name) throws Exception {
+        Object node = nodeClass.getDeclaredConstructor().newInstance();
+        nodeClass.getMethod("setId", int.class).invoke(node, id);
+        nodeClass.getMethod("setName", String.class).invoke(node, name);
+        return node;
+    }
+
+    private Object get(Object node, String field) throws Exception {
+        Field f = nodeClass.getField(field);
+        return f.get(node);
+    }
+
+    private void set(Object node, String field, Object value) throws Exception {
+        nodeClass.getField(field).set(node, value);
+    }
+
+    private int id(Object node) throws Exception {
+        return (Integer) nodeClass.getMethod("getId").invoke(node);
+    }
+
+    @Test
+    public void test_generatedCodec() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(NODE, BOX);
+
+        Assert.assertEquals("sample.Node_FastjsonCodec",
+                            new SerializeConfig().getObjectWriter(nodeClass).getClass().getName());
+        Assert.assertEquals("sample.Node_FastjsonCodec",
+                            new ParserConfig().getDeserializer(nodeClass).getClass().getName());
+
+        // the generic class keeps its runtime codec
+        Assert.assertFalse(new File(dir.toFile(), "out/sample/Box_FastjsonCodec.class").exists());
+        boolean noted = false;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            String message = diagnostic.getMessage(Locale.ROOT);
+            noted |= diagnostic.getKind() == Diagnostic.Kind.NOTE && message.contains("generic class");
+        }
+        Assert.assertTrue(diagnostics.toString(), noted);
+    }
+
+    @Test
+    public void test_roundTrip() throws Exception {
+        compile(NODE);
+        Object node = node(1, "one");
+        set(node, "size", 12345678901L);
+        set(node, "leaf", true);
+
+        String text = JSON.toJSONString(node, new SerializeConfig());
+        Assert.assertEquals("{\"id\":1,\"label\":\"one\",\"leaf\":true,\"size\":12345678901}", text);
+
+        Object parsed = JSON.parseObject(text, nodeClass, new ParserConfig());
+        Assert.assertEquals(1, id(parsed));
+        Assert.assertEquals("one", nodeClass.getMethod("getName").invoke(parsed));
+        Assert.assertEquals(12345678901L, get(parsed, "size"));
+        Assert.assertEquals(true, get(parsed, "leaf"));
+        Assert.assertEquals(text, JSON.toJSONString(parsed, new SerializeConfig()));
+    }
+
+    @Test
+    public void test_cycles() throws Exception {
+        compile(NODE);
+        Object root = node(1, "root");
+        Object child = node(2, "child");
+        Object grandChild = node(3, "grandChild");
+        set(root, "child", child);
+        set(root, "root", root);
+        set(child, "parent", root);
+        set(child, "child", grandChild);
+        set(grandChild, "parent", child);
+        set(grandChild, "root", root);
+        set(root, "peer", grandChild);
+
+        String text = JSON.toJSONString(root, new SerializeConfig());
+        Assert.assertTrue(text, text.contains("{\"$ref\":\"@\"}"));
+        Assert.assertTrue(text, text.contains("{\"$ref\":\"..\"}"));
+        Assert.assertTrue(text, text.contains("{\"$ref\":\"$\"}"));
+        Assert.assertTrue(text, text.contains("{\"$ref\":\"$.child.child\"}"));
+
+        Object parsed = JSON.parseObject(text, nodeClass, new ParserConfig());
+        Object parsedChild = get(parsed, "child");
+        Object parsedGrandChild = get(parsedChild, "child");
+        Assert.assertEquals(2, id(parsedChild));
+        Assert.assertEquals(3, id(parsedGrandChild));
+        Assert.assertSame(parsed, get(parsed, "root"));
+        Assert.assertSame(parsed, get(parsedChild, "parent"));
+        Assert.assertSame(parsedChild, get(parsedGrandChild, "parent"));
+        Assert.assertSame(parsed, get(parsedGrandChild, "root"));
+        Assert.assertSame(parsedGrandChild, get(parsed, "peer"));
+        Assert.assertEquals(text, JSON.toJSONString(parsed, new SerializeConfig()));
+    }
+
+    @Test
+    public void test_forwardReference() throws Exception {
+        // a $ref to an object parsed later is set when the document is done
+        compile(NODE);
+        Object parsed = JSON.parseObject("{\"peer\":{\"$ref\":\"$.child\"},\"child\":{\"id\":2}}", nodeClass,
+                                         new ParserConfig());
+        Object child = get(parsed, "child");
+        Assert.assertEquals(2, id(child));
+        Assert.assertSame(child, get(parsed, "peer"));
+    }
+
+    @Test
+    public void test_fallbackOfConfig() throws Exception {
+        // layouts the codec does not write go to the java bean serializer of the config in use
+        compile(NODE);
+        SerializeConfig config = new SerializeConfig();
+        String text = JSON.toJSONString(node(1, "one"), config, SerializerFeature.BEAN_TO_ARRAY);
+        Assert.assertTrue(text, text.startsWith("["));
+        Assert.assertEquals(Integer.valueOf(1), config.getSerializerBuildCounts().get(nodeClass));
+
+        JSON.toJSONString(node(2, "two"), config, SerializerFeature.BEAN_TO_ARRAY);
+        Assert.assertEquals(Integer.valueOf(1), config.getSerializerBuildCounts().get(nodeClass));
+    }
+}
@@ -32,8 +32,10 @@ import com.alibaba.fastjson.parser.*;
 import com.alibaba.fastjson.parser.deserializer.ExtraProcessor;
 import com.alibaba.fastjson.parser.deserializer.ExtraTypeProvider;
 import com.alibaba.fastjson.parser.deserializer.FieldTypeResolver;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
 import com.alibaba.fastjson.parser.deserializer.ParseProcess;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.util.BufferPool;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.TypeUtils;
 
@@ -200,12 +202,23 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     }
 
     public static Object parse(byte[] input, Feature... features) {
-        char[] chars = allocateChars(input.length);
-        int len = IOUtils.decodeUTF8(input, 0, input.length, chars);
-        if (len < 0) {
+        if (input == null || input.length == 0) {
             return null;
         }
-        return parse(new String(chars, 0, len), features);
+
+        int featureValues = DEFAULT_PARSER_FEATURE;
+        for (Feature feature : features) {
+            featureValues = Feature.config(featureValues, feature, true);
+        }
+
+        DefaultJSONParser parser = new DefaultJSONParser(input, 0, input.length, ParserConfig.getGlobalInstance(), featureValues);
+        Object value = parser.parse();
+
+        parser.handleResovleTask(value);
+
+        parser.close();
+
+        return value;
     }
 
     public static Object parse(byte[] input, int off, int len, CharsetDecoder charsetDecoder, Feature... features) {
@@ -225,22 +238,25 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         charsetDecoder.reset();
 
         int scaleLength = (int) (len * (double) charsetDecoder.maxCharsPerByte());
-        char[] chars = allocateChars(scaleLength);
+        char[] chars = BufferPool.getInstance().takeChars(scaleLength);
+        try {
+            ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
+            CharBuffer charBuf = CharBuffer.wrap(chars);
+            IOUtils.decode(charsetDecoder, byteBuf, charBuf);
 
-        ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
-        CharBuffer charBuf = CharBuffer.wrap(chars);
-        IOUtils.decode(charsetDecoder, byteBuf, charBuf);
+            int position = charBuf.position();
 
-        int position = charBuf.position();
+            DefaultJSONParser parser = new DefaultJSONParser(chars, position, ParserConfig.getGlobalInstance(), features);
+            Object value = parser.parse();
 
-        DefaultJSONParser parser = new DefaultJSONParser(chars, position, ParserConfig.getGlobalInstance(), features);
-        Object value = parser.parse();
+            parser.handleResovleTask(value);
 
-        parser.handleResovleTask(value);
+            parser.close();
 
-        parser.close();
-
-        return value;
+            return value;
+        } finally {
+            BufferPool.getInstance().releaseChars(chars);
+        }
     }
 
     public static Object parse(String text, Feature... features) {
@@ -384,7 +400,18 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         }
 
         DefaultJSONParser parser = new DefaultJSONParser(input, config, featureValues);
+        return (T) parseObject(parser, clazz, processor);
+    }
+
+    private static Object parseObject(DefaultJSONParser parser, Type clazz, ParseProcess processor) {
+        return parseObject(parser, clazz, null, processor);
+    }
 
+    /**
+     * @param deserializer the deserializer of clazz, null to look it up in the config of the parser
+     */
+    static Object parseObject(DefaultJSONParser parser, Type clazz, ObjectDeserializer deserializer,
+                              ParseProcess processor) {
         if (processor != null) {
             if (processor instanceof ExtraTypeProvider) {
                 parser.getExtraTypeProviders().add((ExtraTypeProvider) processor);
@@ -399,7 +426,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             }
         }
 
-        T value = (T) parser.parseObject(clazz, null);
+        Object value = parser.parseObject(clazz, null, deserializer);
 
         parser.handleResovleTask(value);
 
@@ -452,23 +479,25 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
         String strVal = null;
         if (charset == IOUtils.UTF8) {
-            char[] chars = allocateChars(bytes.length);
-            int charsLen = IOUtils.decodeUTF8(bytes, offset, len, chars);
-
-            if (charsLen < 0) {
+            if (len <= 0) {
+                return null;
+            }
 
-                try(InputStreamReader gzipReader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bytes, offset, len)), StandardCharsets.UTF_8)) {
-                    strVal = IOUtils.readAll(gzipReader);
-                } catch (Exception ex) {
-                    return null;
+            if (!isGzip(bytes, offset, len)) {
+                if (features != null) {
+                    for (Feature feature : features) {
+                        featureValues |= feature.mask;
+                    }
                 }
-            }
-            if (strVal == null && charsLen < 0) {
-                return null;
+
+                DefaultJSONParser parser = new DefaultJSONParser(bytes, offset, len, config, featureValues);
+                return (T) parseObject(parser, clazz, processor);
             }
 
-            if (strVal == null) {
-                strVal = new String(chars, 0, charsLen);
+            try(InputStreamReader gzipReader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bytes, offset, len)), StandardCharsets.UTF_8)) {
+                strVal = IOUtils.readAll(gzipReader);
+            } catch (Exception ex) {
+                return null;
             }
         } else {
             if (len < 0) {
@@ -479,6 +508,10 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return (T) parseObject(strVal, clazz, config, processor, featureValues, features);
     }
 
+    static boolean isGzip(byte[] bytes, int offset, int len) {
+        return len >= 2 && bytes[offset] == (byte) 0x1f && bytes[offset + 1] == (byte) 0x8b;
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> T parseObject(byte[] input, //
                                     int off, //
@@ -489,15 +522,18 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         charsetDecoder.reset();
 
         int scaleLength = (int) (len * (double) charsetDecoder.maxCharsPerByte());
-        char[] chars = allocateChars(scaleLength);
-
-        ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
-        CharBuffer charByte = CharBuffer.wrap(chars);
-        IOUtils.decode(charsetDecoder, byteBuf, charByte);
+        char[] chars = BufferPool.getInstance().takeChars(scaleLength);
+        try {
+            ByteBuffer byteBuf = ByteBuffer.wrap(input, off, len);
+            CharBuffer charByte = CharBuffer.wrap(chars);
+            IOUtils.decode(charsetDecoder, byteBuf, charByte);
 
-        int position = charByte.position();
+            int position = charByte.position();
 
-        return (T) parseObject(chars, position, clazz, features);
+            return (T) parseObject(chars, position, clazz, features);
+        } finally {
+            BufferPool.getInstance().releaseChars(chars);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -569,22 +605,58 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             charset = IOUtils.UTF8;
         }
 
-        byte[] bytes = allocateBytes(1024 * 64);
-        int offset = 0;
-        for (;;) {
-            int readCount = is.read(bytes, offset, bytes.length - offset);
-            if (readCount == -1) {
-                break;
+        if (charset == IOUtils.UTF8) {
+            PushbackInputStream in = new PushbackInputStream(is, 2);
+            byte[] magic = new byte[2];
+            int magicLen = 0;
+            while (magicLen < magic.length) {
+                int readCount = in.read(magic, magicLen, magic.length - magicLen);
+                if (readCount == -1) {
+                    break;
+                }
+                magicLen += readCount;
+            }
+
+            if (magicLen == 0) {
+                return null;
+            }
+            in.unread(magic, 0, magicLen);
+
+            InputStream source = isGzip(magic, 0, magicLen) ? new GZIPInputStream(in) : in;
+
+            if (features != null) {
+                for (Feature feature : features) {
+                    featureValues |= feature.mask;
+                }
             }
-            offset += readCount;
-            if (offset == bytes.length) {
-                byte[] newBytes = new byte[bytes.length * 3 / 2];
-                System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
-                bytes = newBytes;
+
+            JSONLexer lexer = new JSONUTF8StreamScanner(source, featureValues);
+            // closed again when the parse failed, to return the pooled buffer
+            try (DefaultJSONParser parser = new DefaultJSONParser(source, lexer, config)) {
+                return (T) parseObject(parser, type, processor);
             }
         }
 
-        return (T) parseObject(bytes, 0, offset, charset, type, config, processor, featureValues, features);
+        byte[] bytes = BufferPool.getInstance().takeBytes(1024 * 64);
+        try {
+            int offset = 0;
+            for (;;) {
+                int readCount = is.read(bytes, offset, bytes.length - offset);
+                if (readCount == -1) {
+                    break;
+                }
+                offset += readCount;
+                if (offset == bytes.length) {
+                    byte[] newBytes = new byte[bytes.length * 3 / 2];
+                    System.arraycopy(bytes, 0, newBytes, 0, bytes.length);
+                    bytes = newBytes;
+                }
+            }
+
+            return (T) parseObject(bytes, 0, offset, charset, type, config, processor, featureValues, features);
+        } finally {
+            BufferPool.getInstance().releaseBytes(bytes);
+        }
     }
 
     public static <T> T parseObject(String text, Class<T> clazz) {
@@ -850,7 +922,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
                                      SerializerFeature... features) {
 
 
-        try(SerializeWriter out = new SerializeWriter(null, defaultFeatures, features)) {
+        try(SerializeWriter out = newBytesWriter(charset, defaultFeatures, features)) {
             JSONSerializer serializer = new JSONSerializer(out, config);
 
             if (dateFormat != null && dateFormat.length() != 0) {
@@ -869,6 +941,15 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         }
     }
 
+    /**
+     * UTF-8 output is encoded while serializing, other charsets are encoded from the chars at the end.
+     */
+    static SerializeWriter newBytesWriter(Charset charset, int defaultFeatures, SerializerFeature... features) {
+        return charset == IOUtils.UTF8 //
+                ? SerializeWriter.forUTF8Bytes(defaultFeatures, features) //
+                : new SerializeWriter(null, defaultFeatures, features);
+    }
+
     /**
      * Use the date format in FastJsonConfig to serialize JSON
      *
@@ -884,7 +965,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
                                                        SerializerFeature... features) {
 
 
-        try(SerializeWriter out = new SerializeWriter(null, defaultFeatures, features)) {
+        try(SerializeWriter out = newBytesWriter(charset, defaultFeatures, features)) {
             JSONSerializer serializer = new JSONSerializer(out, config);
 
             if (dateFormat != null && dateFormat.length() != 0) {
@@ -1018,7 +1099,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
                                                               SerializerFeature... features) throws IOException {
 
 
-        try(SerializeWriter writer = new SerializeWriter(null, defaultFeatures, features)) {
+        try(SerializeWriter writer = newBytesWriter(charset, defaultFeatures, features)) {
             JSONSerializer serializer = new JSONSerializer(writer, config);
 
             if (dateFormat != null && dateFormat.length() != 0) {
@@ -1038,6 +1119,39 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         }
     }
 
+    /**
+     * Like {@link #writeJSONStringWithFastJsonConfig}, but the output is encoded and written to {@code os} chunk by
+     * chunk while it is produced instead of being buffered, so the length is not known up front.
+     *
+     * @since 1.2.80
+     */
+    public static final void writeJSONStringStreaming(OutputStream os, //
+                                                       Charset charset, //
+                                                       Object object, //
+                                                       SerializeConfig config, //
+                                                       SerializeFilter[] filters, //
+                                                       String dateFormat, //
+                                                       int defaultFeatures, //
+                                                       SerializerFeature... features) throws IOException {
+
+        try(SerializeWriter writer = new SerializeWriter(os, charset, defaultFeatures, features)) {
+            JSONSerializer serializer = new JSONSerializer(writer, config);
+
+            if (dateFormat != null && dateFormat.length() != 0) {
+                serializer.setFastJsonConfigDateFormatPattern(dateFormat);
+                serializer.config(SerializerFeature.WRITE_DATE_USE_DATE_FORMAT, true);
+            }
+
+            if (filters != null) {
+                for (SerializeFilter filter : filters) {
+                    serializer.addFilter(filter);
+                }
+            }
+
+            serializer.write(object);
+        }
+    }
+
     // ======================================
     @Override
     public String toString() {
@@ -1257,50 +1371,20 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         return TypeUtils.cast(this, type, ParserConfig.getGlobalInstance());
     }
 
-    private static final ThreadLocal<byte[]> bytesLocal = new ThreadLocal<>();
-
+    /**
+     * @deprecated buffers are pooled by {@link BufferPool}, see {@link BufferPool#clear()}
+     */
+    @Deprecated
     public void unloadBytesLocal(){
-        bytesLocal.remove();
+        BufferPool.getInstance().clear();
     }
 
-    private static byte[] allocateBytes(int length) {
-        byte[] chars = bytesLocal.get();
-
-        if (chars == null) {
-            if (length <= 1024 * 64) {
-                chars = new byte[1024 * 64];
-                bytesLocal.set(chars);
-            } else {
-                chars = new byte[length];
-            }
-        } else if (chars.length < length) {
-            chars = new byte[length];
-        }
-
-        return chars;
-    }
-
-    private static final ThreadLocal<char[]> charsLocal = new ThreadLocal<>();
-
+    /**
+     * @deprecated buffers are pooled by {@link BufferPool}, see {@link BufferPool#clear()}
+     */
+    @Deprecated
     public void unloadCharsLocal(){
-        charsLocal.remove();
-    }
-
-    private static char[] allocateChars(int length) {
-        char[] chars = charsLocal.get();
-
-        if (chars == null) {
-            if (length <= 1024 * 64) {
-                chars = new char[1024 * 64];
-                charsLocal.set(chars);
-            } else {
-                chars = new char[length];
-            }
-        } else if (chars.length < length) {
-            chars = new char[length];
-        }
-
-        return chars;
+        BufferPool.getInstance().clear();
     }
 
     public static boolean isValid(String str) {
@@ -0,0 +1,322 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ParseProcess;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.support.config.FastJsonConfig;
+import com.alibaba.fastjson.util.IOUtils;
+import com.alibaba.fastjson.util.TypeUtils;
+
+/**
+ * Reads and writes one root type with settings fixed once: the configs, the feature masks, the filters, the date
+ * format and the charset. The codecs of the root type are resolved on first use and kept, a call only takes a buffer,
+ * builds the serializer or parser and runs the codec. Instances are immutable and safe to share between threads, the
+ * with methods return new codecs.
+ *
+ * <pre>
+ * JSONCodec codec = JSONCodec.of(fastJsonConfig, Model.class);
+ * byte[] bytes = codec.toJSONBytes(model);
+ * Model model2 = codec.parseObject(bytes);
+ * </pre>
+ *
+ * The configs themselves are shared, not copied: serializers registered later are used for nested values, but the
+ * root codecs are the ones found first. The filters must not change once the codec is built.
+ *
+ * @since 1.2.80
+ */
+public final class JSONCodec {
+
+    private static final Feature[]      NO_FEATURES = new Feature[0];
+
+    private final Type                  type;
+    private final Class<?>              rootClass;
+    private final Charset               charset;
+
+    private final SerializeConfig       serializeConfig;
+    private final SerializeFilter[]     serializeFilters;
+    private final String                dateFormat;
+    private final boolean               configDateFormat;
+    private final int                   serializerFeatures;
+    /**
+     * the filters of every serializer, null without filters
+     */
+    private final JSONSerializer        filters;
+
+    private final ParserConfig          parserConfig;
+    private final ParseProcess          parseProcess;
+    private final int                   parserFeatures;
+
+    private volatile ObjectSerializer   rootSerializer;
+    private volatile ObjectDeserializer rootDeserializer;
+
+    public JSONCodec(Type type, //
+                     Charset charset, //
+                     SerializeConfig serializeConfig, //
+                     SerializeFilter[] serializeFilters, //
+                     String dateFormat, //
+                     int serializerFeatures, //
+                     ParserConfig parserConfig, //
+                     ParseProcess parseProcess, //
+                     int parserFeatures){
+        this(type, charset, serializeConfig, serializeFilters, dateFormat, false, serializerFeatures, parserConfig,
+             parseProcess, parserFeatures);
+    }
+
+    private JSONCodec(Type type, //
+                      Charset charset, //
+                      SerializeConfig serializeConfig, //
+                      SerializeFilter[] serializeFilters, //
+                      String dateFormat, //
+                      boolean configDateFormat, //
+                      int serializerFeatures, //
+                      ParserConfig parserConfig, //
+                      ParseProcess parseProcess, //
+                      int parserFeatures){
+        if (type == null) {
+            throw new IllegalArgumentException("type is null");
+        }
+
+        this.type = type;
+        this.rootClass = TypeUtils.getClass(type);
+        this.charset = charset == null ? IOUtils.UTF8 : charset;
+        this.serializeConfig = serializeConfig == null ? SerializeConfig.getGlobalInstance() : serializeConfig;
+        this.serializeFilters = serializeFilters == null ? new SerializeFilter[0] : serializeFilters.clone();
+        this.parserConfig = parserConfig == null ? ParserConfig.getGlobalInstance() : parserConfig;
+        this.parseProcess = parseProcess;
+        this.parserFeatures = parserFeatures;
+
+        if (dateFormat != null && dateFormat.length() != 0) {
+            this.dateFormat = dateFormat;
+            this.configDateFormat = configDateFormat;
+            this.serializerFeatures = serializerFeatures | SerializerFeature.WRITE_DATE_USE_DATE_FORMAT.mask;
+        } else {
+            this.dateFormat = null;
+            this.configDateFormat = false;
+            this.serializerFeatures = serializerFeatures;
+        }
+
+        JSONSerializer template = null;
+        for (SerializeFilter filter : this.serializeFilters) {
+            if (filter == null) {
+                continue;
+            }
+            if (template == null) {
+                // never written, it only holds the filters
+                template = new JSONSerializer((SerializeWriter) null, this.serializeConfig);
+            }
+            template.addFilter(filter);
+        }
+        this.filters = template;
+    }
+
+    /**
+     * @return a codec of type with the global configs and the default features
+     */
+    public static JSONCodec of(Type type) {
+        return new JSONCodec(type, IOUtils.UTF8, SerializeConfig.getGlobalInstance(), null, null,
+                             JSON.DEFAULT_GENERATE_FEATURE, ParserConfig.getGlobalInstance(), null,
+                             JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    /**
+     * @return a codec of type with the current settings of config, its date format is applied as by
+     * {@link JSON#toJSONBytesWithFastJsonConfig}
+     */
+    public static JSONCodec of(FastJsonConfig config, Type type) {
+        return new JSONCodec(type, //
+                config.getCharset(), //
+                config.getSerializeConfig(), //
+                config.getSerializeFilters(), //
+                config.getDateFormat(), //
+                true, //
+                JSON.DEFAULT_GENERATE_FEATURE | SerializerFeature.of(config.getSerializerFeatures()), //
+                config.getParserConfig(), //
+                config.getParseProcess(), //
+                JSON.DEFAULT_PARSER_FEATURE | Feature.of(config.getFeatures()));
+    }
+
+    /**
+     * @return a codec of another root type with the same settings
+     */
+    public JSONCodec withType(Type type) {
+        if (type == this.type) {
+            return this;
+        }
+        return new JSONCodec(type, charset, serializeConfig, serializeFilters, dateFormat, configDateFormat,
+                             serializerFeatures, parserConfig, parseProcess, parserFeatures);
+    }
+
+    /**
+     * @return a codec writing with filters added to the filters of this one
+     */
+    public JSONCodec withFilters(SerializeFilter... filters) {
+        if (filters == null || filters.length == 0) {
+            return this;
+        }
+        SerializeFilter[] allFilters = new SerializeFilter[serializeFilters.length + filters.length];
+        System.arraycopy(serializeFilters, 0, allFilters, 0, serializeFilters.length);
+        System.arraycopy(filters, 0, allFilters, serializeFilters.length, filters.length);
+        return new JSONCodec(type, charset, serializeConfig, allFilters, dateFormat, configDateFormat,
+                             serializerFeatures, parserConfig, parseProcess, parserFeatures);
+    }
+
+    /**
+     * @return a codec writing with features enabled in addition
+     */
+    public JSONCodec withFeatures(SerializerFeature... features) {
+        int value = serializerFeatures | SerializerFeature.of(features);
+        if (value == serializerFeatures) {
+            return this;
+        }
+        return new JSONCodec(type, charset, serializeConfig, serializeFilters, dateFormat, configDateFormat, value,
+                             parserConfig, parseProcess, parserFeatures);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public int getSerializerFeatures() {
+        return serializerFeatures;
+    }
+
+    public int getParserFeatures() {
+        return parserFeatures;
+    }
+
+    public String toJSONString(Object object) {
+        try (SerializeWriter out = new SerializeWriter(null, serializerFeatures, SerializerFeature.EMPTY)) {
+            write(out, object);
+            return out.toString();
+        }
+    }
+
+    public byte[] toJSONBytes(Object object) {
+        try (SerializeWriter out = JSON.newBytesWriter(charset, serializerFeatures, SerializerFeature.EMPTY)) {
+            write(out, object);
+            return out.toBytes(charset);
+        }
+    }
+
+    /**
+     * writes object to os once it is serialized
+     *
+     * @return the number of bytes written
+     */
+    public int writeTo(OutputStream os, Object object) throws IOException {
+        try (SerializeWriter out = JSON.newBytesWriter(charset, serializerFeatures, SerializerFeature.EMPTY)) {
+            write(out, object);
+            return out.writeToEx(os, charset);
+        }
+    }
+
+    /**
+     * writes object to os chunk by chunk while it is serialized, as {@link JSON#writeJSONStringStreaming}
+     */
+    public void writeStreaming(OutputStream os, Object object) throws IOException {
+        try (SerializeWriter out = new SerializeWriter(os, charset, serializerFeatures, SerializerFeature.EMPTY)) {
+            write(out, object);
+        }
+    }
+
+    private void write(SerializeWriter out, Object object) {
+        JSONSerializer serializer = new JSONSerializer(out, serializeConfig);
+        if (dateFormat != null) {
+            if (configDateFormat) {
+                serializer.setFastJsonConfigDateFormatPattern(dateFormat);
+            } else {
+                serializer.setDateFormat(dateFormat);
+            }
+        }
+        if (filters != null) {
+            serializer.useFilters(filters);
+        }
+
+        if (object == null || object.getClass() != rootClass) {
+            serializer.write(object);
+            return;
+        }
+
+        ObjectSerializer writer = rootSerializer;
+        if (writer == null) {
+            writer = rootSerializer = filters != null //
+                ? filters.getObjectWriter(rootClass) //
+                : serializeConfig.getObjectWriter(rootClass);
+        }
+        try {
+            writer.write(serializer, object, null, null, 0);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T parseObject(String text) {
+        if (text == null || text.length() == 0) {
+            return null;
+        }
+        return (T) parse(new DefaultJSONParser(text, parserConfig, parserFeatures));
+    }
+
+    public <T> T parseObject(byte[] bytes) {
+        return parseObject(bytes, 0, bytes.length);
+    }
+
+    /**
+     * UTF-8 input is parsed from the bytes, gzip compressed input and other charsets as {@link JSON#parseObject(byte[],
+     * int, int, Charset, Type, ParserConfig, ParseProcess, int, Feature...)}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T parseObject(byte[] bytes, int offset, int len) {
+        if (charset == IOUtils.UTF8 && len > 0 && !JSON.isGzip(bytes, offset, len)) {
+            return (T) parse(new DefaultJSONParser(bytes, offset, len, parserConfig, parserFeatures));
+        }
+        return JSON.parseObject(bytes, offset, len, charset, type, parserConfig, parseProcess, parserFeatures,
+                                NO_FEATURES);
+    }
+
+    public <T> T parseObject(InputStream is) throws IOException {
+        return JSON.parseObject(is, charset, type, parserConfig, parseProcess, parserFeatures, NO_FEATURES);
+    }
+
+    private Object parse(DefaultJSONParser parser) {
+        ObjectDeserializer deserializer = rootDeserializer;
+        if (deserializer == null) {
+            deserializer = rootDeserializer = parserConfig.getDeserializer(type);
+        }
+        return JSON.parseObject(parser, type, deserializer, parseProcess);
+    }
+}
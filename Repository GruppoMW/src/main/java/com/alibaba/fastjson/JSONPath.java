@@ -34,8 +34,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,7 +42,6 @@ import java.util.regex.Pattern;
  * @since 1.2.0
  */
 public class JSONPath implements JSONAware {
-    private static ConcurrentMap<String, JSONPath> pathCache  = new ConcurrentHashMap<>(128, 0.75f, 1);
     private static final String JSON_PATH_ERROR = "jsonpath error, path ";
     private static final String NOT_SUPPORT_JSON_PATH = "not support jsonpath : ";
     private static final String SEGEMENT = ", segement ";
@@ -110,6 +107,31 @@ public class JSONPath implements JSONAware {
         }
     }
 
+    /**
+     * The property names (String) and array indexes (Integer) of a path made only of plain property and
+     * non-negative index segments, null for any other path.
+     */
+    Object[] simpleKeys() {
+        init();
+        if (hasRefSegment) {
+            return null;
+        }
+
+        Object[] keys = new Object[segments.length];
+        for (int i = 0; i < segments.length; ++i) {
+            Segment segment = segments[i];
+            Class<?> segmentType = segment.getClass();
+            if (segmentType == PropertySegment.class && !((PropertySegment) segment).deep) {
+                keys[i] = ((PropertySegment) segment).propertyName;
+            } else if (segmentType == ArrayAccessSegment.class && ((ArrayAccessSegment) segment).index >= 0) {
+                keys[i] = ((ArrayAccessSegment) segment).index;
+            } else {
+                return null;
+            }
+        }
+        return keys;
+    }
+
     public Object eval(Object rootObject) {
         if (rootObject == null) {
             return null;
@@ -699,35 +721,20 @@ public class JSONPath implements JSONAware {
     }
 
     public static JSONPath compile(String path) {
-        if (path == null) {
-            throw new JSONPathException("jsonpath can not be null");
-        }
-
-        JSONPath jsonpath = pathCache.get(path);
-        if (jsonpath == null) {
-            jsonpath = new JSONPath(path);
-            if (pathCache.size() < 1024) {
-                pathCache.putIfAbsent(path, jsonpath);
-                jsonpath = pathCache.get(path);
-            }
-        }
-        return jsonpath;
+        return compile(path, true);
     }
 
     public static JSONPath compile(String path, boolean ignoreNullValue) {
-        if (path == null) {
-            throw new JSONPathException("jsonpath can not be null");
-        }
+        return compile(path, ignoreNullValue, ParserConfig.getGlobalInstance());
+    }
 
-        JSONPath jsonpath = pathCache.get(path);
-        if (jsonpath == null) {
-            jsonpath = new JSONPath(path, ignoreNullValue);
-            if (pathCache.size() < 1024) {
-                pathCache.putIfAbsent(path, jsonpath);
-                jsonpath = pathCache.get(path);
-            }
-        }
-        return jsonpath;
+    /**
+     * Compiles through the {@link JSONPathCache} of {@code parserConfig}.
+     *
+     * @since 1.2.80
+     */
+    public static JSONPath compile(String path, boolean ignoreNullValue, ParserConfig parserConfig) {
+        return parserConfig.getJSONPathCache().compile(path, ignoreNullValue, parserConfig);
     }
 
     /**
@@ -775,7 +782,7 @@ public class JSONPath implements JSONAware {
     public static Object extract(String json, String path, ParserConfig config, int features) {
         features |= Feature.ORDERED_FIELD.mask;
         DefaultJSONParser parser = new DefaultJSONParser(json, config, features);
-        JSONPath jsonPath = compile(path);
+        JSONPath jsonPath = compile(path, true, config);
         Object result = jsonPath.extract(parser);
         parser.lexer.close();
         return result;
@@ -785,6 +792,23 @@ public class JSONPath implements JSONAware {
         return extract(json, path, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
     }
 
+    /**
+     * Extracts all paths in one scan of json, see {@link JSONPathExtractor}.
+     *
+     * @since 1.2.80
+     * @return the results in the order of paths
+     */
+    public static Object[] extract(String json, String[] paths, ParserConfig config, int features) {
+        return new JSONPathExtractor(config, paths).extract(json, features);
+    }
+
+    /**
+     * @since 1.2.80
+     */
+    public static Object[] extract(String json, String[] paths) {
+        return extract(json, paths, ParserConfig.global, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
     public static Map<String, Object> paths(Object javaObject) {
         return paths(javaObject, SerializeConfig.globalInstance);
     }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Bounded cache of compiled {@link JSONPath}s. Entries are kept in access order and the least recently used one is
+ * evicted once the cache is full, so a service that keeps touching new paths still keeps its hot paths compiled.
+ * The cache is split into independently locked segments by path hash, LRU order is therefore per segment.
+ *
+ * <p>Every {@link ParserConfig} owns one, see {@link ParserConfig#getJSONPathCache()}; the same instance can be
+ * shared between configs with {@link ParserConfig#setJSONPathCache(JSONPathCache)}. A path is compiled once per config
+ * it is requested with, the entries of one path text are evicted together and count as one against the max size.
+ *
+ * @since 1.2.80
+ */
+public class JSONPathCache {
+
+    public static final String MAX_SIZE_PROPERTY = "fastjson.jsonpath.cacheSize";
+    public static final int    DEFAULT_MAX_SIZE;
+
+    static {
+        int maxSize = 1024;
+        String property = IOUtils.getStringProperty(MAX_SIZE_PROPERTY);
+        if (property != null && property.length() > 0) {
+            try {
+                maxSize = Integer.parseInt(property.trim());
+            } catch (NumberFormatException ex) {
+                // skip
+            }
+        }
+        DEFAULT_MAX_SIZE = maxSize;
+    }
+
+    private final int        maxSize;
+    private final Segment[]  segments;
+    private final int        segmentMask;
+
+    private final LongAdder  hitCount      = new LongAdder();
+    private final LongAdder  missCount     = new LongAdder();
+    private final LongAdder  evictionCount = new LongAdder();
+
+    public JSONPathCache(){
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the maximum number of compiled paths kept, 0 disables caching
+     */
+    public JSONPathCache(int maxSize){
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize " + maxSize);
+        }
+        this.maxSize = maxSize;
+
+        // segments of at least 64 entries, at most 16 of them
+        int segmentCount = 1;
+        while (segmentCount < 16 && segmentCount * 128 <= maxSize) {
+            segmentCount <<= 1;
+        }
+        int segmentSize = (maxSize + segmentCount - 1) / segmentCount;
+
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; ++i) {
+            segments[i] = new Segment(segmentSize);
+        }
+        segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Returns the path cached for {@code parserConfig}, compiling it with that config on a miss.
+     */
+    public JSONPath compile(String path, boolean ignoreNullValue, ParserConfig parserConfig) {
+        if (path == null) {
+            throw new JSONPathException("jsonpath can not be null");
+        }
+
+        int hash = path.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & segmentMask];
+
+        Compiled compiled;
+        synchronized (segment) {
+            compiled = segment.get(path);
+        }
+        JSONPath jsonpath = Compiled.find(compiled, ignoreNullValue, parserConfig);
+        if (jsonpath != null) {
+            hitCount.increment();
+            return jsonpath;
+        }
+
+        missCount.increment();
+        jsonpath = new JSONPath(path, SerializeConfig.getGlobalInstance(), parserConfig, ignoreNullValue);
+        if (maxSize == 0) {
+            return jsonpath;
+        }
+
+        synchronized (segment) {
+            compiled = segment.get(path);
+            JSONPath existing = Compiled.find(compiled, ignoreNullValue, parserConfig);
+            if (existing != null) {
+                return existing;
+            }
+            segment.put(path, new Compiled(parserConfig, ignoreNullValue, jsonpath, compiled));
+        }
+        return jsonpath;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public String toString() {
+        return "JSONPathCache{size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount() + ", misses="
+                + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    @SuppressWarnings("serial")
+    private final class Segment extends LinkedHashMap<String, Compiled> {
+
+        private final int capacity;
+
+        Segment(int capacity){
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        protected boolean removeEldestEntry(Map.Entry<String, Compiled> eldest) {
+            if (size() > capacity) {
+                evictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * the compilations of one path text, chained per config and ignoreNullValue
+     */
+    private static final class Compiled {
+
+        private final ParserConfig parserConfig;
+        private final boolean      ignoreNullValue;
+        private final JSONPath     jsonpath;
+        private final Compiled     next;
+
+        Compiled(ParserConfig parserConfig, boolean ignoreNullValue, JSONPath jsonpath, Compiled next){
+            this.parserConfig = parserConfig;
+            this.ignoreNullValue = ignoreNullValue;
+            this.jsonpath = jsonpath;
+            this.next = next;
+        }
+
+        static JSONPath find(Compiled compiled, boolean ignoreNullValue, ParserConfig parserConfig) {
+            for (; compiled != null; compiled = compiled.next) {
+                if (compiled.parserConfig == parserConfig && compiled.ignoreNullValue == ignoreNullValue) {
+                    return compiled.jsonpath;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+/**
+ * Extracts several paths from a document in one scan. The paths are merged into a tree of property names and array
+ * indexes; while scanning, only the values a path ends on are parsed, every other subtree is skipped token by token,
+ * and the scan stops as soon as the last result is known. A value of another shape than the path steps into, e.g. an
+ * array under a property step, is parsed and evaluated as {@link JSONPath#eval(Object)} does. A repeated key sets the
+ * results again until the scan stops, the last one read wins.
+ *
+ * <p>Paths with anything else than plain properties and non-negative indexes (wildcards, filters, deep scans, $ref
+ * ...) can not be answered from a forward scan, when the set contains one the document is parsed once and every path
+ * is evaluated on the parsed tree.
+ *
+ * <pre>
+ * JSONPathExtractor extractor = new JSONPathExtractor("$.id", "$.user.name", "$.tags[0]");
+ * Object[] values = extractor.extract(json); // values[i] is the result of the i-th path
+ * </pre>
+ *
+ * Instances are immutable and thread safe, compile once and reuse.
+ *
+ * @since 1.2.80
+ */
+public class JSONPathExtractor {
+
+    private final JSONPath[]   paths;
+    private final ParserConfig parserConfig;
+
+    /**
+     * merged tree of the paths, null when a path can not be matched while scanning
+     */
+    private final Node         root;
+
+    public JSONPathExtractor(String... paths){
+        this(ParserConfig.getGlobalInstance(), paths);
+    }
+
+    public JSONPathExtractor(ParserConfig parserConfig, String... paths){
+        if (paths == null || paths.length == 0) {
+            throw new JSONPathException("jsonpath can not be null or empty");
+        }
+
+        this.parserConfig = parserConfig;
+        this.paths = new JSONPath[paths.length];
+
+        Node root = new Node();
+        for (int i = 0; i < paths.length; ++i) {
+            JSONPath jsonPath = JSONPath.compile(paths[i], true, parserConfig);
+            this.paths[i] = jsonPath;
+
+            Object[] keys = root == null ? null : jsonPath.simpleKeys();
+            if (keys == null) {
+                root = null;
+                continue;
+            }
+            root.add(keys, i);
+        }
+        this.root = root;
+    }
+
+    public int size() {
+        return paths.length;
+    }
+
+    public String getPath(int index) {
+        return paths[index].getPath();
+    }
+
+    public Object[] extract(String json) {
+        return extract(json, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public Object[] extract(String json, int features) {
+        features |= Feature.ORDERED_FIELD.mask;
+        DefaultJSONParser parser = new DefaultJSONParser(json, parserConfig, features);
+        try {
+            return extract(parser);
+        } finally {
+            parser.lexer.close();
+        }
+    }
+
+    public Object[] extract(byte[] utf8, int offset, int len, int features) {
+        features |= Feature.ORDERED_FIELD.mask;
+        DefaultJSONParser parser = new DefaultJSONParser(utf8, offset, len, parserConfig, features);
+        try {
+            return extract(parser);
+        } finally {
+            parser.lexer.close();
+        }
+    }
+
+    /**
+     * Reads one value from the parser, the lexer is left anywhere inside it once every result is known.
+     *
+     * @return the results in the order of the paths
+     */
+    public Object[] extract(DefaultJSONParser parser) {
+        Object[] results = new Object[paths.length];
+
+        if (root == null) {
+            Object document = parser.parse();
+            for (int i = 0; i < paths.length; ++i) {
+                results[i] = paths[i].eval(document);
+            }
+            return results;
+        }
+
+        new Scan(parser, results).read(root);
+        return results;
+    }
+
+    /**
+     * Same as {@link #extract(String)}, keyed by path.
+     */
+    public Map<String, Object> extractAsMap(String json) {
+        Object[] results = extract(json);
+        Map<String, Object> map = new HashMap<String, Object>(paths.length * 2);
+        for (int i = 0; i < paths.length; ++i) {
+            map.put(paths[i].getPath(), results[i]);
+        }
+        return map;
+    }
+
+    private static final class Node {
+
+        private static final Object[] ROOT_KEYS = new Object[0];
+
+        /**
+         * the keys leading from the root to this node
+         */
+        private final Object[]    keys;
+        private int[]             targets;
+        private Map<String, Node> fields;
+        private Node[]            items;
+
+        Node(){
+            this(ROOT_KEYS);
+        }
+
+        private Node(Object[] keys){
+            this.keys = keys;
+        }
+
+        void add(Object[] keys, int target) {
+            Node node = this;
+            for (Object key : keys) {
+                node = node.child(key);
+            }
+            node.targets = append(node.targets, target);
+        }
+
+        private static int[] append(int[] targets, int target) {
+            if (targets == null) {
+                return new int[] { target };
+            }
+            int[] newTargets = new int[targets.length + 1];
+            System.arraycopy(targets, 0, newTargets, 0, targets.length);
+            newTargets[targets.length] = target;
+            return newTargets;
+        }
+
+        private Node child(Object key) {
+            Node child;
+            if (key instanceof String) {
+                if (fields == null) {
+                    fields = new HashMap<String, Node>();
+                }
+                child = fields.get(key);
+                if (child == null) {
+                    child = new Node(childKeys(key));
+                    fields.put((String) key, child);
+                }
+                return child;
+            }
+
+            int index = (Integer) key;
+            if (items == null || items.length <= index) {
+                Node[] newItems = new Node[index + 1];
+                if (items != null) {
+                    System.arraycopy(items, 0, newItems, 0, items.length);
+                }
+                items = newItems;
+            }
+            child = items[index];
+            if (child == null) {
+                child = items[index] = new Node(childKeys(key));
+            }
+            return child;
+        }
+
+        private Object[] childKeys(Object key) {
+            Object[] childKeys = new Object[keys.length + 1];
+            System.arraycopy(keys, 0, childKeys, 0, keys.length);
+            childKeys[keys.length] = key;
+            return childKeys;
+        }
+
+        Node field(String name) {
+            return fields == null ? null : fields.get(name);
+        }
+
+        Node item(int index) {
+            return items == null || index >= items.length ? null : items[index];
+        }
+
+        /**
+         * the paths ending at or below this node
+         */
+        void collectTargets(List<Integer> out) {
+            if (targets != null) {
+                for (int target : targets) {
+                    out.add(target);
+                }
+            }
+            if (fields != null) {
+                for (Node child : fields.values()) {
+                    child.collectTargets(out);
+                }
+            }
+            if (items != null) {
+                for (Node child : items) {
+                    if (child != null) {
+                        child.collectTargets(out);
+                    }
+                }
+            }
+        }
+
+        /**
+         * a document holding value at the position of this node, and nothing else
+         */
+        Object wrap(Object value) {
+            Object document = value;
+            for (int i = keys.length - 1; i >= 0; --i) {
+                Object key = keys[i];
+                if (key instanceof String) {
+                    JSONObject object = new JSONObject();
+                    object.put((String) key, document);
+                    document = object;
+                } else {
+                    int index = (Integer) key;
+                    JSONArray array = new JSONArray(index + 1);
+                    for (int j = 0; j < index; ++j) {
+                        array.add(null);
+                    }
+                    array.add(document);
+                    document = array;
+                }
+            }
+            return document;
+        }
+    }
+
+    private final class Scan {
+
+        private final DefaultJSONParser parser;
+        private final JSONLexer         lexer;
+        private final Object[]          results;
+        /**
+         * the paths whose result is known, a path is counted once even when a duplicate key sets it again
+         */
+        private final boolean[]         done;
+        private int                     remaining = paths.length;
+
+        Scan(DefaultJSONParser parser, Object[] results){
+            this.parser = parser;
+            this.lexer = parser.lexer;
+            this.results = results;
+            this.done = new boolean[paths.length];
+        }
+
+        /**
+         * reads the current value for {@code node}, returns true once every path has its result
+         */
+        boolean read(Node node) {
+            int token = lexer.token();
+            if (node.targets == null) {
+                if (token == JSONToken.LBRACE && node.fields != null && node.items == null) {
+                    return readObject(node);
+                }
+                if (token == JSONToken.LBRACKET && node.items != null && node.fields == null) {
+                    return readArray(node);
+                }
+            }
+
+            // a result, or a value of another shape, e.g. an array projected by a property: evaluated as the paths do
+            Object value = parser.parse();
+            List<Integer> targets = new ArrayList<Integer>();
+            node.collectTargets(targets);
+            Object document = node.wrap(value);
+            for (int target : targets) {
+                results[target] = paths[target].eval(document);
+                settle(target);
+            }
+            return remaining == 0;
+        }
+
+        private boolean readObject(Node node) {
+            lexer.nextToken();
+            for (;;) {
+                int token = lexer.token();
+                if (token == JSONToken.RBRACE) {
+                    lexer.nextToken();
+                    break;
+                }
+                if (token == JSONToken.COMMA) {
+                    lexer.nextToken();
+                    continue;
+                }
+
+                String name;
+                if (token == JSONToken.LITERAL_STRING || token == JSONToken.IDENTIFIER) {
+                    name = lexer.stringVal();
+                } else if (token == JSONToken.LITERAL_INT) {
+                    name = lexer.numberString();
+                } else {
+                    throw new JSONException("illegal json, " + lexer.info());
+                }
+                lexer.nextTokenWithColon();
+
+                Node child = node.field(name);
+                if (child == null) {
+                    skipValue();
+                    continue;
+                }
+
+                if (read(child)) {
+                    return true;
+                }
+            }
+
+            // properties not present in the document
+            return absent(node);
+        }
+
+        private boolean readArray(Node node) {
+            lexer.nextToken();
+            for (int index = 0;; ++index) {
+                int token = lexer.token();
+                if (token == JSONToken.RBRACKET) {
+                    lexer.nextToken();
+                    break;
+                }
+                if (token == JSONToken.EOF) {
+                    throw new JSONException("illegal json, " + lexer.info());
+                }
+
+                Node child = node.item(index);
+                if (child == null) {
+                    skipValue();
+                } else if (read(child)) {
+                    return true;
+                }
+
+                if (lexer.token() == JSONToken.COMMA) {
+                    lexer.nextToken();
+                }
+            }
+
+            return absent(node);
+        }
+
+        /**
+         * the paths below node not found by now have no result
+         */
+        private boolean absent(Node node) {
+            List<Integer> targets = new ArrayList<Integer>();
+            node.collectTargets(targets);
+            for (int target : targets) {
+                settle(target);
+            }
+            return remaining == 0;
+        }
+
+        private void settle(int target) {
+            if (!done[target]) {
+                done[target] = true;
+                remaining--;
+            }
+        }
+
+        /**
+         * moves past the current value without building it
+         */
+        private void skipValue() {
+            int depth = 0;
+            do {
+                switch (lexer.token()) {
+                    case JSONToken.LBRACE:
+                    case JSONToken.LBRACKET:
+                        depth++;
+                        break;
+                    case JSONToken.RBRACE:
+                    case JSONToken.RBRACKET:
+                        depth--;
+                        break;
+                    case JSONToken.EOF:
+                        throw new JSONException("illegal json, " + lexer.info());
+                    default:
+                        break;
+                }
+                lexer.nextToken();
+            } while (depth > 0);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 
+import com.alibaba.fastjson.util.BufferPool;
+
 public abstract class JSONValidator implements Cloneable, Closeable {
     private static final String READ_ERROR = "read error";
     public enum Type {
@@ -425,25 +427,22 @@ public abstract class JSONValidator implements Cloneable, Closeable {
     }
 
     static class UTF8InputStreamValidator extends JSONValidator {
-        private static final ThreadLocal<byte[]> bufLocal = new ThreadLocal<>();
-
         private final InputStream is;
         private byte[] buf;
         private int end = -1;
         private int readCount = 0;
 
+        /**
+         * @deprecated buffers are pooled by {@link BufferPool}, see {@link BufferPool#clear()}
+         */
+        @Deprecated
         public void unloadBufLocal(){
-            bufLocal.remove();
+            BufferPool.getInstance().clear();
         }
 
         public UTF8InputStreamValidator(InputStream is) {
             this.is = is;
-            buf = bufLocal.get();
-            if (buf != null) {
-                bufLocal.remove();
-            } else {
-                buf = new byte[1024 * 8];
-            }
+            buf = BufferPool.getInstance().takeBytes(1024 * 8);
 
             next();
             skipWhiteSpace();
@@ -470,6 +469,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
                     else if (len == -1) {
                         pos = 0;
                         end = 0;
+                        BufferPool.getInstance().releaseBytes(buf);
                         buf = null;
                         ch = '\0';
                         eof = true;
@@ -486,7 +486,8 @@ public abstract class JSONValidator implements Cloneable, Closeable {
         }
         @Override
         public void close() throws IOException {
-            bufLocal.set(buf);
+            BufferPool.getInstance().releaseBytes(buf);
+            buf = null;
             is.close();
         }
     }
@@ -555,8 +556,6 @@ public abstract class JSONValidator implements Cloneable, Closeable {
     }
 
     static class ReaderValidator extends JSONValidator {
-        private static final ThreadLocal<char[]> bufLocal = new ThreadLocal<>();
-
         final Reader r;
 
         private char[] buf;
@@ -565,12 +564,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
 
         ReaderValidator(Reader r) {
             this.r = r;
-            buf = bufLocal.get();
-            if (buf != null) {
-                bufLocal.remove();
-            } else {
-                buf = new char[1024 * 8];
-            }
+            buf = BufferPool.getInstance().takeChars(1024 * 8);
 
             next();
             skipWhiteSpace();
@@ -597,6 +591,7 @@ public abstract class JSONValidator implements Cloneable, Closeable {
                     else if (len == -1) {
                         pos = 0;
                         end = 0;
+                        BufferPool.getInstance().releaseChars(buf);
                         buf = null;
                         ch = '\0';
                         eof = true;
@@ -613,7 +608,8 @@ public abstract class JSONValidator implements Cloneable, Closeable {
         }
         @Override
         public void close() throws IOException {
-            bufLocal.set(buf);
+            BufferPool.getInstance().releaseChars(buf);
+            buf = null;
             r.close();
         }
     }
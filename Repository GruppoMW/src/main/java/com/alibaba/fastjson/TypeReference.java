@@ -5,10 +5,9 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import com.alibaba.fastjson.util.ParameterizedTypeImpl;
+import com.alibaba.fastjson.util.TypeInterner;
 import com.alibaba.fastjson.util.TypeUtils;
 
 /** 
@@ -27,9 +26,6 @@ import com.alibaba.fastjson.util.TypeUtils;
  * parameters, such as {@code Class<?>} or {@code List<? extends CharSequence>}.
  */
 public class TypeReference<T> {
-    static ConcurrentMap<Type, Type> classTypeCache
-            = new ConcurrentHashMap<>(16, 0.75f, 1);
-
     protected final Type type;
 
     /**
@@ -45,13 +41,7 @@ public class TypeReference<T> {
 
         Type type1 = ((ParameterizedType) superClass).getActualTypeArguments()[0];
 
-        Type cachedType = classTypeCache.get(type1);
-        if (cachedType == null) {
-            classTypeCache.putIfAbsent(type1, type1);
-            cachedType = classTypeCache.get(type1);
-        }
-
-        this.type = cachedType;
+        this.type = TypeInterner.intern(type1);
     }
 
     /**
@@ -84,24 +74,11 @@ public class TypeReference<T> {
             }
         }
 
-        Type key = new ParameterizedTypeImpl(argTypes, thisClass, rawType);
-        Type cachedType = classTypeCache.get(key);
-        if (cachedType == null) {
-            classTypeCache.putIfAbsent(key, key);
-            cachedType = classTypeCache.get(key);
-        }
-
-        type = cachedType;
+        type = TypeInterner.intern(new ParameterizedTypeImpl(argTypes, thisClass, rawType));
     }
 
     public static Type intern(ParameterizedTypeImpl type) {
-        Type cachedType = classTypeCache.get(type);
-        if (cachedType == null) {
-            classTypeCache.putIfAbsent(type, type);
-            cachedType = classTypeCache.get(type);
-        }
-
-        return cachedType;
+        return TypeInterner.intern(type);
     }
 
     private Type handlerParameterizedType(ParameterizedType type, Type[] actualTypeArguments, int actualIndex) {
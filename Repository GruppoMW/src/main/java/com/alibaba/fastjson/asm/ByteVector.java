@@ -161,6 +161,18 @@ public class ByteVector {
 		return this;
 	}
 
+	/**
+	 * Puts a long into this byte vector. The byte vector is automatically enlarged
+	 * if necessary.
+	 *
+	 * @param l a long.
+	 * @return this byte vector.
+	 */
+	public ByteVector putLong(final long l) {
+		putInt((int) (l >>> 32));
+		return putInt((int) l);
+	}
+
 	/**
 	 * Puts an UTF8 string into this byte vector. The byte vector is automatically
 	 * enlarged if necessary.
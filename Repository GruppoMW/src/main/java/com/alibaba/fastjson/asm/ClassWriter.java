@@ -254,6 +254,17 @@ public class ClassWriter {
                 put(result);
             }
             return result;
+        } else if (cst instanceof Long) {
+            long val = ((Long) cst).longValue();
+            key.set(val);
+            Item result = get(key);
+            if (result == null) {
+                pool.putByte(5 /* LONG */ ).putLong(val);
+                result = new Item(index, key);
+                index += 2;
+                put(result);
+            }
+            return result;
         } else if (cst instanceof String) {
             return newString((String) cst);
         } else if (cst instanceof Type) {
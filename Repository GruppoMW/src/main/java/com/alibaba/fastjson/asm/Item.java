@@ -132,6 +132,17 @@ final class Item {
         }
     }
     
+    /**
+     * Sets this item to a long item.
+     *
+     * @param longVal the value of this item.
+     */
+    void set(final long longVal) {
+        this.type = 5 /* ClassWriter.LONG */;
+        this.longVal = longVal;
+        this.hashCode = 0x7FFFFFFF & (type + (int) longVal);
+    }
+
     /**
      * Sets this item to an integer item.
      *
@@ -219,6 +219,18 @@ public class MethodWriter implements MethodVisitor {
             code.putByte(132 /* Opcodes.IINC*/ ).put11(variabile, increment);
     }
 
+    public void visitTableSwitchInsn(final int min, final int max, final Label dflt, final Label... labels) {
+        // adds the instruction to the bytecode of the method
+        int source = code.length;
+        code.putByte(Opcodes.TABLESWITCH);
+        code.putByteArray(null, 0, (4 - code.length % 4) % 4);
+        dflt.put(this, code, source, true);
+        code.putInt(min).putInt(max);
+        for (Label label : labels) {
+            label.put(this, code, source, true);
+        }
+    }
+
     public void visitMaxs(final int maxStack, final int maxLocals) {
         this.maxStack = maxStack;
         this.maxLocals = maxLocals;
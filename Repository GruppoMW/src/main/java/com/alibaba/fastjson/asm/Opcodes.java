@@ -55,11 +55,13 @@ public interface Opcodes {
     // access flags
 
     int    ACC_PUBLIC          = 0x0001;                 // class, field, method
+    int    ACC_PRIVATE         = 0x0002;                 // class, field, method
     int    ACC_SUPER           = 0x0020;                 // class
 
     // opcodes // visit method (- = idem)
 
     int    ACONST_NULL         = 1;                      // -
+    int    ICONST_M1           = 2;                      // -
     int    ICONST_0            = 3;                      // -
     int    ICONST_1            = 4;                      // -
     int    LCONST_0            = 9;                      // -
@@ -92,6 +94,7 @@ public interface Opcodes {
 
 //    int    ISUB                = 100;                    // -
                                                   
+    int    LUSHR               = 125;                    // -
     int    IAND                = 126;                    // -
                                                           // int LAND = 127; // -
     int    IOR                 = 128;                    // -
@@ -99,12 +102,15 @@ public interface Opcodes {
                                                           // int IXOR = 130; // -
                                                           // int LXOR = 131; // -
     // int    IINC                = 132;                    // visitIincInsn
+    int    L2I                 = 136;                    // visitInsn
                                                        
     int    LCMP                = 148;                    // -
     int    FCMPL               = 149;                    // -
     int    DCMPL               = 151;                    // -
     int    IFEQ                = 153;                    // visitJumpInsn
     int    IFNE                = 154;                    // -
+    int    IFLT                = 155;                    // -
+    int    IFGT                = 157;                    // -
     int    IFLE                = 158;                    // -
     int    IF_ICMPEQ           = 159;                    // -
     int    IF_ICMPNE           = 160;                    // -
@@ -115,6 +121,8 @@ public interface Opcodes {
     int    IF_ACMPNE           = 166;                    // -
     int    GOTO                = 167;                    // -
     int    RET                 = 169;                    // visitVarInsn
+    int    TABLESWITCH         = 170;                    // visitTableSwitchInsn
+    int    IRETURN             = 172;                    // -
     int    ARETURN             = 176;                    // -
     int    RETURN              = 177;                    // -
     int    GETSTATIC           = 178;                    // visitFieldInsn
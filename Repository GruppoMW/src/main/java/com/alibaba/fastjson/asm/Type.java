@@ -129,6 +129,7 @@ public class Type {
     }
 
     public static int getArgumentsAndReturnSizes(final String desc) {
+        int n = 1;
         int c = 1;
         while (true) {
             char car = desc.charAt(c++);
@@ -136,14 +137,29 @@ public class Type {
             switch (car) {
                 case ')':
                     car = desc.charAt(c);
-                    return carValue(car);
+                    return n << 2 | carValue(car);
                 case 'L':
-                    return 2;
+                    while (desc.charAt(c++) != ';') {
+                        // skip the class name
+                    }
+                    n += 1;
+                    break;
+                case '[':
+                    while ((car = desc.charAt(c)) == '[') {
+                        ++c;
+                    }
+                    if (car == 'D' || car == 'J') {
+                        // an array takes one slot, the element type read next counts two
+                        n -= 1;
+                    }
+                    break;
                 case 'D':
                 case 'J':
-                    return 3;
+                    n += 2;
+                    break;
                 default:
-                    return 2;
+                    n += 1;
+                    break;
             }
         }
     }
@@ -18,6 +18,9 @@ package com.alibaba.fastjson.parser;
 import com.alibaba.fastjson.*;
 import com.alibaba.fastjson.parser.deserializer.*;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.DateFormats;
+import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.io.Closeable;
@@ -28,7 +31,6 @@ import java.lang.reflect.WildcardType;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 import static com.alibaba.fastjson.parser.JSONLexer.EOI;
@@ -52,8 +54,20 @@ public class DefaultJSONParser implements Closeable {
 
     protected ParseContext             context;
 
-    private ParseContext[]             contextArray;
+    /**
+     * taken from the {@link BufferPool} on the first context and handed back cleared by close. The contexts
+     * themselves are kept until then, a $ref may name any object parsed before it.
+     */
+    private Object[]                   contextArray;
     private int                        contextArrayIndex  = 0;
+    /**
+     * the contexts of contextArray by parent and name, built by the first $ref lookup and kept in step with the array
+     */
+    private Map<ContextKey, ParseContext> contextIndex;
+    /**
+     * false when a name of contextIndex contains '.' or '[', a path can then be split in another way than it was built
+     */
+    private boolean                    contextIndexExact  = true;
 
     private List<ResolveTask>          resolveTaskList;
 
@@ -112,8 +126,7 @@ public class DefaultJSONParser implements Closeable {
 
     public DateFormat getDateFormat() {
         if (dateFormat == null) {
-            dateFormat = new SimpleDateFormat(dateFormatPattern, lexer.getLocale());
-            dateFormat.setTimeZone(lexer.getTimeZone());
+            dateFormat = DateFormats.getDateFormat(dateFormatPattern, lexer.getLocale(), lexer.getTimeZone());
         }
         return dateFormat;
     }
@@ -147,6 +160,13 @@ public class DefaultJSONParser implements Closeable {
         this(input, new JSONScanner(input, length, features), config);
     }
 
+    /**
+     * @param input utf-8 encoded json, tokenized in place without being decoded to a String first
+     */
+    public DefaultJSONParser(final byte[] input, int offset, int length, final ParserConfig config, int features){
+        this(input, new JSONUTF8Scanner(input, offset, length, features), config);
+    }
+
     public DefaultJSONParser(final JSONLexer lexer){
         this(lexer, ParserConfig.getGlobalInstance());
     }
@@ -156,10 +176,19 @@ public class DefaultJSONParser implements Closeable {
     }
 
     public DefaultJSONParser(final Object input, final JSONLexer lexer, final ParserConfig config){
+        this(input, lexer, config, config.symbolTable);
+    }
+
+    /**
+     * @param symbolTable field name cache used instead of the shared {@link ParserConfig#symbolTable}, for callers
+     * that parse documents with many distinct keys and do not want them to evict the common names
+     * @since 1.2.80
+     */
+    public DefaultJSONParser(final Object input, final JSONLexer lexer, final ParserConfig config, final SymbolTable symbolTable){
         this.lexer = lexer;
         this.input = input;
         this.config = config;
-        this.symbolTable = config.symbolTable;
+        this.symbolTable = symbolTable;
 
         int ch = lexer.getCurrent();
         if (ch == '{') {
@@ -181,6 +210,9 @@ public class DefaultJSONParser implements Closeable {
         if (input instanceof char[]) {
             return new String((char[]) input);
         }
+        if (input instanceof byte[]) {
+            return new String((byte[]) input, IOUtils.UTF8);
+        }
         return input.toString();
     }
 
@@ -658,8 +690,16 @@ public class DefaultJSONParser implements Closeable {
         return parseObject(type, null);
     }
 
-    @SuppressWarnings("unchecked")
     public <T> T parseObject(Type type, Object fieldName) {
+        return parseObject(type, fieldName, null);
+    }
+
+    /**
+     * @param deserializer the deserializer of type resolved by the caller, null to look it up in the config
+     * @since 1.2.80
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T parseObject(Type type, Object fieldName, ObjectDeserializer deserializer) {
         int token = lexer.token();
         if (token == JSONToken.NULL) {
             lexer.nextToken();
@@ -681,7 +721,9 @@ public class DefaultJSONParser implements Closeable {
             }
         }
 
-        ObjectDeserializer deserializer = config.getDeserializer(type);
+        if (deserializer == null) {
+            deserializer = config.getDeserializer(type);
+        }
 
         try {
             if (deserializer.getClass() == JavaBeanDeserializer.class) {
@@ -1161,15 +1203,112 @@ public class DefaultJSONParser implements Closeable {
     }
 
     public Object getObject(String path) {
+        ParseContext context = findContext(path);
+        if (context != null) {
+            return context.object;
+        }
+        if (contextIndexExact) {
+            return null;
+        }
+
         for (int i = 0; i < contextArrayIndex; ++i) {
-            if (path.equals(contextArray[i].toString())) {
-                return contextArray[i].object;
+            ParseContext item = (ParseContext) contextArray[i];
+            if (path.equals(item.toString())) {
+                return item.object;
             }
         }
 
         return null;
     }
 
+    /**
+     * walks a path like $.a[0].b through contextIndex, the path strings of the contexts are never built
+     *
+     * @return null when the path is not in the index or not of that form
+     */
+    private ParseContext findContext(String path) {
+        if (contextArrayIndex == 0 || path.length() == 0 || path.charAt(0) != '$') {
+            return null;
+        }
+
+        if (contextIndex == null) {
+            contextIndex = new HashMap<>(Math.max(16, contextArrayIndex * 2));
+            for (int i = 0; i < contextArrayIndex; ++i) {
+                indexContext((ParseContext) contextArray[i]);
+            }
+        }
+
+        ParseContext context = contextIndex.get(new ContextKey(null, "$"));
+        for (int i = 1, len = path.length(); context != null && i < len;) {
+            char ch = path.charAt(i);
+            Object name;
+            if (ch == '.') {
+                int end = i + 1;
+                while (end < len && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                name = path.substring(i + 1, end);
+                i = end;
+            } else if (ch == '[') {
+                int end = path.indexOf(']', i);
+                if (end == -1) {
+                    return null;
+                }
+                String index = path.substring(i + 1, end);
+                try {
+                    name = Integer.valueOf(index);
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+                if (!name.toString().equals(index)) {
+                    return null;
+                }
+                i = end + 1;
+            } else {
+                return null;
+            }
+            context = contextIndex.get(new ContextKey(context, name));
+        }
+        return context;
+    }
+
+    private void indexContext(ParseContext context) {
+        Object name = contextName(context);
+        if (name instanceof String && context.parent != null) {
+            String str = (String) name;
+            if (str.indexOf('.') != -1 || str.indexOf('[') != -1) {
+                contextIndexExact = false;
+            }
+        }
+
+        ContextKey key = new ContextKey(context.parent, name);
+        if (!contextIndex.containsKey(key)) {
+            // the first of equal paths wins, as in the scan of contextArray
+            contextIndex.put(key, context);
+        }
+    }
+
+    private void unindexContext(ParseContext context) {
+        ContextKey key = new ContextKey(context.parent, contextName(context));
+        if (contextIndex.get(key) == context) {
+            contextIndex.remove(key);
+        }
+    }
+
+    /**
+     * the last segment of the path of a context, an Integer for [i] and a String for .name
+     */
+    private static Object contextName(ParseContext context) {
+        if (context.parent == null) {
+            return "$";
+        }
+        Object fieldName = context.fieldName;
+        if (fieldName instanceof Integer) {
+            return fieldName;
+        }
+        return String.valueOf(fieldName);
+    }
+
     @SuppressWarnings("rawtypes")
     public void checkListResolve(Collection array) {
         if (resolveStatus == NEED_TO_RESOLVE) {
@@ -1200,6 +1339,19 @@ public class DefaultJSONParser implements Closeable {
         }
     }
 
+    /**
+     * Hands the pending $ref of the value just parsed to fieldDeserializer, which sets it on the object of the current
+     * context once the document is parsed.
+     */
+    public void checkFieldResolve(FieldDeserializer fieldDeserializer) {
+        if (resolveStatus == NEED_TO_RESOLVE) {
+            ResolveTask task = getLastResolveTask();
+            task.fieldDeserializer = fieldDeserializer;
+            task.ownerContext = context;
+            setResolveStatus(DefaultJSONParser.NONE);
+        }
+    }
+
     @SuppressWarnings("rawtypes")
     public Object parseObject(final Map object) {
         return parseObject(object, null);
@@ -1246,8 +1398,7 @@ public class DefaultJSONParser implements Closeable {
 
         ParseContext context4 = this.context;
         this.setContext(array, fieldName);
-        String stringLiteral = lexer3.stringVal();
-        try(JSONScanner iso8601Lexer = new JSONScanner(stringLiteral)) {
+        try {
             for (int i = 0; ; ++i) {
                 extracted25(lexer3);
 
@@ -1262,9 +1413,10 @@ public class DefaultJSONParser implements Closeable {
                         lexer3.nextToken(JSONToken.COMMA);
                         break;
                     case LITERAL_STRING:
+                        String stringLiteral = lexer3.stringVal();
                         lexer3.nextToken(JSONToken.COMMA);
 
-                        value = extracted28(lexer3, stringLiteral, iso8601Lexer);
+                        value = extracted28(lexer3, stringLiteral);
 
                         break;
                     case TRUE:
@@ -1328,22 +1480,24 @@ public class DefaultJSONParser implements Closeable {
         return value;
     }
 
-    private Object extracted28(final JSONLexer lexer, String stringLiteral, JSONScanner iso8601Lexer) {
+    private Object extracted28(final JSONLexer lexer, String stringLiteral) {
         Object value;
         if (lexer.isEnabled(Feature.ALLOW_ISO8601_DATE_FORMAT)) {
-            value = extracted27(stringLiteral, iso8601Lexer);
+            value = extracted27(stringLiteral);
         } else {
             value = stringLiteral;
         }
         return value;
     }
 
-    private Object extracted27(String stringLiteral, JSONScanner iso8601Lexer) {
+    private Object extracted27(String stringLiteral) {
         Object value;
-        if (iso8601Lexer.scanISO8601DateIfMatch()) {
-            value = iso8601Lexer.getCalendar().getTime();
-        } else {
-            value = stringLiteral;
+        try (JSONScanner iso8601Lexer = new JSONScanner(stringLiteral)) {
+            if (iso8601Lexer.scanISO8601DateIfMatch()) {
+                value = iso8601Lexer.getCalendar().getTime();
+            } else {
+                value = stringLiteral;
+            }
         }
         return value;
     }
@@ -1437,6 +1591,9 @@ public class DefaultJSONParser implements Closeable {
         }
 
         contextArrayIndex--;
+        if (contextIndex != null) {
+            unindexContext((ParseContext) contextArray[contextArrayIndex]);
+        }
         contextArray[contextArrayIndex] = null;
     }
 
@@ -1462,14 +1619,19 @@ public class DefaultJSONParser implements Closeable {
     private void addContext(ParseContext context) {
         int i = contextArrayIndex++;
         if (contextArray == null) {
-            contextArray = new ParseContext[8];
+            contextArray = BufferPool.getInstance().takeObjects(8);
         } else if (i >= contextArray.length) {
-            int newLen = (contextArray.length * 3) / 2;
-            ParseContext[] newArray = new ParseContext[newLen];
+            BufferPool pool = BufferPool.getInstance();
+            Object[] newArray = pool.takeObjects((contextArray.length * 3) / 2);
             System.arraycopy(contextArray, 0, newArray, 0, contextArray.length);
+            Arrays.fill(contextArray, null);
+            pool.releaseObjects(contextArray);
             contextArray = newArray;
         }
         contextArray[i] = context;
+        if (contextIndex != null) {
+            indexContext(context);
+        }
     }
 
     public Object parse() {
@@ -1639,20 +1801,26 @@ public class DefaultJSONParser implements Closeable {
             }
         } finally {
             lexer7.close();
+            if (contextArray != null) {
+                releaseContextArray();
+            }
         }
     }
 
+    private void releaseContextArray() {
+        Arrays.fill(contextArray, 0, contextArrayIndex, null);
+        BufferPool.getInstance().releaseObjects(contextArray);
+        contextArray = null;
+        contextArrayIndex = 0;
+        contextIndex = null;
+        contextIndexExact = true;
+    }
+
     public Object resolveReference(String ref) {
         if(contextArray == null) {
             return null;
         }
-        for (int i = 0; i < contextArray.length && i < contextArrayIndex; i++) {
-            ParseContext context5 = contextArray[i];
-            if (context5.toString().equals(ref)) {
-                return context5.object;
-            }
-        }
-        return null;
+        return getObject(ref);
     }
 
     public void handleResovleTask(Object value) {
@@ -1709,7 +1877,7 @@ public class DefaultJSONParser implements Closeable {
                 && refValue.getClass() == JSONObject.class
                 && fieldDeser.fieldInfo != null
                 && !Map.class.isAssignableFrom(fieldDeser.fieldInfo.fieldClass)) {
-            Object root = this.contextArray[0].object;
+            Object root = ((ParseContext) this.contextArray[0]).object;
             JSONPath jsonpath = JSONPath.compile(ref);
             refValue = extracted20(refValue, root, jsonpath);
         }
@@ -1765,6 +1933,32 @@ public class DefaultJSONParser implements Closeable {
         return object;
     }
 
+    /**
+     * a context by its parent and the last segment of its path
+     */
+    static final class ContextKey {
+
+        final ParseContext parent;
+        final Object       name;
+
+        ContextKey(ParseContext parent, Object name){
+            this.parent = parent;
+            this.name = name;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(parent) * 31 + name.hashCode();
+        }
+
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ContextKey)) {
+                return false;
+            }
+            ContextKey other = (ContextKey) obj;
+            return parent == other.parent && name.equals(other.name);
+        }
+    }
+
     public static class ResolveTask {
 
         public final ParseContext context6;
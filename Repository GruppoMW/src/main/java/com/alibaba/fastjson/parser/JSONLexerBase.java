@@ -9,6 +9,7 @@ import java.util.*;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
 import com.alibaba.fastjson.util.IOUtils;
 
 import static com.alibaba.fastjson.parser.JSONToken.*;
@@ -57,8 +58,6 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     public int                               matchStat          = UNKNOWN;
 
-    private static final ThreadLocal<char[]> SBUF_LOCAL         = new ThreadLocal<>();
-
     protected String                         stringDefaultValue = null;
     protected int                            nanos              = 0;
 
@@ -69,12 +68,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
             stringDefaultValue = "";
         }
 
-        sbuf = SBUF_LOCAL.get();
-
-        if (sbuf == null) {
-            sbuf = new char[512];
-        }
-        SBUF_LOCAL.remove();
+        sbuf = BufferPool.getInstance().takeChars(512);
     }
 
     public final int matchStat() {
@@ -704,10 +698,10 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                         putChar(xChar);
                         break;
                     case 'u':
-                        char c1 = chLocal;
-                        char c2 = chLocal;
-                        char c3 = chLocal;
-                        char c4 = chLocal;
+                        char c1 = next();
+                        char c2 = next();
+                        char c3 = next();
+                        char c4 = next();
                         int val = Integer.parseInt(new String(new char[] { c1, c2, c3, c4 }), 16);
                         hash = 31 * hash + val;
                         putChar((char) val);
@@ -716,12 +710,14 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                         this.ch = chLocal;
                         throw new JSONException("unclosed.str.lit");
                 }
+                continue;
             }
 
             hash = 31 * hash + chLocal;
 
-            if (!hasSpecial) {
+            if (!hasSpecial1) {
                 sp++;
+                continue;
             }
 
             extracted8(chLocal);
@@ -730,7 +726,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         token = LITERAL_STRING;
 
         String value;
-        if (!hasSpecial) {
+        if (!hasSpecial1) {
 
             int offset;
             if (np == -1) {
@@ -932,10 +928,12 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     default:
                         throw new JSONException("unclosed string : " + ch);
                 }
+                continue;
             }
 
             if (!hasSpecial) {
                 sp++;
+                continue;
             }
 
             extracted8(ch);
@@ -1053,8 +1051,8 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
     public abstract byte[] bytesValue();
 
     public void close() {
-        if (sbuf.length <= 1024 * 8) {
-            SBUF_LOCAL.set(sbuf);
+        if (sbuf != null && sbuf.length <= 1024 * 8) {
+            BufferPool.getInstance().releaseChars(sbuf);
         }
         this.sbuf = null;
     }
@@ -1224,9 +1222,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
             endIndex = extracted15(endIndex);
 
             int charsLen = endIndex - (bp + fieldName.length + 1);
-            char[] chars = subChars( bp + fieldName.length + 1, charsLen);
-
-            stringVal = readString(chars, charsLen);
+            stringVal = readString(bp + fieldName.length + 1, charsLen);
         }
 
         offset += (endIndex - (bp + fieldName.length + 1) + 1);
@@ -1293,9 +1289,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     endIndex = extracted15(endIndex);
 
                     int charsLen = endIndex - startIndex;
-                    char[] chars = subChars(bp + 1, charsLen);
-
-                    stringVal = readString(chars, charsLen);
+                    stringVal = readString(bp + 1, charsLen);
                 }
 
                 offset += (endIndex - startIndex + 1);
@@ -1665,9 +1659,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     endIndex = extracted15(endIndex);
 
                     int charsLen = endIndex - (bp + offset);
-                    char[] chars = subChars(bp + offset, charsLen);
-
-                    stringVal = readString(chars, charsLen);
+                    stringVal = readString(bp + offset, charsLen);
                 }
 
                 list.add(stringVal);
@@ -1773,9 +1765,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     endIndex = extracted15(endIndex);
 
                     int charsLen = endIndex - startIndex;
-                    char[] chars = subChars(bp + offset, charsLen);
-
-                    stringVal = readString(chars, charsLen);
+                    stringVal = readString(bp + offset, charsLen);
                 }
                 list.add(stringVal);
             }
@@ -1816,6 +1806,17 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         int value;
         if (extractedv17(chLocal)) {
             value = chLocal - '0';
+            for (;;) {
+                chLocal = charAt(bp + (offset++));
+                if (extractedv17(chLocal)) {
+                    value = value * 10 + (chLocal - '0');
+                } else if (chLocal == '.') {
+                    matchStat = NOT_MATCH;
+                    return 0;
+                } else {
+                    break;
+                }
+            }
 
             if (extracted40(fieldName, offset, negative, value)) {
 
@@ -2241,6 +2242,17 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
         long value;
         if (extractedv17(chLocal)) {
             value = (long) chLocal - '0';
+            for (;;) {
+                chLocal = charAt(bp + (offset++));
+                if (extractedv17(chLocal)) {
+                    value = value * 10 + (chLocal - '0');
+                } else if (chLocal == '.') {
+                    matchStat = NOT_MATCH;
+                    return 0;
+                } else {
+                    break;
+                }
+            }
 
             boolean valid = extracted32(fieldName, offset, negative, value);
             if (!valid) {
@@ -3347,9 +3359,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 endIndex = extracted15(endIndex);
 
                 int charsLen = endIndex - (bp + fieldName.length + 1);
-                char[] chars = subChars( bp + fieldName.length + 1, charsLen);
-
-                stringVal = readString(chars, charsLen);
+                stringVal = readString(bp + fieldName.length + 1, charsLen);
             }
 
             offset += (endIndex - (bp + fieldName.length + 1) + 1);
@@ -3440,9 +3450,7 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 endIndex = extracted15(endIndex);
 
                 int charsLen = endIndex - (bp + 1);
-                char[] chars = subChars( bp + 1, charsLen);
-
-                stringVal = readString(chars, charsLen);
+                stringVal = readString(bp + 1, charsLen);
             }
 
             offset += (endIndex - (bp + 1) + 1);
@@ -4000,6 +4008,13 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
 
     protected abstract char[] subChars(int offset, int count);
 
+    /**
+     * Unescapes the string literal body that occupies {@code count} input positions starting at {@code offset}.
+     */
+    protected String readString(int offset, int count) {
+        return readString(subChars(offset, count), count);
+    }
+
     public static String readString(char[] chars, int charsLen) {
         char[] sbuf = new char[charsLen];
         int len = 0;
@@ -4117,6 +4132,8 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                 } else if (ch == '/') {
                     skipComment();
 
+                } else {
+                    break;
                 }
             } else {
                 break;
@@ -4367,9 +4384,9 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
                     sp++;
                     next();
                 }
+                isDouble = true;
                 break;
             default:
-                isDouble = true;
                 break;
         }
 
@@ -4442,16 +4459,8 @@ public abstract class JSONLexerBase implements JSONLexer, Closeable {
             // Accumulating negatively avoids surprises near MAX_VALUE
             char chLocal = charAt(i++);
 
-            switch (chLocal) {
-
-                case 'L':
-                case 'S':
-                case 'B':
-                    break;
-                default:
-
-                    continue;
-
+            if (chLocal == 'L' || chLocal == 'S' || chLocal == 'B') {
+                break;
             }
 
             digit = chLocal - '0';
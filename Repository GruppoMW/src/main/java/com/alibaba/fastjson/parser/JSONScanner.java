@@ -833,70 +833,63 @@ public final class JSONScanner extends JSONLexerBase {
             ch = charAt(index++);
         }
 
-        int value = 0;
+        int value;
 
         if (extracted17(ch)) {
-
-            for (;;) {
-                switch (ch) {
-                    case ',':
-                    case '}':
-                        bp = index - 1;
-                        break;
-                    case ' ':
-                    case '\b':
-                    case '\t':
-                        ch = charAt(index++);
-                        continue;
-                    default:
+            long longValue = ch - '0';
+            for (int digits = 1;; ++digits) {
+                ch = charAt(index++);
+                if (extracted17(ch) && digits < 10) {
+                    longValue = longValue * 10 + (ch - '0');
+                } else if (extracted17(ch) || extracted19(ch)) {
+                    matchStat = NOT_MATCH;
+                    return 0;
+                } else if (quote) {
+                    if (ch != '"') {
                         matchStat = NOT_MATCH;
                         return 0;
+                    }
+                    ch = charAt(index++);
+                    break;
+                } else {
+                    break;
                 }
             }
+            if (longValue > (negative ? 1L + Integer.MAX_VALUE : Integer.MAX_VALUE)) {
+                matchStat = NOT_MATCH;
+                return 0;
+            }
+            value = (int) longValue;
         } else {
             matchStat = NOT_MATCH;
+            return 0;
         }
-        if (ch == ',') {
-            this.ch = charAt(++bp);
-            matchStat = VALUE;
-            token = JSONToken.COMMA;
-            return extracted15(negative, value);
-        }
-        if (ch == '}') {
-            bp = index - 1;
-            ch = charAt(++bp);
-            switch (ch) {
-                case ',':
-                    token = JSONToken.COMMA;
-                    this.ch = charAt(++bp);
-                    break;
-                case ']':
-                    token = JSONToken.RBRACKET;
-                    this.ch = charAt(++bp);
-                    break;
-                case '}':
-                    token = JSONToken.RBRACE;
-                    this.ch = charAt(++bp);
-                    break;
-                case EOI:
-                    token = JSONToken.EOF;
-                    break;
-                case ' ':
-                case '\b':
-                case '\t':
-                    charAt(++bp);
-                    break;
 
-                default:
+        for (;;) {
+            if (ch == ',') {
+                bp = index - 1;
+                this.ch = charAt(++bp);
+                matchStat = VALUE;
+                token = JSONToken.COMMA;
+                return extracted15(negative, value);
+            }
+            if (ch == '}') {
+                bp = index - 1;
+                if (!scanFieldEnd()) {
                     this.bp = startPos;
                     this.ch = startChar;
                     matchStat = NOT_MATCH;
                     return 0;
+                }
+                matchStat = END;
+                return extracted15(negative, value);
             }
-
-            matchStat = END;
+            if (!isWhitespace(ch)) {
+                matchStat = NOT_MATCH;
+                return 0;
+            }
+            ch = charAt(index++);
         }
-        return extracted15(negative, value);
     }
 
     @Override
@@ -1376,107 +1369,63 @@ public final class JSONScanner extends JSONLexerBase {
 
         if (extracted17(ch)) {
             value = (long) ch - '0';
-            extr5(index, ch, quote);
-            boolean valid = extracted14(negative, value);
-            extr6(valid, startPos, startChar);
-        } else {
-            this.bp = startPos;
-            this.ch = startChar;
-            matchStat = NOT_MATCH;
-            return 0;
-        }
-
-        for (;;) {
-            switch (ch) {
-                case ',':
-                    this.ch = charAt(++bp);
-                    matchStat = VALUE;
-                    token = JSONToken.COMMA;
-                    return extracted16(negative, value);
-                case '}':
-                    ch = charAt(++bp);
-                    for (;;) {
-                        switch (ch) {
-                            case ',':
-                                token = JSONToken.COMMA;
-                                this.ch = charAt(++bp);
-                                break;
-                            case ']':
-                                token = JSONToken.RBRACKET;
-                                this.ch = charAt(++bp);
-                                break;
-                            case '}':
-                                token = JSONToken.RBRACE;
-                                this.ch = charAt(++bp);
-                                break;
-                            case EOI:
-                                token = JSONToken.EOF;
-                                break;
-                            case ' ':
-                            case '\t':
-                            case '\b':
-                                ch = charAt(++bp);
-                                continue;
-
-                            default:
-                                this.bp = startPos;
-                                this.ch = startChar;
-                                matchStat = NOT_MATCH;
-                                return 0;
-                        }
+            for (int digits = 1;; ++digits) {
+                ch = charAt(index++);
+                if (extracted17(ch) && digits < 19) {
+                    value = value * 10 + (ch - '0');
+                } else if (extracted17(ch) || extracted19(ch)) {
+                    matchStat = NOT_MATCH;
+                    return 0;
+                } else if (quote) {
+                    if (ch != '"') {
+                        matchStat = NOT_MATCH;
+                        return 0;
                     }
-                case ' ':
-                case '\t':
-                case '\b':
-                    bp = index;
                     ch = charAt(index++);
-                    continue;
-                default:
-                    matchStat = NOT_MATCH;
+                    break;
+                } else {
+                    break;
+                }
             }
-        }
-    }
 
-    private int extr6(boolean valid, int startPos, char startChar){
-
-        if (!valid) {
+            if (!extracted14(negative, value)) {
+                this.bp = startPos;
+                this.ch = startChar;
+                matchStat = NOT_MATCH;
+                return 0;
+            }
+        } else {
             this.bp = startPos;
             this.ch = startChar;
             matchStat = NOT_MATCH;
-
+            return 0;
         }
-        return 0;
-
-    }
-    private int extr5( int index, int value, boolean quote){
-
-        int ret = 0;
-        char ch;
 
         for (;;) {
-            ch = charAt(index++);
-            if (extracted17(ch)) {
-                ret = value * 10 + (ch - '0');
-            } else if (extracted19(ch)) {
-                matchStat = NOT_MATCH;
-                ret = 0;
-            } else {
-                if (extracted18(ch, quote)) {
+            if (ch == ',') {
+                bp = index - 1;
+                this.ch = charAt(++bp);
+                matchStat = VALUE;
+                token = JSONToken.COMMA;
+                return extracted16(negative, value);
+            }
+            if (ch == '}') {
+                bp = index - 1;
+                if (!scanFieldEnd()) {
+                    this.bp = startPos;
+                    this.ch = startChar;
                     matchStat = NOT_MATCH;
-                    ret = 0;
-                } else {
-                    ch = charAt(index++);
+                    return 0;
                 }
-
-                extracted13(index, ch);
-                break;
+                matchStat = END;
+                return extracted16(negative, value);
+            }
+            if (!isWhitespace(ch)) {
+                matchStat = NOT_MATCH;
+                return 0;
             }
+            ch = charAt(index++);
         }
-        return ret;
-
-    }
-    private boolean extracted18(char ch, final boolean quote) {
-        return quote && ch != '"';
     }
 
     private long extracted16(boolean negative, long value) {
@@ -1487,14 +1436,6 @@ public final class JSONScanner extends JSONLexerBase {
         return value >= 0 || (value == -9223372036854775808L && negative);
     }
 
-    private void extracted13(int index, char ch) {
-
-        if (ch == ',' || ch == '}') {
-            bp = index - 1;
-        }
-
-    }
-
     @Override
     public boolean scanFieldBoolean(char[] fieldName) {
         matchStat = UNKNOWN;
@@ -1513,112 +1454,107 @@ public final class JSONScanner extends JSONLexerBase {
             ch = charAt(index++);
         }
 
+        boolean value;
         switch (ch) {
             case 't':
-                extr3(index, 'r');
-
-                extr3(index, 'u');
-
-                extr3(index, 'e');
-
-                extr4(quote, index);
-                bp = index;
-                ch = charAt(bp);
+                value = true;
+                index = matchLiteral(index, "rue");
                 break;
             case 'f':
-                extr3(index, 'a');
-
-                extr3(index, 'l');
-
-                extr3(index, 's');
-
-                extr3(index, 'e');
-
-                extr4(quote, index);
-                bp = index;
-                ch = charAt(bp);
+                value = false;
+                index = matchLiteral(index, "alse");
                 break;
             case '1':
+                value = true;
+                break;
             case '0':
-                extr4(quote, index);
-                bp = index;
-                ch = charAt(bp);
+                value = false;
                 break;
-
             default:
+                index = -1;
+                value = false;
+                break;
+        }
+
+        if (index != -1 && quote) {
+            index = matchLiteral(index, "\"");
+        }
+        if (index == -1) {
+            matchStat = NOT_MATCH;
+            return false;
+        }
+        bp = index;
+        ch = charAt(bp);
+
+        for (;;) {
+            if (ch == ',') {
+                this.ch = charAt(++bp);
+                matchStat = VALUE;
+                token = JSONToken.COMMA;
+                return value;
+            }
+            if (ch == '}') {
+                if (!scanFieldEnd()) {
+                    matchStat = NOT_MATCH;
+                    return false;
+                }
+                matchStat = END;
+                return value;
+            }
+            if (!isWhitespace(ch)) {
+                bp = startPos;
+                this.ch = charAt(bp);
                 matchStat = NOT_MATCH;
                 return false;
+            }
+            ch = charAt(++bp);
+        }
+    }
+
+    /**
+     * @return the index after the literal, -1 when the text does not continue with it
+     */
+    private int matchLiteral(int index, String literal) {
+        for (int i = 0; i < literal.length(); ++i) {
+            if (charAt(index++) != literal.charAt(i)) {
+                return -1;
+            }
         }
+        return index;
+    }
 
+    /**
+     * consumes the token after the closing brace of the object a field was scanned from
+     */
+    private boolean scanFieldEnd() {
+        char ch = charAt(++bp);
         for (;;) {
             switch (ch) {
                 case ',':
-                    this.ch = charAt(++bp);
-                    matchStat = VALUE;
                     token = JSONToken.COMMA;
-                    break;
-
+                    this.ch = charAt(++bp);
+                    return true;
+                case ']':
+                    token = JSONToken.RBRACKET;
+                    this.ch = charAt(++bp);
+                    return true;
                 case '}':
-                    ch = charAt(++bp);
-                    for (;;) {
-                        switch (ch) {
-                            case ',':
-                                token = JSONToken.COMMA;
-                                this.ch = charAt(++bp);
-                                break;
-                            case ']':
-                                token = JSONToken.RBRACKET;
-                                this.ch = charAt(++bp);
-                                break;
-                            case '}':
-                                token = JSONToken.RBRACE;
-                                this.ch = charAt(++bp);
-                                break;
-                            case EOI:
-                                token = JSONToken.EOF;
-                                break;
-                            case ' ':
-                            case '\t':
-                            case '\b':
-                                ch = charAt(++bp);
-                                continue;
-
-                            default:
-                                matchStat = NOT_MATCH;
-                                return false;
-                        }
-                    }
-                case ' ':
-                case '\t':
-                case '\b':
-                    ch = charAt(bp);
-                    break;
+                    token = JSONToken.RBRACE;
+                    this.ch = charAt(++bp);
+                    return true;
+                case EOI:
+                    token = JSONToken.EOF;
+                    return true;
                 default:
-                    bp = startPos;
-                    charAt(++bp);
-                    matchStat = NOT_MATCH;
+                    if (isWhitespace(ch)) {
+                        ch = charAt(++bp);
+                        continue;
+                    }
                     return false;
             }
-
-        }
-    }
-
-    private boolean extr4(boolean quote, int index){
-
-        if (quote && charAt(index) != '"') {
-            matchStat = NOT_MATCH;
         }
-        return false;
-
     }
-    private boolean extr3(int index, char ch1){
 
-        if (charAt(index) != ch1) {
-            matchStat = NOT_MATCH;
-        }
-        return false;
-
-    }
     @Override
     public final int scanInt(char expectNext) {
         matchStat = UNKNOWN;
@@ -1644,7 +1580,28 @@ public final class JSONScanner extends JSONLexerBase {
 
         if (extracted17(chLocal)) {
             value = chLocal - '0';
-            extr(value);
+            for (;;) {
+                chLocal = charAt(offset++);
+                if (extracted17(chLocal)) {
+                    value = value * 10 + (chLocal - '0');
+                } else if (extracted19(chLocal)) {
+                    matchStat = NOT_MATCH;
+                    return 0;
+                } else if (chLocal == '"') {
+                    if (!quote) {
+                        matchStat = NOT_MATCH;
+                        return 0;
+                    }
+                    chLocal = charAt(offset++);
+                    break;
+                } else {
+                    break;
+                }
+            }
+            if (value < 0) {
+                matchStat = NOT_MATCH;
+                return 0;
+            }
         } else if (chLocal == 'n' && charAt(offset++) == 'u' && charAt(offset++) == 'l') {
             matchStat = VALUE_NULL;
             value = 0;
@@ -1701,16 +1658,6 @@ public final class JSONScanner extends JSONLexerBase {
         }
     }
 
-    private int extr(int value){
-
-        if (value < 0) {
-            matchStat = NOT_MATCH;
-
-        }
-        return 0;
-
-    }
-
     private int extracted23(int offset, int value) {
 
         bp = offset;
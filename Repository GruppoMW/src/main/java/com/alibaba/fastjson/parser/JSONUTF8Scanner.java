@@ -0,0 +1,401 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.IOUtils;
+
+/**
+ * Lexer over raw UTF-8 bytes. The input is never decoded up front: positions ({@link #bp}, {@link #np}) are byte
+ * offsets, {@link #next()} decodes one character at a time, and strings are only materialized when a token value is
+ * actually requested through {@link #stringVal()}, {@link #addSymbol} or one of the scanField methods.
+ *
+ * <p>A multi-byte character occupies all of its byte positions; {@link #next()} leaves {@link #bp} on its last byte.
+ * While a literal is still read straight from the input, {@link #sp} therefore counts bytes, and the copy into
+ * {@link #sbuf} on the first escape converts it to a char count.
+ */
+public class JSONUTF8Scanner extends JSONLexerBase {
+
+    protected byte[]     buf;
+    protected final int  start;
+    protected int        end;
+
+    /**
+     * np of the literal that has been copied into sbuf, from then on sp counts chars
+     */
+    protected int        sbufNp = Integer.MIN_VALUE;
+
+    public JSONUTF8Scanner(byte[] input){
+        this(input, 0, input.length, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public JSONUTF8Scanner(byte[] input, int features){
+        this(input, 0, input.length, features);
+    }
+
+    public JSONUTF8Scanner(byte[] input, int offset, int length, int features){
+        super(features);
+
+        buf = input;
+        start = offset;
+        end = offset + length;
+        bp = offset - 1;
+
+        next();
+        if (ch == 65279) { // utf-8 bom
+            next();
+        }
+    }
+
+    /**
+     * For subclasses that load {@link #buf} themselves, they have to call {@link #next()} once the input is ready.
+     */
+    protected JSONUTF8Scanner(int features, byte[] buf){
+        super(features);
+
+        this.buf = buf;
+        start = 0;
+        end = 0;
+        bp = -1;
+    }
+
+    /**
+     * Called by {@link #next()} once bp has moved past the end of the buffered input. Implementations may discard
+     * consumed bytes, in which case every position (bp, np, pos) is rebased; on success bp is readable.
+     *
+     * @return false when there is no more input
+     */
+    protected boolean refill() {
+        return false;
+    }
+
+    /**
+     * Makes position {@code index} readable without moving any buffered byte, used for look ahead.
+     *
+     * @return false when the input ends before {@code index}
+     */
+    protected boolean ensure(int index) {
+        return false;
+    }
+
+    public final char charAt(int index) {
+        if (index >= end && !ensure(index)) {
+            return EOI;
+        }
+
+        byte b = buf[index];
+        if (b >= 0) {
+            return (char) b;
+        }
+
+        int lead = leadOf(index);
+        int cp = codePointAt(lead);
+        if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return (char) cp;
+        }
+        return index - lead <= 2 ? Character.highSurrogate(cp) : Character.lowSurrogate(cp);
+    }
+
+    public final char next() {
+        int index = ++bp;
+        if (index >= end) {
+            if (!refill()) {
+                ch = EOI;
+                return ch;
+            }
+            index = bp;
+        }
+
+        byte b = buf[index];
+        if (b >= 0) {
+            ch = (char) b;
+            return ch;
+        }
+
+        ch = nextMultiByte(index, b);
+        return ch;
+    }
+
+    private char nextMultiByte(int index, byte b) {
+        if ((b & 0xC0) == 0x80) {
+            // last byte of a 4-byte sequence, its high surrogate was returned by the previous call
+            int lead = index - 3;
+            if (lead >= start && (buf[lead] & 0xF8) == 0xF0) {
+                return Character.lowSurrogate(codePointAt(lead));
+            }
+            throw new JSONException("malformed utf-8 input, pos " + index);
+        }
+
+        int cp = codePointAt(index);
+        int n = sequenceLength(b);
+        int skip = cp < Character.MIN_SUPPLEMENTARY_CODE_POINT ? n - 1 : 2;
+
+        bp += skip;
+        if (np != sbufNp) {
+            sp += skip;
+        }
+
+        return cp < Character.MIN_SUPPLEMENTARY_CODE_POINT //
+                ? (char) cp //
+                : Character.highSurrogate(cp);
+    }
+
+    private int leadOf(int index) {
+        if (index >= end) {
+            return index;
+        }
+        int lead = index;
+        while (lead > start && lead > index - 3 && (buf[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        return lead;
+    }
+
+    private static int sequenceLength(int b) {
+        if ((b & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((b & 0xF0) == 0xE0) {
+            return 3;
+        }
+        if ((b & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return -1;
+    }
+
+    private int codePointAt(int index) {
+        int b1 = buf[index];
+        int n = sequenceLength(b1);
+        if (n == -1 || (index + n > end && !ensure(index + n - 1))) {
+            throw new JSONException("malformed utf-8 input, pos " + index);
+        }
+
+        int cp = b1 & (0xFF >>> (n + 1));
+        for (int i = 1; i < n; ++i) {
+            int bx = buf[index + i];
+            if ((bx & 0xC0) != 0x80) {
+                throw new JSONException("malformed utf-8 input, pos " + (index + i));
+            }
+            cp = (cp << 6) | (bx & 0x3F);
+        }
+
+        if ((n == 2 && cp < 0x80) //
+            || (n == 3 && (cp < 0x800 || Character.isSurrogate((char) cp))) //
+            || (n == 4 && (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT || cp > Character.MAX_CODE_POINT))) {
+            throw new JSONException("malformed utf-8 input, pos " + index);
+        }
+        return cp;
+    }
+
+    /**
+     * decode the bytes [offset, offset + count) into dest, returns the number of chars written
+     */
+    private int decode(int offset, int count, char[] dest, int destPos) {
+        int lead = leadOf(offset);
+        int i = lead;
+        int limit = offset + count;
+        int dp = destPos;
+        while (i < limit) {
+            byte b = buf[i];
+            if (b >= 0) {
+                dest[dp++] = (char) b;
+                i++;
+                continue;
+            }
+
+            int cp = codePointAt(i);
+            if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                dest[dp++] = (char) cp;
+            } else {
+                dest[dp++] = Character.highSurrogate(cp);
+                dest[dp++] = Character.lowSurrogate(cp);
+            }
+            i += sequenceLength(b);
+        }
+        return dp - destPos;
+    }
+
+    /**
+     * Switches the current literal to sbuf, after the copy sp holds the decoded char count.
+     */
+    protected final void copyTo(int offset, int count, char[] dest) {
+        sp = decode(offset, count, dest, 0);
+        sbufNp = np;
+    }
+
+    /**
+     * Switches the current literal to sbuf, after the copy sp holds the decoded char count.
+     */
+    protected final void arrayCopy(int srcPos, char[] dest, int destPos, int length) {
+        sp = destPos + decode(srcPos, length, dest, destPos);
+        sbufNp = np;
+    }
+
+    public final boolean charArrayCompare(char[] chars) {
+        final int destLen = chars.length;
+        if (bp + destLen > end && !ensure(bp + destLen - 1)) {
+            return false;
+        }
+        for (int i = 0; i < destLen; ++i) {
+            char c = chars[i];
+            // non-ascii names can not be matched positionally, let the caller take the generic path
+            if (c >= 0x80 || buf[bp + i] != c) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public final int indexOf(char ch, int startIndex) {
+        byte b = (byte) ch;
+        for (int i = startIndex;; ++i) {
+            if (i >= end && !ensure(i)) {
+                return -1;
+            }
+            if (ch < 0x80 ? buf[i] == b : buf[i] < 0 && charAt(i) == ch) {
+                return i;
+            }
+        }
+    }
+
+    public final String addSymbol(int offset, int len, int hash, final SymbolTable symbolTable) {
+        return symbolTable.addSymbol(buf, offset, len, hash);
+    }
+
+    public byte[] bytesValue() {
+        if (token == JSONToken.HEX) {
+            int start = np + 1;
+            int len = sp;
+
+            if (len % 2 != 0) {
+                throw new JSONException("illegal state. " + len);
+            }
+
+            byte[] bytes = new byte[len / 2];
+            for (int i = 0; i < bytes.length; ++i) {
+                int c0 = buf[start + i * 2];
+                int c1 = buf[start + i * 2 + 1];
+                int b0 = c0 - (c0 <= 57 ? 48 : 55);
+                int b1 = c1 - (c1 <= 57 ? 48 : 55);
+                bytes[i] = (byte) ((b0 << 4) | b1);
+            }
+            return bytes;
+        }
+
+        if (!hasSpecial) {
+            return IOUtils.decodeBase64(subString(np + 1, sp));
+        } else {
+            return IOUtils.decodeBase64(new String(sbuf, 0, sp));
+        }
+    }
+
+    /**
+     * The value of a literal token, recorded as a string. For integers, leading 0x and 'l' suffixes are suppressed.
+     */
+    public final String stringVal() {
+        if (!hasSpecial) {
+            return this.subString(np + 1, sp);
+        } else {
+            return new String(sbuf, 0, sp);
+        }
+    }
+
+    public final String subString(int offset, int count) {
+        if (count < 0) {
+            throw new StringIndexOutOfBoundsException(count);
+        }
+        int lead = leadOf(offset);
+        return new String(buf, lead, count + offset - lead, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected char[] subChars(int offset, int count) {
+        char[] chars = new char[count];
+        int len = decode(offset, count, chars, 0);
+        if (len != count) {
+            char[] exact = new char[len];
+            System.arraycopy(chars, 0, exact, 0, len);
+            return exact;
+        }
+        return chars;
+    }
+
+    @Override
+    protected String readString(int offset, int count) {
+        char[] chars = subChars(offset, count);
+        return readString(chars, chars.length);
+    }
+
+    public final String numberString() {
+        char chLocal = charAt(np + sp - 1);
+        int sp = this.sp;
+
+        if (chLocal == 'L' || chLocal == 'S' || chLocal == 'B' || chLocal == 'F' || chLocal == 'D') {
+            sp--;
+        }
+        return new String(buf, np, sp, StandardCharsets.ISO_8859_1);
+    }
+
+    public final BigDecimal decimalValue() {
+        char chLocal = charAt(np + sp - 1);
+        int sp = this.sp;
+
+        if (chLocal == 'L' || chLocal == 'S' || chLocal == 'B' || chLocal == 'F' || chLocal == 'D') {
+            sp--;
+        }
+        if (sp > 65535) {
+            throw new JSONException("decimal overflow");
+        }
+
+        char[] chars = sp < sbuf.length ? sbuf : new char[sp];
+        for (int i = 0; i < sp; ++i) {
+            chars[i] = (char) buf[np + i];
+        }
+        return new BigDecimal(chars, 0, sp, MathContext.UNLIMITED);
+    }
+
+    @Override
+    public boolean isEOF() {
+        if (bp + 1 >= end) {
+            ensure(bp + 1);
+        }
+        return bp == end || (ch == EOI && bp + 1 >= end);
+    }
+
+    @Override
+    public boolean isBlankInput() {
+        for (int i = start; i < end || ensure(i); ++i) {
+            if (!isWhitespace((char) buf[i])) {
+                return false;
+            }
+        }
+        token = JSONToken.EOF;
+        return true;
+    }
+
+    @Override
+    public String info() {
+        return "pos " + bp + ", json : " + (end - start < 65535 //
+                ? new String(buf, start, end - start, StandardCharsets.UTF_8) //
+                : new String(buf, start, 65535, StandardCharsets.UTF_8));
+    }
+}
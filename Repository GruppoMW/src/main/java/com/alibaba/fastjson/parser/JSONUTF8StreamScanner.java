@@ -0,0 +1,121 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
+
+/**
+ * UTF-8 lexer that pulls the input from an {@link InputStream} in fixed size chunks, the byte counterpart of
+ * {@link JSONReaderScanner}. Bytes before the literal being scanned are dropped on every refill, so the buffer only
+ * grows when a single token (or a scanField look ahead) does not fit in it.
+ *
+ * <p>The stream is not closed by {@link #close()}, it stays owned by the caller.
+ */
+public final class JSONUTF8StreamScanner extends JSONUTF8Scanner {
+
+    static final int                         CHUNK_SIZE = 1024 * 16;
+
+    private final InputStream                in;
+    private boolean                          eof;
+
+    public JSONUTF8StreamScanner(InputStream in){
+        this(in, JSON.DEFAULT_PARSER_FEATURE);
+    }
+
+    public JSONUTF8StreamScanner(InputStream in, int features){
+        super(features, BufferPool.getInstance().takeBytes(CHUNK_SIZE));
+        this.in = in;
+
+        next();
+        if (ch == 65279) { // utf-8 bom
+            next();
+        }
+    }
+
+    protected boolean refill() {
+        if (eof) {
+            return false;
+        }
+
+        // keep the literal in progress: a string (np at the quote) or number, also right after its closing quote
+        int keep = end;
+        if (np != sbufNp && np >= 0 && end - np <= sp + 2) {
+            keep = np;
+        }
+
+        int rest = end - keep;
+        if (keep > 0) {
+            if (rest > 0) {
+                System.arraycopy(buf, keep, buf, 0, rest);
+            }
+            np = rebase(np, keep);
+            sbufNp = sbufNp == Integer.MIN_VALUE ? sbufNp : rebase(sbufNp, keep);
+            pos = pos >= keep ? pos - keep : 0;
+            bp -= keep;
+            end = rest;
+        }
+
+        return ensure(bp);
+    }
+
+    private static int rebase(int position, int delta) {
+        return position >= delta ? position - delta : -2;
+    }
+
+    protected boolean ensure(int index) {
+        while (index >= end) {
+            if (eof) {
+                return false;
+            }
+
+            if (end == buf.length) {
+                byte[] newBuf = new byte[buf.length * 2];
+                System.arraycopy(buf, 0, newBuf, 0, end);
+                buf = newBuf;
+            }
+
+            int len = Math.min(buf.length - end, CHUNK_SIZE);
+            int readCount;
+            try {
+                readCount = in.read(buf, end, len);
+            } catch (IOException e) {
+                throw new JSONException(e.getMessage(), e);
+            }
+
+            if (readCount == -1) {
+                eof = true;
+                return false;
+            }
+            end += readCount;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+
+        if (buf != null && buf.length <= 1024 * 64) {
+            BufferPool.getInstance().releaseBytes(buf);
+        }
+        this.buf = null;
+    }
+}
@@ -155,6 +155,21 @@ public class ParserConfig {
     private final IdentityHashMap<Type, ObjectDeserializer> deserializers         = new IdentityHashMap<>();
     private final IdentityHashMap<Type, IdentityHashMap<Type, ObjectDeserializer>> mixInDeserializers = new IdentityHashMap<>(16);
     private final ConcurrentMap<String,Class<?>>            typeMapping           = new ConcurrentHashMap<>(16, 0.75f, 1);
+    /**
+     * weak keys, counting a type does not keep it or its class loader alive
+     */
+    private final Map<Type, AtomicInteger>                  buildCounts           = new WeakHashMap<>();
+    private final Map<Type, WeakReference<TieredJavaBeanDeserializer>> tiered     = new WeakHashMap<>();
+    /**
+     * the class loaders whose autowired deserializers are registered, each is loaded once per config
+     */
+    private final Map<ClassLoader, Boolean>                 autowiredLoaders      = new WeakHashMap<>();
+    /**
+     * bumped after every put and clear of the deserializers, caches of deserializers compare it to see a change
+     */
+    private final AtomicInteger                             deserializersVersion  = new AtomicInteger();
+    private int                                             tieredThreshold       = TieredCompilation.THRESHOLD;
+    private boolean                                         tieredAsync           = TieredCompilation.ASYNC;
 
     private boolean                                         asmEnable             = !ASMUtils.IS_ANDROID;
 
@@ -185,6 +200,8 @@ public class ParserConfig {
     private List<AutoTypeCheckHandler>             autoTypeCheckHandlers;
     private boolean                                         safeMode               = SAFE_MODE;
 
+    private volatile JSONPathCache                          jsonPathCache;
+
     public ParserConfig(){
         this(false);
     }
@@ -549,6 +566,12 @@ public class ParserConfig {
         deserializers.put(Boolean.class, BooleanCodec.instance);
         deserializers.put(Class.class, MiscCodec.instance);
         deserializers.put(char[].class, new CharArrayCodec());
+        deserializers.put(int[].class, PrimitiveArrayDeserializer.instance);
+        deserializers.put(long[].class, PrimitiveArrayDeserializer.instance);
+        deserializers.put(short[].class, PrimitiveArrayDeserializer.instance);
+        deserializers.put(float[].class, PrimitiveArrayDeserializer.instance);
+        deserializers.put(double[].class, PrimitiveArrayDeserializer.instance);
+        deserializers.put(boolean[].class, PrimitiveArrayDeserializer.instance);
 
         deserializers.put(AtomicBoolean.class, BooleanCodec.instance);
         deserializers.put(AtomicInteger.class, IntegerCodec.instance);
@@ -683,12 +706,128 @@ public class ParserConfig {
         this.asmEnable = asmEnable;
     }
 
+    /**
+     * @return the cache of the paths compiled against this config, created on first use
+     * @since 1.2.80
+     */
+    public JSONPathCache getJSONPathCache() {
+        JSONPathCache cache = jsonPathCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = jsonPathCache;
+                if (cache == null) {
+                    jsonPathCache = cache = new JSONPathCache();
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param jsonPathCache a cache with a custom size, or one shared between several configs
+     * @since 1.2.80
+     */
+    public void setJSONPathCache(JSONPathCache jsonPathCache) {
+        if (jsonPathCache == null) {
+            throw new IllegalArgumentException("jsonPathCache is null");
+        }
+        this.jsonPathCache = jsonPathCache;
+    }
+
     public IdentityHashMap<Type, ObjectDeserializer> getDeserializers() {
         return deserializers;
     }
 
+    private void countBuild(Type type) {
+        Type key = TypeInterner.intern(type);
+        synchronized (buildCounts) {
+            AtomicInteger count = buildCounts.get(key);
+            if (count == null) {
+                count = new AtomicInteger();
+                buildCounts.put(key, count);
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * How many java bean deserializers were built per type, generic types counted under their canonical instance.
+     * A type built more than once means its deserializer was not found in the registry, e.g. because of a mixIn
+     * change or a {@link #clearDeserializers()}. Types no longer reachable are dropped from the counts.
+     *
+     * @since 1.2.80
+     */
+    public Map<Type, Integer> getDeserializerBuildCounts() {
+        synchronized (buildCounts) {
+            Map<Type, Integer> counts = new HashMap<>(buildCounts.size());
+            for (Map.Entry<Type, AtomicInteger> entry : buildCounts.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Starts java beans on the reflective deserializer and generates the ASM deserializer once a bean was read
+     * threshold times, on a background thread when async. A threshold of 0 generates it on first use.
+     *
+     * @since 1.2.80
+     */
+    public void setTieredCompilation(int threshold, boolean async) {
+        this.tieredThreshold = threshold;
+        this.tieredAsync = async;
+    }
+
+    public int getTieredThreshold() {
+        return tieredThreshold;
+    }
+
+    /**
+     * How many reads the reflective tier served per type, a type whose count reached the threshold was promoted to the
+     * ASM deserializer. Lists the latest reflective tier of every reachable type.
+     *
+     * @since 1.2.80
+     */
+    public Map<Type, Integer> getTieredCounts() {
+        synchronized (tiered) {
+            Map<Type, Integer> counts = new HashMap<>(tiered.size());
+            for (Map.Entry<Type, WeakReference<TieredJavaBeanDeserializer>> entry : tiered.entrySet()) {
+                TieredJavaBeanDeserializer deserializer = entry.getValue().get();
+                if (deserializer != null) {
+                    counts.put(entry.getKey(), deserializer.getInvocationCount());
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Generates the ASM deserializer of a bean started on the reflective tier and registers it in its place.
+     *
+     * @return the generated deserializer, null when it could not be generated
+     * @since 1.2.80
+     */
+    public ObjectDeserializer promote(TieredJavaBeanDeserializer deserializer) {
+        ObjectDeserializer promoted;
+        try {
+            promoted = asmFactory.createJavaBeanDeserializer(this, deserializer.beanInfo);
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+
+        Type type = deserializer.getType();
+        if (get(type) == deserializer) {
+            putDeserializer(type, promoted);
+        }
+        return promoted;
+    }
+
     public  ObjectDeserializer getDeserializer(Type type) {
         ObjectDeserializer deserializer = get(type);
+        if (deserializer == null && type != null && !(type instanceof Class<?>)) {
+            type = TypeInterner.intern(type);
+            deserializer = get(type);
+        }
         if (deserializer != null) {
             return deserializer;
         }
@@ -720,9 +859,10 @@ public class ParserConfig {
 
     public <T> ObjectDeserializer getDeserializer(Class<T> clazz, Type type) {
         ObjectDeserializer deserializer = get(type);
-        if (deserializer == null && type instanceof ParameterizedTypeImpl) {
-            Type innerType = TypeReference.intern((ParameterizedTypeImpl) type);
-            deserializer = get(innerType);
+        if (deserializer == null && type != null && !(type instanceof Class<?>)) {
+            // generic types built elsewhere (spring, jax-rs, by hand) are registered under their canonical instance
+            type = TypeInterner.intern(type);
+            deserializer = get(type);
         }
 
         if (deserializer != null) {
@@ -909,17 +1049,7 @@ public class ParserConfig {
             putDeserializer(clazz, deserializer);
         }
 
-        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        try {
-            for (AutowiredObjectDeserializer autowired : ServiceLoader.load(AutowiredObjectDeserializer.class,
-                    classLoader)) {
-                for (Type forType : autowired.getAutowiredFor()) {
-                    putDeserializer(forType, autowired);
-                }
-            }
-        } catch (Exception ex) {
-            // skip
-        }
+        autowire(Thread.currentThread().getContextClassLoader());
 
         if (deserializer == null) {
             deserializer = get(type);
@@ -973,7 +1103,9 @@ public class ParserConfig {
 
             deserializer = getEnumDeserializer(clazz);
         } else if (clazz.isArray()) {
-            deserializer = ObjectArrayCodec.instance;
+            deserializer = PrimitiveArrayDeserializer.isSupported(clazz)
+                    ? PrimitiveArrayDeserializer.instance
+                    : ObjectArrayCodec.instance;
         } else if (clazz == Set.class || clazz == HashSet.class || clazz == Collection.class || clazz == List.class
                 || clazz == ArrayList.class) {
             deserializer = CollectionCodec.instance;
@@ -1045,6 +1177,8 @@ public class ParserConfig {
     }
 
     public ObjectDeserializer createJavaBeanDeserializer(Class<?> clazz, Type type) {
+        countBuild(type != null ? type : clazz);
+
         boolean asmEnable2 = this.asmEnable && !this.fieldBased;
         asmEnable2 = extracted11(clazz, asmEnable2);
 
@@ -1065,6 +1199,15 @@ public class ParserConfig {
         }
 
         JavaBeanInfo beanInfo = JavaBeanInfo.build(clazz, type, propertyNamingStrategy);
+        if (tieredThreshold > 0) {
+            Type key = TypeInterner.intern(type != null ? type : clazz);
+            TieredJavaBeanDeserializer deserializer = new TieredJavaBeanDeserializer(this, beanInfo, key, tieredThreshold, tieredAsync);
+            // the tier refers to the type, it is held weakly too
+            synchronized (tiered) {
+                tiered.put(key, new WeakReference<>(deserializer));
+            }
+            return deserializer;
+        }
         return extracted24(clazz, type, beanInfo);
     }
 
@@ -1183,7 +1326,7 @@ public class ParserConfig {
     }
 
     private boolean extracted16(boolean asmEnable, JavaBeanInfo beanInfo) {
-        if (asmEnable && beanInfo.fields.length > 200) {
+        if (asmEnable && beanInfo.fields.length > ASMDeserializerFactory.MAX_FIELDS) {
             asmEnable = false;
         }
         return asmEnable;
@@ -1275,19 +1418,59 @@ public class ParserConfig {
         return new DefaultFieldDeserializer(clazz, fieldInfo);
     }
 
+    /**
+     * registers the autowired deserializers of classLoader for the types nothing is registered for yet
+     */
+    private void autowire(ClassLoader classLoader) {
+        if (classLoader == null) {
+            return;
+        }
+        synchronized (autowiredLoaders) {
+            if (autowiredLoaders.put(classLoader, Boolean.TRUE) != null) {
+                return;
+            }
+            try {
+                for (AutowiredObjectDeserializer autowired : ServiceLoader.load(AutowiredObjectDeserializer.class,
+                        classLoader)) {
+                    for (Type forType : autowired.getAutowiredFor()) {
+                        if (get(forType) == null) {
+                            putDeserializer(forType, autowired);
+                        }
+                    }
+                }
+            } catch (Exception ex) {
+                // skip
+            }
+        }
+    }
+
     public void putDeserializer(Type type, ObjectDeserializer deserializer) {
+        if (!(type instanceof Class<?>)) {
+            type = TypeInterner.intern(type);
+        }
         Type mixin = JSON.getMixInAnnotations(type);
         if (mixin != null) {
             IdentityHashMap<Type, ObjectDeserializer> mixInClasses = this.mixInDeserializers.get(type);
             if (mixInClasses == null) {
-                //多线程下可能会重复创建，但不影响正确性
                 mixInClasses = new IdentityHashMap<>(4);
-                this.mixInDeserializers.put(type, mixInClasses);
+                IdentityHashMap<Type, ObjectDeserializer> present = this.mixInDeserializers.putIfAbsent(type, mixInClasses);
+                if (present != null) {
+                    mixInClasses = present;
+                }
             }
             mixInClasses.put(mixin, deserializer);
         } else {
             this.deserializers.put(type, deserializer);
         }
+        deserializersVersion.incrementAndGet();
+    }
+
+    /**
+     * @return a number that changes whenever a deserializer is put or the deserializers are cleared
+     * @since 1.2.80
+     */
+    public int getDeserializersVersion() {
+        return deserializersVersion.get();
     }
 
     public ObjectDeserializer get(Type type) {
@@ -1793,6 +1976,7 @@ public class ParserConfig {
     public void clearDeserializers() {
         this.deserializers.clear();
         this.initDeserializers();
+        deserializersVersion.incrementAndGet();
     }
 
     public boolean isJacksonCompatible() {
@@ -15,22 +15,65 @@
  */
 package com.alibaba.fastjson.parser;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
 import com.alibaba.fastjson.JSON;
 
 /**
+ * Bounded cache of field name strings, so that repeated names are not allocated again for every document.
+ *
+ * <p>The table is 4-way set associative: a symbol can live in any of the 4 slots of the set its hash selects, the
+ * most recently added first. A full set evicts its oldest symbol once the table has reached {@code maxSize}, before
+ * that the table doubles. Symbols are not interned; the special keys ("$ref" and the type key) are pinned, they are
+ * always returned as the same instance because the parser compares them by identity.
+ *
+ * <p>Lookups take no lock. Concurrent updates may lose a slot write, which only costs a later miss: a returned
+ * symbol always equals the requested characters.
+ *
  * @author wenshao[szujobs@hotmail.com]
  */
 public class SymbolTable {
 
-    private final String[] symbols;
-    private final int      indexMask;
-    
+    private static final int  WAYS = 4;
+
+    private volatile String[] symbols;
+    private volatile String[] pinned;
+    private final int         maxSize;
+    private int               count;
+
+    private final boolean     recordStats;
+    private final LongAdder   hitCount;
+    private final LongAdder   missCount;
+    private final LongAdder   evictionCount;
+
     public SymbolTable(int tableSize){
-        this.indexMask = tableSize - 1;
-        this.symbols = new String[tableSize];
-        
-        this.addSymbol("$ref", 0, 4, "$ref".hashCode());
-        this.addSymbol(JSON.DEFAULT_TYPE_KEY, 0, JSON.DEFAULT_TYPE_KEY.length(), JSON.DEFAULT_TYPE_KEY.hashCode());
+        this(tableSize, tableSize * 8, false);
+    }
+
+    /**
+     * @param tableSize initial number of slots
+     * @param maxSize number of slots the table may grow to
+     * @param recordStats maintain the hit, miss and eviction counters
+     */
+    public SymbolTable(int tableSize, int maxSize, boolean recordStats){
+        int size = WAYS;
+        while (size < tableSize) {
+            size <<= 1;
+        }
+        this.symbols = new String[size];
+        this.maxSize = Math.max(size, maxSize);
+
+        this.recordStats = recordStats;
+        if (recordStats) {
+            hitCount = new LongAdder();
+            missCount = new LongAdder();
+            evictionCount = new LongAdder();
+        } else {
+            hitCount = missCount = evictionCount = null;
+        }
+
+        this.pinned = new String[] { "$ref", JSON.DEFAULT_TYPE_KEY };
     }
 
     public String addSymbol(char[] buffer, int offset, int len) {
@@ -39,77 +82,231 @@ public class SymbolTable {
         return addSymbol(buffer, offset, len, hash);
     }
 
+    private static int setOf(int hash, int length) {
+        return ((hash ^ (hash >>> 16)) * WAYS) & (length - 1);
+    }
+
     /**
      * Adds the specified symbol to the symbol table and returns a reference to the unique symbol. If the symbol already
      * exists, the previous symbol reference is returned instead, in order guarantee that symbol references remain
      * unique.
-     * 
+     *
      * @param buffer The buffer containing the new symbol.
      * @param offset The offset into the buffer of the new symbol.
      * @param len The length of the new symbol in the buffer.
+     * @param hash {@link String#hashCode()} of the symbol
      */
     public String addSymbol(char[] buffer, int offset, int len, int hash) {
-        final int bucket = hash & indexMask;
-        
-        String symbol = symbols[bucket];
-        if (symbol != null) {
-            boolean eq = true;
-            if (hash == symbol.hashCode() // 
-                    && len == symbol.length()) {
-                for (int i = 0; i < len; i++) {
-                    if (buffer[offset + i] != symbol.charAt(i)) {
-                        eq = false;
-                        break;
-                    }
+        final String[] table = symbols;
+        final int set = setOf(hash, table.length);
+
+        for (int i = 0; i < WAYS; ++i) {
+            String symbol = table[set + i];
+            if (symbol == null) {
+                break;
+            }
+            if (hash == symbol.hashCode() && len == symbol.length() && equals(symbol, buffer, offset)) {
+                if (recordStats) {
+                    hitCount.increment();
                 }
-            } else {
-                eq = false;
+                return symbol;
+            }
+        }
+
+        String symbol = pinned(hash, len, buffer, offset);
+        if (symbol == null) {
+            symbol = new String(buffer, offset, len);
+        }
+        return miss(table, set, symbol);
+    }
+
+    private static boolean equals(String symbol, char[] buffer, int offset) {
+        for (int i = 0, len = symbol.length(); i < len; i++) {
+            if (buffer[offset + i] != symbol.charAt(i)) {
+                return false;
             }
-            
-            if (eq) {
+        }
+        return true;
+    }
+
+    /**
+     * Byte counterpart of {@link #addSymbol(char[], int, int, int)} for utf-8 input.
+     *
+     * @param len the length of the symbol in bytes
+     * @param hash {@link String#hashCode()} of the decoded symbol
+     */
+    public String addSymbol(byte[] utf8, int offset, int len, int hash) {
+        final String[] table = symbols;
+        final int set = setOf(hash, table.length);
+
+        for (int i = 0; i < len; i++) {
+            if (utf8[offset + i] < 0) {
+                // symbol length and byte length differ, compare the decoded string
+                String str = new String(utf8, offset, len, StandardCharsets.UTF_8);
+                return addSymbol(str, 0, str.length(), hash);
+            }
+        }
+
+        for (int i = 0; i < WAYS; ++i) {
+            String symbol = table[set + i];
+            if (symbol == null) {
+                break;
+            }
+            if (hash == symbol.hashCode() && len == symbol.length() && equals(symbol, utf8, offset)) {
+                if (recordStats) {
+                    hitCount.increment();
+                }
                 return symbol;
-            } else {
-                return new String(buffer, offset, len);    
             }
         }
-        
-        symbol = new String(buffer, offset, len).intern();
-        symbols[bucket] = symbol;
-        return symbol;
+
+        String symbol = null;
+        for (String item : pinned) {
+            if (hash == item.hashCode() && len == item.length() && equals(item, utf8, offset)) {
+                symbol = item;
+                break;
+            }
+        }
+        if (symbol == null) {
+            symbol = new String(utf8, offset, len, StandardCharsets.ISO_8859_1);
+        }
+        return miss(table, set, symbol);
+    }
+
+    private static boolean equals(String symbol, byte[] utf8, int offset) {
+        for (int i = 0, len = symbol.length(); i < len; i++) {
+            if (utf8[offset + i] != symbol.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public String addSymbol(String buffer, int offset, int len, int hash) {
         return addSymbol(buffer, offset, len, hash, false);
     }
 
+    /**
+     * @param replace pin the symbol, from then on it is always returned as this instance
+     */
     public String addSymbol(String buffer, int offset, int len, int hash, boolean replace) {
-        final int bucket = hash & indexMask;
+        final String[] table = symbols;
+        final int set = setOf(hash, table.length);
 
-        String symbol = symbols[bucket];
-        if (symbol != null) {
-            if (hash == symbol.hashCode() // 
-                    && len == symbol.length() //
-                    && buffer.startsWith(symbol, offset)) {
+        if (replace) {
+            String symbol = len == buffer.length() //
+                ? buffer //
+                : subString(buffer, offset, len);
+            pin(symbol);
+            return miss(table, set, symbol);
+        }
+
+        for (int i = 0; i < WAYS; ++i) {
+            String symbol = table[set + i];
+            if (symbol == null) {
+                break;
+            }
+            if (hash == symbol.hashCode() && len == symbol.length() && buffer.startsWith(symbol, offset)) {
+                if (recordStats) {
+                    hitCount.increment();
+                }
                 return symbol;
             }
+        }
 
-            String str = subString(buffer, offset, len);
+        String symbol = null;
+        for (String item : pinned) {
+            if (hash == item.hashCode() && len == item.length() && buffer.startsWith(item, offset)) {
+                symbol = item;
+                break;
+            }
+        }
+        if (symbol == null) {
+            symbol = len == buffer.length() //
+                ? buffer //
+                : subString(buffer, offset, len);
+        }
+        return miss(table, set, symbol);
+    }
 
-            if (replace) {
-                symbols[bucket] = str;
+    private String pinned(int hash, int len, char[] buffer, int offset) {
+        for (String item : pinned) {
+            if (hash == item.hashCode() && len == item.length() && equals(item, buffer, offset)) {
+                return item;
             }
+        }
+        return null;
+    }
+
+    private synchronized void pin(String symbol) {
+        String[] items = pinned;
+        for (String item : items) {
+            if (item.equals(symbol)) {
+                return;
+            }
+        }
+        String[] newItems = new String[items.length + 1];
+        System.arraycopy(items, 0, newItems, 0, items.length);
+        newItems[items.length] = symbol;
+        pinned = newItems;
+    }
+
+    /**
+     * stores symbol at the front of its set, growing the table or evicting the oldest symbol of the set when full
+     */
+    private String miss(String[] table, int set, String symbol) {
+        if (recordStats) {
+            missCount.increment();
+        }
+
+        // the set may still be full in the doubled table
+        while (table[set + WAYS - 1] != null && table.length < maxSize) {
+            table = grow(table);
+            set = setOf(symbol.hashCode(), table.length);
+        }
+
+        if (table[set + WAYS - 1] == null) {
+            count++;
+        } else if (recordStats) {
+            evictionCount.increment();
+        }
 
-            return str;
+        for (int i = WAYS - 1; i > 0; --i) {
+            table[set + i] = table[set + i - 1];
         }
-        
-        symbol = len == buffer.length() //
-            ? buffer //
-            : subString(buffer, offset, len);
-        symbol = symbol.intern();
-        symbols[bucket] = symbol;
+        table[set] = symbol;
         return symbol;
     }
-    
+
+    private synchronized String[] grow(String[] table) {
+        String[] current = symbols;
+        if (current != table) {
+            return current;
+        }
+
+        String[] newTable = new String[table.length * 2];
+        int newCount = 0;
+        // oldest first, so every set keeps the most recent symbols in front
+        for (int i = WAYS - 1; i >= 0; --i) {
+            for (int set = 0; set < table.length; set += WAYS) {
+                String symbol = table[set + i];
+                if (symbol == null) {
+                    continue;
+                }
+                int newSet = setOf(symbol.hashCode(), newTable.length);
+                for (int j = WAYS - 1; j > 0; --j) {
+                    newTable[newSet + j] = newTable[newSet + j - 1];
+                }
+                newTable[newSet] = symbol;
+                newCount++;
+            }
+        }
+
+        count = newCount;
+        symbols = newTable;
+        return newTable;
+    }
+
     private static String subString(String src, int offset, int len) {
         char[] chars = new char[len];
         src.getChars(offset, offset + len, chars, 0);
@@ -125,4 +322,48 @@ public class SymbolTable {
         }
         return h;
     }
-}
\ No newline at end of file
+
+    /**
+     * number of slots of the table, it grows up to {@link #getMaxSize()}
+     */
+    public int getTableSize() {
+        return symbols.length;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * approximate number of symbols held
+     */
+    public int size() {
+        return count;
+    }
+
+    public long getHitCount() {
+        return recordStats ? hitCount.sum() : 0;
+    }
+
+    public long getMissCount() {
+        return recordStats ? missCount.sum() : 0;
+    }
+
+    /**
+     * number of symbols dropped from a full set once the table could not grow any more
+     */
+    public long getEvictionCount() {
+        return recordStats ? evictionCount.sum() : 0;
+    }
+
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    public String toString() {
+        return "SymbolTable{tableSize=" + symbols.length + ", maxSize=" + maxSize + ", size=" + count + ", hits="
+               + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "}";
+    }
+}
@@ -10,6 +10,7 @@ import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -21,6 +22,8 @@ import java.util.Map;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.asm.ClassWriter;
 import com.alibaba.fastjson.asm.FieldWriter;
 import com.alibaba.fastjson.asm.Label;
@@ -42,6 +45,13 @@ public class ASMDeserializerFactory implements Opcodes {
 
     public final ASMClassLoader classLoader;
     protected final AtomicLong  seed              = new AtomicLong();
+    private final Map<String, Class<?>> cachedClasses = new HashMap<>();
+
+    /**
+     * the version of the generated code, part of the key of the on-disk cache. Increment it with every change to the
+     * emitted bytecode, {@link JSON#VERSION} does not change between such changes.
+     */
+    static final int            CODEGEN_VERSION     = 1;
 
     static final String         DEFAULT_JSON_PARSER = type(DefaultJSONParser.class);
     static final String         JSON_LEXER_BASE     = type(JSONLexerBase.class);
@@ -85,6 +95,24 @@ public class ASMDeserializerFactory implements Opcodes {
     static final String LJAVA_LANG_REFLECT_TYPE_LJAVA_LANG_OBJECT_I_LJAVA_LANG_OBJECT = ";Ljava/lang/reflect/Type;Ljava/lang/Object;I)Ljava/lang/Object;";
     static final String LJAVA_LANG_REFLECT_TYPE_LJAVA_LANG_OBJECT_LJAVA_LANG_OBJECT_LJAVA_LANG_OBJECT = ";Ljava/lang/reflect/Type;Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
 
+    /**
+     * a method matching all the fields of a wide bean would exceed the 64k code limit of the JVM, past this number of
+     * fields they are matched by one generated method per slice of {@link #FIELDS_PER_METHOD} fields
+     */
+    static final int            SPLIT_FIELDS      = 128;
+    static final int            FIELDS_PER_METHOD = 64;
+    public static final int     MAX_FIELDS        = 1024;
+    static final String         DESERIALZE_FIELDS = "deserialzeFields_";
+    static final String         ASM_FLAGS         = "_asm_flags_";
+    static final String         FIELDS_STAT       = "fieldsStat";
+
+    /**
+     * the largest table of the getFieldIndex switch, the names of a bean without a perfect hash within it keep the
+     * binary search of JavaBeanDeserializer
+     */
+    public static final int     MAX_SWITCH_SIZE   = 4096;
+    static final String         GET_FIELD_INDEX   = "getFieldIndex";
+
     public ASMDeserializerFactory(ClassLoader parentClassLoader){
         classLoader = parentClassLoader instanceof ASMClassLoader //
                 ? (ASMClassLoader) parentClassLoader //
@@ -97,35 +125,197 @@ public class ASMDeserializerFactory implements Opcodes {
             throw new IllegalArgumentException("not support type :" + clazz.getName());
         }
 
-        String className = "FastjsonASMDeserializer_" + seed.incrementAndGet() + "_" + clazz.getSimpleName();
-        String classNameType;
-        String classNameFull;
+        Class<?> deserClass = null;
+        ASMCodeCache codeCache = ASMCodeCache.getInstance();
+        if (codeCache != null) {
+            deserClass = defineCached(codeCache, beanInfo);
+        }
+        if (deserClass == null) {
+            String className = "FastjsonASMDeserializer_" + seed.incrementAndGet() + "_" + clazz.getSimpleName();
+            byte[] code = generate(className, beanInfo);
+            deserClass = classLoader.defineClassPublic(classNameFull(className), code, 0, code.length);
+        }
 
-        Package pkg = ASMDeserializerFactory.class.getPackage();
-        if (pkg != null) {
-            String packageName = pkg.getName();
-            classNameType = packageName.replace('.', '/') + "/" + className;
-            classNameFull = packageName + "." + className;
-        } else {
-            classNameType = className;
-            classNameFull = className;
+        Constructor<?> constructor = deserClass.getConstructor(ParserConfig.class, JavaBeanInfo.class);
+        Object instance = constructor.newInstance(config, beanInfo);
+
+        return (ObjectDeserializer) instance;
+    }
+
+    /**
+     * defines the deserializer class of a shape once, from the on-disk cache when it has it
+     *
+     * @return null when the cached code could not be defined
+     */
+    private Class<?> defineCached(ASMCodeCache codeCache, JavaBeanInfo beanInfo) {
+        String shape = shape(beanInfo);
+        String className = "FastjsonASMDeserializer_" + ASMCodeCache.hash(shape) + "_" + beanInfo.clazz.getSimpleName();
+
+        synchronized (cachedClasses) {
+            Class<?> deserClass = cachedClasses.get(className);
+            if (deserClass != null) {
+                return deserClass;
+            }
+
+            byte[] code = codeCache.load(className, shape);
+            boolean cached = code != null;
+            if (!cached) {
+                code = generate(className, beanInfo);
+            }
+
+            try {
+                deserClass = classLoader.defineClassPublic(classNameFull(className), code, 0, code.length);
+                Class.forName(deserClass.getName(), true, classLoader); // verify
+            } catch (ClassNotFoundException | LinkageError ex) {
+                if (!cached) {
+                    throw new JSONException("define asm deserializer error, " + beanInfo.clazz.getName(), ex);
+                }
+                codeCache.remove(className);
+                return null;
+            }
+
+            if (!cached) {
+                codeCache.store(className, shape, code);
+            }
+            cachedClasses.put(className, deserClass);
+            return deserClass;
         }
+    }
+
+    /**
+     * what the generated code depends on, the key of the on-disk cache
+     */
+    private static String shape(JavaBeanInfo beanInfo) {
+        StringBuilder buf = new StringBuilder(256);
+        buf.append(JSON.VERSION).append('|').append(CODEGEN_VERSION).append("|deserializer|").append(beanInfo.clazz.getName())
+           .append('|').append(beanInfo.builderClass == null ? null : beanInfo.builderClass.getName())
+           .append('|').append(beanInfo.defaultConstructor)
+           .append('|').append(beanInfo.defaultConstructorParameterSize)
+           .append('|').append(beanInfo.buildMethod)
+           .append('|').append(beanInfo.parserFeatures)
+           .append('|').append(beanInfo.typeName)
+           .append("|fields:");
+        for (FieldInfo fieldInfo : beanInfo.fields) {
+            ASMCodeCache.appendShape(buf, fieldInfo);
+        }
+        buf.append("|sorted:");
+        for (FieldInfo fieldInfo : beanInfo.sortedFields) {
+            buf.append(fieldInfo.name).append(';');
+        }
+        return buf.toString();
+    }
+
+    private static String classNameFull(String className) {
+        Package pkg = ASMDeserializerFactory.class.getPackage();
+        return pkg != null ? pkg.getName() + "." + className : className;
+    }
+
+    private byte[] generate(String className, JavaBeanInfo beanInfo) {
+        String classNameType = classNameFull(className).replace('.', '/');
 
         ClassWriter cw = new ClassWriter();
         cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, classNameType, type(JavaBeanDeserializer.class), null);
 
         init(cw, new Context(classNameType, beanInfo, 3));
         createInstance(cw, new Context(classNameType, beanInfo, 3));
-        deserialze(cw, new Context(classNameType, beanInfo, 5));
+        if (beanInfo.sortedFields.length > SPLIT_FIELDS) {
+            deserialzeSplit(cw, new Context(classNameType, beanInfo, 5));
+            // array mapping of wide beans is left to JavaBeanDeserializer
+        } else {
+            deserialze(cw, new Context(classNameType, beanInfo, 5));
+            deserialzeArrayMapping(cw, new Context(classNameType, beanInfo, 4));
+        }
+        getFieldIndex(cw, beanInfo);
+        return cw.toByteArray();
+    }
 
-        deserialzeArrayMapping(cw, new Context(classNameType, beanInfo, 4));
-        byte[] code = cw.toByteArray();
+    /**
+     * getFieldIndex(long hash) as a tableswitch on (int) (hash >>> shift) & mask, a perfect hash of the fnv1a64 of the
+     * field names, so a key out of the declared order costs one hash and one compare.
+     */
+    private void getFieldIndex(ClassWriter cw, JavaBeanInfo beanInfo) {
+        FieldInfo[] fields = beanInfo.sortedFields;
+        long[] hashes = new long[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            hashes[i] = TypeUtils.fnv1a64(fields[i].name);
+        }
 
-        Class<?> deserClass = classLoader.defineClassPublic(classNameFull, code, 0, code.length);
-        Constructor<?> constructor = deserClass.getConstructor(ParserConfig.class, JavaBeanInfo.class);
-        Object instance = constructor.newInstance(config, beanInfo);
+        int[] perfectHash = perfectHash(hashes);
+        if (perfectHash == null) {
+            return;
+        }
+        int shift = perfectHash[0];
+        int mask = perfectHash[1] - 1;
+
+        Label dflt = new Label();
+        Label[] labels = new Label[mask + 1];
+        Arrays.fill(labels, dflt);
+        Label[] cases = new Label[hashes.length];
+        for (int i = 0; i < hashes.length; ++i) {
+            cases[i] = new Label();
+            labels[(int) (hashes[i] >>> shift) & mask] = cases[i];
+        }
 
-        return (ObjectDeserializer) instance;
+        MethodVisitor mw = new MethodWriter(cw, ACC_PUBLIC, GET_FIELD_INDEX, "(J)I", null);
+        mw.visitVarInsn(LLOAD, 1);
+        mw.visitLdcInsn(shift);
+        mw.visitInsn(LUSHR);
+        mw.visitInsn(L2I);
+        mw.visitLdcInsn(mask);
+        mw.visitInsn(IAND);
+        mw.visitTableSwitchInsn(0, mask, dflt, labels);
+
+        for (int i = 0; i < hashes.length; ++i) {
+            mw.visitLabel(cases[i]);
+            mw.visitVarInsn(LLOAD, 1);
+            mw.visitLdcInsn(hashes[i]);
+            mw.visitInsn(LCMP);
+            mw.visitJumpInsn(IFNE, dflt);
+            mw.visitLdcInsn(i);
+            mw.visitInsn(IRETURN);
+        }
+
+        mw.visitLabel(dflt);
+        mw.visitInsn(ICONST_M1);
+        mw.visitInsn(IRETURN);
+
+        mw.visitMaxs(4, 3);
+        mw.visitEnd();
+    }
+
+    /**
+     * @return {shift, size} of the smallest table where (int) (hash >>> shift) & (size - 1) differs for all the
+     * hashes, null when there is none up to {@link #MAX_SWITCH_SIZE}
+     */
+    public static int[] perfectHash(long[] hashes) {
+        if (hashes.length == 0) {
+            return null;
+        }
+
+        int size = Integer.highestOneBit(hashes.length);
+        if (size < hashes.length) {
+            size <<= 1;
+        }
+        for (; size <= MAX_SWITCH_SIZE; size <<= 1) {
+            int mask = size - 1;
+            boolean[] used = new boolean[size];
+            for (int shift = 0; shift <= 64 - Integer.numberOfTrailingZeros(size); ++shift) {
+                Arrays.fill(used, false);
+                boolean perfect = true;
+                for (long hash : hashes) {
+                    int slot = (int) (hash >>> shift) & mask;
+                    if (used[slot]) {
+                        perfect = false;
+                        break;
+                    }
+                    used[slot] = true;
+                }
+                if (perfect) {
+                    return new int[] { shift, size };
+                }
+            }
+        }
+        return null;
     }
 
     private void setFlag(MethodVisitor mw, Context context, int i) {
@@ -629,6 +819,219 @@ public class ASMDeserializerFactory implements Opcodes {
         Label return1 = new Label();
         Label end = new Label();
 
+        deserialzeBegin(context, mw, super1, return1);
+
+        matchFields(context, mw, reset, end, true);
+
+        mw.visitLabel(end);
+
+        extracted34(context, mw);
+
+        mw.visitLabel(return1);
+
+        setContext(context, mw);
+        mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
+
+        Method buildMethod = context.beanInfo.buildMethod;
+        extracted29(context, mw, buildMethod);
+
+        mw.visitInsn(ARETURN);
+
+        mw.visitLabel(reset);
+
+        batchSet(context, mw);
+        mw.visitVarInsn(ALOAD, 0);
+        mw.visitVarInsn(ALOAD, 1);
+        mw.visitVarInsn(ALOAD, 2);
+        mw.visitVarInsn(ALOAD, 3);
+        mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
+        mw.visitVarInsn(ILOAD, 4);
+
+
+        int fieldListSize = context.fieldInfoList.length;
+        int flagSize = (fieldListSize / 32);
+
+        flagSize = extracted33(fieldListSize, flagSize);
+
+        extracted32(mw, flagSize);
+        mw.visitIntInsn(NEWARRAY, T_INT);
+        extracted31(context, mw, flagSize);
+
+        mw.visitMethodInsn(INVOKEVIRTUAL, type(JavaBeanDeserializer.class),
+                "parseRest", "(L" + DEFAULT_JSON_PARSER
+                        + ";Ljava/lang/reflect/Type;Ljava/lang/Object;Ljava/lang/Object;I[I)Ljava/lang/Object;");
+        mw.visitTypeInsn(CHECKCAST, type(context.clazz)); // cast
+        mw.visitInsn(ARETURN);
+
+        mw.visitLabel(super1);
+        mw.visitVarInsn(ALOAD, 0);
+        mw.visitVarInsn(ALOAD, 1);
+        mw.visitVarInsn(ALOAD, 2);
+        mw.visitVarInsn(ALOAD, 3);
+        mw.visitVarInsn(ILOAD, 4);
+        mw.visitMethodInsn(INVOKESPECIAL, type(JavaBeanDeserializer.class), //
+                DESERIALIZE, //
+                "(L" + DEFAULT_JSON_PARSER + LJAVA_LANG_REFLECT_TYPE_LJAVA_LANG_OBJECT_I_LJAVA_LANG_OBJECT);
+        mw.visitInsn(ARETURN);
+
+        mw.visitMaxs(10, context.variantIndex);
+        mw.visitEnd();
+
+    }
+
+    /**
+     * deserialze of a wide bean: the fields are matched by deserialzeFields_0..n, which share the instance and a flags
+     * array. Each returns 0 when its fields matched, 1 at the end of the object and -1 when the rest has to be parsed
+     * by parseRest, the fields matched so far are set into the instance before it returns.
+     */
+    private void deserialzeSplit(ClassWriter cw, Context context) {
+        JavaBeanInfo beanInfo = context.beanInfo;
+        context.fieldInfoList = beanInfo.sortedFields;
+        int fieldListSize = context.fieldInfoList.length;
+
+        MethodVisitor mw = new MethodWriter(cw, ACC_PUBLIC, DESERIALIZE,
+                "(L" + DEFAULT_JSON_PARSER + LJAVA_LANG_REFLECT_TYPE_LJAVA_LANG_OBJECT_I_LJAVA_LANG_OBJECT, null);
+
+        Label reset = new Label();
+        Label super1 = new Label();
+        Label return1 = new Label();
+
+        deserialzeBegin(context, mw, super1, return1);
+
+        mw.visitLdcInsn(extracted33(fieldListSize, fieldListSize / 32));
+        mw.visitIntInsn(NEWARRAY, T_INT);
+        mw.visitVarInsn(ASTORE, context.var2(ASM_FLAGS));
+
+        for (int from = 0, index = 0; from < fieldListSize; from += FIELDS_PER_METHOD, ++index) {
+            int to = Math.min(from + FIELDS_PER_METHOD, fieldListSize);
+            String methodName = DESERIALZE_FIELDS + index;
+            String methodDesc = "(L" + DEFAULT_JSON_PARSER + ";L" + JSON_LEXER_BASE + ";Ljava/lang/Object;[I)I";
+            deserialzeFields(cw, new Context(context.className, beanInfo, 2), methodName, methodDesc, from, to);
+
+            mw.visitVarInsn(ALOAD, 0);
+            mw.visitVarInsn(ALOAD, 1);
+            mw.visitVarInsn(ALOAD, context.var2(LEXER));
+            mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
+            mw.visitVarInsn(ALOAD, context.var2(ASM_FLAGS));
+            mw.visitMethodInsn(INVOKESPECIAL, context.className, methodName, methodDesc);
+            mw.visitVarInsn(ISTORE, context.var2(FIELDS_STAT));
+
+            mw.visitVarInsn(ILOAD, context.var2(FIELDS_STAT));
+            mw.visitJumpInsn(IFLT, reset);
+            mw.visitVarInsn(ILOAD, context.var2(FIELDS_STAT));
+            mw.visitJumpInsn(IFGT, return1);
+        }
+        mw.visitJumpInsn(GOTO, reset);
+
+        mw.visitLabel(return1);
+
+        setContext(context, mw);
+        mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
+        extracted29(context, mw, beanInfo.buildMethod);
+        mw.visitInsn(ARETURN);
+
+        mw.visitLabel(reset);
+
+        mw.visitVarInsn(ALOAD, 0);
+        mw.visitVarInsn(ALOAD, 1);
+        mw.visitVarInsn(ALOAD, 2);
+        mw.visitVarInsn(ALOAD, 3);
+        mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
+        mw.visitVarInsn(ILOAD, 4);
+        mw.visitVarInsn(ALOAD, context.var2(ASM_FLAGS));
+        mw.visitMethodInsn(INVOKEVIRTUAL, type(JavaBeanDeserializer.class),
+                "parseRest", "(L" + DEFAULT_JSON_PARSER
+                        + ";Ljava/lang/reflect/Type;Ljava/lang/Object;Ljava/lang/Object;I[I)Ljava/lang/Object;");
+        mw.visitTypeInsn(CHECKCAST, type(context.clazz)); // cast
+        mw.visitInsn(ARETURN);
+
+        mw.visitLabel(super1);
+        mw.visitVarInsn(ALOAD, 0);
+        mw.visitVarInsn(ALOAD, 1);
+        mw.visitVarInsn(ALOAD, 2);
+        mw.visitVarInsn(ALOAD, 3);
+        mw.visitVarInsn(ILOAD, 4);
+        mw.visitMethodInsn(INVOKESPECIAL, type(JavaBeanDeserializer.class), //
+                DESERIALIZE, //
+                "(L" + DEFAULT_JSON_PARSER + LJAVA_LANG_REFLECT_TYPE_LJAVA_LANG_OBJECT_I_LJAVA_LANG_OBJECT);
+        mw.visitInsn(ARETURN);
+
+        mw.visitMaxs(10, context.variantIndex);
+        mw.visitEnd();
+    }
+
+    /**
+     * matches the sorted fields [from, to) of a wide bean, from is a multiple of 32 so the flags of the slice are the
+     * words from / 32.. of the shared flags array.
+     */
+    private void deserialzeFields(ClassWriter cw, Context context, String methodName, String methodDesc, int from,
+                                  int to) {
+        JavaBeanInfo beanInfo = context.beanInfo;
+        FieldInfo[] fields = new FieldInfo[to - from];
+        System.arraycopy(beanInfo.sortedFields, from, fields, 0, fields.length);
+        context.fieldInfoList = fields;
+        boolean lastFields = to == beanInfo.sortedFields.length;
+
+        MethodVisitor mw = new MethodWriter(cw, ACC_PRIVATE, methodName, methodDesc, null);
+
+        Label reset = new Label();
+        Label end = new Label();
+
+        // parser 1, lexer 2, instance 3, flags 4
+        context.var2(LEXER);
+        context.var2("instance_object");
+        context.var2(ASM_FLAGS);
+
+        mw.visitVarInsn(ALOAD, 3);
+        mw.visitTypeInsn(CHECKCAST, type(context.getInstClass())); // cast
+        mw.visitVarInsn(ASTORE, context.var2(INSTANCE));
+
+        mw.visitInsn(ICONST_0);
+        mw.visitVarInsn(ISTORE, context.var2(MATCHED_COUNT));
+        mw.visitInsn(ICONST_0);
+        mw.visitIntInsn(ISTORE, context.var2(MATCH_STAT));
+
+        matchFields(context, mw, reset, end, lastFields);
+
+        if (!lastFields) {
+            batchSet(context, mw);
+            storeFlags(context, mw, from);
+            mw.visitInsn(ICONST_0);
+            mw.visitInsn(IRETURN);
+        }
+
+        mw.visitLabel(end);
+        extracted34(context, mw);
+        storeFlags(context, mw, from);
+        mw.visitInsn(ICONST_1);
+        mw.visitInsn(IRETURN);
+
+        mw.visitLabel(reset);
+        batchSet(context, mw);
+        storeFlags(context, mw, from);
+        mw.visitInsn(ICONST_M1);
+        mw.visitInsn(IRETURN);
+
+        mw.visitMaxs(10, context.variantIndex);
+        mw.visitEnd();
+    }
+
+    private void storeFlags(Context context, MethodVisitor mw, int from) {
+        for (int i = 0, size = context.fieldInfoList.length; i < size; i += 32) {
+            mw.visitVarInsn(ALOAD, context.var2(ASM_FLAGS));
+            mw.visitLdcInsn((from + i) / 32);
+            mw.visitVarInsn(ILOAD, context.var2(ASM_FLAG + (i / 32)));
+            mw.visitInsn(IASTORE);
+        }
+    }
+
+    /**
+     * reads the lexer, hands array input and unsupported features over, creates the instance and the child context,
+     * an empty object jumps to return1
+     */
+    private void deserialzeBegin(Context context, MethodVisitor mw, Label super1, Label return1) {
+        JavaBeanInfo beanInfo = context.beanInfo;
+
         defineVarLexer(context, mw);
 
         
@@ -681,7 +1084,13 @@ public class ASMDeserializerFactory implements Opcodes {
 
         mw.visitInsn(ICONST_0); // UNKOWN
         mw.visitIntInsn(ISTORE, context.var2(MATCH_STAT));
+    }
 
+    /**
+     * matches context.fieldInfoList in order into locals, the flags of the matched fields are set. A field that does
+     * not match jumps to reset, the end of the object to end; when lastFields the last field has to end the object.
+     */
+    private void matchFields(Context context, MethodVisitor mw, Label reset, Label end, boolean lastFields) {
         int fieldListSize = context.fieldInfoList.length;
         extracted8(context, mw, fieldListSize);
 
@@ -741,62 +1150,10 @@ public class ASMDeserializerFactory implements Opcodes {
 
             mw.visitLabel(notMatch);
 
-            extracted27(context, mw, reset, fieldListSize, i);
+            if (lastFields) {
+                extracted27(context, mw, reset, fieldListSize, i);
+            }
         } // endFor
-
-        mw.visitLabel(end);
-
-        extracted34(context, mw);
-
-        mw.visitLabel(return1);
-
-        setContext(context, mw);
-        mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
-
-        Method buildMethod = context.beanInfo.buildMethod;
-        extracted29(context, mw, buildMethod);
-
-        mw.visitInsn(ARETURN);
-
-        mw.visitLabel(reset);
-
-        batchSet(context, mw);
-        mw.visitVarInsn(ALOAD, 0);
-        mw.visitVarInsn(ALOAD, 1);
-        mw.visitVarInsn(ALOAD, 2);
-        mw.visitVarInsn(ALOAD, 3);
-        mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
-        mw.visitVarInsn(ILOAD, 4);
-
-
-        int flagSize = (fieldListSize / 32);
-
-        flagSize = extracted33(fieldListSize, flagSize);
-
-        extracted32(mw, flagSize);
-        mw.visitIntInsn(NEWARRAY, T_INT);
-        extracted31(context, mw, flagSize);
-
-        mw.visitMethodInsn(INVOKEVIRTUAL, type(JavaBeanDeserializer.class),
-                "parseRest", "(L" + DEFAULT_JSON_PARSER
-                        + ";Ljava/lang/reflect/Type;Ljava/lang/Object;Ljava/lang/Object;I[I)Ljava/lang/Object;");
-        mw.visitTypeInsn(CHECKCAST, type(context.clazz)); // cast
-        mw.visitInsn(ARETURN);
-
-        mw.visitLabel(super1);
-        mw.visitVarInsn(ALOAD, 0);
-        mw.visitVarInsn(ALOAD, 1);
-        mw.visitVarInsn(ALOAD, 2);
-        mw.visitVarInsn(ALOAD, 3);
-        mw.visitVarInsn(ILOAD, 4);
-        mw.visitMethodInsn(INVOKESPECIAL, type(JavaBeanDeserializer.class), //
-                DESERIALIZE, //
-                "(L" + DEFAULT_JSON_PARSER + LJAVA_LANG_REFLECT_TYPE_LJAVA_LANG_OBJECT_I_LJAVA_LANG_OBJECT);
-        mw.visitInsn(ARETURN);
-
-        mw.visitMaxs(10, context.variantIndex);
-        mw.visitEnd();
-
     }
 
     private void extracted39(Context context, MethodVisitor mw) {
@@ -1129,10 +1486,15 @@ public class ASMDeserializerFactory implements Opcodes {
             FieldInfo fieldInfo = context.fieldInfoList[i];
             Class<?> fieldClass = fieldInfo.fieldClass;
 
-            extracted16(context, mw, fieldInfo, fieldClass);
-            extracted17(context, mw, fieldInfo, fieldClass);
-            extracted19(context, mw, fieldInfo, fieldClass);
-            extracted20(context, mw, i, fieldInfo, fieldClass);
+            if (extracted15(fieldClass)) {
+                extracted16(context, mw, fieldInfo, fieldClass);
+            } else if (fieldClass == long.class) {
+                extracted17(context, mw, fieldInfo, fieldClass);
+            } else if (fieldClass == float.class) {
+                extracted19(context, mw, fieldInfo, fieldClass);
+            } else {
+                extracted20(context, mw, i, fieldInfo, fieldClass);
+            }
         }
     }
 
@@ -1266,11 +1628,14 @@ public class ASMDeserializerFactory implements Opcodes {
         Class<?> fieldClass = fieldInfo.fieldClass;
         Type fieldType = fieldInfo.fieldType;
 
-        if (fieldClass == boolean.class) {
+        if (fieldClass == boolean.class //
+                || fieldClass == byte.class //
+                || fieldClass == short.class //
+                || fieldClass == int.class) {
             mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
             mw.visitVarInsn(ILOAD, context.varAsm(fieldInfo));
             set1(mw, fieldInfo);
-        }else if (fieldClass == long.class) {
+        } else if (fieldClass == long.class) {
             mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
             mw.visitVarInsn(LLOAD, context.varAsm(fieldInfo, 2));
             if (fieldInfo.method != null) {
@@ -1293,14 +1658,29 @@ public class ASMDeserializerFactory implements Opcodes {
             mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
             mw.visitVarInsn(ALOAD, context.varAsm(fieldInfo));
             set1(mw, fieldInfo);
-        }else if (Collection.class.isAssignableFrom(fieldClass)) {
+        } else if (Collection.class.isAssignableFrom(fieldClass)) {
             mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
             Type itemType = TypeUtils.getCollectionItemClass(fieldType);
             extracted2(context, mw, fieldInfo, fieldClass, itemType);
-
+        } else if (isBoxedNumber(fieldClass)) {
+            mw.visitVarInsn(ALOAD, context.var2(INSTANCE));
+            mw.visitVarInsn(ALOAD, context.varAsm(fieldInfo));
+            set1(mw, fieldInfo);
         }
     }
 
+    /**
+     * the boxed numbers the lexer scans into a local, like the primitives they are set once the object is complete
+     */
+    private static boolean isBoxedNumber(Class<?> fieldClass) {
+        return fieldClass == Integer.class //
+                || fieldClass == Long.class //
+                || fieldClass == Short.class //
+                || fieldClass == Byte.class //
+                || fieldClass == Float.class //
+                || fieldClass == Double.class;
+    }
+
     private void extracted2(Context context, MethodVisitor mw, FieldInfo fieldInfo, Class<?> fieldClass,
                             Type itemType) {
         if (itemType == String.class) {
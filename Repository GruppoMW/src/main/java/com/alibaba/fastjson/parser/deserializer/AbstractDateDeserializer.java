@@ -1,13 +1,13 @@
 package com.alibaba.fastjson.parser.deserializer;
 
 import java.lang.reflect.Type;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Locale;
+import java.util.TimeZone;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.parser.*;
+import com.alibaba.fastjson.util.DateFormats;
 import com.alibaba.fastjson.util.TypeUtils;
 
 public abstract class AbstractDateDeserializer extends ContextObjectDeserializer implements ObjectDeserializer {
@@ -33,16 +33,15 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
                     return (T) TypeUtils.castToTimestamp(strVal);
                 }
 
-                SimpleDateFormat simpleDateFormat = null;
-                simpleDateFormat = extracted17(parser, format, simpleDateFormat);
-
                 if (JSON.defaultTimeZone == null) {
                     throw new NullPointerException("ERROR");
                 }
 
-                val = extracted14(strVal, simpleDateFormat);
+                val = parseDate(strVal, format, parser.lexer.getLocale(), parser.lexer.getTimeZone());
 
-                val = extracted16(parser, format, val, strVal, simpleDateFormat);
+                if (val == null && JSON.defaultLocale == Locale.CHINA) {
+                    val = parseDate(strVal, format, Locale.US, parser.lexer.getTimeZone());
+                }
 
                 val = extracted12(format, val, strVal);
             } else {
@@ -58,60 +57,23 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
         return (T) cast(parser, clazz, fieldName, val);
     }
 
-    private SimpleDateFormat extracted17(DefaultJSONParser parser, String format, SimpleDateFormat simpleDateFormat) {
-        try {
-            simpleDateFormat = new SimpleDateFormat(format, parser.lexer.getLocale());
-        } catch (IllegalArgumentException ex) {
-            simpleDateFormat = extracted13(parser, format, simpleDateFormat, ex);
-        }
-        return simpleDateFormat;
-    }
-
-    private Object extracted16(DefaultJSONParser parser, String format, Object val, String strVal,
-            SimpleDateFormat simpleDateFormat) {
-        if (val == null && JSON.defaultLocale == Locale.CHINA) {
-            simpleDateFormat = extracted15(parser, format, simpleDateFormat);
-            simpleDateFormat.setTimeZone(parser.lexer.getTimeZone());
-
-            val = extracted14(strVal, simpleDateFormat);
-        }
-        return val;
-    }
-
-    private SimpleDateFormat extracted15(DefaultJSONParser parser, String format, SimpleDateFormat simpleDateFormat) {
+    /**
+     * @return the date, null if the text does not match the format
+     */
+    private static Object parseDate(String strVal, String format, Locale locale, TimeZone timeZone) {
         try {
-            simpleDateFormat = new SimpleDateFormat(format, Locale.US);
+            return DateFormats.parse(strVal, format, locale, timeZone);
         } catch (IllegalArgumentException ex) {
-            simpleDateFormat = extracted13(parser, format, simpleDateFormat, ex);
-        }
-        return simpleDateFormat;
-    }
-
-    private Object extracted14(String strVal, SimpleDateFormat simpleDateFormat) {
-        Object val;
-        if (simpleDateFormat == null){
-            throw new NullPointerException("ERROR");
-        }
-        try {
-            val = simpleDateFormat.parse(strVal);
-        } catch (ParseException ex) {
-            val = null;
-            // skip
-        }
-        return val;
-    }
-
-    private SimpleDateFormat extracted13(DefaultJSONParser parser, String format, SimpleDateFormat simpleDateFormat,
-            IllegalArgumentException ex) {
-        if (format.contains("T")) {
+            if (!format.contains("T")) {
+                throw ex;
+            }
             String fromat2 = format.replace("T", "'T'");
             try {
-                simpleDateFormat = new SimpleDateFormat(fromat2, parser.lexer.getLocale());
+                return DateFormats.parse(strVal, fromat2, locale, timeZone);
             } catch (IllegalArgumentException e2) {
                 throw ex;
             }
         }
-        return simpleDateFormat;
     }
 
     private Object extracted12(String format, Object val, String strVal) {
@@ -128,16 +90,7 @@ public abstract class AbstractDateDeserializer extends ContextObjectDeserializer
     }
 
     private Object extracted11(String strVal) {
-        Object val;
-        try {
-            SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", JSON.defaultLocale);
-            df.setTimeZone(JSON.defaultTimeZone);
-            val = df.parse(strVal);
-        } catch (ParseException ex2) {
-            // skip
-            val = null;
-        }
-        return val;
+        return DateFormats.parse(strVal, DateFormats.ISO8601_PATTERN, JSON.defaultLocale, JSON.defaultTimeZone);
     }
 
     private void extracted10(JSONLexer lexer, Object val, String strVal) {
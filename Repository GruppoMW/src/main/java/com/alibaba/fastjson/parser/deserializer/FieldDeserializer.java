@@ -205,6 +205,8 @@ public abstract class FieldDeserializer {
                             collection.addAll((Collection) value);
                         }
                     }
+                } else if (field != null) {
+                    field.set(object, value);
                 }
             }
         } catch (Exception e) {
@@ -114,27 +114,13 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
             }
         }
 
-        int low = 0;
-        int high = sortedFieldDeserializers.length - 1;
-
-        while (low <= high) {
-            int mid = (low + high) >>> 1;
-
-            String fieldName = sortedFieldDeserializers[mid].fieldInfo.name;
-
-            int cmp = fieldName.compareTo(key);
-
-            if (cmp < 0) {
-                low = mid + 1;
-            } else if (cmp > 0) {
-                high = mid - 1;
-            } else {
-                if (isSetFlag(mid, setFlags)) {
-                    return null;
-                }
-
-                return sortedFieldDeserializers[mid]; // key found
+        int index = getFieldIndex(TypeUtils.fnv1a64(key));
+        if (index >= 0 && sortedFieldDeserializers[index].fieldInfo.name.equals(key)) {
+            if (isSetFlag(index, setFlags)) {
+                return null;
             }
+
+            return sortedFieldDeserializers[index]; // key found
         }
 
         if(this.alterNameFieldDeserializers != null){
@@ -145,6 +131,21 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
     }
 
     public FieldDeserializer getFieldDeserializer(long hash) {
+        int index = getFieldIndex(hash);
+        if (index >= 0) {
+            return sortedFieldDeserializers[index];
+        }
+
+        return null; // key not found.
+    }
+
+    /**
+     * The index in sortedFieldDeserializers of the field whose name has the fnv1a64 hash, -1 when there is none. The
+     * generated deserializers override it with a switch over a perfect hash of the field names.
+     *
+     * @since 1.2.80
+     */
+    protected int getFieldIndex(long hash) {
         if (this.hashArray == null) {
             long[] hashArray5 = new long[sortedFieldDeserializers.length];
             for (int i = 0; i < sortedFieldDeserializers.length; i++) {
@@ -156,7 +157,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
 
         int pos = Arrays.binarySearch(hashArray, hash);
         if (pos < 0) {
-            return null;
+            return -1;
         }
 
         if (hashArrayMapping == null) {
@@ -170,12 +171,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
             hashArrayMapping = mapping;
         }
 
-        int setterIndex = hashArrayMapping[pos];
-        if (setterIndex != -1) {
-            return sortedFieldDeserializers[setterIndex];
-        }
-
-        return null; // key not found.
+        return hashArrayMapping[pos];
     }
 
     static boolean isSetFlag(int i, int[] setFlags) {
@@ -665,7 +661,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == long.class || fieldClass == Long.class) {
                         long longVal = lexer.scanFieldLong(nameChars);
@@ -679,7 +676,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == String.class) {
                         fieldValue = lexer.scanFieldString(nameChars);
@@ -688,7 +686,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == java.util.Date.class && fieldInfo.format == null) {
                         fieldValue = lexer.scanFieldDate(nameChars);
@@ -697,7 +696,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == BigDecimal.class) {
                         fieldValue = lexer.scanFieldDecimal(nameChars);
@@ -706,7 +706,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == BigInteger.class) {
                         fieldValue = lexer.scanFieldBigInteger(nameChars);
@@ -715,7 +716,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == boolean.class || fieldClass == Boolean.class) {
                         boolean booleanVal = lexer.scanFieldBoolean(nameChars);
@@ -730,7 +732,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == float.class || fieldClass == Float.class) {
                         float floatVal = lexer.scanFieldFloat(nameChars);
@@ -744,7 +747,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == double.class || fieldClass == Double.class) {
                         double doubleVal = lexer.scanFieldDouble(nameChars);
@@ -758,7 +762,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass.isEnum() //
                             && parser.getConfig().getDeserializer(fieldClass) instanceof EnumDeserializer
@@ -772,7 +777,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                                 matchField = true;
                                 valueParsed = true;
                             } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                                //skip
+                                notMatchCount++;
+                                continue;
                             }
                         }
                     } else if (fieldClass == int[].class) {
@@ -782,7 +788,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == float[].class) {
                         fieldValue = lexer.scanFieldFloatArray(nameChars);
@@ -791,7 +798,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (fieldClass == float[][].class) {
                         fieldValue = lexer.scanFieldFloatArray2(nameChars);
@@ -800,12 +808,13 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             matchField = true;
                             valueParsed = true;
                         } else if (lexer.matchStat == JSONLexer.NOT_MATCH_NAME) {
-                            //skip
+                            notMatchCount++;
+                            continue;
                         }
                     } else if (lexer.matchField(nameChars)) {
                         matchField = true;
                     } else {
-                        //skip
+                        continue;
                     }
                 }
 
@@ -816,11 +825,10 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                         token = lexer.token();
                         if (token == JSONToken.RBRACE) {
                             lexer.nextToken(JSONToken.COMMA);
-                            //skip
+                            break;
                         }
                         if (token == JSONToken.COMMA && lexer.isEnabled(Feature.ALLOW_ARBITRARY_COMMAS)) {
-                            //skip
-
+                            continue;
                         }
                     }
 
@@ -856,7 +864,9 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                                     StringBuilder buf = new StringBuilder();
                                     for (int i = 0; i < ref.length(); i++) {
                                         char ch = ref.charAt(i);
-
+                                        if (ch == '\\') {
+                                            ch = ref.charAt(++i);
+                                        }
                                         buf.append(ch);
                                     }
                                     ref = buf.toString();
@@ -891,9 +901,12 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                             String typeName = lexer.stringVal();
                             lexer.nextToken(JSONToken.COMMA);
 
-                            if (typeName.equals(beanInfo.typeName)|| parser.isEnabled(Feature.IGNORE_AUTO_TYPE) &&  (lexer.token() == JSONToken.RBRACE)) {
+                            if (typeName.equals(beanInfo.typeName) || parser.isEnabled(Feature.IGNORE_AUTO_TYPE)) {
+                                if (lexer.token() == JSONToken.RBRACE) {
                                     lexer.nextToken();
-                                //skip
+                                    break;
+                                }
+                                continue;
                             }
 
 
@@ -907,9 +920,12 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                                     userType = autoTypeCheckHandler.handler(typeName, expectClass, lexer.getFeatures());
                                 }
 
-                                if (userType == null && (typeName.equals("java.util.HashMap") || typeName.equals("java.util.LinkedHashMap")) &&  (lexer.token() == JSONToken.RBRACE)) {
-                                        lexer.nextToken();                                    
-                                    //skip
+                                if (userType == null && (typeName.equals("java.util.HashMap") || typeName.equals("java.util.LinkedHashMap"))) {
+                                    if (lexer.token() == JSONToken.RBRACE) {
+                                        lexer.nextToken();
+                                        break;
+                                    }
+                                    continue;
                                 }
 
                                 if (userType == null) {
@@ -979,7 +995,7 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                         }
 
                         if (lexer.matchStat == JSONLexer.END) {
-                            //skip
+                            break;
                         }
                     }
                 } else {
@@ -989,17 +1005,17 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
                     if (!match) {
                         if (lexer.token() == JSONToken.RBRACE) {
                             lexer.nextToken();
-                            //skip
+                            break;
                         }
 
-                        //skip
+                        continue;
                     } else if (lexer.token() == JSONToken.COLON) {
                         throw new JSONException("syntax error, unexpect token ':'");
                     }
                 }
 
                 if (lexer.token() == JSONToken.COMMA) {
-                    //skip
+                    continue;
                 }
 
                 if (lexer.token() == JSONToken.RBRACE) {
@@ -1392,8 +1408,8 @@ public class JavaBeanDeserializer implements ObjectDeserializer {
             pos = extracted12(key, pos);
 
             boolean is = false;
-            if (pos < 0) {
-                is = key.startsWith("is");
+            if (pos < 0 && key.startsWith("is")) {
+                is = true;
                 smartKeyHash = TypeUtils.fnv1a64Extract(key.substring(2));
                 pos = Arrays.binarySearch(smartMatchHashArray, smartKeyHash);
             }
@@ -19,6 +19,7 @@ import com.alibaba.fastjson.parser.JSONLexer;
 import com.alibaba.fastjson.parser.JSONScanner;
 import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.serializer.*;
+import com.alibaba.fastjson.util.DateFormats;
 import com.alibaba.fastjson.util.TypeUtils;
 
 public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSerializer, ContextObjectSerializer, ObjectDeserializer {
@@ -541,10 +542,28 @@ public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSe
             }
         }
 
+        int fastPattern = DateFormats.fastPattern(format);
+        if (fastPattern != DateFormats.NONE && fastPattern != DateFormats.MILLIS) {
+            long fields = -1;
+            if (object instanceof LocalDateTime) {
+                LocalDateTime dateTime = (LocalDateTime) object;
+                fields = DateFormats.fields(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(),
+                                            dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(),
+                                            dateTime.getNano() / 1000000);
+            } else if (object instanceof LocalDate && fastPattern == DateFormats.DATE) {
+                LocalDate date = (LocalDate) object;
+                fields = DateFormats.fields(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), 0, 0, 0, 0);
+            }
+            if (fields != -1) {
+                out.writeDate(fields, fastPattern);
+                return;
+            }
+        }
+
         if (format.equals(FORMATTER_ISO8601_PATTERN)) {
             formatter = formatter_iso8601;
         } else {
-            formatter = DateTimeFormatter.ofPattern(format);
+            formatter = DateFormats.getFormatter(format, null, null);
         }
 
         String text = formatter.format(object);
@@ -560,7 +579,7 @@ public class Jdk8DateCodec extends ContextObjectDeserializer implements ObjectSe
             format = DEFAULT_PATTERN;
         }
 
-        DateTimeFormatter df = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter df = DateFormats.getFormatter(format, null, null);
         return LocalDateTime.parse(value.toString(), df);
     }
 }
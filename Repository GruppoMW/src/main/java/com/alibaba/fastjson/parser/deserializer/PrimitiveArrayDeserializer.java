@@ -0,0 +1,318 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser.deserializer;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.serializer.ObjectArrayCodec;
+import com.alibaba.fastjson.util.TypeUtils;
+
+/**
+ * Deserializer of int[], long[], short[], float[], double[] and boolean[] and of their nested arrays, e.g.
+ * double[][][]. Numbers are read from the lexer into growable primitive buffers instead of a JSONArray of boxed values
+ * converted afterwards. Other element tokens, e.g. strings, are converted one by one as before, input that is not an
+ * array is left to {@link ObjectArrayCodec}.
+ *
+ * @since 1.2.80
+ */
+public class PrimitiveArrayDeserializer implements ObjectDeserializer {
+
+    public static final PrimitiveArrayDeserializer instance = new PrimitiveArrayDeserializer();
+
+    /**
+     * byte[] and char[] are read from strings too, they keep their codecs
+     */
+    public static boolean isSupported(Class<?> clazz) {
+        if (!clazz.isArray()) {
+            return false;
+        }
+
+        Class<?> componentClass = clazz.getComponentType();
+        while (componentClass.isArray()) {
+            componentClass = componentClass.getComponentType();
+        }
+        return componentClass.isPrimitive() && componentClass != byte.class && componentClass != char.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName) {
+        if (!(type instanceof Class) || !isSupported((Class<?>) type)) {
+            return ObjectArrayCodec.instance.deserialze(parser, type, fieldName);
+        }
+        return (T) readArray(parser, (Class<?>) type, fieldName);
+    }
+
+    private static Object readArray(DefaultJSONParser parser, Class<?> arrayClass, Object fieldName) {
+        final JSONLexer lexer = parser.lexer;
+        if (lexer.token() == JSONToken.NULL) {
+            lexer.nextToken(JSONToken.COMMA);
+            return null;
+        }
+        if (lexer.token() != JSONToken.LBRACKET) {
+            return ObjectArrayCodec.instance.deserialze(parser, arrayClass, fieldName);
+        }
+
+        Class<?> componentClass = arrayClass.getComponentType();
+        Object array;
+        if (componentClass.isArray()) {
+            lexer.nextToken(JSONToken.LBRACKET);
+            array = readArrays(parser, componentClass, fieldName);
+        } else {
+            lexer.nextToken(JSONToken.LITERAL_INT);
+            if (componentClass == int.class) {
+                array = readInts(parser);
+            } else if (componentClass == long.class) {
+                array = readLongs(parser);
+            } else if (componentClass == double.class) {
+                array = readDoubles(parser);
+            } else if (componentClass == float.class) {
+                array = readFloats(parser);
+            } else if (componentClass == short.class) {
+                array = readShorts(parser);
+            } else {
+                array = readBooleans(parser);
+            }
+        }
+        lexer.nextToken(JSONToken.COMMA);
+        return array;
+    }
+
+    private static Object readArrays(DefaultJSONParser parser, Class<?> componentClass, Object fieldName) {
+        final JSONLexer lexer = parser.lexer;
+        Object[] values = new Object[8];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.LBRACKET)) {
+                break;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = readArray(parser, componentClass, fieldName);
+        }
+
+        Object array = Array.newInstance(componentClass, size);
+        System.arraycopy(values, 0, array, 0, size);
+        return array;
+    }
+
+    private static int[] readInts(DefaultJSONParser parser) {
+        final JSONLexer lexer = parser.lexer;
+        int[] values = new int[16];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.LITERAL_INT)) {
+                break;
+            }
+            int value;
+            if (lexer.token() == JSONToken.LITERAL_INT) {
+                try {
+                    value = lexer.intValue();
+                } catch (NumberFormatException ex) {
+                    value = lexer.integerValue().intValue();
+                }
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                Integer intValue = TypeUtils.castToInt(parser.parse());
+                value = intValue == null ? 0 : intValue;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static long[] readLongs(DefaultJSONParser parser) {
+        final JSONLexer lexer = parser.lexer;
+        long[] values = new long[16];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.LITERAL_INT)) {
+                break;
+            }
+            long value;
+            if (lexer.token() == JSONToken.LITERAL_INT) {
+                try {
+                    value = lexer.longValue();
+                } catch (NumberFormatException ex) {
+                    value = lexer.integerValue().longValue();
+                }
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                Long longValue = TypeUtils.castToLong(parser.parse());
+                value = longValue == null ? 0 : longValue;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static short[] readShorts(DefaultJSONParser parser) {
+        final JSONLexer lexer = parser.lexer;
+        short[] values = new short[16];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.LITERAL_INT)) {
+                break;
+            }
+            short value;
+            if (lexer.token() == JSONToken.LITERAL_INT) {
+                try {
+                    value = (short) lexer.intValue();
+                } catch (NumberFormatException ex) {
+                    value = lexer.integerValue().shortValue();
+                }
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                Short shortValue = TypeUtils.castToShort(parser.parse());
+                value = shortValue == null ? 0 : shortValue;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static double[] readDoubles(DefaultJSONParser parser) {
+        final JSONLexer lexer = parser.lexer;
+        double[] values = new double[16];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.LITERAL_INT)) {
+                break;
+            }
+            double value;
+            int token = lexer.token();
+            if (token == JSONToken.LITERAL_INT || token == JSONToken.LITERAL_FLOAT) {
+                value = doubleValue(lexer);
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                Double doubleValue = TypeUtils.castToDouble(parser.parse());
+                value = doubleValue == null ? 0 : doubleValue;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static float[] readFloats(DefaultJSONParser parser) {
+        final JSONLexer lexer = parser.lexer;
+        float[] values = new float[16];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.LITERAL_INT)) {
+                break;
+            }
+            float value;
+            int token = lexer.token();
+            if (token == JSONToken.LITERAL_INT || token == JSONToken.LITERAL_FLOAT) {
+                value = (float) doubleValue(lexer);
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                Float floatValue = TypeUtils.castToFloat(parser.parse());
+                value = floatValue == null ? 0 : floatValue;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static boolean[] readBooleans(DefaultJSONParser parser) {
+        final JSONLexer lexer = parser.lexer;
+        boolean[] values = new boolean[16];
+        int size = 0;
+        for (;;) {
+            if (nextElement(lexer, JSONToken.TRUE)) {
+                break;
+            }
+            boolean value;
+            int token = lexer.token();
+            if (token == JSONToken.TRUE || token == JSONToken.FALSE) {
+                value = token == JSONToken.TRUE;
+                lexer.nextToken(JSONToken.COMMA);
+            } else if (token == JSONToken.LITERAL_INT) {
+                value = lexer.intValue() == 1;
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                Boolean booleanValue = TypeUtils.castToBoolean(parser.parse());
+                value = booleanValue != null && booleanValue;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * skips the commas before the next element
+     *
+     * @return true at the closing bracket, the lexer is left on it
+     */
+    private static boolean nextElement(JSONLexer lexer, int expect) {
+        for (;;) {
+            int token = lexer.token();
+            if (token == JSONToken.RBRACKET) {
+                return true;
+            }
+            if (token == JSONToken.EOF) {
+                throw new JSONException("unclosed array, " + lexer.info());
+            }
+            if (token != JSONToken.COMMA) {
+                return false;
+            }
+            lexer.nextToken(expect);
+        }
+    }
+
+    /**
+     * integers up to long are converted without parsing their text
+     */
+    private static double doubleValue(JSONLexer lexer) {
+        if (lexer.token() == JSONToken.LITERAL_INT) {
+            try {
+                return lexer.longValue();
+            } catch (NumberFormatException ex) {
+                // skip, parsed as text
+            }
+        }
+        return Double.parseDouble(lexer.numberString());
+    }
+
+    public int getFastMatchToken() {
+        return JSONToken.LBRACKET;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.parser.deserializer;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.JavaBeanInfo;
+import com.alibaba.fastjson.util.TieredCompilation;
+
+/**
+ * The reflective tier of a java bean, promoted to an ASM generated deserializer after threshold reads. The config
+ * then registers the generated deserializer, field deserializers still holding this one are forwarded to it.
+ *
+ * @since 1.2.80
+ */
+public class TieredJavaBeanDeserializer extends JavaBeanDeserializer {
+
+    private final ParserConfig          config;
+    private final Type                  type;
+    private final int                   threshold;
+    private final boolean               async;
+    private final AtomicInteger         invocations = new AtomicInteger();
+    private volatile ObjectDeserializer promoted;
+
+    public TieredJavaBeanDeserializer(ParserConfig config, JavaBeanInfo beanInfo, Type type, int threshold,
+                                      boolean async){
+        super(config, beanInfo);
+        this.config = config;
+        this.type = type;
+        this.threshold = threshold;
+        this.async = async;
+    }
+
+    @Override
+    public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName, int features) {
+        ObjectDeserializer target = promoted;
+        if (target instanceof JavaBeanDeserializer) {
+            return ((JavaBeanDeserializer) target).deserialze(parser, type, fieldName, features);
+        }
+        if (target != null) {
+            return target.deserialze(parser, type, fieldName);
+        }
+
+        if (invocations.incrementAndGet() == threshold) {
+            if (async) {
+                TieredCompilation.execute(new Runnable() {
+
+                    public void run() {
+                        promote();
+                    }
+                });
+            } else {
+                promote();
+            }
+        }
+        return super.deserialze(parser, type, fieldName, features);
+    }
+
+    void promote() {
+        promoted = config.promote(this);
+    }
+
+    /**
+     * @return the type this deserializer is registered for
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the reads served by the reflective tier
+     */
+    public int getInvocationCount() {
+        return invocations.get();
+    }
+
+    public boolean isPromoted() {
+        return promoted != null;
+    }
+}
@@ -1,11 +1,13 @@
 package com.alibaba.fastjson.serializer;
 
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.annotation.JSONType;
 import com.alibaba.fastjson.asm.*;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.util.ASMClassLoader;
+import com.alibaba.fastjson.util.ASMCodeCache;
 import com.alibaba.fastjson.util.ASMUtils;
 import com.alibaba.fastjson.util.FieldInfo;
 import com.alibaba.fastjson.util.TypeUtils;
@@ -14,6 +16,7 @@ import java.io.Serializable;
 import java.lang.reflect.*;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +31,7 @@ public class ASMSerializerFactory implements Opcodes {
     protected final ASMClassLoader classLoader             = new ASMClassLoader();
 
     private final AtomicLong       seed                    = new AtomicLong();
+    private final Map<String, Class<?>> cachedClasses      = new HashMap<>();
 
     static final String            JSONSERIALIZER           = type(JSONSerializer.class);
     static final String            OBJECT_SERIALIZER        = type(ObjectSerializer.class);
@@ -94,6 +98,32 @@ public class ASMSerializerFactory implements Opcodes {
     static final String JAVA_LANG_BOOLEAN = "java/lang/Boolean";
     static final String Z_JAVA_LANG_BOOLEAN = "(Z)Ljava/lang/Boolean;";
     
+    /**
+     * a method writing all the properties of a wide bean would exceed the 64k code limit of the JVM, past this number
+     * of properties they are written by one generated method per slice of {@link #FIELDS_PER_METHOD} properties
+     */
+    static final int               SPLIT_FIELDS             = 128;
+    static final int               FIELDS_PER_METHOD        = 64;
+    public static final int        MAX_FIELDS               = 1024;
+    /**
+     * the version of the generated code, part of the key of the on-disk cache. Increment it with every change to the
+     * emitted bytecode, {@link JSON#VERSION} does not change between such changes.
+     */
+    static final int               CODEGEN_VERSION          = 1;
+    static final String            WRITE_FIELDS_DESC        = "(L" + JSONSERIALIZER + ";Ljava/lang/Object;Ljava/lang/Object;Ljava/lang/reflect/Type;II)I";
+
+    /**
+     * the writer features tested by the generated code, a serializer specialized on a combination of them has these
+     * tests folded into straight-line code
+     */
+    public static final int        SPECIALIZED_FEATURES     = SerializerFeature.DISABLE_CIRCULAR_REFERENCE_DETECT.mask
+                                                              | SerializerFeature.SORT_FIELD.mask
+                                                              | SerializerFeature.PRETTY_FORMAT.mask
+                                                              | SerializerFeature.BEAN_TO_ARRAY.mask
+                                                              | SerializerFeature.SKIP_TRANSIENT_FIELD.mask
+                                                              | SerializerFeature.NOT_WRITE_DEFAULT_VALUE.mask
+                                                              | SerializerFeature.WRITE_MAP_NULL_FEATURES;
+
     static class Context {
 
         static final int              SERIALIZER        = 1;
@@ -113,17 +143,29 @@ public class ASMSerializerFactory implements Opcodes {
         private Map<String, Integer>    variants       = new HashMap<>();
         private int                     variantIndex   = 9;
         private final boolean           nonContext;
+        /**
+         * the specialized features of the writer, null when they are tested at runtime
+         */
+        private final Integer           writerFeatures;
+
+        /**
+         * where the properties of a wide bean are written, set for the methods that may split them
+         */
+        private ClassWriter             cw;
+        private String                  methodName;
 
         public Context(FieldInfo[] getters, //
                        SerializeBeanInfo beanInfo, //
                        String className, //
                        boolean writeDirect, //
-                       boolean nonContext){
+                       boolean nonContext, //
+                       Integer writerFeatures){
             this.getters = getters;
             this.className = className;
             this.beanInfo = beanInfo;
             this.writeDirect = writeDirect;
             this.nonContext = nonContext || beanInfo.beanType.isEnum();
+            this.writerFeatures = writerFeatures;
         }
 
         public int variants(String name) {
@@ -159,6 +201,19 @@ public class ASMSerializerFactory implements Opcodes {
     }
 
     public JavaBeanSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo) throws InvocationTargetException, InstantiationException, IllegalAccessException, NoSuchMethodException {
+        return createJavaBeanSerializer(beanInfo, (Integer) null);
+    }
+
+    /**
+     * @return a serializer for writers with the {@link #SPECIALIZED_FEATURES} of writerFeatures, it does not test them
+     * at runtime. Other features of the writer are honored as by the generic serializer.
+     * @since 1.2.80
+     */
+    public JavaBeanSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo, int writerFeatures) throws InvocationTargetException, InstantiationException, IllegalAccessException, NoSuchMethodException {
+        return createJavaBeanSerializer(beanInfo, Integer.valueOf(writerFeatures & SPECIALIZED_FEATURES));
+    }
+
+    private JavaBeanSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo, Integer writerFeatures) throws InvocationTargetException, InstantiationException, IllegalAccessException, NoSuchMethodException {
         Class<?> clazz = beanInfo.beanType;
         extracted34(clazz);
 
@@ -174,9 +229,7 @@ public class ASMSerializerFactory implements Opcodes {
 
         FieldInfo[] getters = beanInfo.sortedFields;
 
-        boolean nativeSorted = beanInfo.sortedFields == beanInfo.fields;
-
-        if (getters.length > 256) {
+        if (getters.length > MAX_FIELDS) {
             return new JavaBeanSerializer(beanInfo);
         }
 
@@ -186,18 +239,106 @@ public class ASMSerializerFactory implements Opcodes {
             }
         }
 
-        String className = "ASMSerializer_" + seed.incrementAndGet() + "_" + clazz.getSimpleName();
-        String classNameType;
-        String classNameFull;
-        Package pkg = ASMSerializerFactory.class.getPackage();
-        if (pkg != null) {
-            String packageName = pkg.getName();
-            classNameType = packageName.replace('.', '/') + "/" + className;
-            classNameFull = packageName + "." + className;
+        Class<?> serializerClass = null;
+        ASMCodeCache codeCache = ASMCodeCache.getInstance();
+        if (codeCache != null) {
+            serializerClass = defineCached(codeCache, beanInfo, jsonType, writerFeatures);
+        }
+        if (serializerClass == null) {
+            String className = "ASMSerializer_" + seed.incrementAndGet() + "_" + clazz.getSimpleName();
+            if (writerFeatures != null) {
+                className += "_" + Integer.toHexString(writerFeatures);
+            }
+            byte[] code = generate(className, beanInfo, jsonType, writerFeatures);
+            serializerClass = classLoader.defineClassPublic(classNameFull(className), code, 0, code.length);
+        }
+
+        Constructor<?> constructor = serializerClass.getConstructor(SerializeBeanInfo.class);
+        Object instance = constructor.newInstance(beanInfo);
+
+        return (JavaBeanSerializer) instance;
+    }
+
+    /**
+     * defines the serializer class of a shape once, from the on-disk cache when it has it
+     *
+     * @return null when the cached code could not be defined
+     */
+    private Class<?> defineCached(ASMCodeCache codeCache, SerializeBeanInfo beanInfo, JSONType jsonType,
+                                  Integer writerFeatures) {
+        String shape = shape(beanInfo, jsonType, writerFeatures);
+        String className = "ASMSerializer_" + ASMCodeCache.hash(shape) + "_" + beanInfo.beanType.getSimpleName();
+
+        synchronized (cachedClasses) {
+            Class<?> serializerClass = cachedClasses.get(className);
+            if (serializerClass != null) {
+                return serializerClass;
+            }
+
+            byte[] code = codeCache.load(className, shape);
+            boolean cached = code != null;
+            if (!cached) {
+                code = generate(className, beanInfo, jsonType, writerFeatures);
+            }
+
+            try {
+                serializerClass = classLoader.defineClassPublic(classNameFull(className), code, 0, code.length);
+                Class.forName(serializerClass.getName(), true, classLoader); // verify
+            } catch (ClassNotFoundException | LinkageError ex) {
+                if (!cached) {
+                    throw new JSONException("define asm serializer error, " + beanInfo.beanType.getName(), ex);
+                }
+                codeCache.remove(className);
+                return null;
+            }
+
+            if (!cached) {
+                codeCache.store(className, shape, code);
+            }
+            cachedClasses.put(className, serializerClass);
+            return serializerClass;
+        }
+    }
+
+    /**
+     * what the generated code depends on, the key of the on-disk cache
+     */
+    private static String shape(SerializeBeanInfo beanInfo, JSONType jsonType, Integer writerFeatures) {
+        StringBuilder buf = new StringBuilder(256);
+        buf.append(JSON.VERSION).append('|').append(CODEGEN_VERSION).append("|serializer|").append(beanInfo.beanType.getName())
+           .append('|').append(beanInfo.features)
+           .append('|').append(beanInfo.typeName)
+           .append('|').append(beanInfo.typeKey)
+           .append('|').append(jsonType == null ? null : jsonType.alphabetic() + Arrays.toString(jsonType.serialzeFeatures()))
+           .append("|fields:");
+        for (FieldInfo fieldInfo : beanInfo.fields) {
+            ASMCodeCache.appendShape(buf, fieldInfo);
+        }
+        buf.append("|sorted:");
+        if (beanInfo.sortedFields == beanInfo.fields) {
+            buf.append("native");
         } else {
-            classNameType = className;
-            classNameFull = className;
+            for (FieldInfo fieldInfo : beanInfo.sortedFields) {
+                buf.append(fieldInfo.name).append(';');
+            }
+        }
+        if (writerFeatures != null) {
+            buf.append("|writer:").append(writerFeatures);
         }
+        return buf.toString();
+    }
+
+    private static String classNameFull(String className) {
+        Package pkg = ASMSerializerFactory.class.getPackage();
+        return pkg != null ? pkg.getName() + "." + className : className;
+    }
+
+    private byte[] generate(String className, SerializeBeanInfo beanInfo, JSONType jsonType, Integer writerFeatures) {
+        Class<?> clazz = beanInfo.beanType;
+        FieldInfo[] unsortedGetters = beanInfo.fields;
+        FieldInfo[] getters = beanInfo.sortedFields;
+        boolean nativeSorted = beanInfo.sortedFields == beanInfo.fields;
+        String classNameType = classNameFull(className).replace('.', '/');
 
         ClassWriter cw = new ClassWriter();
         extracted50(classNameType, cw);
@@ -227,7 +368,9 @@ public class ASMSerializerFactory implements Opcodes {
             boolean nonContext = disableCircularReferenceDetect;
             boolean writeDirect = false;
             writeDirect = extracted55(i, writeDirect);
-            if (i == 1) {
+            if (i == 0) {
+                methodName = WRITE;
+            } else if (i == 1) {
                 methodName = "writeNormal";
             } else {
                 writeDirect = true;
@@ -236,7 +379,9 @@ public class ASMSerializerFactory implements Opcodes {
             }
 
             Context context = new Context(getters, beanInfo, classNameType, writeDirect,
-                                          nonContext);
+                                          nonContext, writerFeatures);
+            context.cw = cw;
+            context.methodName = methodName;
 
             mw = extracted44(cw, methodName);
 
@@ -249,7 +394,9 @@ public class ASMSerializerFactory implements Opcodes {
         if (!nativeSorted) {
             // sortField support
             Context context = new Context(getters, beanInfo, classNameType, false,
-                                          disableCircularReferenceDetect);
+                                          disableCircularReferenceDetect, writerFeatures);
+            context.cw = cw;
+            context.methodName = "writeUnsorted";
 
             mw = new MethodWriter(cw, ACC_PUBLIC, "writeUnsorted",
                                   "(L" + JSONSERIALIZER + COMMA_LJAVA_LANG_OBJECT_LJAVA_LANG_OBJECT_LJAVA_LANG_REFLECT_TYPE_I_V, new String[] { JAVA_IO_IOEXCEPTION });
@@ -262,15 +409,9 @@ public class ASMSerializerFactory implements Opcodes {
         // 0 writeAsArray
         // 1 writeAsArrayNormal
         // 2 writeAsArrayNonContext
-        extracted49(beanInfo, clazz, getters, classNameType, cw, disableCircularReferenceDetect);
+        extracted49(beanInfo, clazz, getters, classNameType, cw, disableCircularReferenceDetect, writerFeatures);
 
-        byte[] code = cw.toByteArray();
-
-        Class<?> serializerClass = classLoader.defineClassPublic(classNameFull, code, 0, code.length);
-        Constructor<?> constructor = serializerClass.getConstructor(SerializeBeanInfo.class);
-        Object instance = constructor.newInstance(beanInfo);
-
-        return (JavaBeanSerializer) instance;
+        return cw.toByteArray();
     }
 
     private boolean extracted55(int i, boolean writeDirect) {
@@ -320,7 +461,7 @@ public class ASMSerializerFactory implements Opcodes {
     }
 
     private void extracted49(SerializeBeanInfo beanInfo, Class<?> clazz, FieldInfo[] getters, String classNameType,
-            ClassWriter cw, boolean disableCircularReferenceDetect) {
+            ClassWriter cw, boolean disableCircularReferenceDetect, Integer writerFeatures) {
         MethodVisitor mw;
         for (int i = 0; i < 3; ++i) {
             String methodName;
@@ -338,7 +479,9 @@ public class ASMSerializerFactory implements Opcodes {
             }
 
             Context context = new Context(getters, beanInfo, classNameType, writeDirect,
-                                          nonContext);
+                                          nonContext, writerFeatures);
+            context.cw = cw;
+            context.methodName = methodName;
 
             mw = new MethodWriter(cw, ACC_PUBLIC, methodName,
                                   "(L" + JSONSERIALIZER + COMMA_LJAVA_LANG_OBJECT_LJAVA_LANG_OBJECT_LJAVA_LANG_REFLECT_TYPE_I_V, new String[] { JAVA_IO_IOEXCEPTION });
@@ -362,7 +505,7 @@ public class ASMSerializerFactory implements Opcodes {
 
             mw.visitVarInsn(ALOAD, 0);
             mw.visitVarInsn(ALOAD, Context.SERIALIZER);
-            mw.visitMethodInsn(INVOKEVIRTUAL, JAVA_BEAN_SERIALIZER, "writeDirect", "(L" + JSONSERIALIZER + ";)Z");
+            mw.visitMethodInsn(INVOKEVIRTUAL, JAVA_BEAN_SERIALIZER, "writeDirectMethod", "(L" + JSONSERIALIZER + ";)Z");
             mw.visitJumpInsn(IFNE, directElse);
 
             mw.visitVarInsn(ALOAD, 0);
@@ -377,10 +520,7 @@ public class ASMSerializerFactory implements Opcodes {
             mw.visitInsn(RETURN);
 
             mw.visitLabel(directElse);
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitLdcInsn(SerializerFeature.DISABLE_CIRCULAR_REFERENCE_DETECT.mask);
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-            mw.visitJumpInsn(IFEQ, direct);
+            jumpOnFeature(mw, context, SerializerFeature.DISABLE_CIRCULAR_REFERENCE_DETECT.mask, IFEQ, direct);
 
             mw.visitVarInsn(ALOAD, 0);
             mw.visitVarInsn(ALOAD, 1);
@@ -408,10 +548,7 @@ public class ASMSerializerFactory implements Opcodes {
         if (jsonType == null || jsonType.alphabetic()) {
             Label elseVariabile = new Label();
 
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, "isSortField", "()Z");
-
-            mw.visitJumpInsn(IFNE, elseVariabile);
+            jumpOnFeature(mw, context, SerializerFeature.SORT_FIELD.mask, IFNE, elseVariabile);
             mw.visitVarInsn(ALOAD, 0);
             mw.visitVarInsn(ALOAD, 1);
             mw.visitVarInsn(ALOAD, 2);
@@ -581,12 +718,16 @@ public class ASMSerializerFactory implements Opcodes {
             return;
         }
 
-        extracted67(mw, getters, context, size);
+        if (size > SPLIT_FIELDS && context.cw != null) {
+            writeFieldsSplit(mw, getters, context, true);
+        } else {
+            extracted67(mw, getters, context, size, true);
+        }
     }
 
-    private void extracted67(MethodVisitor mw, FieldInfo[] getters, Context context, int size) {
+    private void extracted67(MethodVisitor mw, FieldInfo[] getters, Context context, int size, boolean last) {
         for (int i = 0; i < size; ++i) {
-            final char seperator = (i == size - 1) ? ']' : ',';
+            final char seperator = (last && i == size - 1) ? ']' : ',';
 
             FieldInfo fieldInfo = getters[i];
             Class<?> fieldClass = fieldInfo.fieldClass;
@@ -991,7 +1132,11 @@ public class ASMSerializerFactory implements Opcodes {
 
         extracted26(mw, context);
 
-        extracted29(mw, getters, context, size);
+        if (size > SPLIT_FIELDS && context.cw != null) {
+            writeFieldsSplit(mw, getters, context, false);
+        } else {
+            extracted29(mw, getters, context, size);
+        }
 
         extracted30(mw, context);
 
@@ -1019,15 +1164,76 @@ public class ASMSerializerFactory implements Opcodes {
 
     }
 
+    /**
+     * writes the properties of a wide bean by calling one generated method per slice, the separator to write before
+     * the next property is passed in and returned by each of them
+     */
+    private void writeFieldsSplit(MethodVisitor mw, FieldInfo[] getters, Context context, boolean asArray) {
+        int size = getters.length;
+        for (int from = 0, index = 0; from < size; from += FIELDS_PER_METHOD, ++index) {
+            int to = Math.min(from + FIELDS_PER_METHOD, size);
+            FieldInfo[] fields = new FieldInfo[to - from];
+            System.arraycopy(getters, from, fields, 0, fields.length);
+
+            String methodName = context.methodName + "Fields_" + index;
+            writeFields(context, fields, methodName, asArray, to == size);
+
+            mw.visitVarInsn(ALOAD, 0);
+            mw.visitVarInsn(ALOAD, Context.SERIALIZER);
+            mw.visitVarInsn(ALOAD, Context.OBJ);
+            mw.visitVarInsn(ALOAD, Context.PARAM_FIELD_NAME);
+            mw.visitVarInsn(ALOAD, Context.PARAM_FIELD_TYPE);
+            mw.visitVarInsn(ILOAD, Context.FEATURES);
+            if (asArray) {
+                mw.visitInsn(ICONST_0);
+            } else {
+                mw.visitVarInsn(ILOAD, context.variants(SEPERATOR));
+            }
+            mw.visitMethodInsn(INVOKESPECIAL, context.className, methodName, WRITE_FIELDS_DESC);
+            if (asArray) {
+                mw.visitInsn(POP);
+            } else {
+                mw.visitVarInsn(ISTORE, context.variants(SEPERATOR));
+            }
+        }
+    }
+
+    private void writeFields(Context parent, FieldInfo[] fields, String methodName, boolean asArray, boolean last) {
+        Context context = new Context(parent.getters, parent.beanInfo, parent.className, parent.writeDirect,
+                                      parent.nonContext, parent.writerFeatures);
+
+        MethodVisitor mw = new MethodWriter(parent.cw, ACC_PRIVATE, methodName, WRITE_FIELDS_DESC,
+                                            new String[] { JAVA_IO_IOEXCEPTION });
+
+        // the separator comes in the slot of fieldName, which is only written by the properties
+        mw.visitVarInsn(ILOAD, Context.fieldName);
+        mw.visitVarInsn(ISTORE, context.variants(SEPERATOR));
+
+        extracted52(mw, context);
+
+        mw.visitVarInsn(ALOAD, Context.OBJ); // obj
+        mw.visitTypeInsn(CHECKCAST, type(context.beanInfo.beanType)); // serializer
+        mw.visitVarInsn(ASTORE, context.variants(ENTITY)); // obj
+
+        if (asArray) {
+            extracted67(mw, fields, context, fields.length, last);
+        } else {
+            extracted26(mw, context);
+            extracted29(mw, fields, context, fields.length);
+        }
+
+        mw.visitVarInsn(ILOAD, context.variants(SEPERATOR));
+        mw.visitInsn(IRETURN);
+        mw.visitMaxs(7, context.variantIndex + 2);
+        mw.visitEnd();
+    }
+
     private void extracted33(MethodVisitor mw, FieldInfo[] getters, Context context) {
         if (!context.writeDirect) {
             // pretty format not byte code optimized
             Label endSupper = new Label();
             Label supper = new Label();
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitLdcInsn(SerializerFeature.PRETTY_FORMAT.mask);
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-            mw.visitJumpInsn(IFNE, supper);
+            jumpOnFeature(mw, context, SerializerFeature.PRETTY_FORMAT.mask, IFNE, supper);
 
             boolean hasMethod = extracted15(getters);
 
@@ -1051,9 +1257,7 @@ public class ASMSerializerFactory implements Opcodes {
 
     private void extracted32(MethodVisitor mw, Context context, Label endSupper, boolean hasMethod) {
         if (hasMethod) {
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-            mw.visitJumpInsn(IFEQ, endSupper);
+            jumpOnFeature(mw, context, SerializerFeature.IGNORE_ERROR_GETTER.mask, IFEQ, endSupper);
         } else {
             mw.visitJumpInsn(GOTO, endSupper);
         }
@@ -1120,9 +1324,12 @@ public class ASMSerializerFactory implements Opcodes {
 
     private void extracted26(MethodVisitor mw, Context context) {
         if (!context.writeDirect) {
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, "isNotWriteDefaultValue", "()Z");
-            mw.visitVarInsn(ISTORE, context.variants("notWriteDefaultValue"));
+            if (context.writerFeatures == null) {
+                mw.visitVarInsn(ALOAD, context.variants("out"));
+                mw.visitLdcInsn(SerializerFeature.NOT_WRITE_DEFAULT_VALUE.mask);
+                mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
+                mw.visitVarInsn(ISTORE, context.variants("notWriteDefaultValue"));
+            }
 
             mw.visitVarInsn(ALOAD, Context.SERIALIZER);
             mw.visitVarInsn(ALOAD, 0);
@@ -1218,10 +1425,7 @@ public class ASMSerializerFactory implements Opcodes {
         if (extracted19(context)) {
             Label endWriteAsArray = new Label();
 
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitLdcInsn(SerializerFeature.BEAN_TO_ARRAY.mask);
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-            mw.visitJumpInsn(IFEQ, endWriteAsArray);
+            jumpOnFeature(mw, context, SerializerFeature.BEAN_TO_ARRAY.mask, IFEQ, endWriteAsArray);
 
             // /////
             mw.visitVarInsn(ALOAD, 0); // this
@@ -1821,10 +2025,7 @@ public class ASMSerializerFactory implements Opcodes {
 
     private void filtersMetodo(MethodVisitor mw, FieldInfo property, Context context, Label endVariabile) {
         if (property.fieldTransient) {
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitLdcInsn(SerializerFeature.SKIP_TRANSIENT_FIELD.mask);
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-            mw.visitJumpInsn(IFNE, endVariabile);
+            jumpOnFeature(mw, context, SerializerFeature.SKIP_TRANSIENT_FIELD.mask, IFNE, endVariabile);
         }
 
         notWriteDefaultMetodo(mw, property, context, endVariabile);
@@ -1855,18 +2056,18 @@ public class ASMSerializerFactory implements Opcodes {
         }
 
         if (property.field == null) {
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-
-            // if true
-            mw.visitJumpInsn(IFNE, endVariabile);
+            jumpOnFeature(mw, context, SerializerFeature.IGNORE_NON_FIELD_GETTER.mask, IFNE, endVariabile);
         }
     }
 
     private void labelApplyMetodo(MethodVisitor mw, FieldInfo property, Label endVariabile) {
         mw.visitVarInsn(ALOAD, 0); // this
         mw.visitVarInsn(ALOAD, Context.SERIALIZER);
-        mw.visitLdcInsn(property.label);
+        if (property.label == null) {
+            mw.visitInsn(ACONST_NULL);
+        } else {
+            mw.visitLdcInsn(property.label);
+        }
         mw.visitMethodInsn(INVOKEVIRTUAL, JAVA_BEAN_SERIALIZER, "applyLabel",
                            "(L" + JSONSERIALIZER + ";Ljava/lang/String;)Z");
         mw.visitJumpInsn(IFEQ, endVariabile);
@@ -2043,8 +2244,12 @@ public class ASMSerializerFactory implements Opcodes {
 
         Label elseLabel = new Label();
 
-        mw.visitVarInsn(ILOAD, context.variants("notWriteDefaultValue"));
-        mw.visitJumpInsn(IFEQ, elseLabel);
+        if (context.writerFeatures == null) {
+            mw.visitVarInsn(ILOAD, context.variants("notWriteDefaultValue"));
+            mw.visitJumpInsn(IFEQ, elseLabel);
+        } else if ((context.writerFeatures & SerializerFeature.NOT_WRITE_DEFAULT_VALUE.mask) == 0) {
+            return;
+        }
 
         Class<?> propertyClass = property.fieldClass;
         if (propertyClass == boolean.class) {
@@ -2079,6 +2284,25 @@ public class ASMSerializerFactory implements Opcodes {
         mw.visitLabel(elseLabel);
     }
 
+    /**
+     * jumps to label when the writer feature is enabled, with IFNE, or disabled, with IFEQ. A serializer specialized on
+     * the writer features knows the outcome, the test becomes a goto or nothing.
+     */
+    private void jumpOnFeature(MethodVisitor mw, Context context, int mask, int opcode, Label label) {
+        if (context.writerFeatures == null) {
+            mw.visitVarInsn(ALOAD, context.variants("out"));
+            mw.visitLdcInsn(mask);
+            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
+            mw.visitJumpInsn(opcode, label);
+            return;
+        }
+
+        boolean enabled = (context.writerFeatures & mask) != 0;
+        if (enabled == (opcode == IFNE)) {
+            mw.visitJumpInsn(GOTO, label);
+        }
+    }
+
     private void applyMetodo(MethodVisitor mw, FieldInfo property, Context context) {
         Class<?> propertyClass = property.fieldClass;
 
@@ -2330,10 +2554,7 @@ public class ASMSerializerFactory implements Opcodes {
         }
 
         if ((features & writeNullFeatures) == 0) {
-            mw.visitVarInsn(ALOAD, context.variants("out"));
-            mw.visitLdcInsn(writeNullFeatures);
-            mw.visitMethodInsn(INVOKEVIRTUAL, SERIALIZE_WRITER, IS_ENABLED, "(I)Z");
-            mw.visitJumpInsn(IFEQ, elseVariabile);
+            jumpOnFeature(mw, context, writeNullFeatures, IFEQ, elseVariabile);
         }
 
         mw.visitLabel(writeNull);
@@ -2391,6 +2612,9 @@ public class ASMSerializerFactory implements Opcodes {
 
     private void getListFieldItemSerMetodo (Context context, MethodVisitor mw, FieldInfo fieldInfo, Class<?> itemType) {
         Label notNull = new Label();
+        Label end = new Label();
+        projectedSerMetodo(mw, itemType, end);
+
         mw.visitVarInsn(ALOAD, 0);
         mw.visitFieldInsn(GETFIELD, context.className, fieldInfo.name + ASM_LIST_ITEM_SER,
                           OBJECT_SERIALIZER_DESC);
@@ -2410,10 +2634,15 @@ public class ASMSerializerFactory implements Opcodes {
         mw.visitVarInsn(ALOAD, 0);
         mw.visitFieldInsn(GETFIELD, context.className, fieldInfo.name + ASM_LIST_ITEM_SER,
                           OBJECT_SERIALIZER_DESC);
+
+        mw.visitLabel(end);
     }
 
     private void getFieldSerMetodo (Context context, MethodVisitor mw, FieldInfo fieldInfo) {
         Label notNull = new Label();
+        Label end = new Label();
+        projectedSerMetodo(mw, fieldInfo.fieldClass, end);
+
         mw.visitVarInsn(ALOAD, 0);
         mw.visitFieldInsn(GETFIELD, context.className, fieldInfo.name + ASM_SER, OBJECT_SERIALIZER_DESC);
         mw.visitJumpInsn(IFNONNULL, notNull);
@@ -2430,5 +2659,27 @@ public class ASMSerializerFactory implements Opcodes {
 
         mw.visitVarInsn(ALOAD, 0);
         mw.visitFieldInsn(GETFIELD, context.className, fieldInfo.name + ASM_SER, OBJECT_SERIALIZER_DESC);
+
+        mw.visitLabel(end);
+    }
+
+    /**
+     * with a projection the serializer of type is looked up on each write and jumps to end, the cached one is shared
+     * by writers without the projection
+     */
+    private void projectedSerMetodo(MethodVisitor mw, Class<?> type, Label end) {
+        Label notProjected = new Label();
+        mw.visitVarInsn(ALOAD, Context.SERIALIZER);
+        mw.visitMethodInsn(INVOKEVIRTUAL, JSONSERIALIZER, "getProjection",
+                           "()L" + type(PropertyProjection.class) + ";");
+        mw.visitJumpInsn(IFNULL, notProjected);
+
+        mw.visitVarInsn(ALOAD, Context.SERIALIZER);
+        mw.visitLdcInsn(com.alibaba.fastjson.asm.Type.getType(desc(type)));
+        mw.visitMethodInsn(INVOKEVIRTUAL, JSONSERIALIZER, "getObjectWriter",
+                           "(Ljava/lang/Class;)" + OBJECT_SERIALIZER_DESC);
+        mw.visitJumpInsn(GOTO, end);
+
+        mw.visitLabel(notProjected);
     }
 }
@@ -28,9 +28,9 @@ public abstract class BeforeFilter implements SerializeFilter {
         JSONSerializer serializer = serializerLocal.get();
         char seperator = seperatorLocal.get();
 
-        boolean ref = serializer.references.containsKey(value);
+        boolean ref = serializer.references != null && serializer.references.containsKey(value);
         serializer.writeKeyValue(seperator, key, value);
-        if (!ref) {
+        if (!ref && serializer.references != null) {
             serializer.references.remove(value);
         }
 
@@ -2,8 +2,6 @@ package com.alibaba.fastjson.serializer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -13,6 +11,7 @@ import com.alibaba.fastjson.parser.JSONLexer;
 import com.alibaba.fastjson.parser.JSONToken;
 import com.alibaba.fastjson.parser.deserializer.ContextObjectDeserializer;
 import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.util.DateFormats;
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -34,13 +33,7 @@ public class CalendarCodec extends ContextObjectDeserializer implements ObjectSe
             return;
         }
 
-        DateFormat dateFormat = new SimpleDateFormat(format);
-
-
-
-        dateFormat.setTimeZone(serializer.timeZone);
-        String text = dateFormat.format(calendar.getTime());
-        out.writeString(text);
+        serializer.writeDate(calendar.getTime(), format);
     }
 
 
@@ -64,17 +57,29 @@ public class CalendarCodec extends ContextObjectDeserializer implements ObjectSe
             int second = calendar.get(Calendar.SECOND);
             int millis = calendar.get(Calendar.MILLISECOND);
 
-            String format = "";
+            int fastPattern;
+            String format;
             if (millis != 0) {
+                fastPattern = DateFormats.ISO8601_MILLIS;
                 format = "%04d-%02d-%02dT%02d:%02d:%02d.%03d";
             } else if (second == 0 && minute == 0 && hour == 0) {
+                fastPattern = DateFormats.DATE;
                 format = "%04d-%02d-%02d";
             } else {
+                fastPattern = DateFormats.ISO8601;
                 format = "%04d-%02d-%02dT%02d:%02d:%02d";
             }
 
-            char[] buf = String.format(format, year, month, day, hour, minute, second, millis).toCharArray();
-            out.write(buf);
+            long fields = calendar instanceof GregorianCalendar
+                ? DateFormats.fields(year, month, day, hour, minute, second, millis)
+                : -1;
+            if (fields != -1) {
+                char[] buf = new char[DateFormats.length(fastPattern)];
+                DateFormats.getChars(fields, fastPattern, buf, 0);
+                out.write(buf);
+            } else {
+                out.write(String.format(format, year, month, day, hour, minute, second, millis));
+            }
 
             int timeZone = calendar.getTimeZone().getOffset(calendar.getTimeInMillis()) / (3600 * 1000);
             timezoneFunction(timeZone,calendar,out);
@@ -92,10 +97,12 @@ public class CalendarCodec extends ContextObjectDeserializer implements ObjectSe
         } else {
             out.write(timeZone > 0 ? '+' : '-');
             timeZone = Math.abs(timeZone);
-            out.append(String.format("%02d", timeZone));
+            out.write((char) ('0' + timeZone / 10 % 10));
+            out.write((char) ('0' + timeZone % 10));
             out.write(':');
             int offsetInMinutes = (Math.abs(calendar.getTimeZone().getOffset(calendar.getTimeInMillis())) / (60 * 1000)) % 60;
-            out.append(String.format("%02d", offsetInMinutes));
+            out.write((char) ('0' + offsetInMinutes / 10));
+            out.write((char) ('0' + offsetInMinutes % 10));
         }
     }
     @Override
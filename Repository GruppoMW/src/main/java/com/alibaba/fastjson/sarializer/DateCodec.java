@@ -20,7 +20,6 @@ import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.text.DateFormat;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.TimeZone;
@@ -140,11 +139,10 @@ public class DateCodec extends AbstractDateDeserializer implements ObjectSeriali
                     dateFormatPattern = JSON.DEFAULT_DATE_FORMAT;
                 }
 
-                format = new SimpleDateFormat(dateFormatPattern, serializer.locale);
-                format.setTimeZone(serializer.timeZone);
+                serializer.writeDate(datep, dateFormatPattern);
+            } else {
+                out.writeString(format.format(datep));
             }
-            String text = format.format(datep);
-            out.writeString(text);
         }
     }
 
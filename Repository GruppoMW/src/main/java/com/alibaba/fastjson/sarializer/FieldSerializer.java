@@ -18,12 +18,13 @@ package com.alibaba.fastjson.serializer;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
 import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.util.DateFormats;
 import com.alibaba.fastjson.util.FieldInfo;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.text.SimpleDateFormat;
+import java.util.Collection;
 
 /**
  * @author wenshao[szujobs@hotmail.com]
@@ -181,9 +182,7 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
     public Object getPropertyValue(Object object) throws InvocationTargetException, IllegalAccessException {
         Object propertyValue =  fieldInfo.get(object);
         if (format != null && propertyValue != null && (fieldInfo.fieldClass == java.util.Date.class || fieldInfo.fieldClass == java.sql.Date.class)) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat(format, JSON.defaultLocale);
-            dateFormat.setTimeZone(JSON.defaultTimeZone);
-            return dateFormat.format(propertyValue);
+            return DateFormats.format((java.util.Date) propertyValue, format, JSON.defaultLocale, JSON.defaultTimeZone);
         }
         return propertyValue;
     }
@@ -194,29 +193,26 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
 
 
     public void writeValue(JSONSerializer serializer, Object propertyValue) throws IOException {
-        if (runtimeInfo == null) {
-
-            Class<?> runtimeFieldClass;
-
-            runtimeFieldClass = returnRuntimeFieldClass(propertyValue);
-
-            ObjectSerializer fieldSerializer = null;
-
-            fieldInfo.getAnnotation();
-
-            fieldSerializer = returnFieldSerializer(fieldSerializer,serializer,runtimeFieldClass);
-
-            runtimeInfo = new RuntimeSerializerInfo(fieldSerializer, runtimeFieldClass);
+        RuntimeSerializerInfo runtimeInfo1 = this.runtimeInfo;
+        if (serializer.projection != null) {
+            // the projected serializers are not kept on this shared field serializer
+            runtimeInfo1 = createRuntimeInfo(serializer, propertyValue);
+        } else if (runtimeInfo1 == null) {
+            runtimeInfo1 = createRuntimeInfo(serializer, propertyValue);
+            this.runtimeInfo = runtimeInfo1;
         }
 
-        final RuntimeSerializerInfo runtimeInfo1 = this.runtimeInfo;
-
         final int fieldFeatures
                 = (disableCircularReferenceDetect
                 ? (fieldInfo.serialzeFeatures | SerializerFeature.DISABLE_CIRCULAR_REFERENCE_DETECT.mask)
                 : fieldInfo.serialzeFeatures) | features;
 
 
+        if (propertyValue == null) {
+            writeNullValue(serializer, runtimeInfo1, fieldFeatures);
+            return;
+        }
+
         Class<?> valueClass = propertyValue.getClass();
         ObjectSerializer valueSerializer;
         if (valueClass == runtimeInfo1.runtimeFieldClass || serializeUsing) {
@@ -246,6 +242,35 @@ public class FieldSerializer implements Comparable<FieldSerializer> {
         valueSerializer.write(serializer, propertyValue, fieldInfo.name, fieldInfo.fieldType, fieldFeatures);
     }
 
+    private RuntimeSerializerInfo createRuntimeInfo(JSONSerializer serializer, Object propertyValue) {
+        Class<?> runtimeFieldClass = returnRuntimeFieldClass(propertyValue);
+
+        ObjectSerializer fieldSerializer = null;
+        fieldSerializer = returnFieldSerializer(fieldSerializer, serializer, runtimeFieldClass);
+
+        return new RuntimeSerializerInfo(fieldSerializer, runtimeFieldClass);
+    }
+
+    private void writeNullValue(JSONSerializer serializer, RuntimeSerializerInfo runtimeInfo, int fieldFeatures)
+                                                                                                          throws IOException {
+        SerializeWriter out = serializer.out;
+        Class<?> runtimeFieldClass = runtimeInfo.runtimeFieldClass;
+
+        if (runtimeFieldClass == String.class || runtimeFieldClass == Character.class) {
+            out.writeNull(features, SerializerFeature.WRITE_NULL_STRING_AS_EMPTY.mask);
+        } else if (Number.class.isAssignableFrom(runtimeFieldClass)) {
+            out.writeNull(features, SerializerFeature.WRITE_NULL_NUMBER_AS_ZERO.mask);
+        } else if (runtimeFieldClass == Boolean.class) {
+            out.writeNull(features, SerializerFeature.WRITE_NULL_BOOLEAN_AS_FALSE.mask);
+        } else if (Collection.class.isAssignableFrom(runtimeFieldClass) || runtimeFieldClass.isArray()) {
+            out.writeNull(features, SerializerFeature.WRITE_NULL_LIST_AS_EMPTY.mask);
+        } else if (runtimeInfo.fieldSerializer instanceof JavaBeanSerializer) {
+            out.writeNull();
+        } else {
+            runtimeInfo.fieldSerializer.write(serializer, null, fieldInfo.name, fieldInfo.fieldType, fieldFeatures);
+        }
+    }
+
     public Class<?> returnRuntimeFieldClass(Object propertyValue){
         Class<?> runtimeFieldClass;
         if (propertyValue == null) {
@@ -25,6 +25,7 @@ import java.text.SimpleDateFormat;
 import java.util.*;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.DateFormats;
 
 
 /**
@@ -53,6 +54,7 @@ public class JSONSerializer extends SerializeFilterable {
     protected SerialContext                          context;
     protected TimeZone                               timeZone    = JSON.defaultTimeZone;
     protected Locale                                 locale      = JSON.defaultLocale;
+    protected PropertyProjection                     projection;
 
     public JSONSerializer(){
 
@@ -97,9 +99,24 @@ public class JSONSerializer extends SerializeFilterable {
 
     private DateFormat generateDateFormat(String dateFormatPattern) {
 
-        DateFormat dateFormat1 = new SimpleDateFormat(dateFormatPattern, locale);
-        dateFormat1.setTimeZone(timeZone);
-        return dateFormat1;
+        return DateFormats.getDateFormat(dateFormatPattern, locale, timeZone);
+    }
+
+    /**
+     * Writes a date as a string in pattern, the {@link DateFormats} fast patterns are written without a format.
+     *
+     * @since 1.2.80
+     */
+    public void writeDate(Date date, String pattern) {
+        int fastPattern = DateFormats.fastPattern(pattern);
+        if (fastPattern != DateFormats.NONE && fastPattern != DateFormats.MILLIS && DateFormats.isFastLocale(locale)) {
+            long fields = DateFormats.localFields(date.getTime(), timeZone);
+            if (fields != -1) {
+                out.writeDate(fields, fastPattern);
+                return;
+            }
+        }
+        out.writeString(DateFormats.format(date, pattern, locale, timeZone));
     }
 
     public void setDateFormat(DateFormat dateFormat) {
@@ -147,7 +164,12 @@ public class JSONSerializer extends SerializeFilterable {
         if (out.disableCircularReferenceDetect) {
             return;
         }
-        
+
+        this.context = new SerialContext(parent, object, fieldName, features);
+        if (out.detectCyclesOnly) {
+            return;
+        }
+
         if (references == null) {
             references = new IdentityHashMap<>();
         }
@@ -171,7 +193,17 @@ public class JSONSerializer extends SerializeFilterable {
                 || (context != null && (context.parent != null)));
     }
 
+    /**
+     * same as {@link #isWriteClassName(Type)}, called by the ASM serializers
+     */
+    public boolean isWriteClassName(Type fieldType, Object obj) {
+        return isWriteClassName(fieldType);
+    }
+
     public boolean containsReference(Object value) {
+        if (out.detectCyclesOnly) {
+            return getAncestorContext(value) != null;
+        }
         if (references == null) {
             return false;
         }
@@ -186,6 +218,18 @@ public class JSONSerializer extends SerializeFilterable {
         return fieldName == null || fieldName instanceof Integer || fieldName instanceof String;
     }
 
+    /**
+     * @return the context of the object among the current context and its parents, null when writing it is no cycle
+     */
+    SerialContext getAncestorContext(Object object) {
+        for (SerialContext ancestor = context; ancestor != null; ancestor = ancestor.parent) {
+            if (ancestor.object == object) {
+                return ancestor;
+            }
+        }
+        return null;
+    }
+
     public void writeReference(Object object) {
         SerialContext context1 = this.context;
         Object current = context1.object;
@@ -209,7 +253,8 @@ public class JSONSerializer extends SerializeFilterable {
             out.write("{\"$ref\":\"$\"}");
         } else {
             out.write("{\"$ref\":\"");
-            String path = references.get(object).toString();
+            SerialContext refContext = out.detectCyclesOnly ? getAncestorContext(object) : references.get(object);
+            String path = refContext.toString();
             out.write(path);
             out.write("\"}");
         }
@@ -389,30 +434,28 @@ public class JSONSerializer extends SerializeFilterable {
 
             if ("millis".equals(format)) {
                 out.writeLong(((Date) object).getTime());
+                return;
             }
 
-            DateFormat dateFormat2 = this.getDateFormat();
-
-            if (dateFormat2 == null) {
-
-                if (format != null) {
-
-                    try {
-                        dateFormat2 = this.generateDateFormat(format);
-                    } catch (IllegalArgumentException e) {
-                        String format2 = format.replace("T", "'T'");
-                        dateFormat2 = this.generateDateFormat(format2);
-                    }
+            if (dateFormat != null && dateFormatPattern == null) {
+                // set by the caller
+                out.writeString(dateFormat.format((Date) object));
+                return;
+            }
 
-                } else if (fastJsonConfigDateFormatPattern != null) {
-                    dateFormat2 = this.generateDateFormat(fastJsonConfigDateFormatPattern);
-                } else {
-                    dateFormat2 = this.generateDateFormat(JSON.DEFAULT_DATE_FORMAT);
+            if (dateFormatPattern != null) {
+                writeDate((Date) object, dateFormatPattern);
+            } else if (format != null) {
+                try {
+                    writeDate((Date) object, format);
+                } catch (IllegalArgumentException e) {
+                    writeDate((Date) object, format.replace("T", "'T'"));
                 }
+            } else if (fastJsonConfigDateFormatPattern != null) {
+                writeDate((Date) object, fastJsonConfigDateFormatPattern);
+            } else {
+                writeDate((Date) object, JSON.DEFAULT_DATE_FORMAT);
             }
-
-            String text = dateFormat2.format((Date) object);
-            out.writeString(text);
         }
     }
 
@@ -421,11 +464,49 @@ public class JSONSerializer extends SerializeFilterable {
         StringCodec.instance.write(this, text);
     }
 
+    /**
+     * @return the projection of this serializer, null without one. The serializers of the fields are not cached on the
+     * shared bean serializers while a projection is set.
+     *
+     * @since 1.2.80
+     */
+    public PropertyProjection getProjection() {
+        return projection;
+    }
+
     public ObjectSerializer getObjectWriter(Class<?> clazz) {
+        if (projection != null) {
+            return projection.getObjectWriter(config, clazz);
+        }
 
         return config.getObjectWriter(clazz);
     }
 
+    /**
+     * a {@link PropertyProjection} replaces the previous one, it is applied through the serializers and does not
+     * disable writeDirect
+     */
+    public void addFilter(SerializeFilter filter) {
+        if (filter instanceof PropertyProjection) {
+            this.projection = (PropertyProjection) filter;
+            return;
+        }
+
+        super.addFilter(filter);
+    }
+
+    /**
+     * uses the filters and the projection of a template serializer, which must not be changed afterwards. A
+     * {@link com.alibaba.fastjson.JSONCodec} attaches its filters to each serializer this way instead of adding them
+     * one by one. Filters added to this serializer later go to copies of the lists, the template is left as it is.
+     *
+     * @since 1.2.80
+     */
+    public void useFilters(JSONSerializer template) {
+        borrowFilters(template);
+        this.projection = template.projection;
+    }
+
     public void close() {
 
         this.out.close();
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -212,24 +213,76 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
                 String fieldInfoName = fieldInfo.name;
                 Class<?> fieldClass = fieldInfo.fieldClass;
 
-                boolean notApply = false;
-                isNotApply(serializer, object, writeAsArray, fieldInfo, fieldInfoName, notApply);
+                boolean notApply = isNotApply(serializer, object, fieldInfo, fieldInfoName);
+                if (notApply && !writeAsArray) {
+                    continue;
+                }
 
-                if (fieldInfoNameEquals(serializer, fieldType, fieldInfoName)) continue;
+                if (fieldInfoNameEquals(serializer, object, fieldType, fieldInfoName)) continue;
 
                 Object propertyValue = null;
+                if (!notApply) {
+                    try {
+                        propertyValue = fieldSerializer.getPropertyValueDirect(object);
+                    } catch (InvocationTargetException ex) {
+                        errorFieldSerializer = fieldSerializer;
+                        if (!out.isEnabled(SerializerFeature.IGNORE_ERROR_GETTER)) {
+                            throw ex;
+                        }
+                    }
+                }
 
-
+                if (!notApply && !this.apply(serializer, object, fieldInfoName, propertyValue)) {
+                    continue;
+                }
 
                 propertyValue = getObject(fieldInfo, fieldClass, propertyValue);
 
-                propertyValue = this.processValue(serializer, fieldSerializer.fieldContext, object, fieldInfoName,
-                        propertyValue, features);
+                String key = notApply ? fieldInfoName : this.processKey(serializer, object, fieldInfoName, propertyValue);
+                Object originalValue = propertyValue;
+                if (!notApply) {
+                    propertyValue = this.processValue(serializer, fieldSerializer.fieldContext, object, fieldInfoName,
+                            propertyValue, features);
+                }
+
+                if (!writeAsArray && skipValue(out, fieldSerializer, originalValue, propertyValue)) {
+                    continue;
+                }
 
                 boolean fieldUnwrappedNull = false;
                 fieldUnwrappedNull = getaVoid(serializer, fieldInfo, propertyValue, fieldUnwrappedNull);
+                if (fieldUnwrappedNull) {
+                    continue;
+                }
+
+                if (commaFlag) {
+                    out.write(',');
+                    if (out.isEnabled(SerializerFeature.PRETTY_FORMAT)) {
+                        serializer.println();
+                    }
+                }
+
+                if (notApply) {
+                    out.writeNull();
+                } else if (key != fieldInfoName) {
+                    if (!writeAsArray) {
+                        out.writeFieldName(key, true);
+                    }
+                    serializer.write(propertyValue);
+                } else if (originalValue != propertyValue) {
+                    if (!writeAsArray) {
+                        fieldSerializer.writePrefix(serializer);
+                    }
+                    serializer.write(propertyValue);
+                } else {
+                    if (!writeAsArray && !fieldInfo.unwrapped) {
+                        fieldSerializer.writePrefix(serializer);
+                    }
+                    errorFieldSerializer = fieldSerializer;
+                    fieldSerializer.writeValue(serializer, propertyValue);
+                }
 
-                commaFlag = isFieldUnwrappedNull(commaFlag, fieldUnwrappedNull);
+                commaFlag = true;
             }
 
             this.writeAfter(serializer, object, commaFlag ? ',' : '\0');
@@ -259,19 +312,64 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
         }
     }
 
-    private boolean isNotApply(JSONSerializer serializer, Object object, boolean writeAsArray, FieldInfo fieldInfo, String fieldInfoName, boolean notApply) {
-        if ((!this.applyName(serializer, object, fieldInfoName)) //
-                || !this.applyLabel(serializer, fieldInfo.label) &&  (writeAsArray)) {
-            notApply = true;
+    private boolean isNotApply(JSONSerializer serializer, Object object, FieldInfo fieldInfo, String fieldInfoName) {
+        return !this.applyName(serializer, object, fieldInfoName) //
+                || !this.applyLabel(serializer, fieldInfo.label);
+    }
+
+    private boolean fieldInfoNameEquals(JSONSerializer serializer, Object object, Type fieldType, String fieldInfoName) {
+        return fieldInfoName.equals(beanInfo.typeKey)
+                && serializer.isWriteClassName(fieldType, object);
+    }
+
+    /**
+     * a null value is written only with one of the null features of its type, a default value is not written with
+     * {@link SerializerFeature#NOT_WRITE_DEFAULT_VALUE}, the same as the ASM serializers
+     */
+    private boolean skipValue(SerializeWriter out, FieldSerializer fieldSerializer, Object originalValue,
+                              Object propertyValue) {
+        FieldInfo fieldInfo = fieldSerializer.fieldInfo;
+        int beanFeatures = fieldInfo.serialzeFeatures | beanInfo.features;
+
+        if (propertyValue == null) {
+            if (fieldSerializer.writeNull) {
+                return false;
+            }
+            int writeNullFeatures = writeNullFeatures(fieldInfo.fieldClass);
+            return (beanFeatures & writeNullFeatures) == 0 && !out.isEnabled(writeNullFeatures);
+        }
+
+        if (originalValue == propertyValue
+                && (out.notWriteDefaultValue
+                    || (beanFeatures & SerializerFeature.NOT_WRITE_DEFAULT_VALUE.mask) != 0)) {
+            return isDefaultValue(fieldInfo.fieldClass, propertyValue);
+        }
+        return false;
+    }
 
+    private static int writeNullFeatures(Class<?> fieldClass) {
+        if (fieldClass == String.class) {
+            return SerializerFeature.WRITE_MAP_NULL_VALUE.mask | SerializerFeature.WRITE_NULL_STRING_AS_EMPTY.mask;
+        } else if (Number.class.isAssignableFrom(fieldClass)) {
+            return SerializerFeature.WRITE_MAP_NULL_VALUE.mask | SerializerFeature.WRITE_NULL_NUMBER_AS_ZERO.mask;
+        } else if (Collection.class.isAssignableFrom(fieldClass)) {
+            return SerializerFeature.WRITE_MAP_NULL_VALUE.mask | SerializerFeature.WRITE_NULL_LIST_AS_EMPTY.mask;
+        } else if (fieldClass == Boolean.class) {
+            return SerializerFeature.WRITE_MAP_NULL_VALUE.mask | SerializerFeature.WRITE_NULL_BOOLEAN_AS_FALSE.mask;
         }
-        return notApply;
+        return SerializerFeature.WRITE_MAP_NULL_FEATURES;
     }
 
-    private boolean fieldInfoNameEquals(JSONSerializer serializer, Type fieldType, String fieldInfoName) {
-        if (fieldInfoName.equals(beanInfo.typeKey)
-                && serializer.isWriteClassName(fieldType)) {
-            //ciao a tutti
+    private static boolean isDefaultValue(Class<?> fieldClass, Object value) {
+        if (fieldClass == int.class || fieldClass == short.class || fieldClass == byte.class
+            || fieldClass == long.class) {
+            return ((Number) value).longValue() == 0;
+        } else if (fieldClass == float.class || fieldClass == double.class) {
+            return ((Number) value).doubleValue() == 0;
+        } else if (fieldClass == char.class) {
+            return ((Character) value).charValue() == '\0';
+        } else if (fieldClass == boolean.class) {
+            return !((Boolean) value).booleanValue();
         }
         return false;
     }
@@ -438,7 +536,10 @@ public class JavaBeanSerializer extends SerializeFilterable implements ObjectSer
             return false;
         }
 
-        if (serializer.references != null && serializer.references.containsKey(object)) {
+        boolean reference = serializer.out.detectCyclesOnly
+                ? serializer.getAncestorContext(object) != null
+                : serializer.references != null && serializer.references.containsKey(object);
+        if (reference) {
             serializer.writeReference(object);
             return true;
         } else {
@@ -139,6 +139,7 @@ public class MapSerializer extends SerializeFilterable implements ObjectSerializ
     }
 
     private boolean getPrefiltersAll(JSONSerializer serializer, Object object, Object value, Object entryKey) {
+        if (serializer.projection != null && !serializer.projection.applyKey(object, entryKey)) return true;
         if (getPrefilters(serializer, object, entryKey)) return true;
         if (getPrefilters2(serializer, object, entryKey)) return true;
         if (getPrefilter3(serializer, object, value, entryKey)) return true;
@@ -0,0 +1,200 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.util.FieldInfo;
+
+/**
+ * The include and exclude rules of {@link SimplePropertyPreFilter}s compiled once. For every bean class the rules are
+ * resolved into a serializer that only has the selected properties, writing a bean then consults no filter per
+ * property. Map entries are checked by key with the same rules.
+ *
+ * <p>A projection is passed like any other filter, {@code JSON.toJSONString(value, projection)}. It is immutable,
+ * build it once per view and share it; the rules are copied, later changes to the filters are not seen. maxLevel is
+ * not supported, it depends on where a bean is written.
+ *
+ * <p>The serializers of nested values are looked up through the projection on every write, the shared bean serializers
+ * of the config do not cache them while a projection is set.
+ *
+ * @since 1.2.80
+ */
+public class PropertyProjection implements SerializeFilter {
+
+    private static final int                             MAX_CLASSES = 1024;
+
+    private final Rule[]                                 rules;
+    private final ConcurrentMap<Class<?>, Projected>     projected   = new ConcurrentHashMap<>(16);
+
+    public PropertyProjection(SimplePropertyPreFilter... filters){
+        this(Arrays.asList(filters));
+    }
+
+    public PropertyProjection(Collection<? extends SimplePropertyPreFilter> filters){
+        Rule[] ruleArray = new Rule[filters.size()];
+        int i = 0;
+        for (SimplePropertyPreFilter filter : filters) {
+            if (filter.getMaxLevel() > 0) {
+                throw new IllegalArgumentException("maxLevel not supported by a projection");
+            }
+            ruleArray[i++] = new Rule(filter.getClazz(), filter.getIncludes(), filter.getExcludes());
+        }
+        this.rules = ruleArray;
+    }
+
+    /**
+     * @return whether the property name of a value of class clazz is written
+     */
+    public boolean apply(Class<?> clazz, String name) {
+        for (Rule rule : rules) {
+            if (!rule.apply(clazz, name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * the check of a map entry, keys are matched as MapSerializer names them
+     */
+    boolean applyKey(Object source, Object key) {
+        if (source == null) {
+            return true;
+        }
+
+        String name;
+        if (key == null || key instanceof String) {
+            name = (String) key;
+        } else if (key.getClass().isPrimitive() || key instanceof Number) {
+            name = JSON.toJSONString(key);
+        } else {
+            return true;
+        }
+        return apply(source.getClass(), name);
+    }
+
+    /**
+     * @return the serializer of clazz restricted to the selected properties
+     */
+    public ObjectSerializer getObjectWriter(SerializeConfig config, Class<?> clazz) {
+        Projected entry = projected.get(clazz);
+        if (entry != null && entry.config == config) {
+            return entry.writer;
+        }
+
+        ObjectSerializer writer = config.getObjectWriter(clazz);
+        if (writer instanceof JavaBeanSerializer) {
+            writer = project(config, clazz, (JavaBeanSerializer) writer);
+        } else if (writer instanceof AutowiredObjectSerializer) {
+            // codecs generated at compile time write every property, the runtime serializer is projected instead
+            ObjectSerializer beanWriter = config.createJavaBeanSerializer(clazz);
+            if (beanWriter instanceof JavaBeanSerializer) {
+                ObjectSerializer projectedWriter = project(config, clazz, (JavaBeanSerializer) beanWriter);
+                if (projectedWriter != beanWriter) {
+                    writer = projectedWriter;
+                }
+            }
+        }
+
+        if (projected.size() < MAX_CLASSES) {
+            projected.put(clazz, new Projected(config, writer));
+        }
+        return writer;
+    }
+
+    private ObjectSerializer project(SerializeConfig config, Class<?> clazz, JavaBeanSerializer serializer) {
+        SerializeBeanInfo beanInfo = serializer.beanInfo;
+        FieldInfo[] sortedFields = select(clazz, beanInfo.sortedFields);
+        if (sortedFields == beanInfo.sortedFields) {
+            return serializer;
+        }
+
+        FieldInfo[] fields = beanInfo.fields == beanInfo.sortedFields
+            ? sortedFields
+            : select(clazz, beanInfo.fields);
+
+        SerializeBeanInfo projectedInfo = new SerializeBeanInfo(beanInfo.beanType, beanInfo.jsonType,
+                                                                beanInfo.typeName, beanInfo.typeKey,
+                                                                beanInfo.features, fields, sortedFields);
+        ObjectSerializer projectedWriter = config.createJavaBeanSerializer(projectedInfo, clazz);
+        if (projectedWriter instanceof SerializeFilterable) {
+            ((SerializeFilterable) projectedWriter).shareFilters(serializer);
+        }
+        return projectedWriter;
+    }
+
+    /**
+     * @return fields itself when every field is selected
+     */
+    private FieldInfo[] select(Class<?> clazz, FieldInfo[] fields) {
+        FieldInfo[] selected = null;
+        int size = 0;
+        for (int i = 0; i < fields.length; ++i) {
+            FieldInfo fieldInfo = fields[i];
+            if (apply(clazz, fieldInfo.name)) {
+                if (selected != null) {
+                    selected[size++] = fieldInfo;
+                }
+            } else if (selected == null) {
+                selected = new FieldInfo[fields.length - 1];
+                System.arraycopy(fields, 0, selected, 0, i);
+                size = i;
+            }
+        }
+        return selected == null ? fields : Arrays.copyOf(selected, size);
+    }
+
+    static final class Rule {
+
+        private final Class<?>    clazz;
+        private final Set<String> includes;
+        private final Set<String> excludes;
+
+        Rule(Class<?> clazz, Set<String> includes, Set<String> excludes){
+            this.clazz = clazz;
+            this.includes = new HashSet<>(includes);
+            this.excludes = new HashSet<>(excludes);
+        }
+
+        boolean apply(Class<?> type, String name) {
+            if (clazz != null && !clazz.isAssignableFrom(type)) {
+                return true;
+            }
+            if (excludes.contains(name)) {
+                return false;
+            }
+            return includes.isEmpty() || includes.contains(name);
+        }
+    }
+
+    static final class Projected {
+
+        final SerializeConfig  config;
+        final ObjectSerializer writer;
+
+        Projected(SerializeConfig config, ObjectSerializer writer){
+            this.config = config;
+            this.writer = writer;
+        }
+    }
+}
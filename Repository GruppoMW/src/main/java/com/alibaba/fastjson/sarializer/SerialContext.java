@@ -6,6 +6,7 @@ public class SerialContext {
     public final Object        object;
     public final Object        fieldName;
     public final int           features;
+    private String             path;
 
     public SerialContext(SerialContext parent, Object object, Object fieldName, int features){
         this.parent = parent;
@@ -15,17 +16,22 @@ public class SerialContext {
     }
 
     public String toString() {
-        if (parent == null) {
-            return "$";
-        } else {
-            StringBuilder buf = new StringBuilder();
-            toString(buf);
-            return buf.toString();
+        if (path == null) {
+            if (parent == null) {
+                path = "$";
+            } else {
+                StringBuilder buf = new StringBuilder();
+                toString(buf);
+                path = buf.toString();
+            }
         }
+        return path;
     }
 
     protected void toString(StringBuilder buf) {
-        if (parent == null) {
+        if (path != null) {
+            buf.append(path);
+        } else if (parent == null) {
             buf.append('$');
         } else {
             parent.toString(buf);
@@ -26,6 +26,8 @@ import com.alibaba.fastjson.support.springfox.SwaggerJsonSerializer;
 import com.alibaba.fastjson.util.ASMUtils;
 import com.alibaba.fastjson.util.IdentityHashMap;
 import com.alibaba.fastjson.util.ServiceLoader;
+import com.alibaba.fastjson.util.TieredCompilation;
+import com.alibaba.fastjson.util.TypeInterner;
 import com.alibaba.fastjson.util.TypeUtils;
 
 import javax.xml.datatype.XMLGregorianCalendar;
@@ -67,6 +69,15 @@ public class SerializeConfig {
 
     private final IdentityHashMap<Type, ObjectSerializer> serializers;
     private final IdentityHashMap<Type, IdentityHashMap<Type, ObjectSerializer>> mixInSerializers;
+    private final Map<Class<?>, AtomicInteger>                                 buildCounts = new WeakHashMap<>();
+    private final Map<Class<?>, WeakReference<TieredJavaBeanSerializer>>       tiered      = new WeakHashMap<>();
+    /**
+     * the class loaders whose autowired serializers are registered, each is loaded once per config
+     */
+    private final Map<ClassLoader, Boolean>                                    autowiredLoaders = new WeakHashMap<>();
+    private int                                           tieredThreshold = TieredCompilation.THRESHOLD;
+    private boolean                                       tieredAsync     = TieredCompilation.ASYNC;
+    private int                                           featureVariants = TieredCompilation.VARIANTS;
 
     private final boolean                                 fieldBased;
 
@@ -87,8 +98,25 @@ public class SerializeConfig {
     }
 
     private JavaBeanSerializer createASMSerializer(SerializeBeanInfo beanInfo) throws InvocationTargetException, InstantiationException, IllegalAccessException, NoSuchMethodException {
-        JavaBeanSerializer serializer = asmFactory.createJavaBeanSerializer(beanInfo);
+        JavaBeanSerializer serializer = checkEnumFields(asmFactory.createJavaBeanSerializer(beanInfo));
+        if (featureVariants > 0 && serializer.getClass() != JavaBeanSerializer.class) {
+            return new SpecializedJavaBeanSerializer(this, serializer, featureVariants);
+        }
+        return serializer;
+    }
 
+    /**
+     * @return the ASM serializer of the bean specialized on writerFeatures, null when it could not be generated
+     */
+    JavaBeanSerializer createSpecializedSerializer(SerializeBeanInfo beanInfo, int writerFeatures) {
+        try {
+            return checkEnumFields(asmFactory.createJavaBeanSerializer(beanInfo, writerFeatures));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private JavaBeanSerializer checkEnumFields(JavaBeanSerializer serializer) {
         for (int i = 0; i < serializer.sortedGetters.length; ++i) {
             FieldSerializer fieldDeser = serializer.sortedGetters[i];
             Class<?> fieldClass = fieldDeser.fieldInfo.fieldClass;
@@ -103,6 +131,92 @@ public class SerializeConfig {
         return serializer;
     }
 
+    /**
+     * How many java bean serializers were built per class, a class built more than once means its serializer was not
+     * found in the registry. Classes no longer reachable are dropped from the counts.
+     *
+     * @since 1.2.80
+     */
+    public Map<Class<?>, Integer> getSerializerBuildCounts() {
+        synchronized (buildCounts) {
+            Map<Class<?>, Integer> counts = new HashMap<>(buildCounts.size());
+            for (Map.Entry<Class<?>, AtomicInteger> entry : buildCounts.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Starts java beans on the reflective serializer and generates the ASM serializer once a bean was written threshold
+     * times, on a background thread when async. A threshold of 0 generates it on first use.
+     *
+     * @since 1.2.80
+     */
+    public void setTieredCompilation(int threshold, boolean async) {
+        this.tieredThreshold = threshold;
+        this.tieredAsync = async;
+    }
+
+    public int getTieredThreshold() {
+        return tieredThreshold;
+    }
+
+    /**
+     * How many serializers specialized on the feature mask of the writer an ASM serialized bean may get, writers with
+     * further masks use its generic serializer. 0 generates the generic serializer only. Applies to serializers
+     * generated afterwards.
+     *
+     * @since 1.2.80
+     */
+    public void setFeatureVariants(int featureVariants) {
+        this.featureVariants = featureVariants;
+    }
+
+    public int getFeatureVariants() {
+        return featureVariants;
+    }
+
+    /**
+     * How many writes the reflective tier served per class, a class whose count reached the threshold was promoted to
+     * the ASM serializer. Lists the latest reflective tier of every reachable class.
+     *
+     * @since 1.2.80
+     */
+    public Map<Class<?>, Integer> getTieredCounts() {
+        synchronized (tiered) {
+            Map<Class<?>, Integer> counts = new HashMap<>(tiered.size());
+            for (Map.Entry<Class<?>, WeakReference<TieredJavaBeanSerializer>> entry : tiered.entrySet()) {
+                TieredJavaBeanSerializer serializer = entry.getValue().get();
+                if (serializer != null) {
+                    counts.put(entry.getKey(), serializer.getInvocationCount());
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * @return the ASM serializer now registered for the bean, null when it could not be generated
+     */
+    JavaBeanSerializer promote(TieredJavaBeanSerializer serializer) {
+        Class<?> clazz = serializer.beanInfo.beanType;
+        JavaBeanSerializer promoted;
+        try {
+            promoted = createASMSerializer(serializer.beanInfo);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+
+        boolean writeDirect = promoted.writeDirect;
+        promoted.shareFilters(serializer);
+        promoted.writeDirect = writeDirect && serializer.writeDirect;
+        if (get(clazz) == serializer) {
+            put(clazz, promoted);
+        }
+        return promoted;
+    }
+
     public final ObjectSerializer createJavaBeanSerializer(Class<?> clazz) {
         String className = clazz.getName();
         long hashCode64 = TypeUtils.fnv1a64(className);
@@ -119,6 +233,15 @@ public class SerializeConfig {
     }
 
     public ObjectSerializer createJavaBeanSerializer(SerializeBeanInfo beanInfo,Class<?> clazz) {
+        synchronized (buildCounts) {
+            AtomicInteger count = buildCounts.get(clazz);
+            if (count == null) {
+                count = new AtomicInteger();
+                buildCounts.put(clazz, count);
+            }
+            count.incrementAndGet();
+        }
+
         JSONType jsonType = beanInfo.jsonType;
         boolean asm1 = this.asm && !fieldBased;
 
@@ -128,6 +251,15 @@ public class SerializeConfig {
 
         asm1 = checkClass(clazz, asm1 , beanInfo);
 
+        if (asm1 && tieredThreshold > 0) {
+            TieredJavaBeanSerializer serializer = new TieredJavaBeanSerializer(this, beanInfo, tieredThreshold, tieredAsync);
+            // the tier refers to the class, it is held weakly too
+            synchronized (tiered) {
+                tiered.put(clazz, new WeakReference<>(serializer));
+            }
+            return serializer;
+        }
+
         if (asm1) {
             // skip
             try {
@@ -1017,17 +1149,32 @@ public class SerializeConfig {
     }
 
     private void autoWiredObject(ClassLoader classLoader) {
-        for (AutowiredObjectSerializer o : ServiceLoader.load(AutowiredObjectSerializer.class, classLoader)) {
-            if (o == null) {
-                continue;
+        if (classLoader == null) {
+            return;
+        }
+        synchronized (autowiredLoaders) {
+            if (autowiredLoaders.put(classLoader, Boolean.TRUE) != null) {
+                return;
             }
+            for (AutowiredObjectSerializer o : ServiceLoader.load(AutowiredObjectSerializer.class, classLoader)) {
+                if (o == null) {
+                    continue;
+                }
 
-            autoWired(o);
+                autoWired(o);
+            }
         }
     }
 
+    /**
+     * registers o for the types nothing is registered for yet
+     */
     private void autoWired(AutowiredObjectSerializer o) {
-        for (Type forType : o.getAutowiredFor()) put(forType, o);
+        for (Type forType : o.getAutowiredFor()) {
+            if (get(forType) == null) {
+                put(forType, o);
+            }
+        }
     }
 
     private static ObjectSerializer getObjectSerializer(ObjectSerializer writer) {
@@ -1081,7 +1228,11 @@ public class SerializeConfig {
     public final ObjectSerializer get(Type type) {
         Type mixin = JSON.getMixInAnnotations(type);
         if (null == mixin) {
-            return this.serializers.get(type);
+            ObjectSerializer serializer = this.serializers.get(type);
+            if (serializer == null && type != null && !(type instanceof Class<?>)) {
+                serializer = this.serializers.get(TypeInterner.intern(type));
+            }
+            return serializer;
         }
         IdentityHashMap<Type, ObjectSerializer> mixInClasses = this.mixInSerializers.get(type);
         if (mixInClasses == null) {
@@ -1095,13 +1246,18 @@ public class SerializeConfig {
     }
 
     public boolean put(Type type, ObjectSerializer value) {
+        if (!(type instanceof Class<?>)) {
+            type = TypeInterner.intern(type);
+        }
         Type mixin = JSON.getMixInAnnotations(type);
         if (mixin != null) {
             IdentityHashMap<Type, ObjectSerializer> mixInClasses = this.mixInSerializers.get(type);
             if (mixInClasses == null) {
-                //多线程下可能会重复创建，但不影响正确性
                 mixInClasses = new IdentityHashMap<>(4);
-                mixInSerializers.put(type, mixInClasses);
+                IdentityHashMap<Type, ObjectSerializer> present = mixInSerializers.putIfAbsent(type, mixInClasses);
+                if (present != null) {
+                    mixInClasses = present;
+                }
             }
             return mixInClasses.put(mixin, value);
         }
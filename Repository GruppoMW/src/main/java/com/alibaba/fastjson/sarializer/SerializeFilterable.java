@@ -19,7 +19,13 @@ public abstract class SerializeFilterable {
 
     protected boolean                  writeDirect         = true;
 
+    /**
+     * true while the lists are the ones of a template, see {@link JSONSerializer#useFilters}
+     */
+    private boolean                    borrowedFilters;
+
     public List<BeforeFilter> getBeforeFilters() {
+        copyBorrowedFilters();
         if (beforeFilters == null) {
             beforeFilters = new ArrayList<>();
             writeDirect = false;
@@ -29,6 +35,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<AfterFilter> getAfterFilters() {
+        copyBorrowedFilters();
         if (afterFilters == null) {
             afterFilters = new ArrayList<>();
             writeDirect = false;
@@ -38,6 +45,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<NameFilter> getNameFilters() {
+        copyBorrowedFilters();
         if (nameFilters == null) {
             nameFilters = new ArrayList<>();
             writeDirect = false;
@@ -47,6 +55,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<PropertyPreFilter> getPropertyPreFilters() {
+        copyBorrowedFilters();
         if (propertyPreFilters == null) {
             propertyPreFilters = new ArrayList<>();
             writeDirect = false;
@@ -56,6 +65,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<LabelFilter> getLabelFilters() {
+        copyBorrowedFilters();
         if (labelFilters == null) {
             labelFilters = new ArrayList<>();
             writeDirect = false;
@@ -65,6 +75,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<PropertyFilter> getPropertyFilters() {
+        copyBorrowedFilters();
         if (propertyFilters == null) {
             propertyFilters = new ArrayList<>();
             writeDirect = false;
@@ -74,6 +85,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<ContextValueFilter> getContextValueFilters() {
+        copyBorrowedFilters();
         if (contextValueFilters == null) {
             contextValueFilters = new ArrayList<>();
             writeDirect = false;
@@ -83,6 +95,7 @@ public abstract class SerializeFilterable {
     }
 
     public List<ValueFilter> getValueFilters() {
+        copyBorrowedFilters();
         if (valueFilters == null) {
             valueFilters = new ArrayList<>();
             writeDirect = false;
@@ -91,6 +104,13 @@ public abstract class SerializeFilterable {
         return valueFilters;
     }
 
+    /**
+     * @return true while no filter was added, the properties can then be written without consulting filters
+     */
+    public boolean isWriteDirect() {
+        return writeDirect;
+    }
+
     public void addFilter(SerializeFilter filter) {
         if (filter == null) {
             return;
@@ -129,6 +149,51 @@ public abstract class SerializeFilterable {
         }
     }
 
+    /**
+     * uses the filters of another serializer, for a serializer derived from it
+     */
+    void shareFilters(SerializeFilterable other) {
+        this.beforeFilters = other.beforeFilters;
+        this.afterFilters = other.afterFilters;
+        this.propertyFilters = other.propertyFilters;
+        this.valueFilters = other.valueFilters;
+        this.nameFilters = other.nameFilters;
+        this.propertyPreFilters = other.propertyPreFilters;
+        this.labelFilters = other.labelFilters;
+        this.contextValueFilters = other.contextValueFilters;
+        this.writeDirect = other.writeDirect;
+        this.borrowedFilters = false;
+    }
+
+    /**
+     * uses the lists of a template until a filter is added, the lists are copied first then and the template keeps
+     * its own
+     */
+    void borrowFilters(SerializeFilterable template) {
+        shareFilters(template);
+        this.borrowedFilters = true;
+    }
+
+    private void copyBorrowedFilters() {
+        if (!borrowedFilters) {
+            return;
+        }
+        borrowedFilters = false;
+
+        beforeFilters = copy(beforeFilters);
+        afterFilters = copy(afterFilters);
+        propertyFilters = copy(propertyFilters);
+        valueFilters = copy(valueFilters);
+        nameFilters = copy(nameFilters);
+        propertyPreFilters = copy(propertyPreFilters);
+        labelFilters = copy(labelFilters);
+        contextValueFilters = copy(contextValueFilters);
+    }
+
+    private static <T> List<T> copy(List<T> filters) {
+        return filters == null ? null : new ArrayList<>(filters);
+    }
+
     public boolean applyName(JSONSerializer jsonBeanDeser, //
                              Object object, String key) {
 
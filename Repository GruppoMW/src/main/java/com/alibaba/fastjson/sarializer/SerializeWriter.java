@@ -18,15 +18,19 @@ package com.alibaba.fastjson.serializer;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
+import com.alibaba.fastjson.util.DateFormats;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.fastjson.util.RyuDouble;
 import com.alibaba.fastjson.util.RyuFloat;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 
 import static com.alibaba.fastjson.util.IOUtils.replaceChars;
@@ -35,8 +39,6 @@ import static com.alibaba.fastjson.util.IOUtils.replaceChars;
  * @author wenshao[szujobs@hotmail.com]
  */
 public final class SerializeWriter extends Writer {
-    private static final ThreadLocal<char[]> bufLocal        = new ThreadLocal<>();
-    private static final ThreadLocal<byte[]> bytesBufLocal    = new ThreadLocal<>();
     private static final char[] VALUE_TRUE = ":true".toCharArray();
     private static final char[] VALUE_FALSE = ":false".toCharArray();
     private static int bufferThresholdVariabile = 1024 * 128;
@@ -62,6 +64,14 @@ public final class SerializeWriter extends Writer {
      */
     private int                            count;
 
+    /**
+     * UTF-8 output of the byte mode, see {@link #forUTF8Bytes}. The text written so far is bytes[0, byteCount)
+     * followed by the chars still in buf: paths without a byte variant keep appending chars, the next byte write
+     * encodes them first.
+     */
+    private byte[]                         bytes;
+    private int                            byteCount;
+
     int                            features;
 
     private final Writer                     writer;
@@ -70,6 +80,7 @@ public final class SerializeWriter extends Writer {
     boolean                        quoteFieldNames;
     boolean                        sortField;
     boolean                        disableCircularReferenceDetect;
+    boolean                        detectCyclesOnly;
     boolean                        beanToArray;
     boolean                        writeNonStringValueAsString;
     boolean                        notWriteDefaultValue;
@@ -104,14 +115,7 @@ public final class SerializeWriter extends Writer {
      */
     public SerializeWriter(Writer writer, int defaultFeatures, SerializerFeature... features){
         this.writer = writer;
-        bytesBufLocal.remove();
-        buf = bufLocal.get();
-
-        if (buf != null) {
-            bufLocal.remove();
-        } else {
-            buf = new char[2048];
-        }
+        buf = BufferPool.getInstance().takeChars(2048);
 
         int featuresValue = defaultFeatures;
         for (SerializerFeature feature : features) {
@@ -122,6 +126,32 @@ public final class SerializeWriter extends Writer {
         computeFeatures();
     }
 
+    /**
+     * Streams the output into {@code out}: every time the buffer fills up its content is encoded with
+     * {@code charset} and written through, so the whole text is never held in memory. The stream is neither flushed
+     * nor closed by this writer.
+     *
+     * @since 1.2.80
+     */
+    public SerializeWriter(OutputStream out, Charset charset, int defaultFeatures, SerializerFeature... features){
+        this(charset == IOUtils.UTF8 //
+                ? new UTF8StreamWriter(out) //
+                : new OutputStreamWriter(out, charset), defaultFeatures, features);
+    }
+
+    /**
+     * Creates a writer that encodes to UTF-8 while writing, {@link #toBytes(Charset)} with UTF-8 then returns the
+     * output without re-encoding a char buffer.
+     *
+     * @since 1.2.80
+     */
+    public static SerializeWriter forUTF8Bytes(int defaultFeatures, SerializerFeature... features) {
+        SerializeWriter out = new SerializeWriter((Writer) null, defaultFeatures, features);
+
+        out.bytes = BufferPool.getInstance().takeBytes(1024 * 8);
+        return out;
+    }
+
     public SerializeWriter(int initialSize){
         this(null, initialSize);
     }
@@ -174,6 +204,7 @@ public final class SerializeWriter extends Writer {
         useSingleQuotes = (this.features & SerializerFeature.USE_SINGLE_QUOTES.mask) != 0;
         sortField = (this.features & SerializerFeature.SORT_FIELD.mask) != 0;
         disableCircularReferenceDetect = (this.features & SerializerFeature.DISABLE_CIRCULAR_REFERENCE_DETECT.mask) != 0;
+        detectCyclesOnly = (this.features & SerializerFeature.DETECT_CYCLES_ONLY.mask) != 0;
         beanToArray = (this.features & SerializerFeature.BEAN_TO_ARRAY.mask) != 0;
         writeNonStringValueAsString = (this.features & SerializerFeature.WRITE_NON_STRING_VALUE_AS_STRING.mask) != 0;
         notWriteDefaultValue = (this.features & SerializerFeature.NOT_WRITE_DEFAULT_VALUE.mask) != 0;
@@ -212,6 +243,13 @@ public final class SerializeWriter extends Writer {
      */
     @Override
     public void write(int c) {
+        if (bytes != null && c < 0x80) {
+            int pos = reserveBytes(1);
+            bytes[pos] = (byte) c;
+            byteCount = pos + 1;
+            return;
+        }
+
         int newcount = count + 1;
         if (newcount > buf.length) {
             if (writer == null) {
@@ -243,6 +281,12 @@ public final class SerializeWriter extends Writer {
             return;
         }
 
+        if (bytes != null) {
+            int pos = reserveBytes(len * 3);
+            byteCount = IOUtils.encodeUTF8(c, off, len, bytes, pos);
+            return;
+        }
+
         int newcount = count + len;
         if (newcount > buf.length) {
             if (writer == null) {
@@ -264,6 +308,58 @@ public final class SerializeWriter extends Writer {
 
     }
 
+    /**
+     * Encodes the pending chars and makes room for {@code len} more bytes.
+     *
+     * @return the position to write at
+     */
+    private int reserveBytes(int len) {
+        if (count != 0) {
+            flushChars();
+        }
+
+        int minimumCapacity = byteCount + len;
+        if (minimumCapacity > bytes.length) {
+            int newCapacity = bytes.length + (bytes.length >> 1) + 1;
+            if (newCapacity < minimumCapacity) {
+                newCapacity = minimumCapacity;
+            }
+            bytes = Arrays.copyOf(bytes, newCapacity);
+        }
+        return byteCount;
+    }
+
+    private void flushChars() {
+        int chars = count;
+        count = 0;
+        int pos = reserveBytes(chars * 3);
+        byteCount = IOUtils.encodeUTF8(buf, 0, chars, bytes, pos);
+    }
+
+    /**
+     * Encodes str[off, off + len) at pos, the capacity has to be reserved by the caller.
+     *
+     * @return the position after the last byte
+     */
+    private int putUTF8(String str, int off, int len, int pos) {
+        final byte[] bytes = this.bytes;
+        int end = off + len;
+        for (int i = off; i < end; ++i) {
+            char ch = str.charAt(i);
+            if (ch >= 0x80) {
+                // buf is empty while bytes are written, use it to encode the rest
+                int rest = end - i;
+                if (rest > buf.length) {
+                    expandCapacity(rest);
+                }
+                str.getChars(i, end, buf, 0);
+                return IOUtils.encodeUTF8(buf, 0, rest, bytes, pos);
+            }
+            bytes[pos++] = (byte) ch;
+        }
+        return pos;
+    }
+
     public void expandCapacity(int minimumCapacity) {
 
         int newCapacity = buf.length + (buf.length >> 1) + 1;
@@ -275,10 +371,7 @@ public final class SerializeWriter extends Writer {
         System.arraycopy(buf, 0, newValue, 0, count);
 
         if (buf.length < bufferThresholdVariabile) {
-            char[] charsLocal = bufLocal.get();
-            if (charsLocal == null || charsLocal.length < buf.length) {
-                bufLocal.set(buf);
-            }
+            BufferPool.getInstance().releaseChars(buf);
         }
 
         buf = newValue;
@@ -310,6 +403,12 @@ public final class SerializeWriter extends Writer {
      */
     @Override
     public void write(String str, int off, int len) {
+        if (bytes != null) {
+            int pos = reserveBytes(len * 3);
+            byteCount = putUTF8(str, off, len, pos);
+            return;
+        }
+
         int newcount = count + len;
         if (newcount > buf.length) {
             if (writer == null) {
@@ -340,6 +439,10 @@ public final class SerializeWriter extends Writer {
         if (this.writer != null) {
             throw new UnsupportedOperationException(WRITER_NOT_NULL);
         }
+        if (bytes != null) {
+            out.write(toString());
+            return;
+        }
         out.write(buf, 0, count);
     }
 
@@ -348,6 +451,17 @@ public final class SerializeWriter extends Writer {
             throw new UnsupportedOperationException(WRITER_NOT_NULL);
         }
 
+        if (bytes != null) {
+            flushChars();
+            if (charset == IOUtils.UTF8) {
+                out.write(bytes, 0, byteCount);
+                return byteCount;
+            }
+            byte[] encoded = toString().getBytes(charset);
+            out.write(encoded);
+            return encoded.length;
+        }
+
         if (charset == IOUtils.UTF8) {
             return encodeToUTF8(out);
         } else {
@@ -366,6 +480,9 @@ public final class SerializeWriter extends Writer {
         if (this.writer != null) {
             throw new UnsupportedOperationException(WRITER_NOT_NULL);
         }
+        if (bytes != null) {
+            return toString().toCharArray();
+        }
 
         char[] newValue = new char[count];
         System.arraycopy(buf, 0, newValue, 0, count);
@@ -379,6 +496,10 @@ public final class SerializeWriter extends Writer {
         if (this.writer != null) {
             throw new UnsupportedOperationException(WRITER_NOT_NULL);
         }
+        if (bytes != null) {
+            String text = toString();
+            return text.substring(1, text.length() - 1).toCharArray();
+        }
 
         char[] newValue = new char[count - 2];
         System.arraycopy(buf, 1, newValue, 0, count - 2);
@@ -390,6 +511,13 @@ public final class SerializeWriter extends Writer {
             throw new UnsupportedOperationException(WRITER_NOT_NULL);
         }
 
+        if (bytes != null) {
+            flushChars();
+            return charset == IOUtils.UTF8 //
+                    ? Arrays.copyOf(bytes, byteCount) //
+                    : toString().getBytes(charset);
+        }
+
         if (charset == IOUtils.UTF8) {
             return encodeToUTF8Bytes();
         } else {
@@ -400,23 +528,13 @@ public final class SerializeWriter extends Writer {
     private int encodeToUTF8(OutputStream out) throws IOException {
 
         int bytesLength = (int) (count * (double) 3);
-        byte[] bytes = bytesBufLocal.get();
-
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
-        }
-        byte[] bytesLocal = bytes;
-
-        if (bytes.length < bytesLength) {
-            bytes = new byte[bytesLength];
-        }
+        byte[] bytes = BufferPool.getInstance().takeBytes(bytesLength);
 
         int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
         out.write(bytes, 0, position);
 
-        if (bytes != bytesLocal && bytes.length <= bufferThresholdVariabile) {
-            bytesBufLocal.set(bytes);
+        if (bytes.length <= bufferThresholdVariabile) {
+            BufferPool.getInstance().releaseBytes(bytes);
         }
 
         return position;
@@ -424,34 +542,31 @@ public final class SerializeWriter extends Writer {
 
     private byte[] encodeToUTF8Bytes() {
         int bytesLength = (int) (count * (double) 3);
-        byte[] bytes = bytesBufLocal.get();
-
-        if (bytes == null) {
-            bytes = new byte[1024 * 8];
-            bytesBufLocal.set(bytes);
-        }
-        byte[] bytesLocal = bytes;
-
-        if (bytes.length < bytesLength) {
-            bytes = new byte[bytesLength];
-        }
+        byte[] bytes = BufferPool.getInstance().takeBytes(bytesLength);
 
         int position = IOUtils.encodeUTF8(buf, 0, count, bytes);
         byte[] copy = new byte[position];
         System.arraycopy(bytes, 0, copy, 0, position);
 
-        if (bytes != bytesLocal && bytes.length <= bufferThresholdVariabile) {
-            bytesBufLocal.set(bytes);
+        if (bytes.length <= bufferThresholdVariabile) {
+            BufferPool.getInstance().releaseBytes(bytes);
         }
 
         return copy;
     }
 
+    /**
+     * @return the number of chars written, in the byte mode the number of bytes plus the chars not yet encoded
+     */
     public int size() {
-        return count;
+        return bytes != null ? byteCount + count : count;
     }
 
     public String toString() {
+        if (bytes != null) {
+            flushChars();
+            return new String(bytes, 0, byteCount, IOUtils.UTF8);
+        }
         return new String(buf, 0, count);
     }
 
@@ -463,11 +578,15 @@ public final class SerializeWriter extends Writer {
         if (writer != null && count > 0) {
             flush();
         }
-        if (buf.length <= bufferThresholdVariabile) {
-            bufLocal.set(buf);
+        if (buf != null && buf.length <= bufferThresholdVariabile) {
+            BufferPool.getInstance().releaseChars(buf);
+        }
+        if (bytes != null && bytes.length <= bufferThresholdVariabile) {
+            BufferPool.getInstance().releaseBytes(bytes);
         }
 
         this.buf = null;
+        this.bytes = null;
     }
     @Override
     public void write(String text) {
@@ -487,6 +606,13 @@ public final class SerializeWriter extends Writer {
 
         int size = (i < 0) ? IOUtils.stringSize(-i) + 1 : IOUtils.stringSize(i);
 
+        if (bytes != null) {
+            int pos = reserveBytes(size);
+            IOUtils.getBytes(i, pos + size, bytes);
+            byteCount = pos + size;
+            return;
+        }
+
         int newcount = count + size;
         if (newcount > buf.length) {
             if (writer == null) {
@@ -712,8 +838,15 @@ public final class SerializeWriter extends Writer {
     }
 
     public void writeLong(long i) {
+        if (bytes != null && i != Long.MIN_VALUE && !needQuotationMark(i)) {
+            int size = (i < 0) ? IOUtils.stringSize(-i) + 1 : IOUtils.stringSize(i);
+            int pos = reserveBytes(size);
+            IOUtils.getBytes(i, pos + size, bytes);
+            byteCount = pos + size;
+            return;
+        }
 
-        needQuotationMarkWrite(i);
+        if (needQuotationMarkWrite(i)) return;
 
         int size = (i < 0) ? IOUtils.stringSize(-i) + 1 : IOUtils.stringSize(i);
 
@@ -753,14 +886,59 @@ public final class SerializeWriter extends Writer {
                 && (i > 9007199254740991L || i < -9007199254740991L);
     }
 
-    private void needQuotationMarkWrite(long i) {
+    private boolean needQuotationMarkWrite(long i) {
         if (i == Long.MIN_VALUE) {
             if (needQuotationMark(i)) {
                 write("\"-9223372036854775808\"");
             } else {
                 write("-9223372036854775808");
             }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes a quoted date in one of the {@link DateFormats} fast patterns without a format object.
+     *
+     * @param fields local date and time packed by {@link DateFormats#fields} or {@link DateFormats#localFields}
+     */
+    public void writeDate(long fields, int fastPattern) {
+        final char quote = useSingleQuotes ? '\'' : '"';
+        final int len = DateFormats.length(fastPattern);
+
+        if (bytes != null) {
+            int pos = reserveBytes(len + 2);
+            // buf is empty while bytes are written
+            if (buf.length < len) {
+                expandCapacity(len);
+            }
+            DateFormats.getChars(fields, fastPattern, buf, 0);
+            bytes[pos++] = (byte) quote;
+            for (int i = 0; i < len; ++i) {
+                bytes[pos++] = (byte) buf[i];
+            }
+            bytes[pos++] = (byte) quote;
+            byteCount = pos;
+            return;
         }
+
+        int newcount = count + len + 2;
+        if (newcount > buf.length) {
+            if (writer == null) {
+                expandCapacity(newcount);
+            } else {
+                flush();
+                newcount = len + 2;
+                if (newcount > buf.length) {
+                    expandCapacity(newcount);
+                }
+            }
+        }
+        buf[count] = quote;
+        DateFormats.getChars(fields, fastPattern, buf, count + 1);
+        buf[newcount - 1] = quote;
+        count = newcount;
     }
 
     public void writeNull() {
@@ -798,203 +976,82 @@ public final class SerializeWriter extends Writer {
     }
 
     public void writeStringWithDoubleQuote(String text, final char seperator) {
-        if (textIsNull(text, seperator)) return;
-
-        int len = text.length();
-        int newcount = count + len + 2;
-
-        newcount = getNewcount(seperator, newcount);
-
-        if (newCountMajor(text, seperator, newcount)) return;
-
-        int start = count + 1;
-        int end = start + len;
-
-        buf[count] = '\"';
-        text.getChars(0, len, buf, start);
-
-        count = newcount;
-
-        if (isEnabledBoolean(seperator, newcount, start, end)) return;
-
-        int firstSpecialIndex = -1;
-
-        for (int i = start; i < end; ++i) {
-            char ch = buf[i];
-
-            // 93
-            if (isaBoolean(ch) && isaBoolean1(ch)) {
-                firstSpecialIndex = getFirstSpecialIndex(firstSpecialIndex, i);
-
-                newcount += 4;
-            }
-        }
-
-        getBuf(seperator);
-    }
-
-    private static boolean isaBoolean1(char ch) {
-        return ch >= 0x7F //
-                && (ch == '\u2028' //
-                || ch == '\u2029' //
-                || ch < 0xA0);
-    }
-
-    private static boolean isaBoolean(char ch) {
-        return ch >= ']';
-    }
-
-    private static int getNewcount(char seperator, int newcount) {
-        if (seperator != 0) {
-            newcount++;
-        }
-        return newcount;
-    }
-
-    private boolean newCountMajor(String text, char seperator, int newcount) {
-        if (newcount > buf.length) {
-            if (writer != null) {
-                write('"');
-
-                chValue(text, seperator);
-                return true;
+        if (bytes != null && text != null && seperator < 0x80 && isPlain(text)) {
+            int len = text.length();
+            int pos = reserveBytes(len * 3 + 3);
+            bytes[pos++] = '"';
+            pos = putUTF8(text, 0, len, pos);
+            bytes[pos++] = '"';
+            if (seperator != 0) {
+                bytes[pos++] = (byte) seperator;
             }
-            expandCapacity(newcount);
-        }
-        return false;
-    }
-
-    private boolean isEnabledBoolean(char seperator, int newcount, int start, int end) {
-        if (isEnabled(SerializerFeature.BROWSER_COMPATIBLE)) {
-            lastSpecialIndexVoid(seperator, newcount, start, end);
-            return true;
-        }
-        return false;
-    }
-
-    private static int getFirstSpecialIndex(int firstSpecialIndex, int i) {
-        if (firstSpecialIndex == -1) {
-            firstSpecialIndex = i;
+            byteCount = pos;
+            return;
         }
-        return firstSpecialIndex;
-    }
-
-    private void lastSpecialIndexVoid(char seperator, int newcount, int start, int end) {
-        int lastSpecialIndex = -1;
-
-        for (int i = start; i < end; ++i) {
-            char ch = buf[i];
-
-            if (ch == '"' //
-                    || ch == '/' //
-                    || ch == '\\') {
-                lastSpecialIndex = i;
-                newcount += 1;
-            }
-
-            if (ch == '\b' //
-                    || ch == '\f' //
-                    || ch == '\n' //
-                    || ch == '\r' //
-                    || ch == '\t') {
-                lastSpecialIndex = i;
-                newcount += 1;
-            }
 
-            if (ch < 32) {
-                lastSpecialIndex = i;
-                newcount += 5;
-            }
+        if (textIsNull(text, seperator)) return;
 
-            if (ch >= 127) {
-                lastSpecialIndex = i;
-                newcount += 5;
+        // the runs between special chars are written as they are
+        write('"');
+        int len = text.length();
+        int start = 0;
+        for (int i = 0; i < len; ++i) {
+            char ch = text.charAt(i);
+            if (isSpecial(ch)) {
+                if (i > start) {
+                    write(text, start, i - start);
+                }
+                isEnabledSerializerCh(ch);
+                start = i + 1;
             }
         }
-
-        newCountMajor(newcount);
-        count = newcount;
-
-        if(getBuf(start, end, lastSpecialIndex)!=null){
-            buf = getBuf(start, end, lastSpecialIndex);
+        if (start < len) {
+            write(text, start, len - start);
         }
-
-        buf = getBuf(seperator);
-    }
-
-    private char[] getBuf(char seperator) {
+        write('"');
         if (seperator != 0) {
-            buf[count - 2] = '\"';
-            buf[count - 1] = seperator;
-        } else {
-            buf[count - 1] = '\"';
+            write(seperator);
         }
-        return buf;
     }
 
-    private char[] getBuf(int start, int end, int lastSpecialIndex) {
-        for (int i = lastSpecialIndex; i >= start; --i) {
-            char ch = buf[i];
-
-            if (ch == '\b' //
-                    || ch == '\f'//
-                    || ch == '\n' //
-                    || ch == '\r' //
-                    || ch == '\t'
-            ) {
-                System.arraycopy(buf, i + 1, buf, i + 2, end - i - 1);
-                buf[i] = '\\';
-                buf[i + 1] = replaceChars[ch];
-                end += 1;
-            }
-
-            if (ch == '"' //
-                    || ch == '/' //
-                    || ch == '\\'
-            ) {
-                System.arraycopy(buf, i + 1, buf, i + 2, end - i - 1);
-                buf[i] = '\\';
-                buf[i + 1] = ch;
-                end += 1;
-            }
-
-            if (ch < 32) {
-                System.arraycopy(buf, i + 1, buf, i + 6, end - i - 1);
-                buf[i    ] = '\\';
-                buf[i + 1] = 'u';
-                buf[i + 2] = '0';
-                buf[i + 3] = '0';
-                buf[i + 4] = IOUtils.ASCII_CHARS[ch * 2];
-                buf[i + 5] = IOUtils.ASCII_CHARS[ch * 2 + 1];
-                end += 5;
-            }
-
-            if (ch >= 127) {
-                System.arraycopy(buf, i + 1, buf, i + 6, end - i - 1);
-                buf[i    ] = '\\';
-                buf[i + 1] = 'u';
-                buf[i + 2] = IOUtils.DIGITS[(ch >>> 12) & 15];
-                buf[i + 3] = IOUtils.DIGITS[(ch >>> 8) & 15];
-                buf[i + 4] = IOUtils.DIGITS[(ch >>> 4) & 15];
-                buf[i + 5] = IOUtils.DIGITS[ch & 15];
-                end += 5;
+    /**
+     * @return true if text can be written between double quotes as is
+     */
+    private boolean isPlain(String text) {
+        for (int i = 0; i < text.length(); ++i) {
+            if (isSpecial(text.charAt(i))) {
+                return false;
             }
         }
-        return buf;
+        return true;
     }
 
-    private void chValue(String text, char seperator) {
-        for (int i = 0; i < text.length(); ++i) {
-            isEnabledSerializerCh(text.charAt(i));
+    /**
+     * @return true if ch is escaped between double quotes, see {@link #isEnabledSerializerCh}
+     */
+    private boolean isSpecial(char ch) {
+        if (ch < 64) {
+            return (sepcialBits & (1L << ch)) != 0 || (ch == '/' && isEnabled(SerializerFeature.BROWSER_COMPATIBLE));
         }
-
-        write('"');
-        if (seperator != 0) {
-            write(seperator);
+        if (ch == '\\') {
+            return true;
+        }
+        if (ch < 0x7F) {
+            return false;
         }
+        return isEnabled(SerializerFeature.BROWSER_COMPATIBLE) || ch < 0xA0 || ch == '\u2028' || ch == '\u2029';
     }
 
     private boolean chMinusIOUtils(char ch) {
+        if (ch == '\u2028' || ch == '\u2029') {
+            write('\\');
+            write('u');
+            write(IOUtils.DIGITS[ch >>> 12 & 15]);
+            write(IOUtils.DIGITS[ch >>> 8  & 15]);
+            write(IOUtils.DIGITS[ch >>> 4  & 15]);
+            write(IOUtils.DIGITS[ch & 15]);
+            return true;
+        }
         if (ch < IOUtils.specicalFlags_doubleQuotes.length
                 && IOUtils.specicalFlags_doubleQuotes[ch] != 0 //
                 || (ch == '/' && isEnabled(SerializerFeature.WRITE_SLASH_AS_SPECIAL))) {
@@ -1133,6 +1190,20 @@ public final class SerializeWriter extends Writer {
         count = offset;
     }
 
+    /**
+     * Byte mode counterpart of the quoted name prefix the writeFieldValue fast paths put in buf.
+     */
+    private void writeFieldNameUTF8(char seperator, String name) {
+        int nameLen = name.length();
+        int pos = reserveBytes(nameLen * 3 + 4);
+        bytes[pos++] = (byte) seperator;
+        bytes[pos++] = (byte) keySeperator;
+        pos = putUTF8(name, 0, nameLen, pos);
+        bytes[pos++] = (byte) keySeperator;
+        bytes[pos++] = ':';
+        byteCount = pos;
+    }
+
     public void writeFieldValue(char seperator, String name, char value) {
         write(seperator);
         writeFieldName(name);
@@ -1150,6 +1221,11 @@ public final class SerializeWriter extends Writer {
             write(value);
             return;
         }
+        if (bytes != null && seperator < 0x80) {
+            writeFieldNameUTF8(seperator, name);
+            write(value);
+            return;
+        }
         int intSize = value ? 4 : 5;
 
         int nameLen = name.length();
@@ -1201,6 +1277,12 @@ public final class SerializeWriter extends Writer {
             return;
         }
 
+        if (bytes != null && seperator < 0x80) {
+            writeFieldNameUTF8(seperator, name);
+            writeInt(value);
+            return;
+        }
+
         int intSize = (value < 0) ? IOUtils.stringSize(-value) + 1 : IOUtils.stringSize(value);
 
         int nameLen = name.length();
@@ -1243,6 +1325,12 @@ public final class SerializeWriter extends Writer {
             return;
         }
 
+        if (bytes != null && seperator < 0x80) {
+            writeFieldNameUTF8(seperator, name);
+            writeLong(value);
+            return;
+        }
+
         int intSize = (value < 0) ? IOUtils.stringSize(-value) + 1 : IOUtils.stringSize(value);
 
         int nameLen = name.length();
@@ -1297,7 +1385,7 @@ public final class SerializeWriter extends Writer {
                     writeString(value);
                 }
             } else {
-                if (isEnabled(SerializerFeature.BROWSER_COMPATIBLE)) {
+                if (bytes != null || isEnabled(SerializerFeature.BROWSER_COMPATIBLE)) {
                     write(seperator);
                     writeStringWithDoubleQuote(name, ':');
                     writeStringWithDoubleQuote(value, (char) 0);
@@ -1321,33 +1409,31 @@ public final class SerializeWriter extends Writer {
     }
 
     public void writeFieldValueStringWithDoubleQuoteCheck(char seperator, String name, String value) {
-        int nameLen = name.length();
-        int valueLen;
-
-        int newcount = count;
-
-        if (value == null) {
-            newcount += nameLen + 8;
-        } else {
-            valueLen = value.length();
-            newcount += nameLen + valueLen + 6;
+        if (bytes != null || value == null || !isPlain(name) || !isPlain(value)) {
+            write(seperator);
+            writeStringWithDoubleQuote(name, ':');
+            writeStringWithDoubleQuote(value, (char) 0);
+            return;
         }
 
+        int nameLen = name.length();
+        int valueLen = value.length();
+        int newcount = count + nameLen + valueLen + 6;
+
         if (newCountMajor1(seperator, name, value, newcount)) return;
 
         buf[count] = seperator;
+        buf[count + 1] = '"';
+        name.getChars(0, nameLen, buf, count + 2);
 
-        int nameStart = count + 2;
-        int nameEnd = nameStart + nameLen;
-
-        buf[count + 1] = '\"';
-        name.getChars(0, nameLen, buf, nameStart);
+        int index = count + 2 + nameLen;
+        buf[index++] = '"';
+        buf[index++] = ':';
+        buf[index++] = '"';
+        value.getChars(0, valueLen, buf, index);
 
         count = newcount;
-
-        buf[nameEnd] = '\"';
-
-        buf[count - 1] = '\"';
+        buf[count - 1] = '"';
     }
 
     private boolean newCountMajor1(char seperator, String name, String value, int newcount) {
@@ -1364,6 +1450,13 @@ public final class SerializeWriter extends Writer {
     }
 
     public void writeFieldValueStringWithDoubleQuote(char seperator, String name, String value) {
+        if (bytes != null) {
+            write(seperator);
+            writeStringWithDoubleQuote(name, ':');
+            writeStringWithDoubleQuote(value, (char) 0);
+            return;
+        }
+
         int nameLen = name.length();
         int valueLen;
 
@@ -1473,19 +1566,26 @@ public final class SerializeWriter extends Writer {
     void writeStringWithSingleQuote(String text) {
         if (textIsNull(text)) return;
 
+        // the runs between special chars are written as they are
+        write('\'');
         int len = text.length();
-        int newcount = newCount2(text,len);
-
-        int start = count + 1;
-
-        buf[count] = '\'';
-        text.getChars(0, len, buf, start);
-        count = newcount;
-
-        newCountMajor(newcount);
-        count = newcount;
-
-        buf[count - 1] = '\'';
+        int start = 0;
+        for (int i = 0; i < len; ++i) {
+            char ch = text.charAt(i);
+            if (ch <= 13 || ch == '\\' || ch == '\'' //
+                    || (ch == '/' && isEnabled(SerializerFeature.WRITE_SLASH_AS_SPECIAL))) {
+                if (i > start) {
+                    write(text, start, i - start);
+                }
+                write('\\');
+                write(replaceChars[ch]);
+                start = i + 1;
+            }
+        }
+        if (start < len) {
+            write(text, start, len - start);
+        }
+        write('\'');
     }
 
     private boolean textIsNull(String text) {
@@ -1499,28 +1599,6 @@ public final class SerializeWriter extends Writer {
         return false;
     }
 
-    private int newCount2(String text, int len){
-        int newcount = count + len + 2;
-        if (newcount > buf.length) {
-            if (writer != null) {
-                write('\'');
-                for (int i = 0; i < text.length(); ++i) {
-                    char ch = text.charAt(i);
-                    if (ch <= 13 || ch == '\\' || ch == '\'' //
-                            || (ch == '/' && isEnabled(SerializerFeature.WRITE_SLASH_AS_SPECIAL))) {
-                        write('\\');
-                        write(replaceChars[ch]);
-                    } else {
-                        write(ch);
-                    }
-                }
-                write('\'');
-            }
-            expandCapacity(newcount);
-        }
-        return newcount;
-    }
-
     private void writeStringWithSingleQuote(char[] chars) {
         if (chars == null) {
             int newcount = count + 4;
@@ -1614,6 +1692,37 @@ public final class SerializeWriter extends Writer {
         writeFieldName2(key);
     }
 
+    /**
+     * @param checkSpecial unused, the name is always escaped as needed
+     */
+    public void writeFieldName(String key, boolean checkSpecial) {
+        writeFieldName2(key);
+    }
+
+    /**
+     * Writes a double quoted field name that needs no escaping, as the ASM serializers do for the names of the bean.
+     */
+    public void writeFieldNameDirect(String text) {
+        int len = text.length();
+        int newcount = count + len + 3;
+        if (bytes != null || (newcount > buf.length && writer != null)) {
+            write('"');
+            write(text);
+            write('"');
+            write(':');
+            return;
+        }
+        if (newcount > buf.length) {
+            expandCapacity(newcount);
+        }
+
+        buf[count] = '"';
+        text.getChars(0, len, buf, count + 1);
+        count = newcount;
+        buf[count - 2] = '"';
+        buf[count - 1] = ':';
+    }
+
     public void writeFieldName2(String key) {
         if (key == null) {
             write("null:");
@@ -1777,5 +1886,64 @@ public final class SerializeWriter extends Writer {
 
     public void reset() {
         count = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Writes chars to the stream as UTF-8 without an intermediate copy of the whole output, flush is a no-op so that
+     * every buffer written by {@link SerializeWriter#flush()} does not force a network packet.
+     */
+    static final class UTF8StreamWriter extends Writer {
+
+        private final OutputStream out;
+        private byte[]             bytes;
+        private char               highSurrogate;
+
+        UTF8StreamWriter(OutputStream out){
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+
+            int bytesLength = (len + 1) * 3;
+            if (bytes == null || bytes.length < bytesLength) {
+                bytes = new byte[Math.max(bytesLength, 1024 * 8)];
+            }
+
+            int position = 0;
+            if (highSurrogate != 0) {
+                // a surrogate pair split across two buffers
+                char[] pair = new char[] {highSurrogate, cbuf[off]};
+                boolean paired = Character.isLowSurrogate(pair[1]);
+                position = IOUtils.encodeUTF8(pair, 0, paired ? 2 : 1, bytes);
+                highSurrogate = 0;
+                if (paired) {
+                    off++;
+                    len--;
+                }
+            }
+
+            if (len > 0 && Character.isHighSurrogate(cbuf[off + len - 1])) {
+                highSurrogate = cbuf[off + len - 1];
+                len--;
+            }
+
+            position = IOUtils.encodeUTF8(cbuf, off, len, bytes, position);
+            out.write(bytes, 0, position);
+        }
+
+        @Override
+        public void flush() {
+            // written through
+        }
+
+        @Override
+        public void close() {
+            // the stream is owned by the caller
+        }
     }
 }
@@ -152,7 +152,16 @@ public enum SerializerFeature {
     /**
      * @since 1.2.27
      */
-    MAP_SORT_FIELD;
+    MAP_SORT_FIELD,
+
+    /**
+     * Detects only true cycles: an object is written as a $ref when it is one of the objects being written around
+     * it, found by walking the context chain. Shared objects that are no ancestor are written again and nothing is
+     * kept of the objects already written.
+     *
+     * @since 1.2.80
+     */
+    DETECT_CYCLES_ONLY;
 
     SerializerFeature(){
         mask = (1 << ordinal());
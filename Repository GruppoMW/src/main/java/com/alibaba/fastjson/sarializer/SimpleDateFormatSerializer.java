@@ -2,7 +2,6 @@ package com.alibaba.fastjson.serializer;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 public class SimpleDateFormatSerializer implements ObjectSerializer {
@@ -19,11 +18,6 @@ public class SimpleDateFormatSerializer implements ObjectSerializer {
     		return;
     	}
     	
-        Date date = (Date) object;
-        SimpleDateFormat format = new SimpleDateFormat(pattern, serializer.locale);
-        format.setTimeZone(serializer.timeZone);
-
-        String text = format.format(date);
-        serializer.write(text);
+        serializer.writeDate((Date) object, pattern);
     }
 }
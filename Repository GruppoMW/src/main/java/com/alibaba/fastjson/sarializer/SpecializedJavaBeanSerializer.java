@@ -0,0 +1,152 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Writes a java bean with an ASM serializer specialized on the feature mask of the writer, generated the first time a
+ * mask is used. Only the {@link ASMSerializerFactory#SPECIALIZED_FEATURES} make up the mask. Up to maxVariants masks
+ * get their own serializer, writers with other masks, or a mask whose serializer could not be generated, use the
+ * generic one.
+ *
+ * @since 1.2.80
+ */
+public class SpecializedJavaBeanSerializer extends JavaBeanSerializer {
+
+    private static final Variant[]    NO_VARIANTS = new Variant[0];
+
+    private final SerializeConfig     config;
+    private final JavaBeanSerializer  generic;
+    private final int                 maxVariants;
+    private volatile Variant[]        variants    = NO_VARIANTS;
+
+    SpecializedJavaBeanSerializer(SerializeConfig config, JavaBeanSerializer generic, int maxVariants){
+        super(generic.beanInfo);
+        this.config = config;
+        this.generic = generic;
+        this.maxVariants = maxVariants;
+        shareFilters(generic);
+    }
+
+    public void write(JSONSerializer serializer, Object object, Object fieldName, Type fieldType, int features)
+                                                                                                      throws IOException {
+        getSerializer(serializer.out.features & ASMSerializerFactory.SPECIALIZED_FEATURES) //
+            .write(serializer, object, fieldName, fieldType, features);
+    }
+
+    public void writeDirectNonContext(JSONSerializer serializer, Object object, Object fieldName, Type fieldType,
+                                      int features) throws IOException {
+        getSerializer(serializer.out.features & ASMSerializerFactory.SPECIALIZED_FEATURES) //
+            .writeDirectNonContext(serializer, object, fieldName, fieldType, features);
+    }
+
+    public void writeAsArray(JSONSerializer serializer, Object object, Object fieldName, Type fieldType, int features)
+                                                                                                             throws IOException {
+        getSerializer(serializer.out.features & ASMSerializerFactory.SPECIALIZED_FEATURES) //
+            .writeAsArray(serializer, object, fieldName, fieldType, features);
+    }
+
+    public void writeAsArrayNonContext(JSONSerializer serializer, Object object, Object fieldName, Type fieldType,
+                                       int features) throws IOException {
+        getSerializer(serializer.out.features & ASMSerializerFactory.SPECIALIZED_FEATURES) //
+            .writeAsArrayNonContext(serializer, object, fieldName, fieldType, features);
+    }
+
+    JavaBeanSerializer getSerializer(int writerFeatures) {
+        Variant[] current = variants;
+        for (Variant variant : current) {
+            if (variant.writerFeatures == writerFeatures) {
+                return variant.serializer;
+            }
+        }
+        if (current.length >= maxVariants) {
+            return generic;
+        }
+
+        synchronized (this) {
+            current = variants;
+            for (Variant variant : current) {
+                if (variant.writerFeatures == writerFeatures) {
+                    return variant.serializer;
+                }
+            }
+            if (current.length >= maxVariants) {
+                return generic;
+            }
+
+            // a failed mask is kept on the generic serializer, it is not generated again
+            JavaBeanSerializer serializer = config.createSpecializedSerializer(beanInfo, writerFeatures);
+            if (serializer == null) {
+                serializer = generic;
+            } else {
+                boolean writeDirect = serializer.writeDirect;
+                serializer.shareFilters(generic);
+                serializer.writeDirect = writeDirect && generic.writeDirect;
+            }
+
+            Variant[] extended = new Variant[current.length + 1];
+            System.arraycopy(current, 0, extended, 0, current.length);
+            extended[current.length] = new Variant(writerFeatures, serializer);
+            variants = extended;
+            return serializer;
+        }
+    }
+
+    /**
+     * the generic serializer holds the filters the variants get
+     */
+    @Override
+    void shareFilters(SerializeFilterable other) {
+        super.shareFilters(other);
+        if (generic != null && other != generic) {
+            boolean writeDirect = generic.writeDirect;
+            generic.shareFilters(other);
+            generic.writeDirect = writeDirect && other.writeDirect;
+        }
+    }
+
+    /**
+     * @return the generic serializer, used past the variants
+     */
+    public JavaBeanSerializer getGeneric() {
+        return generic;
+    }
+
+    /**
+     * @return the feature masks that have a variant, in the order they were first written
+     */
+    public int[] getVariantFeatures() {
+        Variant[] current = variants;
+        int[] masks = new int[current.length];
+        for (int i = 0; i < current.length; ++i) {
+            masks[i] = current[i].writerFeatures;
+        }
+        return masks;
+    }
+
+    private static final class Variant {
+
+        final int                writerFeatures;
+        final JavaBeanSerializer serializer;
+
+        Variant(int writerFeatures, JavaBeanSerializer serializer){
+            this.writerFeatures = writerFeatures;
+            this.serializer = serializer;
+        }
+    }
+}
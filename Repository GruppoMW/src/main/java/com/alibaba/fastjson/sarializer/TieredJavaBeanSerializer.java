@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.serializer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.fastjson.util.TieredCompilation;
+
+/**
+ * The reflective tier of a java bean, promoted to an ASM generated serializer after threshold writes. The config
+ * then registers the generated serializer, writers still holding this one are forwarded to it.
+ *
+ * @since 1.2.80
+ */
+public class TieredJavaBeanSerializer extends JavaBeanSerializer {
+
+    private final SerializeConfig     config;
+    private final int                 threshold;
+    private final boolean             async;
+    private final AtomicInteger       invocations = new AtomicInteger();
+    private volatile ObjectSerializer promoted;
+
+    TieredJavaBeanSerializer(SerializeConfig config, SerializeBeanInfo beanInfo, int threshold, boolean async){
+        super(beanInfo);
+        this.config = config;
+        this.threshold = threshold;
+        this.async = async;
+    }
+
+    public void write(JSONSerializer serializer, Object object, Object fieldName, Type fieldType, int features)
+                                                                                                      throws IOException {
+        ObjectSerializer target = promoted;
+        if (target != null) {
+            target.write(serializer, object, fieldName, fieldType, features);
+            return;
+        }
+
+        if (invocations.incrementAndGet() == threshold) {
+            if (async) {
+                TieredCompilation.execute(new Runnable() {
+
+                    public void run() {
+                        promote();
+                    }
+                });
+            } else {
+                promote();
+            }
+        }
+        super.write(serializer, object, fieldName, fieldType, features);
+    }
+
+    void promote() {
+        promoted = config.promote(this);
+    }
+
+    /**
+     * @return the writes served by the reflective tier
+     */
+    public int getInvocationCount() {
+        return invocations.get();
+    }
+
+    public boolean isPromoted() {
+        return promoted != null;
+    }
+}
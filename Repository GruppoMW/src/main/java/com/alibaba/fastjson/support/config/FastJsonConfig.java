@@ -1,6 +1,7 @@
 
 package com.alibaba.fastjson.support.config;
 
+import com.alibaba.fastjson.JSONCodec;
 import com.alibaba.fastjson.parser.Feature;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.parser.deserializer.ParseProcess;
@@ -9,9 +10,12 @@ import com.alibaba.fastjson.serializer.SerializeFilter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import com.alibaba.fastjson.util.IOUtils;
 
+import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Config for FastJson.
@@ -78,6 +82,16 @@ public class FastJsonConfig {
      */
     private boolean writeContentLength;
 
+    /**
+     * Write the response body while serializing instead of buffering it, no Content-Length is sent.
+     */
+    private boolean streaming;
+
+    /**
+     * codecs of the current settings by root type, replaced by every setter they depend on
+     */
+    private volatile ConcurrentMap<Type, JSONCodec> codecs = new ConcurrentHashMap<>();
+
     /**
      * init param.
      */
@@ -110,6 +124,7 @@ public class FastJsonConfig {
      */
     public void setSerializeConfig(SerializeConfig serializeConfig) {
         this.serializeConfig = serializeConfig;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -124,6 +139,7 @@ public class FastJsonConfig {
      */
     public void setParserConfig(ParserConfig parserConfig) {
         this.parserConfig = parserConfig;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -138,6 +154,7 @@ public class FastJsonConfig {
      */
     public void setSerializerFeatures(SerializerFeature... serializerFeatures) {
         this.serializerFeatures = serializerFeatures;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -152,6 +169,7 @@ public class FastJsonConfig {
      */
     public void setSerializeFilters(SerializeFilter... serializeFilters) {
         this.serializeFilters = serializeFilters;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -166,6 +184,7 @@ public class FastJsonConfig {
      */
     public void setFeatures(Feature... features) {
         this.features = features;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -189,6 +208,7 @@ public class FastJsonConfig {
             this.serializeConfig.addFilter(entry.getKey(), entry.getValue());
 
         this.classSerializeFilters = classSerializeFilters;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -203,6 +223,7 @@ public class FastJsonConfig {
      */
     public void setDateFormat(String dateFormat) {
         this.dateFormat = dateFormat;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -217,6 +238,7 @@ public class FastJsonConfig {
      */
     public void setCharset(Charset charset) {
         this.charset = charset;
+        this.codecs = new ConcurrentHashMap<>();
     }
 
     /**
@@ -237,6 +259,25 @@ public class FastJsonConfig {
         this.writeContentLength = writeContentLength;
     }
 
+    /**
+     * Is streaming boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets streaming. When enabled the serialized output is flushed to the response body as the write buffer fills
+     * up, {@link #setWriteContentLength(boolean)} only applies to the buffered mode.
+     *
+     * @param streaming the streaming
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     /**
      * Gets parse process.
      *
@@ -253,5 +294,29 @@ public class FastJsonConfig {
      */
     public void setParseProcess(ParseProcess parseProcess) {
         this.parseProcess = parseProcess;
+        this.codecs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the codec of a root type, built from the current settings on first use. Changes made through the setters
+     * drop the codecs built so far, arrays returned by the getters must not be changed in place.
+     *
+     * @param type the root type
+     * @return the codec
+     * @since 1.2.80
+     */
+    public JSONCodec getCodec(Type type) {
+        ConcurrentMap<Type, JSONCodec> codecs = this.codecs;
+        JSONCodec codec = codecs.get(type);
+        if (codec == null) {
+            codec = JSONCodec.of(this, type);
+            if (codecs.size() < 4096) {
+                JSONCodec existing = codecs.putIfAbsent(type, codec);
+                if (existing != null) {
+                    codec = existing;
+                }
+            }
+        }
+        return codec;
     }
 }
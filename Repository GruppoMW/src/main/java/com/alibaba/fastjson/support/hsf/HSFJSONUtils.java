@@ -1,36 +1,250 @@
 package com.alibaba.fastjson.support.hsf;
 
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
-import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.parser.*;
-
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
-
+/**
+ * Binds the arguments of an invocation payload {@code {"argsTypes":[...],"argsObjs":[...]}} in a single pass: the
+ * type names are read with the lexer, the method is resolved with the {@link MethodLocator} and every element of
+ * argsObjs is deserialized straight into its parameter type. The parameter types and deserializers of a method are
+ * kept in a plan, built once per method and again when a deserializer of the config is put or cleared.
+ *
+ * <p>A payload that puts argsObjs before argsTypes cannot be bound while it is read, its arguments are parsed into a
+ * JSONArray first and converted once the method is known.
+ */
 public class HSFJSONUtils {
     private HSFJSONUtils() {
         throw new IllegalStateException("Utility class");
     }
     static final SymbolTable typeSymbolTable      = new SymbolTable(1024);
-    static final char[]      fieldName_argsTypes  = "\"argsTypes\"".toCharArray();
-    static final char[]      fieldName_argsObjs   = "\"argsObjs\"".toCharArray();
+    static final String      fieldName_argsTypes  = "argsTypes";
+    static final String      fieldName_argsObjs   = "argsObjs";
 
-    static final char[]      fieldName_type       = "\"@type\":".toCharArray();
+    private static final int                                     MAX_PLANS = 1024 * 4;
+    private static final ConcurrentMap<Method, InvocationPlan>   plans     = new ConcurrentHashMap<>(64);
 
     public static Object[] parseInvocationArguments(String json, MethodLocator methodLocator) {
-        JSONObject jsonObject = JSON.parseObject(json);
-        String[] argTypes = jsonObject.getObject("argsTypes", String[].class);
-        Method method = methodLocator.findMethod(argTypes);
-        JSONArray argObjs = jsonObject.getJSONArray("argsObjs");
-        Type[] paramTypes = method.getGenericParameterTypes();
-        Object[] values = new Object[paramTypes.length];
-        for (int i = 0; i < paramTypes.length; i++) {
-            values[i] = argObjs.getObject(i, paramTypes[i]);
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        DefaultJSONParser parser = new DefaultJSONParser(json, config);
+        try {
+            JSONLexer lexer = parser.lexer;
+            if (lexer.token() != JSONToken.LBRACE) {
+                throw new JSONException("syntax error, expect {, actual " + lexer.tokenName());
+            }
+
+            Method method = null;
+            boolean located = false;
+            JSONArray pendingArgs = null;
+            Object[] values = null;
+
+            for (;;) {
+                String key = lexer.scanSymbol(parser.getSymbolTable());
+                if (key == null) {
+                    if (lexer.token() == JSONToken.RBRACE) {
+                        lexer.nextToken(JSONToken.EOF);
+                        break;
+                    }
+                    if (lexer.token() == JSONToken.COMMA && lexer.isEnabled(Feature.ALLOW_ARBITRARY_COMMAS)) {
+                        continue;
+                    }
+                    throw new JSONException("syntax error, " + lexer.info());
+                }
+
+                if (fieldName_argsTypes.equals(key)) {
+                    lexer.nextTokenWithColon(JSONToken.LBRACKET);
+                    method = methodLocator.findMethod(parseTypeNames(lexer));
+                    located = true;
+                } else if (fieldName_argsObjs.equals(key)) {
+                    lexer.nextTokenWithColon(JSONToken.LBRACKET);
+                    if (located) {
+                        values = parseArguments(parser, planOf(method, config));
+                    } else {
+                        pendingArgs = (JSONArray) parser.parse(fieldName_argsObjs);
+                    }
+                } else {
+                    lexer.nextTokenWithColon();
+                    parser.parse(key);
+                }
+
+                if (lexer.token() == JSONToken.RBRACE) {
+                    lexer.nextToken(JSONToken.EOF);
+                    break;
+                }
+                if (lexer.token() != JSONToken.COMMA) {
+                    throw new JSONException("syntax error, expect , or }, actual " + lexer.tokenName());
+                }
+            }
+
+            if (!located) {
+                method = methodLocator.findMethod(null);
+            }
+            if (pendingArgs != null) {
+                values = convertArguments(pendingArgs, planOf(method, config));
+            }
+
+            parser.handleResovleTask(values);
+            return values;
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * reads the type names, the current token is the start of the array
+     */
+    private static String[] parseTypeNames(JSONLexer lexer) {
+        if (lexer.token() == JSONToken.NULL) {
+            lexer.nextToken(JSONToken.COMMA);
+            return null;
+        }
+        if (lexer.token() != JSONToken.LBRACKET) {
+            throw new JSONException("syntax error, expect [, actual " + lexer.tokenName());
+        }
+
+        String[] typeNames = new String[4];
+        int size = 0;
+        for (;;) {
+            lexer.skipWhitespace();
+            char ch = lexer.getCurrent();
+            if (ch == ']' && size == 0) {
+                break;
+            }
+
+            String typeName;
+            if (ch == '"') {
+                typeName = lexer.scanSymbol(typeSymbolTable);
+            } else {
+                lexer.nextToken();
+                if (lexer.token() != JSONToken.NULL) {
+                    throw new JSONException("syntax error, expect type name, actual " + lexer.tokenName());
+                }
+                typeName = null;
+            }
+
+            if (size == typeNames.length) {
+                typeNames = Arrays.copyOf(typeNames, size * 2);
+            }
+            typeNames[size++] = typeName;
+
+            lexer.skipWhitespace();
+            ch = lexer.getCurrent();
+            if (ch == ',') {
+                lexer.next();
+            } else if (ch == ']') {
+                break;
+            } else {
+                throw new JSONException("syntax error, expect , or ], actual " + ch);
+            }
+        }
+
+        lexer.next();
+        lexer.nextToken(JSONToken.COMMA);
+        return size == typeNames.length ? typeNames : Arrays.copyOf(typeNames, size);
+    }
+
+    /**
+     * deserializes the arguments into the parameter types, the current token is the start of the array
+     */
+    private static Object[] parseArguments(DefaultJSONParser parser, InvocationPlan plan) {
+        JSONLexer lexer = parser.lexer;
+        if (lexer.token() == JSONToken.NULL) {
+            lexer.nextToken(JSONToken.COMMA);
+            return null;
+        }
+        if (lexer.token() != JSONToken.LBRACKET) {
+            throw new JSONException("syntax error, expect [, actual " + lexer.tokenName());
+        }
+        if (plan.varArgs) {
+            return parser.parseArray(plan.paramTypes);
+        }
+
+        final Type[] paramTypes = plan.paramTypes;
+        final ObjectDeserializer[] deserializers = plan.deserializers;
+        final int length = paramTypes.length;
+        Object[] values = new Object[length];
+
+        ParseContext context = parser.getContext();
+        parser.setContext(context, values, fieldName_argsObjs);
+
+        lexer.nextToken(length == 0 ? JSONToken.RBRACKET : deserializers[0].getFastMatchToken());
+        for (int i = 0; lexer.token() != JSONToken.RBRACKET; ++i) {
+            if (i >= length) {
+                // more arguments than parameters, as before they are ignored
+                parser.parse(i);
+            } else if (lexer.token() == JSONToken.NULL) {
+                lexer.nextToken(JSONToken.COMMA);
+            } else {
+                values[i] = deserializers[i].deserialze(parser, paramTypes[i], i);
+            }
+
+            if (lexer.token() == JSONToken.RBRACKET) {
+                break;
+            }
+            if (lexer.token() != JSONToken.COMMA) {
+                throw new JSONException("syntax error, expect , or ], actual " + lexer.tokenName());
+            }
+            lexer.nextToken(i + 1 < length ? deserializers[i + 1].getFastMatchToken() : JSONToken.LITERAL_INT);
+        }
+        lexer.nextToken(JSONToken.COMMA);
+
+        parser.setContext(context);
+        return values;
+    }
+
+    private static Object[] convertArguments(JSONArray args, InvocationPlan plan) {
+        Object[] values = new Object[plan.paramTypes.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = args.getObject(i, plan.paramTypes[i]);
         }
         return values;
     }
+
+    static InvocationPlan planOf(Method method, ParserConfig config) {
+        if (method == null) {
+            throw new JSONException("method not found");
+        }
+
+        InvocationPlan plan = plans.get(method);
+        if (plan == null || plan.config != config || plan.version != config.getDeserializersVersion()) {
+            boolean cached = plan != null;
+            plan = new InvocationPlan(method, config);
+            // a stale plan is replaced even when the cache is full
+            if (cached || plans.size() < MAX_PLANS) {
+                plans.put(method, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * how the arguments of a method are read, valid while the deserializers of the config are unchanged
+     */
+    static final class InvocationPlan {
+
+        final ParserConfig         config;
+        final int                  version;
+        final Type[]               paramTypes;
+        final ObjectDeserializer[] deserializers;
+        final boolean              varArgs;
+
+        InvocationPlan(Method method, ParserConfig config){
+            this.config = config;
+            this.version = config.getDeserializersVersion();
+            this.paramTypes = method.getGenericParameterTypes();
+            this.varArgs = method.isVarArgs();
+            this.deserializers = new ObjectDeserializer[paramTypes.length];
+            for (int i = 0; i < paramTypes.length; i++) {
+                deserializers[i] = config.getDeserializer(paramTypes[i]);
+            }
+        }
+    }
 }
@@ -1,6 +1,6 @@
 package com.alibaba.fastjson.support.jaxrs;
 
-import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONCodec;
 import com.alibaba.fastjson.JSONException;
 
 import com.alibaba.fastjson.serializer.SerializeFilter;
@@ -17,9 +17,6 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * Fastjson for JAX-RS Provider.
@@ -272,28 +269,15 @@ public class FastJsonProvider //
 
         FastJsonConfig fastJsonConfig2 = locateConfigProvider(type, mediaType);
 
-        SerializerFeature[] serializerFeatures = fastJsonConfig2.getSerializerFeatures();
+        JSONCodec codec = fastJsonConfig2.getCodec(obj == null ? Object.class : obj.getClass());
 
         if (pretty) {
-            if (serializerFeatures == null)
-                serializerFeatures = new SerializerFeature[]{SerializerFeature.PRETTY_FORMAT};
-            else {
-                List<SerializerFeature> featureList = new ArrayList<>(Arrays.asList(serializerFeatures));
-                featureList.add(SerializerFeature.PRETTY_FORMAT);
-                serializerFeatures = featureList.toArray(serializerFeatures);
-            }
-            fastJsonConfig2.setSerializerFeatures(serializerFeatures);
+            // the codec is derived, the shared config keeps its features
+            codec = codec.withFeatures(SerializerFeature.PRETTY_FORMAT);
         }
 
         try {
-            JSON.writeJSONStringWithFastJsonConfig(entityStream, //
-                    fastJsonConfig2.getCharset(), //
-                    obj, //
-                    fastJsonConfig2.getSerializeConfig(), //
-                    fastJsonConfig2.getSerializeFilters(), //
-                    fastJsonConfig2.getDateFormat(), //
-                    JSON.DEFAULT_GENERATE_FEATURE, //
-                    fastJsonConfig2.getSerializerFeatures());
+            codec.writeTo(entityStream, obj);
 
             entityStream.flush();
 
@@ -335,13 +319,7 @@ public class FastJsonProvider //
         try {
             FastJsonConfig fastJsonConfig1 = locateConfigProvider(type, mediaType);
 
-            return JSON.parseObject(entityStream,
-                    fastJsonConfig1.getCharset(),
-                    genericType,
-                    fastJsonConfig1.getParserConfig(),
-                    fastJsonConfig1.getParseProcess(),
-                    JSON.DEFAULT_PARSER_FEATURE,
-                    fastJsonConfig1.getFeatures());
+            return fastJsonConfig1.getCodec(genericType).parseObject(entityStream);
 
         } catch (JSONException ex) {
 
@@ -1,6 +1,5 @@
 package com.alibaba.fastjson.support.retrofit;
 
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.parser.Feature;
 
 import com.alibaba.fastjson.serializer.SerializeConfig;
@@ -99,14 +98,7 @@ public class Retrofit2ConverterFactory extends Converter.Factory {
 
         public T convert(ResponseBody value) throws IOException {
             try {
-                return JSON.parseObject(value.bytes()
-                        , fastJsonConfig.getCharset()
-                        , type
-                        , fastJsonConfig.getParserConfig()
-                        , fastJsonConfig.getParseProcess()
-                        , JSON.DEFAULT_PARSER_FEATURE
-                        , fastJsonConfig.getFeatures()
-                );
+                return fastJsonConfig.getCodec(type).parseObject(value.bytes());
             } catch (Exception e) {
                 throw new IOException("JSON parse error: " + e.getMessage(), e);
             } finally {
@@ -121,14 +113,8 @@ public class Retrofit2ConverterFactory extends Converter.Factory {
 
         public RequestBody convert(T value) throws IOException {
             try {
-                byte[] content = JSON.toJSONBytesWithFastJsonConfig(fastJsonConfig.getCharset()
-                        , value
-                        , fastJsonConfig.getSerializeConfig()
-                        , fastJsonConfig.getSerializeFilters()
-                        , fastJsonConfig.getDateFormat()
-                        , JSON.DEFAULT_GENERATE_FEATURE
-                        , fastJsonConfig.getSerializerFeatures()
-                );
+                byte[] content = fastJsonConfig.getCodec(value == null ? Object.class : value.getClass())
+                        .toJSONBytes(value);
                 return RequestBody.create(MEDIA_TYPE, content);
             } catch (Exception e) {
                 throw new IOException("Could not write JSON: " + e.getMessage(), e);
@@ -1,13 +1,18 @@
 package com.alibaba.fastjson.support.spring;
 
+import com.alibaba.fastjson.serializer.PropertyProjection;
+
 /**
  * 一个简单的PO对象，包含原始输出对象和对应的过滤条件{@link PropertyPreFilters}
+ * <p>
+ * 过滤条件固定时，可以用{@link PropertyPreFilters#compile()}预编译一次，通过{@link #setProjection}复用，优先于filters
  * @author yanquanyu
  * @author liuming
  */
 public class FastJsonContainer {
     private Object value;
     private PropertyPreFilters filters;
+    private PropertyProjection projection;
 
     FastJsonContainer(Object body){
         this.value = body;
@@ -28,4 +33,18 @@ public class FastJsonContainer {
     public void setFilters(PropertyPreFilters filters) {
         this.filters = filters;
     }
+
+    /**
+     * @since 1.2.80
+     */
+    public PropertyProjection getProjection() {
+        return this.projection;
+    }
+
+    /**
+     * @since 1.2.80
+     */
+    public void setProjection(PropertyProjection projection) {
+        this.projection = projection;
+    }
 }
@@ -1,6 +1,6 @@
 package com.alibaba.fastjson.support.spring;
 
-import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONCodec;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.JSONPObject;
 import com.alibaba.fastjson.serializer.SerializeFilter;
@@ -24,9 +24,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * Fastjson for Spring MVC Converter.
@@ -164,13 +161,7 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
 
         try {
             InputStream in = inputMessage.getBody();
-            return JSON.parseObject(in,
-                    fastJsonConfig.getCharset(),
-                    type,
-                    fastJsonConfig.getParserConfig(),
-                    fastJsonConfig.getParseProcess(),
-                    JSON.DEFAULT_PARSER_FEATURE,
-                    fastJsonConfig.getFeatures());
+            return fastJsonConfig.getCodec(type).parseObject(in);
         } catch (JSONException ex) {
             throw new HttpMessageNotReadableException("JSON parse error: " + ex.getMessage(), ex);
         } catch (IOException ex) {
@@ -181,12 +172,11 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
     @Override
     protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
 
-        try ( ByteArrayOutputStream outnew = new ByteArrayOutputStream() ){
+        try {
             HttpHeaders headers = outputMessage.getHeaders();
 
-            //获取全局配置的filter
-            SerializeFilter[] globalFilters = fastJsonConfig.getSerializeFilters();
-            List<SerializeFilter> allFilters = new ArrayList<>(Arrays.asList(globalFilters));
+            //全局配置的filter已包含在codec中，这里只收集额外的filter
+            SerializeFilter[] extraFilters = null;
 
             boolean isJsonp = false;
 
@@ -196,7 +186,11 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
             if (value instanceof FastJsonContainer) {
                 FastJsonContainer fastJsonContainer = (FastJsonContainer) value;
                 PropertyPreFilters filters1 = fastJsonContainer.getFilters();
-                allFilters.addAll(filters1.getFilters());
+                if (fastJsonContainer.getProjection() != null) {
+                    extraFilters = new SerializeFilter[] {fastJsonContainer.getProjection()};
+                } else if (filters1 != null) {
+                    extraFilters = filters1.getFilters().toArray(new SerializeFilter[0]);
+                }
                 value = fastJsonContainer.getValue();
             }
 
@@ -212,20 +206,21 @@ public class FastJsonHttpMessageConverter extends AbstractHttpMessageConverter<O
             }
 
 
-            int len = JSON.writeJSONStringWithFastJsonConfig(outnew, //
-                    fastJsonConfig.getCharset(), //
-                    value, //
-                    fastJsonConfig.getSerializeConfig(), //
-                    //fastJsonConfig.getSerializeFilters(), //
-                    allFilters.toArray(new SerializeFilter[allFilters.size()]),
-                    fastJsonConfig.getDateFormat(), //
-                    JSON.DEFAULT_GENERATE_FEATURE, //
-                    fastJsonConfig.getSerializerFeatures());
-
             if (isJsonp) {
                 headers.setContentType(APPLICATION_JAVASCRIPT);
             }
 
+            JSONCodec codec = fastJsonConfig.getCodec(value == null ? Object.class : value.getClass())
+                    .withFilters(extraFilters);
+
+            if (fastJsonConfig.isStreaming()) {
+                codec.writeStreaming(outputMessage.getBody(), value);
+                return;
+            }
+
+            ByteArrayOutputStream outnew = new ByteArrayOutputStream();
+            int len = codec.writeTo(outnew, value);
+
             if (fastJsonConfig.isWriteContentLength() && !setLengthError) {
                 
                 headers.setContentLength(len);
@@ -265,6 +265,21 @@ public class FastJsonJsonView extends AbstractView {
             value = jsonpObject;
         }
 
+        if (fastJsonConfig.isStreaming()) {
+            // the length is unknown until the end, the container falls back to chunked encoding
+            ServletOutputStream out = response.getOutputStream();
+            JSON.writeJSONStringStreaming(out, //
+                    fastJsonConfig.getCharset(), //
+                    value, //
+                    fastJsonConfig.getSerializeConfig(), //
+                    fastJsonConfig.getSerializeFilters(), //
+                    fastJsonConfig.getDateFormat(), //
+                    JSON.DEFAULT_GENERATE_FEATURE, //
+                    fastJsonConfig.getSerializerFeatures());
+            out.flush();
+            return;
+        }
+
         ByteArrayOutputStream outnew = new ByteArrayOutputStream();
 
         int len = JSON.writeJSONStringWithFastJsonConfig(outnew, //
@@ -315,6 +330,7 @@ public class FastJsonJsonView extends AbstractView {
      * Whether to update the 'Content-Length' header of the response. When set
      * to {@code true}, the response is buffered in order to determine the
      * content length and set the 'Content-Length' header of the response.
+     * Has no effect when {@link FastJsonConfig#isStreaming()} is enabled.
      * <p>
      * The default setting is {@code false}.
      */
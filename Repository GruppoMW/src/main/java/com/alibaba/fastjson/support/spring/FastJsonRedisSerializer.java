@@ -1,6 +1,5 @@
 package com.alibaba.fastjson.support.spring;
 
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.support.config.FastJsonConfig;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
@@ -34,15 +33,7 @@ public class FastJsonRedisSerializer<T> implements RedisSerializer<T> {
             return new byte[0];
         }
         try {
-            return JSON.toJSONBytesWithFastJsonConfig(
-                    fastJsonConfig.getCharset(),
-                    t,
-                    fastJsonConfig.getSerializeConfig(),
-                    fastJsonConfig.getSerializeFilters(),
-                    fastJsonConfig.getDateFormat(),
-                    JSON.DEFAULT_GENERATE_FEATURE,
-                    fastJsonConfig.getSerializerFeatures()
-            );
+            return fastJsonConfig.getCodec(type).toJSONBytes(t);
         } catch (Exception ex) {
             throw new SerializationException("Could not serialize: " + ex.getMessage(), ex);
         }
@@ -54,15 +45,7 @@ public class FastJsonRedisSerializer<T> implements RedisSerializer<T> {
             return null;
         }
         try {
-            return (T) JSON.parseObject(
-                    bytes,
-                    fastJsonConfig.getCharset(),
-                    type,
-                    fastJsonConfig.getParserConfig(),
-                    fastJsonConfig.getParseProcess(),
-                    JSON.DEFAULT_PARSER_FEATURE,
-                    fastJsonConfig.getFeatures()
-            );
+            return fastJsonConfig.getCodec(type).parseObject(bytes);
         } catch (Exception ex) {
             throw new SerializationException("Could not deserialize: " + ex.getMessage(), ex);
         }
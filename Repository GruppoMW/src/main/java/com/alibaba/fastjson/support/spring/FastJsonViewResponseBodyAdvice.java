@@ -1,5 +1,6 @@
 package com.alibaba.fastjson.support.spring;
 
+import com.alibaba.fastjson.serializer.PropertyProjection;
 import com.alibaba.fastjson.support.spring.annotation.FastJsonFilter;
 import com.alibaba.fastjson.support.spring.annotation.FastJsonView;
 import org.springframework.core.MethodParameter;
@@ -11,6 +12,10 @@ import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * A convenient base class for {@code ResponseBodyAdvice} implementations
  * that customize the response before JSON serialization with {@link FastJsonHttpMessageConverter4}'s concrete
@@ -24,6 +29,13 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 @ControllerAdvice
 public class FastJsonViewResponseBodyAdvice implements ResponseBodyAdvice<Object> {
 
+    private static final int MAX_PROJECTIONS = 1024 * 4;
+
+    /**
+     * the compiled {@link FastJsonView} of each handler method
+     */
+    private final ConcurrentMap<Method, PropertyProjection> projections = new ConcurrentHashMap<>(64);
+
     public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
         return FastJsonHttpMessageConverter.class.isAssignableFrom(converterType) && returnType.hasMethodAnnotation(FastJsonView.class);
     }
@@ -41,8 +53,18 @@ public class FastJsonViewResponseBodyAdvice implements ResponseBodyAdvice<Object
 
     protected void beforeBodyWriteInternal(FastJsonContainer container,
                                            MethodParameter returnType) {
-        FastJsonView annotation = returnType.getMethodAnnotation(FastJsonView.class);
+        Method method = returnType.getMethod();
+        PropertyProjection projection = method == null ? null : projections.get(method);
+        if (projection == null) {
+            projection = createFilters(returnType.getMethodAnnotation(FastJsonView.class)).compile();
+            if (method != null && projections.size() < MAX_PROJECTIONS) {
+                projections.put(method, projection);
+            }
+        }
+        container.setProjection(projection);
+    }
 
+    protected PropertyPreFilters createFilters(FastJsonView annotation) {
         FastJsonFilter[] include = annotation.include();
         FastJsonFilter[] exclude = annotation.exclude();
         PropertyPreFilters filters = new PropertyPreFilters();
@@ -52,6 +74,6 @@ public class FastJsonViewResponseBodyAdvice implements ResponseBodyAdvice<Object
         for (FastJsonFilter item : exclude) {
             filters.addFilter(item.clazz()).addExcludes(item.props());
         }
-        container.setFilters(filters);
+        return filters;
     }
 }
@@ -1,5 +1,6 @@
 package com.alibaba.fastjson.support.spring;
 
+import com.alibaba.fastjson.serializer.PropertyProjection;
 import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
 
 import java.util.ArrayList;
@@ -44,6 +45,14 @@ public class PropertyPreFilters {
         return filters.toArray(new MySimplePropertyPreFilter[]{});
     }
 
+    /**
+     * 预编译为{@link PropertyProjection}，之后对filters的修改不再生效
+     * @since 1.2.80
+     */
+    public PropertyProjection compile(){
+        return new PropertyProjection(filters);
+    }
+
     public class MySimplePropertyPreFilter extends SimplePropertyPreFilter {
 
         public MySimplePropertyPreFilter(){}
@@ -22,6 +22,8 @@ import com.alibaba.fastjson.parser.JSONLexerBase;
 import com.alibaba.fastjson.parser.JSONReaderScanner;
 import com.alibaba.fastjson.parser.JSONScanner;
 import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.JSONUTF8Scanner;
+import com.alibaba.fastjson.parser.JSONUTF8StreamScanner;
 import com.alibaba.fastjson.parser.ParseContext;
 import com.alibaba.fastjson.parser.ParserConfig;
 import com.alibaba.fastjson.parser.SymbolTable;
@@ -120,6 +122,8 @@ public class ASMClassLoader extends ClassLoader {
                 Feature.class,
                 JSONScanner.class,
                 JSONReaderScanner.class,
+                JSONUTF8Scanner.class,
+                JSONUTF8StreamScanner.class,
 
                 AutowiredObjectDeserializer.class,
                 ObjectDeserializer.class,
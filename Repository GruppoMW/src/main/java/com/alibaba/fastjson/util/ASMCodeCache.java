@@ -0,0 +1,265 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Bytecode of the ASM generated serializers and deserializers kept on disk, a restarted application defines the
+ * classes it generated before instead of generating them again. Enabled by setting {@value #DIR_PROPERTY} to a
+ * writable directory, disabled by default.
+ *
+ * <p>An entry is keyed by the hash of the shape of the bean, the class, its fields and the features the code was
+ * generated for, together with the fastjson version and the version of the code generator. The shape itself is stored
+ * with the code and compared on load, a collision or a changed class is a miss. Entries are written to a temporary
+ * file and renamed, concurrent writers never leave a truncated entry behind, and carry a SHA-256 digest of the shape
+ * and the code, a damaged entry is a miss.
+ *
+ * <p>The code is defined in the application as it is read, whoever can write the directory can run code in it. The
+ * directory must be private to the user running the application: it and every entry must be owned by that user and,
+ * where the file system has POSIX permissions, must not be writable by the group or others. A directory created by the
+ * cache gets owner only permissions. Nothing is loaded from or stored to a directory failing these checks, and an
+ * entry failing them is a miss. The digest does not replace them, it is stored next to the code.
+ *
+ * @since 1.2.80
+ */
+public class ASMCodeCache {
+
+    public static final String        DIR_PROPERTY = "fastjson.asm.cacheDir";
+
+    private static final int          MAGIC        = 0xFA57C0DF;
+    private static final String       SUFFIX       = ".class.cache";
+    private static final String       DIGEST       = "SHA-256";
+
+    private static final ASMCodeCache instance;
+
+    static {
+        ASMCodeCache cache = null;
+        String property = IOUtils.getStringProperty(DIR_PROPERTY);
+        if (property != null && property.trim().length() > 0) {
+            File dir = new File(property.trim());
+            if (dir.isDirectory() || createDir(dir)) {
+                cache = new ASMCodeCache(dir);
+                if (!cache.isTrusted()) {
+                    cache = null;
+                }
+            }
+        }
+        instance = cache;
+    }
+
+    /**
+     * @return the cache configured by {@value #DIR_PROPERTY}, null when disabled or when the directory is not private
+     */
+    public static ASMCodeCache getInstance() {
+        return instance;
+    }
+
+    private final File    dir;
+    private final boolean trusted;
+
+    public ASMCodeCache(File dir){
+        this.dir = dir;
+        this.trusted = dir.isDirectory() && isPrivate(dir.toPath());
+    }
+
+    /**
+     * @return whether the directory passed the ownership and permission checks, an untrusted cache loads and stores
+     * nothing
+     */
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    /**
+     * @return the hex hash of a shape, used in class and file names
+     */
+    public static String hash(String shape) {
+        return Long.toHexString(TypeUtils.fnv1a64(shape));
+    }
+
+    /**
+     * appends what the generated code of a field depends on
+     */
+    public static void appendShape(StringBuilder buf, FieldInfo fieldInfo) {
+        buf.append(fieldInfo.name)
+           .append('|').append(fieldInfo.declaringClass == null ? null : fieldInfo.declaringClass.getName())
+           .append('|').append(fieldInfo.method != null ? "m:" + fieldInfo.method.getName() : null)
+           .append('|').append(fieldInfo.field != null ? "f:" + fieldInfo.field.getName() : null)
+           .append('|').append(fieldInfo.fieldClass == null ? null : fieldInfo.fieldClass.getName())
+           .append('|').append(fieldInfo.fieldType == null ? null : fieldInfo.fieldType.getTypeName())
+           .append('|').append(fieldInfo.serialzeFeatures)
+           .append('|').append(fieldInfo.parserFeatures)
+           .append('|').append(fieldInfo.format)
+           .append('|').append(fieldInfo.label)
+           .append('|').append(Arrays.toString(fieldInfo.alternateNames))
+           .append('|').append(fieldInfo.getOnly)
+           .append(fieldInfo.fieldAccess)
+           .append(fieldInfo.fieldTransient)
+           .append(fieldInfo.jsonDirect)
+           .append(fieldInfo.unwrapped)
+           .append(';');
+    }
+
+    /**
+     * @return the code stored for name, null when missing, unreadable or generated for another shape
+     */
+    public byte[] load(String name, String shape) {
+        File file = file(name);
+        if (!trusted || !file.isFile() || !isPrivate(file.toPath())) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            byte[] shapeBytes = new byte[in.readInt()];
+            in.readFully(shapeBytes);
+            if (!Arrays.equals(shapeBytes, shape.getBytes(StandardCharsets.UTF_8))) {
+                return null;
+            }
+            int len = in.readInt();
+            if (len <= 0 || len > file.length()) {
+                return null;
+            }
+            byte[] code = new byte[len];
+            in.readFully(code);
+            byte[] digest = new byte[in.readInt()];
+            in.readFully(digest);
+            if (!MessageDigest.isEqual(digest, digest(shapeBytes, code))) {
+                return null;
+            }
+            return code;
+        } catch (IOException | RuntimeException | NoSuchAlgorithmException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * stores the code of name, failures are ignored, the code is generated again on the next start
+     */
+    public void store(String name, String shape, byte[] code) {
+        if (!trusted) {
+            return;
+        }
+
+        File file = file(name);
+        File tmp = null;
+        try {
+            // created with owner only permissions where supported
+            tmp = Files.createTempFile(dir.toPath(), name, ".tmp").toFile();
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+                byte[] shapeBytes = shape.getBytes(StandardCharsets.UTF_8);
+                byte[] digest = digest(shapeBytes, code);
+                out.writeInt(MAGIC);
+                out.writeInt(shapeBytes.length);
+                out.write(shapeBytes);
+                out.writeInt(code.length);
+                out.write(code);
+                out.writeInt(digest.length);
+                out.write(digest);
+            }
+            if (tmp.renameTo(file)) {
+                tmp = null;
+            }
+        } catch (IOException | SecurityException | UnsupportedOperationException | NoSuchAlgorithmException ex) {
+            // skip
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * drops an entry, used when the stored code could not be defined
+     */
+    public void remove(String name) {
+        File file = file(name);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    private File file(String name) {
+        return new File(dir, name + SUFFIX);
+    }
+
+    private static byte[] digest(byte[] shapeBytes, byte[] code) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(DIGEST);
+        digest.update(shapeBytes);
+        digest.update(code);
+        return digest.digest();
+    }
+
+    /**
+     * @return whether path is owned by the user running the application and, with POSIX permissions, not writable by
+     * the group or others
+     */
+    static boolean isPrivate(Path path) {
+        try {
+            UserPrincipal owner = Files.getOwner(path);
+            UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService() //
+                .lookupPrincipalByName(System.getProperty("user.name"));
+            if (!owner.equals(user)) {
+                return false;
+            }
+
+            PosixFileAttributeView posix = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+            if (posix != null) {
+                Set<PosixFilePermission> permissions = posix.readAttributes().permissions();
+                if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+                    || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | SecurityException | UnsupportedOperationException ex) {
+            return false;
+        }
+    }
+
+    private static boolean createDir(File dir) {
+        if (!dir.mkdirs()) {
+            return false;
+        }
+        try {
+            if (Files.getFileAttributeView(dir.toPath(), PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(dir.toPath(), PosixFilePermissions.fromString("rwx------"));
+            }
+        } catch (IOException | SecurityException ex) {
+            // the permission checks decide
+        }
+        return true;
+    }
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reuse of the char and byte buffers of lexers, writers and validators, and of the reference arrays of parsers.
+ *
+ * <p>A buffer is taken for the lifetime of one reader or writer and released when it is closed, a buffer that is
+ * never released is simply collected. Buffers are kept by size class (powers of two from {@link #MIN_SIZE}), at
+ * most one per class and holder; buffers larger than the max retained size are never kept.
+ *
+ * <p>The process wide strategy is chosen with the system property {@value #STRATEGY_PROPERTY}:
+ * <ul>
+ * <li>{@code threadlocal} (default) buffers are kept per thread, the behaviour of earlier versions</li>
+ * <li>{@code striped} buffers are kept in a few shared stripes selected by thread id, for many short lived or
+ * virtual threads where per thread buffers are never reused</li>
+ * <li>{@code none} every take allocates</li>
+ * </ul>
+ * and the max retained size (in chars, bytes or references) with {@value #MAX_RETAINED_PROPERTY}.
+ *
+ * @since 1.2.80
+ */
+public abstract class BufferPool {
+
+    public static final String  STRATEGY_PROPERTY     = "fastjson.bufferPool";
+    public static final String  MAX_RETAINED_PROPERTY = "fastjson.bufferPool.maxRetained";
+
+    public static final int     MIN_SIZE              = 512;
+    private static final int    MIN_SIZE_EXP          = 9;
+    private static final int    MAX_SIZE_EXP          = 26;
+
+    public static final int     DEFAULT_MAX_RETAINED  = 1024 * 128;
+
+    private static volatile BufferPool instance;
+
+    static {
+        int maxRetained = DEFAULT_MAX_RETAINED;
+        String property = IOUtils.getStringProperty(MAX_RETAINED_PROPERTY);
+        if (property != null && property.length() > 0) {
+            try {
+                maxRetained = Integer.parseInt(property.trim());
+            } catch (NumberFormatException ex) {
+                // skip
+            }
+        }
+
+        String strategy = IOUtils.getStringProperty(STRATEGY_PROPERTY);
+        if ("none".equals(strategy)) {
+            instance = none();
+        } else if ("striped".equals(strategy)) {
+            instance = striped(maxRetained);
+        } else {
+            instance = threadLocal(maxRetained);
+        }
+    }
+
+    public static BufferPool getInstance() {
+        return instance;
+    }
+
+    public static void setInstance(BufferPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool is null");
+        }
+        instance = pool;
+    }
+
+    public static BufferPool threadLocal(int maxRetained) {
+        return new ThreadLocalPool(maxRetained);
+    }
+
+    public static BufferPool striped(int maxRetained) {
+        int stripes = 1;
+        int processors = Runtime.getRuntime().availableProcessors();
+        while (stripes < processors && stripes < 32) {
+            stripes <<= 1;
+        }
+        return new StripedPool(maxRetained, stripes);
+    }
+
+    public static BufferPool none() {
+        return NonePool.instance;
+    }
+
+    /**
+     * @return a buffer of at least minLength chars, its content is undefined
+     */
+    public abstract char[] takeChars(int minLength);
+
+    /**
+     * Hands a buffer back, the caller must not touch it afterwards. null is ignored.
+     */
+    public abstract void releaseChars(char[] buf);
+
+    /**
+     * @return a buffer of at least minLength bytes, its content is undefined
+     */
+    public abstract byte[] takeBytes(int minLength);
+
+    /**
+     * Hands a buffer back, the caller must not touch it afterwards. null is ignored.
+     */
+    public abstract void releaseBytes(byte[] buf);
+
+    /**
+     * @return an array of at least minLength references, all null
+     */
+    public abstract Object[] takeObjects(int minLength);
+
+    /**
+     * Hands an array back, the caller must not touch it afterwards and must have set every element it used back to
+     * null. null is ignored.
+     */
+    public abstract void releaseObjects(Object[] buf);
+
+    /**
+     * Drops the retained buffers, for the thread local strategy those of the current thread.
+     */
+    public abstract void clear();
+
+    static final int CLASSES = MAX_SIZE_EXP - MIN_SIZE_EXP + 1;
+
+    /**
+     * smallest class whose buffers hold length
+     */
+    static int ceilClass(int length) {
+        if (length <= MIN_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SIZE_EXP;
+    }
+
+    /**
+     * largest class whose size length reaches
+     */
+    static int floorClass(int length) {
+        return 31 - Integer.numberOfLeadingZeros(length) - MIN_SIZE_EXP;
+    }
+
+    static int allocateLength(int minLength, int maxRetained) {
+        int classSize = MIN_SIZE << ceilClass(minLength);
+        return classSize > 0 && classSize <= maxRetained ? classSize : minLength;
+    }
+
+    /**
+     * one buffer per size class, the classes a take may fall back to are the requested one and the next two
+     */
+    static final class Slots {
+
+        final char[][] chars = new char[CLASSES][];
+        final byte[][] bytes = new byte[CLASSES][];
+        final Object[][] objects = new Object[CLASSES][];
+
+        char[] takeChars(int minLength) {
+            for (int c = ceilClass(minLength), end = Math.min(c + 3, CLASSES); c < end; ++c) {
+                char[] buf = chars[c];
+                if (buf != null && buf.length >= minLength) {
+                    chars[c] = null;
+                    return buf;
+                }
+            }
+            return null;
+        }
+
+        byte[] takeBytes(int minLength) {
+            for (int c = ceilClass(minLength), end = Math.min(c + 3, CLASSES); c < end; ++c) {
+                byte[] buf = bytes[c];
+                if (buf != null && buf.length >= minLength) {
+                    bytes[c] = null;
+                    return buf;
+                }
+            }
+            return null;
+        }
+
+        Object[] takeObjects(int minLength) {
+            for (int c = ceilClass(minLength), end = Math.min(c + 3, CLASSES); c < end; ++c) {
+                Object[] buf = objects[c];
+                if (buf != null && buf.length >= minLength) {
+                    objects[c] = null;
+                    return buf;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class ThreadLocalPool extends BufferPool {
+
+        private final int                 maxRetained;
+        private final ThreadLocal<Slots>  slotsLocal = new ThreadLocal<>();
+
+        ThreadLocalPool(int maxRetained){
+            this.maxRetained = Math.min(maxRetained, MIN_SIZE << (CLASSES - 1));
+        }
+
+        private Slots slots() {
+            Slots slots = slotsLocal.get();
+            if (slots == null) {
+                slots = new Slots();
+                slotsLocal.set(slots);
+            }
+            return slots;
+        }
+
+        public char[] takeChars(int minLength) {
+            if (minLength <= maxRetained) {
+                char[] buf = slots().takeChars(minLength);
+                if (buf != null) {
+                    return buf;
+                }
+            }
+            return new char[allocateLength(minLength, maxRetained)];
+        }
+
+        public void releaseChars(char[] buf) {
+            if (buf == null || buf.length < MIN_SIZE || buf.length > maxRetained) {
+                return;
+            }
+            slots().chars[floorClass(buf.length)] = buf;
+        }
+
+        public byte[] takeBytes(int minLength) {
+            if (minLength <= maxRetained) {
+                byte[] buf = slots().takeBytes(minLength);
+                if (buf != null) {
+                    return buf;
+                }
+            }
+            return new byte[allocateLength(minLength, maxRetained)];
+        }
+
+        public void releaseBytes(byte[] buf) {
+            if (buf == null || buf.length < MIN_SIZE || buf.length > maxRetained) {
+                return;
+            }
+            slots().bytes[floorClass(buf.length)] = buf;
+        }
+
+        public Object[] takeObjects(int minLength) {
+            if (minLength <= maxRetained) {
+                Object[] buf = slots().takeObjects(minLength);
+                if (buf != null) {
+                    return buf;
+                }
+            }
+            return new Object[allocateLength(minLength, maxRetained)];
+        }
+
+        public void releaseObjects(Object[] buf) {
+            if (buf == null || buf.length < MIN_SIZE || buf.length > maxRetained) {
+                return;
+            }
+            slots().objects[floorClass(buf.length)] = buf;
+        }
+
+        public void clear() {
+            slotsLocal.remove();
+        }
+    }
+
+    static final class StripedPool extends BufferPool {
+
+        private final int                            maxRetained;
+        private final int                            stripeMask;
+
+        /**
+         * stripe s, class c at s * CLASSES + c
+         */
+        private final AtomicReferenceArray<char[]>   chars;
+        private final AtomicReferenceArray<byte[]>   bytes;
+        private final AtomicReferenceArray<Object[]> objects;
+
+        StripedPool(int maxRetained, int stripes){
+            this.maxRetained = Math.min(maxRetained, MIN_SIZE << (CLASSES - 1));
+            this.stripeMask = stripes - 1;
+            this.chars = new AtomicReferenceArray<>(stripes * CLASSES);
+            this.bytes = new AtomicReferenceArray<>(stripes * CLASSES);
+            this.objects = new AtomicReferenceArray<>(stripes * CLASSES);
+        }
+
+        private int stripeBase() {
+            long id = Thread.currentThread().getId();
+            int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+            return ((hash >>> 16) & stripeMask) * CLASSES;
+        }
+
+        public char[] takeChars(int minLength) {
+            if (minLength <= maxRetained) {
+                int base = stripeBase();
+                for (int c = ceilClass(minLength), end = Math.min(c + 3, CLASSES); c < end; ++c) {
+                    char[] buf = chars.get(base + c);
+                    if (buf != null && buf.length >= minLength && chars.compareAndSet(base + c, buf, null)) {
+                        return buf;
+                    }
+                }
+            }
+            return new char[allocateLength(minLength, maxRetained)];
+        }
+
+        public void releaseChars(char[] buf) {
+            if (buf == null || buf.length < MIN_SIZE || buf.length > maxRetained) {
+                return;
+            }
+            int index = stripeBase() + floorClass(buf.length);
+            if (chars.get(index) == null) {
+                chars.compareAndSet(index, null, buf);
+            }
+        }
+
+        public byte[] takeBytes(int minLength) {
+            if (minLength <= maxRetained) {
+                int base = stripeBase();
+                for (int c = ceilClass(minLength), end = Math.min(c + 3, CLASSES); c < end; ++c) {
+                    byte[] buf = bytes.get(base + c);
+                    if (buf != null && buf.length >= minLength && bytes.compareAndSet(base + c, buf, null)) {
+                        return buf;
+                    }
+                }
+            }
+            return new byte[allocateLength(minLength, maxRetained)];
+        }
+
+        public void releaseBytes(byte[] buf) {
+            if (buf == null || buf.length < MIN_SIZE || buf.length > maxRetained) {
+                return;
+            }
+            int index = stripeBase() + floorClass(buf.length);
+            if (bytes.get(index) == null) {
+                bytes.compareAndSet(index, null, buf);
+            }
+        }
+
+        public Object[] takeObjects(int minLength) {
+            if (minLength <= maxRetained) {
+                int base = stripeBase();
+                for (int c = ceilClass(minLength), end = Math.min(c + 3, CLASSES); c < end; ++c) {
+                    Object[] buf = objects.get(base + c);
+                    if (buf != null && buf.length >= minLength && objects.compareAndSet(base + c, buf, null)) {
+                        return buf;
+                    }
+                }
+            }
+            return new Object[allocateLength(minLength, maxRetained)];
+        }
+
+        public void releaseObjects(Object[] buf) {
+            if (buf == null || buf.length < MIN_SIZE || buf.length > maxRetained) {
+                return;
+            }
+            int index = stripeBase() + floorClass(buf.length);
+            if (objects.get(index) == null) {
+                objects.compareAndSet(index, null, buf);
+            }
+        }
+
+        public void clear() {
+            for (int i = 0, len = chars.length(); i < len; ++i) {
+                chars.set(i, null);
+                bytes.set(i, null);
+                objects.set(i, null);
+            }
+        }
+    }
+
+    static final class NonePool extends BufferPool {
+
+        static final NonePool instance = new NonePool();
+
+        public char[] takeChars(int minLength) {
+            return new char[minLength];
+        }
+
+        public void releaseChars(char[] buf) {
+            // not pooled
+        }
+
+        public byte[] takeBytes(int minLength) {
+            return new byte[minLength];
+        }
+
+        public void releaseBytes(byte[] buf) {
+            // not pooled
+        }
+
+        public Object[] takeObjects(int minLength) {
+            return new Object[minLength];
+        }
+
+        public void releaseObjects(Object[] buf) {
+            // not pooled
+        }
+
+        public void clear() {
+            // not pooled
+        }
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of compiled date formats keyed by (pattern, locale, zone).
+ *
+ * <p>Compiling a pattern is the expensive part of a date format, the registry compiles each one once.
+ * {@link DateTimeFormatter}s are immutable and shared as they are; {@link SimpleDateFormat} is not thread safe, the
+ * registry keeps a prototype and hands out copies of it, which skips the pattern compilation and the locale data
+ * lookup. The registry is bounded by {@value #MAX_SIZE_PROPERTY} (default 1024) per kind, past that formats are
+ * compiled on every call.
+ *
+ * <p>The common patterns {@code yyyy-MM-dd}, {@code yyyy-MM-dd HH:mm:ss}, {@code yyyy-MM-dd HH:mm:ss.SSS}, the
+ * ISO-8601 {@code yyyy-MM-dd'T'HH:mm:ss} and {@code yyyy-MM-dd'T'HH:mm:ss.SSS} and the epoch {@code millis} are
+ * formatted and parsed without any format object. The fast paths only take the cases where their result is the one
+ * of {@link SimpleDateFormat}: Gregorian years 1600 to 9999, locales with a Gregorian calendar and ascii digits,
+ * text in the exact layout of the pattern, and no zone transition within a day of the parsed time; everything else
+ * goes through the format.
+ *
+ * @since 1.2.80
+ */
+public class DateFormats {
+
+    public static final String  MAX_SIZE_PROPERTY     = "fastjson.dateFormats.maxSize";
+
+    public static final String  DATE_TIME_PATTERN     = "yyyy-MM-dd HH:mm:ss";
+    public static final String  ISO8601_PATTERN       = "yyyy-MM-dd'T'HH:mm:ss";
+    public static final String  MILLIS_PATTERN        = "millis";
+
+    /**
+     * fast patterns, see {@link #fastPattern(String)}
+     */
+    public static final int     NONE                  = 0;
+    public static final int     DATE                  = 1;
+    public static final int     DATE_TIME             = 2;
+    public static final int     DATE_TIME_MILLIS      = 3;
+    public static final int     ISO8601               = 4;
+    public static final int     ISO8601_MILLIS        = 5;
+    public static final int     MILLIS                = 6;
+
+    private static final int    MAX_SIZE;
+
+    static {
+        int maxSize = 1024;
+        String property = IOUtils.getStringProperty(MAX_SIZE_PROPERTY);
+        if (property != null && property.length() > 0) {
+            try {
+                maxSize = Integer.parseInt(property.trim());
+            } catch (NumberFormatException ex) {
+                // skip
+            }
+        }
+        MAX_SIZE = maxSize;
+    }
+
+    private static final long   MILLIS_PER_DAY        = 24L * 60 * 60 * 1000;
+    private static final int    MIN_YEAR              = 1600;
+    private static final int    MAX_YEAR              = 9999;
+
+    private static final ConcurrentHashMap<Key, DateTimeFormatter> formatters  = new ConcurrentHashMap<>(16);
+    private static final ConcurrentHashMap<Key, SimpleDateFormat>  dateFormats = new ConcurrentHashMap<>(16);
+    private static final ConcurrentHashMap<Locale, Boolean>        fastLocales = new ConcurrentHashMap<>(16);
+
+    private DateFormats(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param locale null for the default format locale
+     * @param zone null to format with the zone of the value
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static DateTimeFormatter getFormatter(String pattern, Locale locale, ZoneId zone) {
+        if (locale == null) {
+            locale = Locale.getDefault(Locale.Category.FORMAT);
+        }
+
+        Key key = new Key(pattern, locale, zone);
+        DateTimeFormatter formatter = formatters.get(key);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern, locale);
+            if (zone != null) {
+                formatter = formatter.withZone(zone);
+            }
+            if (formatters.size() < MAX_SIZE) {
+                DateTimeFormatter present = formatters.putIfAbsent(key, formatter);
+                if (present != null) {
+                    formatter = present;
+                }
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns a new format owned by the caller.
+     *
+     * @param locale null for the default format locale
+     * @param zone null for the default zone
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static SimpleDateFormat getDateFormat(String pattern, Locale locale, TimeZone zone) {
+        if (locale == null) {
+            locale = Locale.getDefault(Locale.Category.FORMAT);
+        }
+        if (zone == null) {
+            zone = TimeZone.getDefault();
+        }
+
+        Key key = new Key(pattern, locale, zone);
+        SimpleDateFormat prototype = dateFormats.get(key);
+        if (prototype == null) {
+            prototype = new SimpleDateFormat(pattern, locale);
+            prototype.setTimeZone(zone);
+            if (dateFormats.size() >= MAX_SIZE) {
+                return prototype;
+            }
+            SimpleDateFormat present = dateFormats.putIfAbsent(key, prototype);
+            if (present != null) {
+                prototype = present;
+            }
+        }
+        return (SimpleDateFormat) prototype.clone();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static String format(Date date, String pattern, Locale locale, TimeZone zone) {
+        int fastPattern = fastPattern(pattern);
+        if (fastPattern == MILLIS) {
+            return Long.toString(date.getTime());
+        }
+
+        if (fastPattern != NONE && isFastLocale(locale)) {
+            long fields = localFields(date.getTime(), zone == null ? TimeZone.getDefault() : zone);
+            if (fields != -1) {
+                char[] chars = new char[length(fastPattern)];
+                getChars(fields, fastPattern, chars, 0);
+                return new String(chars);
+            }
+        }
+
+        return getDateFormat(pattern, locale, zone).format(date);
+    }
+
+    /**
+     * @return the date, null if the text does not match the pattern
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static Date parse(String text, String pattern, Locale locale, TimeZone zone) {
+        int fastPattern = fastPattern(pattern);
+        if (fastPattern == MILLIS) {
+            long millis = parseMillis(text);
+            if (millis != Long.MIN_VALUE) {
+                return new Date(millis);
+            }
+        } else if (fastPattern != NONE && isFastLocale(locale)) {
+            long millis = parse(text, fastPattern, zone == null ? TimeZone.getDefault() : zone);
+            if (millis != Long.MIN_VALUE) {
+                return new Date(millis);
+            }
+        }
+
+        try {
+            return getDateFormat(pattern, locale, zone).parse(text);
+        } catch (ParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return one of the fast patterns, {@link #NONE} if the pattern has no fast path
+     */
+    public static int fastPattern(String pattern) {
+        if (pattern == null) {
+            return NONE;
+        }
+        switch (pattern) {
+            case "yyyy-MM-dd":
+                return DATE;
+            case DATE_TIME_PATTERN:
+                return DATE_TIME;
+            case "yyyy-MM-dd HH:mm:ss.SSS":
+                return DATE_TIME_MILLIS;
+            case ISO8601_PATTERN:
+                return ISO8601;
+            case "yyyy-MM-dd'T'HH:mm:ss.SSS":
+                return ISO8601_MILLIS;
+            case MILLIS_PATTERN:
+                return MILLIS;
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * @return the number of chars of a date in the fast pattern, 0 for {@link #MILLIS}
+     */
+    public static int length(int fastPattern) {
+        switch (fastPattern) {
+            case DATE:
+                return 10;
+            case DATE_TIME:
+            case ISO8601:
+                return 19;
+            case DATE_TIME_MILLIS:
+            case ISO8601_MILLIS:
+                return 23;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Whether SimpleDateFormat writes dates of the locale in a Gregorian calendar with ascii digits, so the fast
+     * paths give its result. null is the default format locale.
+     */
+    public static boolean isFastLocale(Locale locale) {
+        if (locale == null) {
+            locale = Locale.getDefault(Locale.Category.FORMAT);
+        }
+        if (locale == Locale.US || locale == Locale.ENGLISH || locale == Locale.CHINA || locale == Locale.ROOT) {
+            return true;
+        }
+
+        Boolean fast = fastLocales.get(locale);
+        if (fast == null) {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", locale);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            fast = format.getCalendar() instanceof GregorianCalendar
+                   && "2009-02-13 23:31:30.123".equals(format.format(new Date(1234567890123L)));
+            if (fastLocales.size() < MAX_SIZE) {
+                fastLocales.putIfAbsent(locale, fast);
+            }
+        }
+        return fast;
+    }
+
+    /**
+     * Local date and time of millis in zone, packed for {@link #getChars(long, int, char[], int)}.
+     *
+     * @return the packed fields, -1 if the year is out of the fast path range
+     */
+    public static long localFields(long millis, TimeZone zone) {
+        long local = millis + zone.getOffset(millis);
+        long days = Math.floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+
+        // civil from days, Howard Hinnant's algorithm
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return -1;
+        }
+
+        int seconds = millisOfDay / 1000;
+        return fields((int) year, month, day, seconds / 3600, seconds / 60 % 60, seconds % 60, millisOfDay % 1000);
+    }
+
+    /**
+     * Packs local date and time fields for {@link #getChars(long, int, char[], int)}.
+     *
+     * @return the packed fields, -1 if the year is out of the fast path range
+     */
+    public static long fields(int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return -1;
+        }
+        return (long) year << 36 | (long) month << 32 | (long) day << 27 | hour << 22 | minute << 16 | second << 10
+               | millis;
+    }
+
+    /**
+     * Writes packed fields in a fast pattern other than {@link #MILLIS}.
+     *
+     * @return the position after the last char
+     */
+    public static int getChars(long fields, int fastPattern, char[] buf, int off) {
+        int year = (int) (fields >>> 36);
+        int month = (int) (fields >>> 32) & 0xF;
+        int day = (int) (fields >>> 27) & 0x1F;
+
+        buf[off] = (char) ('0' + year / 1000);
+        buf[off + 1] = (char) ('0' + year / 100 % 10);
+        buf[off + 2] = (char) ('0' + year / 10 % 10);
+        buf[off + 3] = (char) ('0' + year % 10);
+        buf[off + 4] = '-';
+        put2(month, buf, off + 5);
+        buf[off + 7] = '-';
+        put2(day, buf, off + 8);
+        if (fastPattern == DATE) {
+            return off + 10;
+        }
+
+        buf[off + 10] = fastPattern == ISO8601 || fastPattern == ISO8601_MILLIS ? 'T' : ' ';
+        put2((int) (fields >>> 22) & 0x1F, buf, off + 11);
+        buf[off + 13] = ':';
+        put2((int) (fields >>> 16) & 0x3F, buf, off + 14);
+        buf[off + 16] = ':';
+        put2((int) (fields >>> 10) & 0x3F, buf, off + 17);
+        if (fastPattern == DATE_TIME || fastPattern == ISO8601) {
+            return off + 19;
+        }
+
+        int millis = (int) fields & 0x3FF;
+        buf[off + 19] = '.';
+        buf[off + 20] = (char) ('0' + millis / 100);
+        buf[off + 21] = (char) ('0' + millis / 10 % 10);
+        buf[off + 22] = (char) ('0' + millis % 10);
+        return off + 23;
+    }
+
+    private static void put2(int value, char[] buf, int off) {
+        buf[off] = (char) ('0' + value / 10);
+        buf[off + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Parses text in the exact layout of a fast pattern other than {@link #MILLIS}.
+     *
+     * @return the epoch millis, Long.MIN_VALUE if the text has another layout or the fast path does not apply
+     */
+    public static long parse(String text, int fastPattern, TimeZone zone) {
+        int length = length(fastPattern);
+        if (text == null || length == 0 || text.length() != length) {
+            return Long.MIN_VALUE;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < MIN_YEAR || text.charAt(4) != '-' || text.charAt(7) != '-'
+            || month < 1 || month > 12 || day < 1 || day > daysOfMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+
+        int millisOfDay = 0;
+        if (fastPattern != DATE) {
+            char separator = fastPattern == ISO8601 || fastPattern == ISO8601_MILLIS ? 'T' : ' ';
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = digits(text, 17, 2);
+            if (text.charAt(10) != separator || text.charAt(13) != ':' || text.charAt(16) != ':'
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return Long.MIN_VALUE;
+            }
+
+            int millis = 0;
+            if (length == 23) {
+                millis = digits(text, 20, 3);
+                if (text.charAt(19) != '.' || millis < 0) {
+                    return Long.MIN_VALUE;
+                }
+            }
+            millisOfDay = ((hour * 60 + minute) * 60 + second) * 1000 + millis;
+        }
+
+        // days from civil, Howard Hinnant's algorithm
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        long days = era * 146097L + doe - 719468;
+
+        long local = days * MILLIS_PER_DAY + millisOfDay;
+        int offset = zone.getOffset(local - zone.getRawOffset());
+        long millis = local - offset;
+        if (zone.getOffset(millis - MILLIS_PER_DAY) != offset || zone.getOffset(millis + MILLIS_PER_DAY) != offset) {
+            // near a transition the calendar decides gaps and overlaps
+            return Long.MIN_VALUE;
+        }
+        return millis;
+    }
+
+    /**
+     * @return the epoch millis of a plain decimal text, Long.MIN_VALUE if it is something else
+     */
+    public static long parseMillis(String text) {
+        int length = text == null ? 0 : text.length();
+        if (length == 0 || length > 18) {
+            return Long.MIN_VALUE;
+        }
+
+        int i = text.charAt(0) == '-' ? 1 : 0;
+        if (i == length) {
+            return Long.MIN_VALUE;
+        }
+
+        long value = 0;
+        for (; i < length; ++i) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return text.charAt(0) == '-' ? -value : value;
+    }
+
+    /**
+     * @return the value of len ascii digits at off, -1 if one of them is something else
+     */
+    private static int digits(String text, int off, int len) {
+        int value = 0;
+        for (int i = off, end = off + len; i < end; ++i) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return value;
+    }
+
+    private static int daysOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * number of compiled formats held
+     */
+    public static int size() {
+        return formatters.size() + dateFormats.size();
+    }
+
+    private static final class Key {
+
+        private final String pattern;
+        private final Locale locale;
+        private final Object zone;
+
+        Key(String pattern, Locale locale, Object zone){
+            this.pattern = pattern;
+            this.locale = locale;
+            this.zone = zone;
+        }
+
+        public int hashCode() {
+            int h = pattern.hashCode() * 31 + locale.hashCode();
+            return zone == null ? h : h * 31 + zone.hashCode();
+        }
+
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return pattern.equals(other.pattern) && locale.equals(other.locale)
+                   && (zone == null ? other.zone == null : zone.equals(other.zone));
+        }
+    }
+}
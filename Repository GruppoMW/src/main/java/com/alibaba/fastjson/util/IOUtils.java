@@ -302,6 +302,71 @@ public class IOUtils {
         }
     }
 
+    /**
+     * Same as {@link #getChars(long, int, char[])} for ascii bytes.
+     */
+    public static void getBytes(long i, int index, byte[] buf) {
+        if (i >= Integer.MIN_VALUE && i <= Integer.MAX_VALUE) {
+            getBytes((int) i, index, buf);
+            return;
+        }
+
+        long q;
+        int r;
+        int charPos = index;
+        boolean negative = i < 0;
+
+        if (negative) {
+            i = -i;
+        }
+
+        while (i > Integer.MAX_VALUE) {
+            q = i / 100;
+            r = (int) (i - ((q << 6) + (q << 5) + (q << 2)));
+            i = q;
+            buf[--charPos] = (byte) DigitOnes[r];
+            buf[--charPos] = (byte) digitTens[r];
+        }
+
+        getBytes((int) i, charPos, buf);
+        if (negative) {
+            buf[charPos - IOUtils.stringSize((int) i) - 1] = '-';
+        }
+    }
+
+    /**
+     * Same as {@link #getChars(int, int, char[])} for ascii bytes.
+     */
+    public static void getBytes(int i, int index, byte[] buf) {
+        int q;
+        int r;
+        int p = index;
+        boolean negative = i < 0;
+
+        if (negative) {
+            i = -i;
+        }
+
+        while (i >= 65536) {
+            q = i / 100;
+            r = i - ((q << 6) + (q << 5) + (q << 2));
+            i = q;
+            buf[--p] = (byte) DigitOnes[r];
+            buf[--p] = (byte) digitTens[r];
+        }
+
+        for (;;) {
+            q = (i * 52429) >>> (16 + 3);
+            r = i - ((q << 3) + (q << 1));
+            buf[--p] = (byte) digits2[r];
+            i = q;
+            if (i == 0) break;
+        }
+        if (negative) {
+            buf[--p] = '-';
+        }
+    }
+
     public static void getChars(byte b, int index, char[] buf) {
         int i = b;
         int q;
@@ -619,8 +684,17 @@ public class IOUtils {
 
 
     public static int encodeUTF8(char[] chars, int offset, int len, byte[] bytes) {
+        return encodeUTF8(chars, offset, len, bytes, 0);
+    }
+
+    /**
+     * Encodes the chars to {@code bytes} starting at {@code bytesOffset}.
+     *
+     * @return the end offset in {@code bytes}, i.e. {@code bytesOffset} plus the number of bytes written
+     */
+    public static int encodeUTF8(char[] chars, int offset, int len, byte[] bytes, int bytesOffset) {
         int sl = offset + len;
-        int dp = 0;
+        int dp = bytesOffset;
         while (offset < sl) {
             char c = chars[offset++];
             if (c < 0x80) {
@@ -628,6 +702,16 @@ public class IOUtils {
             } else if (c < 0x800) {
                 bytes[dp++] = (byte) (0xc0 | (c >> 6));
                 bytes[dp++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && offset < sl && Character.isLowSurrogate(chars[offset])) {
+                    int uc = Character.toCodePoint(c, chars[offset++]);
+                    bytes[dp++] = (byte) (0xf0 | (uc >> 18));
+                    bytes[dp++] = (byte) (0x80 | ((uc >> 12) & 0x3f));
+                    bytes[dp++] = (byte) (0x80 | ((uc >> 6) & 0x3f));
+                    bytes[dp++] = (byte) (0x80 | (uc & 0x3f));
+                } else {
+                    bytes[dp++] = (byte) '?';
+                }
             } else {
                 bytes[dp++] = (byte) (0xe0 | (c >> 12));
                 bytes[dp++] = (byte) (0x80 | ((c >> 6) & 0x3f));
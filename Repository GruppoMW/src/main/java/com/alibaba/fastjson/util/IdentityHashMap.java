@@ -15,109 +15,180 @@
  */
 package com.alibaba.fastjson.util;
 
-import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * for concurrent IdentityHashMap
- * 
+ *
+ * <p>Open addressing with linear probing, keys and values are stored side by side in one array. Reads never lock:
+ * a value slot is always written before its key slot is published, so a reader that sees a key sees its value.
+ * Writes are serialized on the map and double the table once it is half full; the new table is filled completely
+ * before it replaces the old one, readers still probing the old table get a consistent, if slightly stale, answer.
+ * Entries are never removed one by one, only by {@link #clear()}.
+ *
  * @author wenshao[szujobs@hotmail.com]
  */
 @SuppressWarnings("unchecked")
 public class IdentityHashMap<K, V> {
-    private final Entry<K, V>[] buckets;
-    private final int           indexMask;
-    public static final int DEFAULT_SIZE = 8192;
+
+    public static final int                       DEFAULT_SIZE = 1024;
+
+    private static final Object                   NULL_KEY     = new Object();
+    private static final Object                   ABSENT       = new Object();
+
+    /**
+     * key at 2 * i, value at 2 * i + 1
+     */
+    private volatile AtomicReferenceArray<Object> table;
+    private volatile int                          size;
+    private final int                             initialCapacity;
 
     public IdentityHashMap(){
         this(DEFAULT_SIZE);
     }
 
+    /**
+     * @param tableSize the number of entries expected, the table grows past it as needed
+     */
     public IdentityHashMap(int tableSize){
-        this.indexMask = tableSize - 1;
-        this.buckets = new Entry[tableSize];
+        int capacity = 4;
+        while (capacity < tableSize * 2 && capacity < (1 << 29)) {
+            capacity <<= 1;
+        }
+        this.initialCapacity = capacity;
+        this.table = new AtomicReferenceArray<>(capacity * 2);
     }
 
-    public final V get(K key) {
-        final int hash = System.identityHashCode(key);
-        final int bucket = hash & indexMask;
+    private static int indexOf(Object key, int mask) {
+        int hash = System.identityHashCode(key);
+        // spread the identity hash over the low bits used as index
+        hash ^= (hash >>> 16);
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 15)) & mask;
+    }
 
-        for (Entry<K, V> entry = buckets[bucket]; entry != null; entry = entry.next) {
-            if (key == entry.key) {
-                return entry.value;
+    public final V get(K key) {
+        final Object k = key == null ? NULL_KEY : key;
+        final AtomicReferenceArray<Object> tab = table;
+        final int mask = (tab.length() >> 1) - 1;
+
+        for (int i = indexOf(k, mask);; i = (i + 1) & mask) {
+            Object item = tab.get(i << 1);
+            if (item == k) {
+                return (V) tab.get((i << 1) + 1);
+            }
+            if (item == null) {
+                return null;
             }
         }
-
-        return null;
     }
 
     public Class<?> findClass(String keyString) {
-        for (int i = 0; i < buckets.length; i++) {
-            Entry<?,?> bucket = buckets[i];
-
-            if (bucket == null) {
-                continue;
-            }
-
-            for (Entry<K, V> entry = (Entry<K, V>) bucket; entry != null; entry = entry.next) {
-                Object key = bucket.key;
-                if (key instanceof Class) {
-                    Class<?> clazz = ((Class<?>) key);
-                    String className = clazz.getName();
-                    if (className.equals(keyString)) {
-                        return clazz;
-                    }
-                }
+        final AtomicReferenceArray<Object> tab = table;
+        for (int i = 0, len = tab.length(); i < len; i += 2) {
+            Object key = tab.get(i);
+            if (key instanceof Class && ((Class<?>) key).getName().equals(keyString)) {
+                return (Class<?>) key;
             }
         }
 
         return null;
     }
 
+    /**
+     * Associates value with key, replacing a previous value.
+     *
+     * @return true if the key was already present
+     */
     public boolean put(K key, V value) {
-        final int hash = System.identityHashCode(key);
-        final int bucket = hash & indexMask;
+        synchronized (this) {
+            return insert(key == null ? NULL_KEY : key, value, true) != ABSENT;
+        }
+    }
 
-        for (Entry<K, V> entry = buckets[bucket]; entry != null; entry = entry.next) {
-            if (key == entry.key) {
-                entry.value = value;
-                return true;
+    /**
+     * Associates value with key unless the key is present already.
+     *
+     * @return the present value, null if value was stored
+     */
+    public V putIfAbsent(K key, V value) {
+        synchronized (this) {
+            Object present = insert(key == null ? NULL_KEY : key, value, false);
+            return present == ABSENT ? null : (V) present;
+        }
+    }
+
+    /**
+     * must hold the lock, returns the previous value or ABSENT
+     */
+    private Object insert(Object k, Object value, boolean replace) {
+        AtomicReferenceArray<Object> tab = table;
+        int mask = (tab.length() >> 1) - 1;
+
+        int i = indexOf(k, mask);
+        for (;; i = (i + 1) & mask) {
+            Object item = tab.get(i << 1);
+            if (item == k) {
+                Object previous = tab.get((i << 1) + 1);
+                if (replace) {
+                    tab.set((i << 1) + 1, value);
+                }
+                return previous;
+            }
+            if (item == null) {
+                break;
             }
         }
 
-        Entry<K, V> entry = new Entry<>(key, value, hash, buckets[bucket]);
-        buckets[bucket] = entry;  // 并发是处理时会可能导致缓存丢失，但不影响正确性
+        if ((size + 1) * 2 > mask + 1) {
+            tab = resize(tab);
+            mask = (tab.length() >> 1) - 1;
+            i = indexOf(k, mask);
+            while (tab.get(i << 1) != null) {
+                i = (i + 1) & mask;
+            }
+        }
 
-        return false;
+        tab.set((i << 1) + 1, value);
+        tab.set(i << 1, k); // publishes the entry
+        size = size + 1;
+        return ABSENT;
     }
 
-    protected static final class Entry<K, V> {
-
-        public final int hashCode2;
-        public final K     key;
-        V     value;
-
-        public final Entry<K, V> next;
+    private AtomicReferenceArray<Object> resize(AtomicReferenceArray<Object> tab) {
+        int capacity = tab.length() >> 1;
+        if (capacity >= (1 << 29)) {
+            throw new IllegalStateException("IdentityHashMap is full, size " + size);
+        }
 
-        public Entry(K key, V value, int hash, Entry<K, V> next){
-            this.key = key;
-            this.value = value;
-            this.next = next;
-            this.hashCode2 = hash;
+        int newCapacity = capacity << 1;
+        int newMask = newCapacity - 1;
+        AtomicReferenceArray<Object> newTab = new AtomicReferenceArray<>(newCapacity * 2);
+        for (int j = 0; j < capacity; ++j) {
+            Object key = tab.get(j << 1);
+            if (key == null) {
+                continue;
+            }
+            int i = indexOf(key, newMask);
+            while (newTab.get(i << 1) != null) {
+                i = (i + 1) & newMask;
+            }
+            newTab.set((i << 1) + 1, tab.get((j << 1) + 1));
+            newTab.set(i << 1, key);
         }
+
+        table = newTab;
+        return newTab;
     }
 
     public void clear() {
-        Arrays.fill(this.buckets, null);
+        synchronized (this) {
+            table = new AtomicReferenceArray<>(initialCapacity * 2);
+            size = 0;
+        }
     }
 
     public int size() {
-        int count = 0;
-        for (Entry<K, V> bucket : this.buckets) {
-            for (; bucket != null; bucket = bucket.next) {
-                count++;
-            }
-        }
-
-        return count;
+        return size;
     }
 }
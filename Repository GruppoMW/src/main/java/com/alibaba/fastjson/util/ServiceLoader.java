@@ -8,7 +8,9 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.nio.charset.StandardCharsets;
 
 public class ServiceLoader {
@@ -18,7 +20,10 @@ public class ServiceLoader {
       }
     private static final String      PREFIX     = "META-INF/services/";
 
-    private static final Set<String> loadedUrls = new HashSet<>();
+    /**
+     * the service names read from each url, the files are read once and every config gets the services
+     */
+    private static final Map<String, Set<String>> loadedUrls = new ConcurrentHashMap<>();
 
     @SuppressWarnings("unchecked")
     public static <T> Set<T> load(Class<T> clazz, ClassLoader classLoader) {
@@ -37,11 +42,13 @@ public class ServiceLoader {
             Enumeration<URL> urls = classLoader.getResources(path);
             while (urls.hasMoreElements()) {
                 URL url = urls.nextElement();
-                if (loadedUrls.contains(url.toString())) {
-                    continue;
+                Set<String> names = loadedUrls.get(url.toString());
+                if (names == null) {
+                    names = new HashSet<>();
+                    load(url, names);
+                    loadedUrls.put(url.toString(), names);
                 }
-                load(url, serviceNames);
-                loadedUrls.add(url.toString());
+                serviceNames.addAll(names);
             }
         } catch (IOException ex) {
             // skip
@@ -61,9 +68,8 @@ public class ServiceLoader {
     }
 
     public static void load(URL url, Set<String> set) throws IOException {
-        InputStream is = null;
+        InputStream is = url.openStream();
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8)) ){
-            is = url.openStream();
             for (;;) {
                 String line = reader.readLine();
                 if (line == null) {
@@ -76,8 +82,7 @@ public class ServiceLoader {
                 }
                 line = line.trim();
                 if (line.length() == 0) {
-                    //skip
-
+                    continue;
                 }
                 set.add(line);
             }
@@ -3,6 +3,10 @@ package com.alibaba.fastjson.util;
 import java.lang.ref.SoftReference;
 import java.nio.charset.CharsetDecoder;
 
+/**
+ * Per thread decoder cache. The char and byte buffers handed out here stay owned by the thread and are never given
+ * back, new code should take and release buffers through {@link BufferPool}.
+ */
 public class ThreadLocalCache {
 
     private ThreadLocalCache() {
@@ -22,7 +26,6 @@ public class ThreadLocalCache {
         if (decoder == null) {
             decoder = new UTF8Decoder();
             decoderLocal.set(decoder);
-            decoderLocal.remove();
         }
         return decoder;
     }
@@ -31,6 +34,10 @@ public class ThreadLocalCache {
         charsBufLocal.remove();
     }
 
+    /**
+     * @deprecated use {@link BufferPool#takeChars(int)} and {@link BufferPool#releaseChars(char[])}
+     */
+    @Deprecated
     public static char[] getChars(int length) {
         SoftReference<char[]> ref = charsBufLocal.get();
 
@@ -84,6 +91,10 @@ public class ThreadLocalCache {
         bytesBufLocal.remove();
     }
 
+    /**
+     * @deprecated use {@link BufferPool#takeBytes(int)} and {@link BufferPool#releaseBytes(byte[])}
+     */
+    @Deprecated
     public static byte[] getBytes(int length) {
         SoftReference<byte[]> ref = bytesBufLocal.get();
 
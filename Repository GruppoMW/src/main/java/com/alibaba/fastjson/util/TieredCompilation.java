@@ -0,0 +1,88 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Defaults of the tiered mode of the configs. With a threshold above 0 java beans start on the reflective codecs and
+ * get an ASM generated codec once they were used threshold times, classes used a few times at startup never cost a
+ * generated class. {@value #THRESHOLD_PROPERTY} sets the threshold (default 0, codecs generated on first use) and
+ * {@value #ASYNC_PROPERTY} generates the codecs on a background thread instead of the calling one. Generated
+ * serializers are specialized further per feature mask of the writers using them, up to {@value #VARIANTS_PROPERTY}
+ * variants per class (default 4, 0 disables them); writers with other masks use the generic serializer.
+ *
+ * @since 1.2.80
+ */
+public class TieredCompilation {
+
+    public static final String   THRESHOLD_PROPERTY = "fastjson.asm.tieredThreshold";
+    public static final String   ASYNC_PROPERTY     = "fastjson.asm.tieredAsync";
+    public static final String   VARIANTS_PROPERTY  = "fastjson.asm.featureVariants";
+
+    public static final int      THRESHOLD;
+    public static final boolean  ASYNC;
+    public static final int      VARIANTS;
+
+    static {
+        THRESHOLD = getIntProperty(THRESHOLD_PROPERTY, 0);
+        ASYNC = "true".equals(IOUtils.getStringProperty(ASYNC_PROPERTY));
+        VARIANTS = getIntProperty(VARIANTS_PROPERTY, 4);
+    }
+
+    private static int getIntProperty(String name, int defaultValue) {
+        String property = IOUtils.getStringProperty(name);
+        if (property != null && property.length() > 0) {
+            try {
+                return Integer.parseInt(property.trim());
+            } catch (NumberFormatException ex) {
+                // skip
+            }
+        }
+        return defaultValue;
+    }
+
+    private static volatile ExecutorService executor;
+
+    private TieredCompilation(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * runs a promotion on the compiler thread, a daemon started on first use
+     */
+    public static void execute(Runnable task) {
+        ExecutorService service = executor;
+        if (service == null) {
+            synchronized (TieredCompilation.class) {
+                service = executor;
+                if (service == null) {
+                    executor = service = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "fastjson-tiered-compiler");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        service.execute(task);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 1999-2017 Alibaba Group.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.fastjson.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of generic types. The codec registries are keyed by identity, so {@code List<Model>} coming
+ * from a {@code TypeReference}, from Spring or JAX-RS, or from a hand made {@link ParameterizedTypeImpl} has to be the
+ * same instance to find the codec built for it.
+ *
+ * <p>Types are compared structurally across implementations: owner type, raw type, type arguments, array components
+ * and wildcard bounds. A missing owner type stands for the declaring class of the raw type, implementations disagree
+ * on whether they fill it in for nested classes. Entries are weakly
+ * referenced, a canonical type lives as long as something else (usually the registry) holds it. The table is
+ * bounded by {@value #MAX_SIZE_PROPERTY} (default 8192), past that types are returned as they are.
+ *
+ * @since 1.2.80
+ */
+public class TypeInterner {
+
+    public static final String                    MAX_SIZE_PROPERTY = "fastjson.typeInterner.maxSize";
+
+    private static final int                      MAX_SIZE;
+
+    static {
+        int maxSize = 1024 * 8;
+        String property = IOUtils.getStringProperty(MAX_SIZE_PROPERTY);
+        if (property != null && property.length() > 0) {
+            try {
+                maxSize = Integer.parseInt(property.trim());
+            } catch (NumberFormatException ex) {
+                // skip
+            }
+        }
+        MAX_SIZE = maxSize;
+    }
+
+    private static final ConcurrentHashMap<Key, Key> table = new ConcurrentHashMap<>(64);
+    private static final ReferenceQueue<Type>        queue = new ReferenceQueue<>();
+
+    private TypeInterner(){
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the canonical instance of a generic type, classes and type variables are returned unchanged.
+     */
+    public static Type intern(Type type) {
+        if (type == null
+                || type instanceof Class
+                || !(type instanceof ParameterizedType || type instanceof GenericArrayType
+                     || type instanceof WildcardType)) {
+            return type;
+        }
+
+        expunge();
+
+        int hash = hash(type);
+        Key key = table.get(new Key(type, hash, null));
+        if (key != null) {
+            Type canonical = key.get();
+            if (canonical != null) {
+                return canonical;
+            }
+        }
+
+        if (table.size() >= MAX_SIZE) {
+            return type;
+        }
+
+        Key newKey = new Key(type, hash, queue);
+        Key present = table.putIfAbsent(newKey, newKey);
+        if (present != null) {
+            Type canonical = present.get();
+            if (canonical != null) {
+                return canonical;
+            }
+        }
+        return type;
+    }
+
+    public static int size() {
+        expunge();
+        return table.size();
+    }
+
+    private static void expunge() {
+        for (Object ref; (ref = queue.poll()) != null;) {
+            table.remove(ref);
+        }
+    }
+
+    static int hash(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            int h = hash(parameterizedType.getRawType());
+            h = 31 * h + hash(ownerType(parameterizedType));
+            for (Type arg : parameterizedType.getActualTypeArguments()) {
+                h = 31 * h + hash(arg);
+            }
+            return h;
+        }
+        if (type instanceof GenericArrayType) {
+            return 31 * hash(((GenericArrayType) type).getGenericComponentType()) + 7;
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+            int h = 11;
+            for (Type bound : wildcardType.getUpperBounds()) {
+                h = 31 * h + hash(bound);
+            }
+            for (Type bound : wildcardType.getLowerBounds()) {
+                h = 37 * h + hash(bound);
+            }
+            return h;
+        }
+        return type == null ? 0 : type.hashCode();
+    }
+
+    static boolean equals(Type a, Type b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+
+        if (a instanceof ParameterizedType) {
+            if (!(b instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType pa = (ParameterizedType) a, pb = (ParameterizedType) b;
+            return equals(pa.getRawType(), pb.getRawType())
+                   && equals(ownerType(pa), ownerType(pb))
+                   && equals(pa.getActualTypeArguments(), pb.getActualTypeArguments());
+        }
+        if (a instanceof GenericArrayType) {
+            return b instanceof GenericArrayType
+                   && equals(((GenericArrayType) a).getGenericComponentType(),
+                             ((GenericArrayType) b).getGenericComponentType());
+        }
+        if (a instanceof WildcardType) {
+            if (!(b instanceof WildcardType)) {
+                return false;
+            }
+            WildcardType wa = (WildcardType) a, wb = (WildcardType) b;
+            return equals(wa.getUpperBounds(), wb.getUpperBounds())
+                   && equals(wa.getLowerBounds(), wb.getLowerBounds());
+        }
+        return a.equals(b);
+    }
+
+    /**
+     * the owner type, the declaring class of the raw type when it is not given
+     */
+    private static Type ownerType(ParameterizedType type) {
+        Type ownerType = type.getOwnerType();
+        if (ownerType == null && type.getRawType() instanceof Class) {
+            ownerType = ((Class<?>) type.getRawType()).getDeclaringClass();
+        }
+        return ownerType;
+    }
+
+    private static boolean equals(Type[] a, Type[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; ++i) {
+            if (!equals(a[i], b[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Key extends WeakReference<Type> {
+
+        private final int hash;
+
+        Key(Type type, int hash, ReferenceQueue<Type> queue){
+            super(type, queue);
+            this.hash = hash;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key) || ((Key) obj).hash != hash) {
+                return false;
+            }
+            Type type = get();
+            Type other = ((Key) obj).get();
+            return type != null && other != null && TypeInterner.equals(type, other);
+        }
+    }
+}
@@ -37,8 +37,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.security.AccessControlException;
 import java.sql.Clob;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -419,14 +417,11 @@ public class TypeUtils {
             format = guessDateFormat(strValue);
         }
 
-        SimpleDateFormat dateFormat = new SimpleDateFormat(format, JSON.defaultLocale);
-        dateFormat.setTimeZone(JSON.defaultTimeZone);
-
-        try {
-            return dateFormat.parse(strValue).getTime();
-        } catch (ParseException e) {
+        Date date = DateFormats.parse(strValue, format, JSON.defaultLocale, JSON.defaultTimeZone);
+        if (date == null) {
             throw new JSONException(CAN_NOT_CAST_TO_DATE + strValue);
         }
+        return date.getTime();
     }
 
     private static String guessDateFormat(String strValue) {
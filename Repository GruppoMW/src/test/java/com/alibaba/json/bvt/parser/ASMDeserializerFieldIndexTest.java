@@ -0,0 +1,142 @@
+package com.alibaba.json.bvt.parser;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ASMDeserializerFactory;
+import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+
+public class ASMDeserializerFieldIndexTest {
+
+    public static class Bean {
+
+        public boolean ok;
+        public long    ts;
+        public String  name;
+        public int     code;
+        public String  msg;
+    }
+
+    private static Bean parse(String json, boolean asm) {
+        ParserConfig config = new ParserConfig();
+        config.setAsmEnable(asm);
+        ObjectDeserializer deserializer = config.getDeserializer(Bean.class);
+        Assert.assertEquals(asm, deserializer.getClass() != JavaBeanDeserializer.class);
+        return JSON.parseObject(json, Bean.class, config);
+    }
+
+    private static void assertBean(String json, boolean ok, long ts, String name, int code, String msg) {
+        for (boolean asm : new boolean[] { true, false }) {
+            Bean bean = parse(json, asm);
+            Assert.assertEquals(json, ok, bean.ok);
+            Assert.assertEquals(json, ts, bean.ts);
+            Assert.assertEquals(json, name, bean.name);
+            Assert.assertEquals(json, code, bean.code);
+            Assert.assertEquals(json, msg, bean.msg);
+        }
+    }
+
+    @Test
+    public void test_generatedSwitch() throws Exception {
+        ObjectDeserializer deserializer = new ParserConfig().getDeserializer(Bean.class);
+        Assert.assertNotNull(deserializer.getClass().getDeclaredMethod("getFieldIndex", long.class));
+    }
+
+    @Test
+    public void test_declaredOrder() {
+        assertBean("{\"code\":3,\"msg\":\"m\",\"name\":\"n\",\"ok\":true,\"ts\":5}", true, 5, "n", 3, "m");
+    }
+
+    @Test
+    public void test_outOfOrder() {
+        assertBean("{\"ok\":true,\"ts\":5}", true, 5, null, 0, null);
+        assertBean("{\"ts\":5,\"ok\":true}", true, 5, null, 0, null);
+        assertBean("{\"msg\":\"m\",\"ts\":-9223372036854775808,\"ok\":false,\"name\":\"n\",\"code\":-3}", false,
+                   Long.MIN_VALUE, "n", -3, "m");
+        assertBean("{ \"ts\" : 12 , \"ok\" : 1 , \"code\" : 2147483647 }", true, 12, null, Integer.MAX_VALUE, null);
+    }
+
+    @Test
+    public void test_unknownKeys() {
+        assertBean("{\"zz\":1,\"ok\":true,\"yy\":[1,{\"a\":2}],\"code\":7,\"xx\":{\"ts\":9}}", true, 0, null, 7, null);
+        assertBean("{\"a\":1}", false, 0, null, 0, null);
+        assertBean("{}", false, 0, null, 0, null);
+    }
+
+    @Test
+    public void test_caseVariantKeys() {
+        assertBean("{\"OK\":true,\"Ts\":5,\"NAME\":\"n\",\"c_o_d_e\":4,\"Msg\":\"x\"}", true, 5, "n", 4, "x");
+        assertBean("{\"isOk\":true,\"is\":1}", true, 0, null, 0, null);
+    }
+
+    @Test
+    public void test_quotedValues() {
+        assertBean("{\"ok\":\"true\",\"ts\":\"12\",\"code\":\"7\"}", true, 12, null, 7, null);
+    }
+
+    private static void assertPerfect(long[] hashes, int[] perfectHash) {
+        int shift = perfectHash[0];
+        int size = perfectHash[1];
+        Assert.assertEquals(0, size & (size - 1));
+        Assert.assertTrue(size >= hashes.length && size <= ASMDeserializerFactory.MAX_SWITCH_SIZE);
+
+        boolean[] used = new boolean[size];
+        for (long hash : hashes) {
+            int slot = (int) (hash >>> shift) & (size - 1);
+            Assert.assertFalse(used[slot]);
+            used[slot] = true;
+        }
+    }
+
+    @Test
+    public void test_perfectHash() {
+        Assert.assertNull(ASMDeserializerFactory.perfectHash(new long[0]));
+        Assert.assertArrayEquals(new int[] { 0, 1 }, ASMDeserializerFactory.perfectHash(new long[] { 42 }));
+
+        // colliding in the low bits, told apart by a shift
+        long[] hashes = { 0x100, 0x200, 0x300, 0x400 };
+        int[] perfectHash = ASMDeserializerFactory.perfectHash(hashes);
+        Assert.assertNotNull(perfectHash);
+        Assert.assertTrue(perfectHash[0] >= 8);
+        assertPerfect(hashes, perfectHash);
+
+        Random random = new Random(19);
+        for (int length : new int[] { 2, 5, 17, 64 }) {
+            hashes = new long[length];
+            for (int i = 0; i < length; ++i) {
+                hashes[i] = random.nextLong();
+            }
+            assertPerfect(hashes, ASMDeserializerFactory.perfectHash(hashes));
+        }
+    }
+
+    @Test
+    public void test_perfectHashCollisions() {
+        // equal hashes never separate
+        Assert.assertNull(ASMDeserializerFactory.perfectHash(new long[] { 7, 3, 7 }));
+        // 1 and 2 differ only below any shift that reaches the sign bit, the only bit telling 1 from the other
+        Assert.assertNull(ASMDeserializerFactory.perfectHash(new long[] { 1, 1 | Long.MIN_VALUE, 2 }));
+    }
+
+    @Test
+    public void test_perfectHashCap() {
+        int max = ASMDeserializerFactory.MAX_SWITCH_SIZE;
+        long[] hashes = new long[max + 1];
+        for (int i = 0; i < hashes.length; ++i) {
+            hashes[i] = i;
+        }
+        Assert.assertNull(ASMDeserializerFactory.perfectHash(hashes));
+
+        // the cap itself is allowed
+        hashes = new long[max];
+        for (int i = 0; i < hashes.length; ++i) {
+            hashes[i] = i;
+        }
+        Assert.assertArrayEquals(new int[] { 0, max }, ASMDeserializerFactory.perfectHash(hashes));
+    }
+}
@@ -0,0 +1,45 @@
+package com.alibaba.json.bvt.parser;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.ParameterizedTypeImpl;
+
+public class DeserializerBuildCountsTest {
+
+    public static class Box<V> {
+
+        public V value;
+    }
+
+    @Test
+    public void test_countedByStructure() {
+        ParserConfig config = new ParserConfig();
+        config.createJavaBeanDeserializer(Box.class, new ParameterizedTypeImpl(new Type[] { Long.class }, null, Box.class));
+        config.createJavaBeanDeserializer(Box.class, new ParameterizedTypeImpl(new Type[] { Long.class }, null, Box.class));
+        config.createJavaBeanDeserializer(Box.class, Box.class);
+
+        Map<Type, Integer> counts = config.getDeserializerBuildCounts();
+        Assert.assertEquals(2, counts.size());
+        Assert.assertEquals(Integer.valueOf(1), counts.get(Box.class));
+    }
+
+    @Test
+    public void test_weakKeys() throws Exception {
+        // the counts do not keep a type alive
+        ParserConfig config = new ParserConfig();
+        config.createJavaBeanDeserializer(Box.class,
+                                          new ParameterizedTypeImpl(new Type[] { Short.class }, null, Box.class));
+        Assert.assertEquals(1, config.getDeserializerBuildCounts().size());
+
+        for (int i = 0; i < 100 && !config.getDeserializerBuildCounts().isEmpty(); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(config.getDeserializerBuildCounts().isEmpty());
+    }
+}
@@ -0,0 +1,204 @@
+package com.alibaba.json.bvt.parser;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.support.hsf.HSFJSONUtils;
+import com.alibaba.fastjson.support.hsf.MethodLocator;
+
+public class HSFJSONUtilsTest {
+
+    public static class Item {
+
+        public int id;
+    }
+
+    public static class Service {
+
+        public void echo(String name, int count) {
+        }
+
+        public void join(String separator, String... values) {
+        }
+
+        public void put(Item item, String name) {
+        }
+    }
+
+    private Map<?, ?> plans;
+
+    @Before
+    public void setUp() throws Exception {
+        Field field = HSFJSONUtils.class.getDeclaredField("plans");
+        field.setAccessible(true);
+        plans = (Map<?, ?>) field.get(null);
+        plans.clear();
+    }
+
+    @After
+    public void tearDown() {
+        plans.clear();
+    }
+
+    private static MethodLocator locator(final Method method) {
+        return new MethodLocator() {
+
+            public Method findMethod(String[] types) {
+                return method;
+            }
+        };
+    }
+
+    private static Method method(String name) {
+        for (Method method : Service.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static Object[] parse(String json, String method) {
+        return HSFJSONUtils.parseInvocationArguments(json, locator(method(method)));
+    }
+
+    @Test
+    public void test_bind() {
+        Object[] args = parse("{\"argsTypes\":[\"java.lang.String\",\"int\"],\"argsObjs\":[\"a\",3]}", "echo");
+        Assert.assertArrayEquals(new Object[] { "a", 3 }, args);
+
+        args = parse("{\"argsTypes\":[\"java.lang.String\",\"int\"],\"argsObjs\":[null,3,\"extra\"]}", "echo");
+        Assert.assertArrayEquals(new Object[] { null, 3 }, args);
+
+        args = parse("{\"argsTypes\":[\"" + Item.class.getName() + "\",\"java.lang.String\"],"
+                     + "\"argsObjs\":[{\"id\":7},\"b\"]}", "put");
+        Assert.assertEquals(7, ((Item) args[0]).id);
+        Assert.assertEquals("b", args[1]);
+    }
+
+    @Test
+    public void test_varArgs() {
+        String types = "\"argsTypes\":[\"java.lang.String\",\"[Ljava.lang.String;\"]";
+
+        Object[] args = parse("{" + types + ",\"argsObjs\":[\",\",[\"a\",\"b\"]]}", "join");
+        Assert.assertEquals(",", args[0]);
+        Assert.assertArrayEquals(new String[] { "a", "b" }, (String[]) args[1]);
+
+        // spread over the rest of the array
+        args = parse("{" + types + ",\"argsObjs\":[\",\",\"a\",\"b\",\"c\"]}", "join");
+        Assert.assertEquals(",", args[0]);
+        Assert.assertArrayEquals(new String[] { "a", "b", "c" }, (String[]) args[1]);
+    }
+
+    @Test
+    public void test_argsObjsFirst() {
+        // the arguments are held until the method is known
+        Object[] args = parse("{\"argsObjs\":[\"a\",3],\"argsTypes\":[\"java.lang.String\",\"int\"]}", "echo");
+        Assert.assertArrayEquals(new Object[] { "a", 3 }, args);
+
+        args = parse("{\"argsObjs\":[{\"id\":7},\"b\"],\"argsTypes\":[\"" + Item.class.getName()
+                     + "\",\"java.lang.String\"]}", "put");
+        Assert.assertEquals(7, ((Item) args[0]).id);
+        Assert.assertEquals("b", args[1]);
+
+        // without argsTypes the locator is asked with null
+        args = parse("{\"argsObjs\":[\"a\",3]}", "echo");
+        Assert.assertArrayEquals(new Object[] { "a", 3 }, args);
+    }
+
+    @Test
+    public void test_planCached() {
+        String json = "{\"argsTypes\":[\"java.lang.String\",\"int\"],\"argsObjs\":[\"a\",3]}";
+        parse(json, "echo");
+        Object plan = plans.get(method("echo"));
+        Assert.assertNotNull(plan);
+
+        parse(json, "echo");
+        Assert.assertSame(plan, plans.get(method("echo")));
+    }
+
+    @Test
+    public void test_configChange() {
+        String json = "{\"argsTypes\":[\"" + Item.class.getName() + "\",\"java.lang.String\"],"
+                      + "\"argsObjs\":[{\"id\":7},\"b\"]}";
+        Assert.assertEquals(7, ((Item) parse(json, "put")[0]).id);
+        Object plan = plans.get(method("put"));
+
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        ObjectDeserializer deserializer = config.getDeserializer(Item.class);
+        config.putDeserializer(Item.class, new ObjectDeserializer() {
+
+            @SuppressWarnings("unchecked")
+            public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName) {
+                parser.parse();
+                Item item = new Item();
+                item.id = -1;
+                return (T) item;
+            }
+
+            public int getFastMatchToken() {
+                return JSONToken.LBRACE;
+            }
+        });
+        try {
+            // the deserializer put after the plan was built is used
+            Assert.assertEquals(-1, ((Item) parse(json, "put")[0]).id);
+            Assert.assertNotSame(plan, plans.get(method("put")));
+        } finally {
+            config.putDeserializer(Item.class, deserializer);
+        }
+        Assert.assertEquals(7, ((Item) parse(json, "put")[0]).id);
+    }
+
+    @Test
+    public void test_bound() throws Exception {
+        int max = 4096;
+        Path dir = Files.createTempDirectory("hsf");
+        try {
+            StringBuilder source = new StringBuilder("public class Wide {\n");
+            for (int i = 0; i <= max; ++i) {
+                source.append("    public void m").append(i).append("(int value) {}\n");
+            }
+            source.append("}\n");
+            Path file = dir.resolve("Wide.java");
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, file.toString()));
+
+            URLClassLoader classLoader = new URLClassLoader(new URL[] { dir.toUri().toURL() });
+            Class<?> clazz = classLoader.loadClass("Wide");
+            for (int i = 0; i <= max; ++i) {
+                Method method = clazz.getMethod("m" + i, int.class);
+                Object[] args = HSFJSONUtils.parseInvocationArguments("{\"argsTypes\":[\"int\"],\"argsObjs\":[" + i
+                                                                      + "]}", locator(method));
+                Assert.assertArrayEquals(new Object[] { i }, args);
+            }
+            Assert.assertEquals(max, plans.size());
+            Assert.assertNull(plans.get(clazz.getMethod("m" + max, int.class)));
+            classLoader.close();
+        } finally {
+            for (File file : dir.toFile().listFiles()) {
+                file.delete();
+            }
+            dir.toFile().delete();
+        }
+    }
+}
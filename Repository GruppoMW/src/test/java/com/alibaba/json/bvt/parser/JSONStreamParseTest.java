@@ -0,0 +1,126 @@
+package com.alibaba.json.bvt.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.util.BufferPool;
+
+public class JSONStreamParseTest {
+
+    private static final int CHUNK_SIZE = 1024 * 16;
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test_numbersAcrossRefill() throws Exception {
+        int[] expected = new int[8000];
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = 1234567 + i;
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append(expected[i]);
+        }
+        buf.append(']');
+        Assert.assertTrue(buf.length() > CHUNK_SIZE * 3);
+
+        int[] values = JSON.parseObject(stream(buf.toString()), int[].class);
+        Assert.assertTrue(Arrays.equals(expected, values));
+    }
+
+    @Test
+    public void test_stringAcrossRefill() throws Exception {
+        for (int shift = 0; shift < 4; ++shift) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < CHUNK_SIZE - 3 + shift; ++i) {
+                buf.append('a');
+            }
+            // a 4-byte character and an escape around the first refill
+            buf.append("😀é\\n");
+            for (int i = 0; i < CHUNK_SIZE; ++i) {
+                buf.append((char) ('a' + i % 26));
+            }
+            String literal = buf.toString();
+
+            String value = JSON.parseObject(stream('"' + literal + '"'), String.class);
+            Assert.assertEquals(literal.replace("\\n", "\n"), value);
+        }
+    }
+
+    @Test
+    public void test_syntaxError_releasesBuffer() throws Exception {
+        BufferPool pool = BufferPool.getInstance();
+        CountingPool counting = new CountingPool(pool);
+        BufferPool.setInstance(counting);
+        try {
+            try {
+                JSON.parseObject(stream("[1,2,}"), int[].class);
+                Assert.fail();
+            } catch (JSONException ex) {
+                // expected
+            }
+            Assert.assertTrue(counting.takenBytes > 0);
+            Assert.assertEquals(counting.takenBytes, counting.releasedBytes);
+        } finally {
+            BufferPool.setInstance(pool);
+        }
+    }
+
+    static class CountingPool extends BufferPool {
+
+        private final BufferPool pool;
+        int                      takenBytes;
+        int                      releasedBytes;
+        int                      takenObjects;
+        int                      releasedObjects;
+
+        CountingPool(BufferPool pool){
+            this.pool = pool;
+        }
+
+        public char[] takeChars(int minLength) {
+            return pool.takeChars(minLength);
+        }
+
+        public void releaseChars(char[] buf) {
+            pool.releaseChars(buf);
+        }
+
+        public byte[] takeBytes(int minLength) {
+            takenBytes++;
+            return pool.takeBytes(minLength);
+        }
+
+        public void releaseBytes(byte[] buf) {
+            if (buf != null) {
+                releasedBytes++;
+            }
+            pool.releaseBytes(buf);
+        }
+
+        public Object[] takeObjects(int minLength) {
+            takenObjects++;
+            return pool.takeObjects(minLength);
+        }
+
+        public void releaseObjects(Object[] buf) {
+            if (buf != null) {
+                releasedObjects++;
+            }
+            pool.releaseObjects(buf);
+        }
+
+        public void clear() {
+            pool.clear();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.alibaba.json.bvt.parser;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.parser.JSONLexer;
+import com.alibaba.fastjson.parser.JSONScanner;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.JSONUTF8Scanner;
+
+public class JSONUTF8ScannerTest {
+
+    private static final String[] TEXTS = {
+            "{\"id\":123,\"name\":\"abc\",\"flag\":true,\"none\":null}",
+            "{\"text\":\"caf\u00e9 \u4e2d\u6587 \ud83d\ude00\",\"\u952e\":\"\u503c\"}",
+            "{\"esc\":\"a\\\"b\\\\c\\/d\\n\\t\\u0041\\u00e9\"}",
+            "{\"v\":\"\u4e2d\ud83d\ude00\\n\u00e9\",\"w\":\"\\u4e2d\ud83d\ude00\"}",
+            "[1,-2,3.5,1e3,12345678901234567890,-0.25]",
+            "{\"nested\":{\"list\":[{\"a\":\"\ud83d\ude00x\"},{\"b\":[]}]}}",
+            "  [ \"a\" , \"b\" ]  "
+    };
+
+    private static String tokens(JSONLexer lexer) {
+        StringBuilder buf = new StringBuilder();
+        for (;;) {
+            lexer.nextToken();
+            int token = lexer.token();
+            buf.append(JSONToken.name(token));
+            if (token == JSONToken.LITERAL_STRING) {
+                buf.append('(').append(lexer.stringVal()).append(')');
+            } else if (token == JSONToken.LITERAL_INT || token == JSONToken.LITERAL_FLOAT) {
+                buf.append('(').append(lexer.numberString()).append(')');
+            }
+            buf.append(' ');
+            if (token == JSONToken.EOF || token == JSONToken.ERROR) {
+                return buf.toString();
+            }
+        }
+    }
+
+    @Test
+    public void test_sameTokensAsCharLexer() {
+        for (String text : TEXTS) {
+            JSONScanner expected = new JSONScanner(text);
+            JSONUTF8Scanner actual = new JSONUTF8Scanner(text.getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(text, tokens(expected), tokens(actual));
+            expected.close();
+            actual.close();
+        }
+    }
+
+    @Test
+    public void test_multiByteValues() {
+        JSONUTF8Scanner lexer = new JSONUTF8Scanner("[\"\u00e9t\u00e9\",\"\u4e2d\ud83d\ude00\\n\u00e9\"]".getBytes(StandardCharsets.UTF_8));
+        lexer.nextToken();
+        Assert.assertEquals(JSONToken.LBRACKET, lexer.token());
+        lexer.nextToken();
+        Assert.assertEquals("\u00e9t\u00e9", lexer.stringVal());
+        lexer.nextToken();
+        Assert.assertEquals(JSONToken.COMMA, lexer.token());
+        lexer.nextToken();
+        Assert.assertEquals("\u4e2d\ud83d\ude00\n\u00e9", lexer.stringVal());
+        lexer.close();
+    }
+
+    @Test
+    public void test_bomAndOffset() {
+        byte[] bytes = {'x', (byte) 0xEF, (byte) 0xBB, (byte) 0xBF, '[', '"', 'a', '"', ']', 'y'};
+        JSONUTF8Scanner lexer = new JSONUTF8Scanner(bytes, 1, 8, 0);
+        Assert.assertEquals("[ string(a) ] EOF ", tokens(lexer));
+        lexer.close();
+    }
+
+    @Test
+    public void test_unicodeEscape() {
+        JSONScanner lexer = new JSONScanner("\"x\\u0041y\\u00e9\"");
+        lexer.nextToken();
+        Assert.assertEquals("xAy\u00e9", lexer.stringVal());
+        lexer.close();
+    }
+
+    @Test
+    public void test_plainAfterEscape() {
+        JSONScanner lexer = new JSONScanner("\"ab\\ncd\\tef\"");
+        lexer.nextToken();
+        Assert.assertEquals("ab\ncd\tef", lexer.stringVal());
+        lexer.close();
+    }
+
+    @Test
+    public void test_skipWhitespace_stopsOnPunctuation() {
+        JSONScanner lexer = new JSONScanner("  \t!x");
+        lexer.skipWhitespace();
+        Assert.assertEquals('!', lexer.getCurrent());
+        lexer.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.alibaba.json.bvt.parser;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.util.BufferPool;
+
+public class ParseContextArrayTest {
+
+    private static String nested(int depth, String inner) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < depth; ++i) {
+            buf.append("{\"a\":");
+        }
+        buf.append(inner);
+        for (int i = 0; i < depth; ++i) {
+            buf.append('}');
+        }
+        return buf.toString();
+    }
+
+    @Test
+    public void test_takenFromPool() {
+        BufferPool pool = BufferPool.getInstance();
+        JSONStreamParseTest.CountingPool counting = new JSONStreamParseTest.CountingPool(BufferPool.threadLocal(1024 * 16));
+        BufferPool.setInstance(counting);
+        try {
+            // grows past the first array, the outgrown one goes back to the pool as well
+            Map<?, ?> root = (Map<?, ?>) JSON.parse(nested(1000, "{\"$ref\":\"$\"}"));
+            Object value = root;
+            for (int i = 0; i < 1000; ++i) {
+                value = ((Map<?, ?>) value).get("a");
+            }
+            Assert.assertSame(root, value);
+            Assert.assertTrue(counting.takenObjects > 1);
+            Assert.assertEquals(counting.takenObjects, counting.releasedObjects);
+
+            int taken = counting.takenObjects;
+            JSON.parse(nested(3, "1"));
+            Assert.assertEquals(taken + 1, counting.takenObjects);
+            Assert.assertEquals(counting.takenObjects, counting.releasedObjects);
+        } finally {
+            BufferPool.setInstance(pool);
+        }
+    }
+
+    @Test
+    public void test_releasedCleared() {
+        BufferPool pool = BufferPool.getInstance();
+        BufferPool threadLocal = BufferPool.threadLocal(1024 * 16);
+        BufferPool.setInstance(threadLocal);
+        try {
+            JSON.parse(nested(10, "{\"$ref\":\"$\"}"));
+        } finally {
+            BufferPool.setInstance(pool);
+        }
+
+        Object[] array = threadLocal.takeObjects(8);
+        for (Object item : array) {
+            Assert.assertNull(item);
+        }
+    }
+}
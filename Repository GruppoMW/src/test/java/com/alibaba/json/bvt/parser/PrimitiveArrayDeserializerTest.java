@@ -0,0 +1,117 @@
+package com.alibaba.json.bvt.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.PrimitiveArrayDeserializer;
+
+public class PrimitiveArrayDeserializerTest {
+
+    private static String sequence(int size) {
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < size; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append(i - size / 2);
+        }
+        return buf.append(']').toString();
+    }
+
+    @Test
+    public void test_registered() {
+        ParserConfig config = new ParserConfig();
+        Assert.assertSame(PrimitiveArrayDeserializer.instance, config.getDeserializer(int[].class));
+        Assert.assertSame(PrimitiveArrayDeserializer.instance, config.getDeserializer(double[][].class));
+        Assert.assertFalse(PrimitiveArrayDeserializer.isSupported(byte[].class));
+        Assert.assertFalse(PrimitiveArrayDeserializer.isSupported(char[][].class));
+        Assert.assertFalse(PrimitiveArrayDeserializer.isSupported(Integer[].class));
+    }
+
+    @Test
+    public void test_ints() {
+        Assert.assertArrayEquals(new int[] { 1, -2, 3 }, JSON.parseObject("[1,-2,3]", int[].class));
+        Assert.assertArrayEquals(new int[0], JSON.parseObject("[]", int[].class));
+        Assert.assertNull(JSON.parseObject("null", int[].class));
+
+        // past the initial buffer
+        int[] values = JSON.parseObject(sequence(100), int[].class);
+        Assert.assertEquals(100, values.length);
+        for (int i = 0; i < values.length; ++i) {
+            Assert.assertEquals(i - 50, values[i]);
+        }
+    }
+
+    @Test
+    public void test_convertedElements() {
+        Assert.assertArrayEquals(new int[] { 1, 0, 4 }, JSON.parseObject("[1,null,\"4\"]", int[].class));
+        Assert.assertArrayEquals(new long[] { 0, 7 }, JSON.parseObject("[null,\"7\"]", long[].class));
+        Assert.assertArrayEquals(new double[] { 0, 2.5 }, JSON.parseObject("[null,\"2.5\"]", double[].class), 0);
+    }
+
+    @Test
+    public void test_longs() {
+        Assert.assertArrayEquals(new long[] { Long.MAX_VALUE, Long.MIN_VALUE, 12345678901L, -1 },
+                                 JSON.parseObject("[9223372036854775807,-9223372036854775808,12345678901,-1]",
+                                                  long[].class));
+    }
+
+    @Test
+    public void test_shorts() {
+        Assert.assertArrayEquals(new short[] { 1, -2, Short.MAX_VALUE },
+                                 JSON.parseObject("[1,-2,32767]", short[].class));
+    }
+
+    @Test
+    public void test_doubles() {
+        String[] numbers = { "1", "2.5", "1e3", "-0.25", "1.5E-3", "12345678901234567890", "0" };
+        StringBuilder buf = new StringBuilder("[");
+        double[] expected = new double[numbers.length];
+        for (int i = 0; i < numbers.length; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append(numbers[i]);
+            expected[i] = Double.parseDouble(numbers[i]);
+        }
+        String json = buf.append(']').toString();
+
+        Assert.assertArrayEquals(expected, JSON.parseObject(json, double[].class), 0);
+
+        float[] floats = JSON.parseObject(json, float[].class);
+        Assert.assertEquals(expected.length, floats.length);
+        for (int i = 0; i < expected.length; ++i) {
+            Assert.assertEquals((float) expected[i], floats[i], 0);
+        }
+    }
+
+    @Test
+    public void test_booleans() {
+        Assert.assertArrayEquals(new boolean[] { true, false, true, false, true },
+                                 JSON.parseObject("[true,false,1,0,\"true\"]", boolean[].class));
+    }
+
+    @Test
+    public void test_nested() {
+        int[][] ints = JSON.parseObject("[[1,2],[],null,[3]]", int[][].class);
+        Assert.assertEquals(4, ints.length);
+        Assert.assertArrayEquals(new int[] { 1, 2 }, ints[0]);
+        Assert.assertArrayEquals(new int[0], ints[1]);
+        Assert.assertNull(ints[2]);
+        Assert.assertArrayEquals(new int[] { 3 }, ints[3]);
+
+        double[][][] doubles = JSON.parseObject("[[[1.5]],[[],[2]]]", double[][][].class);
+        Assert.assertEquals(2, doubles.length);
+        Assert.assertArrayEquals(new double[] { 1.5 }, doubles[0][0], 0);
+        Assert.assertArrayEquals(new double[0], doubles[1][0], 0);
+        Assert.assertArrayEquals(new double[] { 2 }, doubles[1][1], 0);
+    }
+
+    @Test(expected = JSONException.class)
+    public void test_unclosed() {
+        JSON.parseObject("[1,2", int[].class);
+    }
+}
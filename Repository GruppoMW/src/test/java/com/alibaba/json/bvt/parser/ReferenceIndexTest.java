@@ -0,0 +1,100 @@
+package com.alibaba.json.bvt.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+public class ReferenceIndexTest {
+
+    public static class Node {
+
+        public int        id;
+        public Node       parent;
+        public Node       self;
+        public Node       root;
+        public Node       peer;
+        public Node[]     children;
+    }
+
+    @Test
+    public void test_paths() {
+        JSONObject object = JSON.parseObject("{\"a\":{\"b\":{\"id\":1}},\"list\":[{\"id\":2},[{\"id\":3}]],"
+                                             + "\"r1\":{\"$ref\":\"$.a.b\"},\"r2\":{\"$ref\":\"$.list[0]\"},"
+                                             + "\"r3\":{\"$ref\":\"$.list[1][0]\"},\"r4\":{\"$ref\":\"$.a\"}}");
+        JSONObject a = object.getJSONObject("a");
+        JSONArray list = object.getJSONArray("list");
+        Assert.assertSame(a.get("b"), object.get("r1"));
+        Assert.assertSame(list.get(0), object.get("r2"));
+        Assert.assertSame(list.getJSONArray(1).get(0), object.get("r3"));
+        Assert.assertSame(a, object.get("r4"));
+    }
+
+    @Test
+    public void test_missing() {
+        JSONObject object = JSON.parseObject("{\"a\":{\"id\":1},\"r1\":{\"$ref\":\"$.b\"},"
+                                             + "\"r2\":{\"$ref\":\"$.a[0]\"},\"r3\":{\"$ref\":\"$.a[01]\"}}");
+        for (String key : new String[] { "r1", "r2", "r3" }) {
+            Assert.assertNull(key, object.get(key));
+        }
+    }
+
+    @Test
+    public void test_namesWithPathChars() {
+        // such a path can be split in another way than it was built, the contexts are scanned for it
+        JSONObject object = JSON.parseObject("{\"a.b\":{\"id\":1},\"a[0]\":{\"id\":2},\"x\":{\"y.z\":{\"id\":3}},"
+                                             + "\"r1\":{\"$ref\":\"$.a.b\"},\"r2\":{\"$ref\":\"$.a[0]\"},"
+                                             + "\"r3\":{\"$ref\":\"$.x.y.z\"}}");
+        Assert.assertSame(object.get("a.b"), object.get("r1"));
+        Assert.assertSame(object.get("a[0]"), object.get("r2"));
+        Assert.assertSame(object.getJSONObject("x").get("y.z"), object.get("r3"));
+
+        // the index still wins where the names are plain
+        object = JSON.parseObject("{\"a\":{\"b\":{\"id\":1}},\"a.b\":{\"id\":2},\"r\":{\"$ref\":\"$.a.b\"}}");
+        Assert.assertSame(object.getJSONObject("a").get("b"), object.get("r"));
+    }
+
+    @Test
+    public void test_relative() {
+        Node node = JSON.parseObject("{\"id\":1,\"peer\":{\"id\":2,\"parent\":{\"$ref\":\"..\"},\"peer\":"
+                                     + "{\"id\":3,\"parent\":{\"$ref\":\"..\"},\"root\":{\"$ref\":\"$\"}},\"self\":"
+                                     + "{\"$ref\":\"@\"}},\"self\":{\"$ref\":\"@\"}}", Node.class);
+        Node peer = node.peer;
+        Assert.assertSame(node, node.self);
+        Assert.assertSame(node, peer.parent);
+        Assert.assertSame(peer, peer.self);
+        Assert.assertSame(peer, peer.peer.parent);
+        Assert.assertSame(node, peer.peer.root);
+    }
+
+    @Test
+    public void test_arrayItems() {
+        // the parent of an item is the array, the items are reached through the paths
+        Node node = JSON.parseObject("{\"children\":[{\"id\":2,\"root\":{\"$ref\":\"$\"}},{\"id\":3,\"peer\":"
+                                     + "{\"$ref\":\"$.children[0]\"},\"self\":{\"$ref\":\"@\"}}],\"id\":1}", Node.class);
+        Node first = node.children[0];
+        Node second = node.children[1];
+        Assert.assertSame(node, first.root);
+        Assert.assertSame(first, second.peer);
+        Assert.assertSame(second, second.self);
+    }
+
+    @Test
+    public void test_serialized() {
+        Node node = new Node();
+        node.id = 1;
+        Node shared = new Node();
+        shared.id = 2;
+        shared.parent = node;
+        node.children = new Node[] { shared, shared };
+        node.peer = shared;
+
+        String text = JSON.toJSONString(node);
+        Node parsed = JSON.parseObject(text, Node.class);
+        Assert.assertSame(text, parsed.children[0], parsed.children[1]);
+        Assert.assertSame(text, parsed.children[0], parsed.peer);
+        Assert.assertSame(text, parsed, parsed.peer.parent);
+    }
+}
@@ -0,0 +1,104 @@
+package com.alibaba.json.bvt.parser;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.SymbolTable;
+
+public class SymbolTableTest {
+
+    private static String add(SymbolTable table, String name) {
+        char[] chars = ("  " + name + "  ").toCharArray();
+        return table.addSymbol(chars, 2, name.length(), name.hashCode());
+    }
+
+    @Test
+    public void test_hit() {
+        SymbolTable table = new SymbolTable(16, 16, true);
+        String first = add(table, "name");
+        Assert.assertEquals("name", first);
+        Assert.assertSame(first, add(table, "name"));
+        Assert.assertSame(first, table.addSymbol("xnamex", 1, 4, "name".hashCode()));
+        Assert.assertEquals(1, table.getMissCount());
+        Assert.assertEquals(2, table.getHitCount());
+    }
+
+    @Test
+    public void test_notInterned() {
+        SymbolTable table = new SymbolTable(16);
+        String symbol = add(table, "name");
+        Assert.assertEquals("name", symbol);
+        Assert.assertNotSame("name", symbol);
+    }
+
+    @Test
+    public void test_bytes() {
+        SymbolTable table = new SymbolTable(16);
+        byte[] ascii = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        String id = table.addSymbol(ascii, 2, 2, "id".hashCode());
+        Assert.assertEquals("id", id);
+        Assert.assertSame(id, add(table, "id"));
+
+        byte[] utf8 = "\"né€\"".getBytes(StandardCharsets.UTF_8);
+        String name = table.addSymbol(utf8, 1, utf8.length - 2, "né€".hashCode());
+        Assert.assertEquals("né€", name);
+        Assert.assertSame(name, add(table, "né€"));
+    }
+
+    @Test
+    public void test_grow() {
+        SymbolTable table = new SymbolTable(4, 4096, true);
+        for (int i = 0; i < 200; ++i) {
+            add(table, "f" + i);
+        }
+        Assert.assertTrue(table.getTableSize() > 4);
+        Assert.assertTrue(table.getTableSize() <= 4096);
+        Assert.assertEquals(0, table.getEvictionCount());
+        Assert.assertEquals(200, table.size());
+    }
+
+    @Test
+    public void test_evictAtMaxSize() {
+        SymbolTable table = new SymbolTable(4, 16, true);
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertEquals("f" + i, add(table, "f" + i));
+        }
+        Assert.assertEquals(16, table.getTableSize());
+        Assert.assertTrue(table.getEvictionCount() > 0);
+        Assert.assertTrue(table.size() <= 16);
+    }
+
+    @Test
+    public void test_pinned() {
+        // the parser compares the special keys by identity, even once they were evicted
+        SymbolTable table = new SymbolTable(4, 4, false);
+        Assert.assertSame("$ref", add(table, "$ref"));
+        Assert.assertSame(JSON.DEFAULT_TYPE_KEY, add(table, JSON.DEFAULT_TYPE_KEY));
+        for (int i = 0; i < 100; ++i) {
+            add(table, "f" + i);
+        }
+        Assert.assertSame("$ref", add(table, "$ref"));
+        byte[] ref = "$ref".getBytes(StandardCharsets.UTF_8);
+        Assert.assertSame("$ref", table.addSymbol(ref, 0, ref.length, "$ref".hashCode()));
+
+        String typeKey = new String("type".toCharArray());
+        Assert.assertSame(typeKey, table.addSymbol(typeKey, 0, 4, typeKey.hashCode(), true));
+        for (int i = 0; i < 100; ++i) {
+            add(table, "g" + i);
+        }
+        Assert.assertSame(typeKey, add(table, "type"));
+    }
+
+    @Test
+    public void test_statsDisabled() {
+        SymbolTable table = new SymbolTable(16);
+        add(table, "a");
+        add(table, "a");
+        Assert.assertEquals(0, table.getHitCount());
+        Assert.assertEquals(0, table.getMissCount());
+        Assert.assertEquals(1.0, table.getHitRate(), 0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.alibaba.json.bvt.parser;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ASMDeserializerFactory;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.parser.deserializer.TieredJavaBeanDeserializer;
+import com.alibaba.fastjson.util.ASMClassLoader;
+import com.alibaba.fastjson.util.JavaBeanInfo;
+
+public class TieredJavaBeanDeserializerTest {
+
+    private static final String JSON_TEXT = "{\"id\":7,\"name\":\"seven\"}";
+
+    public static class Bean {
+
+        public int    id;
+        public String name;
+    }
+
+    private static void assertBean(Bean bean) {
+        Assert.assertEquals(7, bean.id);
+        Assert.assertEquals("seven", bean.name);
+    }
+
+    private static Bean read(ObjectDeserializer deserializer, ParserConfig config) {
+        DefaultJSONParser parser = new DefaultJSONParser(JSON_TEXT, config);
+        try {
+            return deserializer.deserialze(parser, Bean.class, null);
+        } finally {
+            parser.close();
+        }
+    }
+
+    @Test
+    public void test_promotedAtThreshold() {
+        ParserConfig config = new ParserConfig();
+        config.setTieredCompilation(3, false);
+
+        ObjectDeserializer first = config.getDeserializer(Bean.class);
+        Assert.assertTrue(first instanceof TieredJavaBeanDeserializer);
+        TieredJavaBeanDeserializer tier = (TieredJavaBeanDeserializer) first;
+
+        for (int i = 1; i < 3; ++i) {
+            assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+            Assert.assertFalse(tier.isPromoted());
+            Assert.assertSame(tier, config.getDeserializer(Bean.class));
+        }
+        Assert.assertEquals(Integer.valueOf(2), config.getTieredCounts().get(Bean.class));
+
+        assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+        Assert.assertTrue(tier.isPromoted());
+        Assert.assertEquals(Integer.valueOf(3), config.getTieredCounts().get(Bean.class));
+
+        ObjectDeserializer promoted = config.getDeserializer(Bean.class);
+        Assert.assertNotSame(tier, promoted);
+        Assert.assertFalse(promoted instanceof TieredJavaBeanDeserializer);
+        assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+    }
+
+    @Test
+    public void test_oldInstanceForwarded() {
+        ParserConfig config = new ParserConfig();
+        config.setTieredCompilation(1, false);
+
+        TieredJavaBeanDeserializer tier = (TieredJavaBeanDeserializer) config.getDeserializer(Bean.class);
+        assertBean(read(tier, config));
+        Assert.assertTrue(tier.isPromoted());
+
+        // parsers still holding the tier go to the generated deserializer, the tier no longer counts them
+        for (int i = 0; i < 3; ++i) {
+            assertBean(read(tier, config));
+        }
+        Assert.assertEquals(1, tier.getInvocationCount());
+    }
+
+    @Test
+    public void test_asyncPromotion() throws Exception {
+        ParserConfig config = new ParserConfig();
+        config.setTieredCompilation(2, true);
+
+        TieredJavaBeanDeserializer tier = (TieredJavaBeanDeserializer) config.getDeserializer(Bean.class);
+        assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+        assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+
+        for (int i = 0; i < 500 && !tier.isPromoted(); ++i) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(tier.isPromoted());
+        Assert.assertFalse(config.getDeserializer(Bean.class) instanceof TieredJavaBeanDeserializer);
+        assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+    }
+
+    @Test
+    public void test_failedGenerationStaysReflective() {
+        ASMDeserializerFactory factory = new ASMDeserializerFactory(new ASMClassLoader()) {
+
+            public ObjectDeserializer createJavaBeanDeserializer(ParserConfig config,
+                                                                 JavaBeanInfo beanInfo) throws Exception {
+                throw new IllegalStateException("generation failed");
+            }
+        };
+        ParserConfig config = new ParserConfig(factory);
+        config.setTieredCompilation(2, false);
+
+        TieredJavaBeanDeserializer tier = (TieredJavaBeanDeserializer) config.getDeserializer(Bean.class);
+        for (int i = 0; i < 5; ++i) {
+            assertBean(JSON.<Bean> parseObject(JSON_TEXT, Bean.class, config));
+        }
+        Assert.assertFalse(tier.isPromoted());
+        Assert.assertSame(tier, config.getDeserializer(Bean.class));
+        Assert.assertEquals(5, tier.getInvocationCount());
+    }
+
+    @Test
+    public void test_weakTiers() throws Exception {
+        // a tier nobody holds any more is not listed
+        ParserConfig config = new ParserConfig();
+        config.setTieredCompilation(10, false);
+        Assert.assertTrue(config.createJavaBeanDeserializer(Bean.class, Bean.class) instanceof TieredJavaBeanDeserializer);
+        Assert.assertTrue(config.getTieredCounts().containsKey(Bean.class));
+
+        for (int i = 0; i < 100 && config.getTieredCounts().containsKey(Bean.class); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(config.getTieredCounts().containsKey(Bean.class));
+    }
+}
@@ -0,0 +1,206 @@
+package com.alibaba.json.bvt.parser;
+
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.ASMDeserializerFactory;
+import com.alibaba.fastjson.parser.deserializer.JavaBeanDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SpecializedJavaBeanSerializer;
+
+public class WideBeanCodecTest {
+
+    private static final int[] WIDTHS = { 127, 128, 129, 300, ASMDeserializerFactory.MAX_FIELDS,
+            ASMDeserializerFactory.MAX_FIELDS + 1 };
+
+    private static Path        dir;
+    private static Class<?>[]  beans;
+
+    /**
+     * compiles beans of int fields f0..fn and defines them next to this test, where the generated codecs can see them
+     */
+    @BeforeClass
+    public static void setUp() throws Exception {
+        dir = Files.createTempDirectory("wide-bean");
+        File[] files = new File[WIDTHS.length];
+        for (int i = 0; i < WIDTHS.length; ++i) {
+            StringBuilder source = new StringBuilder();
+            source.append("package com.alibaba.json.bvt.parser;\n\npublic class WideBean").append(WIDTHS[i])
+                  .append(" {\n");
+            for (int j = 0; j < WIDTHS[i]; ++j) {
+                source.append("    public int f").append(j).append(";\n");
+            }
+            source.append("}\n");
+
+            files[i] = dir.resolve("WideBean" + WIDTHS[i] + ".java").toFile();
+            Files.write(files[i].toPath(), source.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        String[] args = new String[files.length + 2];
+        args[0] = "-d";
+        args[1] = dir.toString();
+        for (int i = 0; i < files.length; ++i) {
+            args[i + 2] = files[i].getPath();
+        }
+        Assert.assertEquals(0, compiler.run(null, null, null, args));
+
+        beans = new Class<?>[WIDTHS.length];
+        for (int i = 0; i < WIDTHS.length; ++i) {
+            Path file = dir.resolve("com/alibaba/json/bvt/parser/WideBean" + WIDTHS[i] + ".class");
+            beans[i] = MethodHandles.lookup().defineClass(Files.readAllBytes(file));
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        delete(dir.toFile());
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static Object newBean(Class<?> clazz) throws Exception {
+        Object bean = clazz.getDeclaredConstructor().newInstance();
+        Field[] fields = clazz.getFields();
+        for (Field field : fields) {
+            int index = Integer.parseInt(field.getName().substring(1));
+            field.setInt(bean, index * 31 - 500);
+        }
+        return bean;
+    }
+
+    private static void assertBean(Class<?> clazz, Object bean) throws Exception {
+        Assert.assertSame(clazz, bean.getClass());
+        for (Field field : clazz.getFields()) {
+            int index = Integer.parseInt(field.getName().substring(1));
+            Assert.assertEquals(field.getName(), index * 31 - 500, field.getInt(bean));
+        }
+    }
+
+    private static boolean hasMethod(Class<?> clazz, String name) {
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SerializeConfig serializeConfig(boolean asm) {
+        SerializeConfig config = new SerializeConfig();
+        config.setAsmEnable(asm);
+        return config;
+    }
+
+    private static ParserConfig parserConfig(boolean asm) {
+        ParserConfig config = new ParserConfig();
+        config.setAsmEnable(asm);
+        return config;
+    }
+
+    @Test
+    public void test_generatedCodecs() {
+        for (int i = 0; i < WIDTHS.length; ++i) {
+            int width = WIDTHS[i];
+            // the serializer writes getClass as well
+            int getters = width + 1;
+            boolean asm = getters <= ASMDeserializerFactory.MAX_FIELDS;
+            boolean split = asm && getters > 128;
+
+            ObjectSerializer serializer = serializeConfig(true).getObjectWriter(beans[i]);
+            if (serializer instanceof SpecializedJavaBeanSerializer) {
+                serializer = ((SpecializedJavaBeanSerializer) serializer).getGeneric();
+            }
+            Assert.assertEquals(String.valueOf(width), asm, serializer.getClass() != JavaBeanSerializer.class);
+            Assert.assertEquals(String.valueOf(width), split, hasMethod(serializer.getClass(), "Fields_"));
+
+            asm = width <= ASMDeserializerFactory.MAX_FIELDS;
+            split = asm && width > 128;
+            ObjectDeserializer deserializer = parserConfig(true).getDeserializer(beans[i]);
+            Assert.assertEquals(String.valueOf(width), asm, deserializer.getClass() != JavaBeanDeserializer.class);
+            Assert.assertEquals(String.valueOf(width), split, hasMethod(deserializer.getClass(), "deserialzeFields_"));
+        }
+    }
+
+    @Test
+    public void test_roundTrip() throws Exception {
+        for (Class<?> clazz : beans) {
+            Object bean = newBean(clazz);
+            String text = JSON.toJSONString(bean, serializeConfig(true));
+            Assert.assertEquals(JSON.toJSONString(bean, serializeConfig(false)), text);
+            // the fields and the class name of getClass
+            Assert.assertEquals(text, clazz.getFields().length + 1, text.split(",").length);
+
+            for (boolean asm : new boolean[] { true, false }) {
+                assertBean(clazz, JSON.parseObject(text, clazz, parserConfig(asm)));
+            }
+        }
+    }
+
+    @Test
+    public void test_outOfOrder() throws Exception {
+        for (Class<?> clazz : beans) {
+            Field[] fields = clazz.getFields();
+            String[] pairs = new String[fields.length];
+            for (int j = 0; j < fields.length; ++j) {
+                int index = Integer.parseInt(fields[j].getName().substring(1));
+                pairs[j] = "\"f" + index + "\":" + (index * 31 - 500);
+            }
+            Arrays.sort(pairs);
+            StringBuilder text = new StringBuilder("{");
+            for (int j = pairs.length - 1; j >= 0; --j) {
+                text.append(pairs[j]).append(j == 0 ? "}" : ",");
+            }
+
+            assertBean(clazz, JSON.parseObject(text.toString(), clazz, parserConfig(true)));
+        }
+    }
+
+    @Test
+    public void test_beanToArray() throws Exception {
+        for (Class<?> clazz : beans) {
+            Object bean = newBean(clazz);
+            String text = JSON.toJSONString(bean, serializeConfig(true), SerializerFeature.BEAN_TO_ARRAY);
+            Assert.assertEquals(JSON.toJSONString(bean, serializeConfig(false), SerializerFeature.BEAN_TO_ARRAY),
+                                text);
+            Assert.assertTrue(text, text.startsWith("[") && text.endsWith("]"));
+            // the fields and the class name of getClass
+            Assert.assertEquals(text, clazz.getFields().length + 1, text.split(",").length);
+
+            // the class name leads the array, the deserializer has no property for it
+            text = "[" + text.substring(text.indexOf(',') + 1);
+            for (boolean asm : new boolean[] { true, false }) {
+                assertBean(clazz, JSON.parseObject(text, clazz, parserConfig(asm), Feature.SUPPORT_ARRAY_TO_BEAN));
+            }
+        }
+    }
+}
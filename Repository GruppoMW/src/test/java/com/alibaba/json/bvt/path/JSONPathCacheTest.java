@@ -0,0 +1,59 @@
+package com.alibaba.json.bvt.path;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSONPath;
+import com.alibaba.fastjson.JSONPathCache;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+public class JSONPathCacheTest {
+
+    @Test
+    public void test_hit() {
+        JSONPathCache cache = new JSONPathCache(16);
+        ParserConfig config = new ParserConfig();
+        JSONPath path = cache.compile("$.a.b", true, config);
+        Assert.assertSame(path, cache.compile("$.a.b", true, config));
+        Assert.assertNotSame(path, cache.compile("$.a.b", false, config));
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void test_sharedBetweenConfigs() {
+        JSONPathCache cache = new JSONPathCache(16);
+        ParserConfig config1 = new ParserConfig();
+        ParserConfig config2 = new ParserConfig();
+        config1.setJSONPathCache(cache);
+        config2.setJSONPathCache(cache);
+
+        JSONPath path1 = JSONPath.compile("$.a", true, config1);
+        JSONPath path2 = JSONPath.compile("$.a", true, config2);
+        Assert.assertNotSame(path1, path2);
+        Assert.assertSame(path1, JSONPath.compile("$.a", true, config1));
+        Assert.assertSame(path2, JSONPath.compile("$.a", true, config2));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void test_eviction() {
+        JSONPathCache cache = new JSONPathCache(64);
+        ParserConfig config = new ParserConfig();
+        JSONPath hot = cache.compile("$.hot", true, config);
+        for (int i = 0; i < 200; ++i) {
+            cache.compile("$.p" + i, true, config);
+            Assert.assertSame(hot, cache.compile("$.hot", true, config));
+        }
+        Assert.assertEquals(64, cache.size());
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void test_disabled() {
+        JSONPathCache cache = new JSONPathCache(0);
+        ParserConfig config = new ParserConfig();
+        Assert.assertNotSame(cache.compile("$.a", true, config), cache.compile("$.a", true, config));
+        Assert.assertEquals(0, cache.size());
+    }
+}
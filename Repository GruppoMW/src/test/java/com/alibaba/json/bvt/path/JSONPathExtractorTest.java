@@ -0,0 +1,100 @@
+package com.alibaba.json.bvt.path;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONPath;
+import com.alibaba.fastjson.JSONPathExtractor;
+
+public class JSONPathExtractorTest {
+
+    private static final String[] DOCUMENTS = {
+            "{\"a\":1,\"b\":{\"c\":true,\"d\":[10,20,{\"e\":30}]},\"f\":[[1,2],[3]],\"g\":null}",
+            "{\"b\":[{\"c\":1},{\"c\":2,\"d\":[5]},{\"x\":0}],\"a\":[1,2]}",
+            "{\"a\":{\"b\":{\"c\":{\"d\":4}}},\"f\":{}}",
+            "[{\"a\":1},{\"a\":2},3]",
+            "{}",
+            "[]",
+            "5",
+            "null" };
+
+    private static final String[] PATHS = {
+            "$.a", "$.b", "$.b.c", "$.b.d", "$.b.d[0]", "$.b.d[2].e", "$.b.d[9]", "$.b[1].c", "$.b[1].d[0]",
+            "$.b.c.x", "$.f[0][1]", "$.f[1][0]", "$.g", "$.missing", "$.a.b.c.d", "$[0].a", "$[2]", "$[1]", "$.b.x" };
+
+    @Test
+    public void test_sameAsEval() {
+        for (String json : DOCUMENTS) {
+            Object document = JSON.parse(json);
+
+            // each path on its own, then every path in one scan
+            for (String path : PATHS) {
+                Object[] values = new JSONPathExtractor(path).extract(json);
+                Assert.assertEquals(path + " on " + json, JSONPath.eval(document, path), values[0]);
+            }
+
+            Object[] values = new JSONPathExtractor(PATHS).extract(json);
+            for (int i = 0; i < PATHS.length; ++i) {
+                Assert.assertEquals(PATHS[i] + " on " + json, JSONPath.eval(document, PATHS[i]), values[i]);
+            }
+        }
+    }
+
+    @Test
+    public void test_duplicateKey() {
+        // the repeated key sets the result again, the scan goes on to the other path
+        String json = "{\"a\":1,\"a\":2,\"b\":7}";
+        Object[] values = new JSONPathExtractor("$.a", "$.b").extract(json);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.a"), values[0]);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.b"), values[1]);
+        Assert.assertNotNull(values[1]);
+
+        // a repeated key below a known result
+        json = "{\"a\":{\"x\":1,\"x\":2},\"b\":7}";
+        values = new JSONPathExtractor("$.a.x", "$.b").extract(json);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.a.x"), values[0]);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.b"), values[1]);
+    }
+
+    @Test
+    public void test_propertyOnArray() {
+        String json = "{\"items\":[{\"id\":1},{\"id\":2},{\"name\":0}]}";
+        Object[] values = new JSONPathExtractor("$.items.id").extract(json);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.items.id"), values[0]);
+        Assert.assertEquals(2, ((List<?>) values[0]).size());
+    }
+
+    @Test
+    public void test_parsedWhenNotSimple() {
+        String json = "{\"a\":[{\"b\":1},{\"b\":2}],\"c\":3}";
+        Object[] values = new JSONPathExtractor("$.a[*].b", "$.c").extract(json);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.a[*].b"), values[0]);
+        Assert.assertEquals(JSONPath.eval(JSON.parse(json), "$.c"), values[1]);
+    }
+
+    @Test
+    public void test_stopsOnceKnown() {
+        // the text after the results is not read
+        Object[] values = new JSONPathExtractor("$.a").extract("{\"a\":true,\"b\":");
+        Assert.assertEquals(Boolean.TRUE, values[0]);
+    }
+
+    @Test
+    public void test_bytes() {
+        byte[] utf8 = "{\"a\":{\"b\":{\"c\":\"é€\"},\"d\":true}}".getBytes(StandardCharsets.UTF_8);
+        Object[] values = new JSONPathExtractor("$.a.b.c", "$.a.d") //
+            .extract(utf8, 0, utf8.length, JSON.DEFAULT_PARSER_FEATURE);
+        Assert.assertEquals("é€", values[0]);
+        Assert.assertEquals(Boolean.TRUE, values[1]);
+    }
+
+    @Test
+    public void test_extractAsMap() {
+        Assert.assertEquals(Boolean.FALSE,
+                            new JSONPathExtractor("$.a.b").extractAsMap("{\"a\":{\"b\":false}}").get("$.a.b"));
+    }
+}
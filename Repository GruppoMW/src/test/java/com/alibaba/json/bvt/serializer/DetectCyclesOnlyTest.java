@@ -0,0 +1,107 @@
+package com.alibaba.json.bvt.serializer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+public class DetectCyclesOnlyTest {
+
+    public static class Node {
+
+        public int    id;
+        public Node   parent;
+        public Node   peer;
+        public Node[] children;
+    }
+
+    private static Node node(int id) {
+        Node node = new Node();
+        node.id = id;
+        return node;
+    }
+
+    @Test
+    public void test_shared() {
+        JSONObject shared = new JSONObject();
+        shared.put("id", 2);
+        JSONObject c = new JSONObject();
+        c.put("d", shared);
+        JSONObject object = new JSONObject(true);
+        object.put("a", shared);
+        object.put("b", shared);
+        object.put("c", c);
+
+        Assert.assertEquals("{\"a\":{\"id\":2},\"b\":{\"$ref\":\"$.a\"},\"c\":{\"d\":{\"$ref\":\"$.a\"}}}",
+                            JSON.toJSONString(object));
+        // a subobject that is no ancestor of itself is written again
+        Assert.assertEquals("{\"a\":{\"id\":2},\"b\":{\"id\":2},\"c\":{\"d\":{\"id\":2}}}",
+                            JSON.toJSONString(object, SerializerFeature.DETECT_CYCLES_ONLY));
+    }
+
+    @Test
+    public void test_sharedBean() {
+        Node root = node(1);
+        Node first = node(2);
+        Node second = node(3);
+        second.peer = first;
+        root.children = new Node[] { first, second };
+        root.peer = first;
+
+        String text = JSON.toJSONString(root, SerializerFeature.DETECT_CYCLES_ONLY);
+        Assert.assertFalse(text, text.contains("$ref"));
+
+        Node parsed = JSON.parseObject(text, Node.class);
+        Assert.assertEquals(2, parsed.peer.id);
+        Assert.assertEquals(2, parsed.children[0].id);
+        Assert.assertEquals(2, parsed.children[1].peer.id);
+        Assert.assertNotSame(parsed.peer, parsed.children[0]);
+        Assert.assertNotSame(parsed.children[0], parsed.children[1].peer);
+    }
+
+    @Test
+    public void test_cycles() {
+        JSONObject root = new JSONObject(true);
+        JSONObject a = new JSONObject(true);
+        JSONObject b = new JSONObject(true);
+        JSONObject c = new JSONObject(true);
+        root.put("a", a);
+        a.put("b", b);
+        b.put("c", c);
+        c.put("self", c);
+        c.put("parent", b);
+        c.put("up", a);
+        c.put("root", root);
+
+        String expected = "{\"a\":{\"b\":{\"c\":{\"self\":{\"$ref\":\"@\"},\"parent\":{\"$ref\":\"..\"},"
+                          + "\"up\":{\"$ref\":\"$.a\"},\"root\":{\"$ref\":\"$\"}}}}}";
+        Assert.assertEquals(expected, JSON.toJSONString(root));
+        Assert.assertEquals(expected, JSON.toJSONString(root, SerializerFeature.DETECT_CYCLES_ONLY));
+    }
+
+    @Test
+    public void test_cyclesBean() {
+        Node a = node(1);
+        Node b = node(2);
+        Node c = node(3);
+        a.peer = b;
+        b.parent = a;
+        b.peer = c;
+        c.parent = b;
+        c.peer = c;
+        c.children = new Node[] { a, b };
+
+        String text = JSON.toJSONString(a, SerializerFeature.DETECT_CYCLES_ONLY);
+        Assert.assertEquals(JSON.toJSONString(a), text);
+
+        Node parsed = JSON.parseObject(text, Node.class);
+        Node peer = parsed.peer;
+        Assert.assertSame(parsed, peer.parent);
+        Assert.assertSame(peer, peer.peer.parent);
+        Assert.assertSame(peer.peer, peer.peer.peer);
+        Assert.assertSame(parsed, peer.peer.children[0]);
+        Assert.assertSame(peer, peer.peer.children[1]);
+    }
+}
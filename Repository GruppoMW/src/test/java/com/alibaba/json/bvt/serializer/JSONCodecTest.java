@@ -0,0 +1,158 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONCodec;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.NameFilter;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.ValueFilter;
+import com.alibaba.fastjson.support.config.FastJsonConfig;
+
+public class JSONCodecTest {
+
+    public static class Model {
+
+        public int    id;
+        public String name;
+    }
+
+    private static Model model(int id, String name) {
+        Model model = new Model();
+        model.id = id;
+        model.name = name;
+        return model;
+    }
+
+    private static final NameFilter  UPPER = new NameFilter() {
+
+        public String process(Object object, String name, Object value) {
+            return name.toUpperCase();
+        }
+    };
+
+    private static final ValueFilter MASK  = new ValueFilter() {
+
+        public Object process(Object object, String name, Object value) {
+            return value instanceof String ? "***" : value;
+        }
+    };
+
+    @Test
+    public void test_roundTrip() throws Exception {
+        JSONCodec codec = JSONCodec.of(Model.class);
+        Model model = model(1, "a\"😀");
+
+        String text = codec.toJSONString(model);
+        Assert.assertEquals(JSON.toJSONString(model), text);
+        Assert.assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), codec.toJSONBytes(model));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int length = codec.writeTo(out, model);
+        Assert.assertEquals(out.size(), length);
+        Assert.assertEquals(text, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        Model parsed = codec.parseObject(text);
+        Assert.assertEquals(1, parsed.id);
+        Assert.assertEquals("a\"😀", parsed.name);
+        parsed = codec.parseObject(codec.toJSONBytes(model));
+        Assert.assertEquals("a\"😀", parsed.name);
+    }
+
+    @Test
+    public void test_with() {
+        JSONCodec codec = JSONCodec.of(Model.class);
+        Model model = model(1, "a");
+        String text = codec.toJSONString(model);
+
+        JSONCodec pretty = codec.withFeatures(SerializerFeature.PRETTY_FORMAT);
+        Assert.assertNotSame(codec, pretty);
+        Assert.assertEquals(JSON.toJSONString(model, SerializerFeature.PRETTY_FORMAT), pretty.toJSONString(model));
+        Assert.assertSame(pretty, pretty.withFeatures(SerializerFeature.PRETTY_FORMAT));
+
+        JSONCodec filtered = codec.withFilters(UPPER);
+        Assert.assertNotSame(codec, filtered);
+        Assert.assertEquals(JSON.toJSONString(model, UPPER), filtered.toJSONString(model));
+        Assert.assertEquals(JSON.toJSONString(model, new SerializeFilter[] { UPPER, MASK }),
+                            filtered.withFilters(MASK).toJSONString(model));
+        Assert.assertSame(codec, codec.withFilters());
+
+        JSONCodec map = codec.withType(Map.class);
+        Assert.assertEquals(Map.class, map.getType());
+        Assert.assertSame(codec, codec.withType(Model.class));
+        Assert.assertEquals("{\"id\":1}", map.toJSONString(Collections.singletonMap("id", 1)));
+        Assert.assertEquals(1, ((Map<?, ?>) map.parseObject("{\"id\":1}")).get("id"));
+
+        // the codec the with methods start from is left as it is
+        Assert.assertEquals(Model.class, codec.getType());
+        Assert.assertEquals(JSON.DEFAULT_GENERATE_FEATURE, codec.getSerializerFeatures());
+        Assert.assertEquals(text, codec.toJSONString(model));
+    }
+
+    @Test
+    public void test_filtersFixed() {
+        SerializeFilter[] filters = { UPPER };
+        JSONCodec codec = JSONCodec.of(Model.class).withFilters(filters);
+        Model model = model(1, "a");
+        String text = codec.toJSONString(model);
+
+        // neither the array given nor a serializer using the filters change the codec
+        filters[0] = MASK;
+        Assert.assertEquals(text, codec.toJSONString(model));
+
+        JSONSerializer template = new JSONSerializer((SerializeWriter) null, SerializeConfig.getGlobalInstance());
+        template.addFilter(UPPER);
+        SerializeWriter out = new SerializeWriter();
+        try {
+            JSONSerializer serializer = new JSONSerializer(out);
+            serializer.useFilters(template);
+            serializer.addFilter(MASK);
+            serializer.getNameFilters().clear();
+            serializer.write(model);
+            Assert.assertEquals(JSON.toJSONString(model, MASK), out.toString());
+        } finally {
+            out.close();
+        }
+        Assert.assertEquals(Collections.singletonList(UPPER), template.getNameFilters());
+        Assert.assertTrue(template.getValueFilters().isEmpty());
+    }
+
+    @Test
+    public void test_configCodec() {
+        FastJsonConfig config = new FastJsonConfig();
+        JSONCodec codec = config.getCodec(Model.class);
+        Assert.assertSame(codec, config.getCodec(Model.class));
+        Assert.assertNotSame(codec, config.getCodec(Map.class));
+
+        Model model = model(1, "a");
+        config.setSerializerFeatures(SerializerFeature.PRETTY_FORMAT);
+        JSONCodec pretty = config.getCodec(Model.class);
+        Assert.assertNotSame(codec, pretty);
+        Assert.assertEquals(JSON.toJSONString(model, SerializerFeature.PRETTY_FORMAT), pretty.toJSONString(model));
+        Assert.assertSame(pretty, config.getCodec(Model.class));
+
+        config.setSerializeFilters(UPPER);
+        JSONCodec filtered = config.getCodec(Model.class);
+        Assert.assertNotSame(pretty, filtered);
+        Assert.assertEquals(JSON.toJSONString(model, UPPER, SerializerFeature.PRETTY_FORMAT),
+                            filtered.toJSONString(model));
+
+        config.setCharset(StandardCharsets.UTF_16);
+        Assert.assertEquals(StandardCharsets.UTF_16, config.getCodec(Model.class).getCharset());
+        Assert.assertArrayEquals(filtered.toJSONString(model).getBytes(StandardCharsets.UTF_16),
+                                 config.getCodec(Model.class).toJSONBytes(model));
+
+        // the codecs built before keep their settings
+        Assert.assertEquals(JSON.toJSONString(model), codec.toJSONString(model));
+    }
+}
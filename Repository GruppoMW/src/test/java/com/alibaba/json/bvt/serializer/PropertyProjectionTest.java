@@ -0,0 +1,81 @@
+package com.alibaba.json.bvt.serializer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.PropertyProjection;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+
+public class PropertyProjectionTest {
+
+    private static final PropertyProjection PROJECTION = new PropertyProjection(new SimplePropertyPreFilter(Inner.class,
+                                                                                                            "x"));
+
+    private static SerializeConfig config(boolean asm) {
+        SerializeConfig config = new SerializeConfig();
+        config.setAsmEnable(asm);
+        return config;
+    }
+
+    private static String plain(SerializeConfig config) {
+        return JSON.toJSONString(new Outer(), config);
+    }
+
+    private static String projected(SerializeConfig config) {
+        return JSON.toJSONString(new Outer(), config, PROJECTION);
+    }
+
+    @Test
+    public void test_projectedThenPlain() {
+        for (boolean asm : new boolean[] { true, false }) {
+            String expectedPlain = plain(config(asm));
+            String expectedProjected = projected(config(asm));
+            Assert.assertTrue(expectedPlain.contains("\"y\""));
+            Assert.assertFalse(expectedProjected.contains("\"y\""));
+
+            SerializeConfig config = config(asm);
+            Assert.assertEquals(expectedProjected, projected(config));
+            Assert.assertEquals(expectedPlain, plain(config));
+            Assert.assertEquals(expectedProjected, projected(config));
+        }
+    }
+
+    @Test
+    public void test_plainThenProjected() {
+        for (boolean asm : new boolean[] { true, false }) {
+            String expectedPlain = plain(config(asm));
+            String expectedProjected = projected(config(asm));
+
+            SerializeConfig config = config(asm);
+            Assert.assertEquals(expectedPlain, plain(config));
+            Assert.assertEquals(expectedProjected, projected(config));
+            Assert.assertEquals(expectedPlain, plain(config));
+        }
+    }
+
+    public static class Inner {
+
+        public int getX() {
+            return 1;
+        }
+
+        public int getY() {
+            return 2;
+        }
+    }
+
+    public static class Outer {
+
+        private final Inner in = new Inner();
+
+        public int getA() {
+            return 3;
+        }
+
+        public Inner getIn() {
+            return in;
+        }
+    }
+}
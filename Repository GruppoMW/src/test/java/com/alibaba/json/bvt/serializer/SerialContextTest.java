@@ -0,0 +1,57 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.PropertyPreFilter;
+import com.alibaba.fastjson.serializer.SerialContext;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+public class SerialContextTest {
+
+    @Test
+    public void test_publicFieldsFinal() {
+        for (Field field : SerialContext.class.getDeclaredFields()) {
+            if (Modifier.isPublic(field.getModifiers())) {
+                Assert.assertTrue(field.getName(), Modifier.isFinal(field.getModifiers()));
+            }
+        }
+    }
+
+    @Test
+    public void test_contextKeptAfterWrite() {
+        JSONObject tree = JSON.parseObject("{\"a\":{\"b\":{\"c\":1}},\"d\":{\"e\":{\"f\":2}}}");
+
+        final List<SerialContext> contexts = new ArrayList<SerialContext>();
+        final List<Object> objects = new ArrayList<Object>();
+        final List<String> paths = new ArrayList<String>();
+        PropertyPreFilter filter = new PropertyPreFilter() {
+
+            public boolean apply(JSONSerializer serializer, Object object, String name) {
+                SerialContext context = serializer.getContext();
+                contexts.add(context);
+                objects.add(context.object);
+                paths.add(context.toString());
+                return true;
+            }
+        };
+
+        // writes of other documents on the thread do not change the contexts seen before
+        JSON.toJSONString(tree, filter, SerializerFeature.DETECT_CYCLES_ONLY);
+        JSON.toJSONString(JSON.parseObject("{\"x\":{\"y\":{\"z\":3}}}"), SerializerFeature.DETECT_CYCLES_ONLY);
+
+        Assert.assertFalse(contexts.isEmpty());
+        for (int i = 0; i < contexts.size(); ++i) {
+            Assert.assertSame(objects.get(i), contexts.get(i).object);
+            Assert.assertEquals(paths.get(i), contexts.get(i).getPath());
+        }
+    }
+}
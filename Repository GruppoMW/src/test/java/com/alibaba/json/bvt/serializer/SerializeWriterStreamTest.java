@@ -0,0 +1,53 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.util.IOUtils;
+
+public class SerializeWriterStreamTest {
+
+    private static String emojiText() {
+        StringBuilder buf = new StringBuilder("x");
+        for (int i = 0; i < 5000; ++i) {
+            buf.append("ab😀");
+        }
+        return buf.toString();
+    }
+
+    @Test
+    public void test_surrogatePairAcrossBuffers() {
+        // every flush of the char buffer splits a pair somewhere in the text
+        for (int shift = 0; shift < 4; ++shift) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < shift; ++i) {
+                buf.append('-');
+            }
+            String text = buf.append(emojiText()).toString();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SerializeWriter out = new SerializeWriter(bytes, IOUtils.UTF8, 0)) {
+                out.write(text);
+            }
+            Assert.assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+        }
+    }
+
+    @Test
+    public void test_streaming() throws Exception {
+        String text = emojiText();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JSON.writeJSONStringStreaming(bytes, IOUtils.UTF8, text, SerializeConfig.globalInstance, null, null,
+                                      JSON.DEFAULT_GENERATE_FEATURE);
+
+        byte[] expected = ('"' + text + '"').getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(30003, expected.length);
+        Assert.assertArrayEquals(expected, bytes.toByteArray());
+    }
+}
@@ -0,0 +1,151 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.util.IOUtils;
+
+public class SerializeWriterUTF8BytesTest {
+
+    private static final String[] TEXTS = { "", "ascii", "中文", "😀", "a😀b", "é😀中x", "a\"b\\c/d", "\n\r\t\b\f",
+            "\u0001\u001f\u007f", "\u2028\u2029", "<script>'x'</script>" };
+
+    public static class Bean {
+
+        public boolean ok;
+        public int     id;
+        public long    ts;
+        public String  name;
+    }
+
+    private static Bean bean(String name) {
+        Bean bean = new Bean();
+        bean.ok = true;
+        bean.id = -7;
+        bean.ts = Long.MIN_VALUE;
+        bean.name = name;
+        return bean;
+    }
+
+    private static String longText() {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 4000; ++i) {
+            buf.append("ab中😀\"\n").append(i);
+        }
+        return buf.toString();
+    }
+
+    private static void assertBytes(Object object, SerializerFeature... features) throws Exception {
+        byte[] expected = JSON.toJSONString(object, features).getBytes(StandardCharsets.UTF_8);
+        Assert.assertArrayEquals(new String(expected, StandardCharsets.UTF_8), expected,
+                                 JSON.toJSONBytes(object, features));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int length = JSON.writeJSONStringWithFastJsonConfig(out, IOUtils.UTF8, object, SerializeConfig.globalInstance,
+                                                            null, null, JSON.DEFAULT_GENERATE_FEATURE, features);
+        Assert.assertEquals(expected.length, length);
+        Assert.assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void test_strings() throws Exception {
+        for (String text : TEXTS) {
+            assertBytes(text);
+            assertBytes(bean(text));
+
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            map.put(text, text);
+            map.put("id", 1);
+            assertBytes(map);
+        }
+    }
+
+    @Test
+    public void test_escapes() throws Exception {
+        Assert.assertEquals("\"a\\\"b\\\\c/d\\n\\u0001\\u007F\\u2028😀\"",
+                            new String(JSON.toJSONBytes("a\"b\\c/d\n\u0001\u007f\u2028😀"), StandardCharsets.UTF_8));
+        Assert.assertEquals("\"\\uD83D\\uDE00\\/\"",
+                            new String(JSON.toJSONBytes("😀/", SerializerFeature.BROWSER_COMPATIBLE),
+                                       StandardCharsets.UTF_8));
+        Assert.assertEquals("'a\\'b\\\\c\\n'",
+                            new String(JSON.toJSONBytes("a'b\\c\n", SerializerFeature.USE_SINGLE_QUOTES),
+                                       StandardCharsets.UTF_8));
+        Assert.assertEquals("-9223372036854775808", new String(JSON.toJSONBytes(Long.MIN_VALUE),
+                                                               StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test_features() throws Exception {
+        for (String text : TEXTS) {
+            assertBytes(bean(text), SerializerFeature.BROWSER_COMPATIBLE);
+            assertBytes(bean(text), SerializerFeature.USE_SINGLE_QUOTES);
+            assertBytes(bean(text), SerializerFeature.WRITE_SLASH_AS_SPECIAL);
+            assertBytes(bean(text), SerializerFeature.PRETTY_FORMAT);
+        }
+    }
+
+    @Test
+    public void test_growth() throws Exception {
+        // far past the 8k initial buffer, in one value and in many small ones
+        String text = longText();
+        assertBytes(text);
+        assertBytes(bean(text));
+
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < 3000; ++i) {
+            map.put("k" + i + "中", i % 2 == 0 ? bean("v😀" + i) : (Object) Long.valueOf(i * 1000000007L));
+        }
+        assertBytes(map);
+    }
+
+    @Test
+    public void test_writer() throws Exception {
+        // chars written without a byte variant stay in order with the bytes around them
+        String text = longText();
+        try (SerializeWriter out = SerializeWriter.forUTF8Bytes(JSON.DEFAULT_GENERATE_FEATURE)) {
+            out.write('[');
+            out.writeInt(-12);
+            out.write(',');
+            out.write('中');
+            out.write(text);
+            out.write("😀".toCharArray(), 0, 2);
+            out.writeLong(Long.MAX_VALUE);
+            out.writeString(text);
+            out.write(']');
+
+            String expected = "[-12,中" + text + "😀" + Long.MAX_VALUE + JSON.toJSONString(text) + "]";
+            Assert.assertEquals(expected, out.toString());
+            Assert.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), out.toBytes(IOUtils.UTF8));
+            Assert.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_16), out.toBytes(StandardCharsets.UTF_16));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Assert.assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, out.writeToEx(bytes, IOUtils.UTF8));
+            Assert.assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+
+            StringWriter chars = new StringWriter();
+            out.writeTo(chars);
+            Assert.assertEquals(expected, chars.toString());
+        }
+    }
+
+    @Test
+    public void test_serializer() throws Exception {
+        Bean bean = bean("x😀y");
+        try (SerializeWriter out = SerializeWriter.forUTF8Bytes(JSON.DEFAULT_GENERATE_FEATURE)) {
+            new JSONSerializer(out).write(bean);
+            Assert.assertArrayEquals(JSON.toJSONString(bean).getBytes(StandardCharsets.UTF_8),
+                                     out.toBytes(IOUtils.UTF8));
+        }
+    }
+}
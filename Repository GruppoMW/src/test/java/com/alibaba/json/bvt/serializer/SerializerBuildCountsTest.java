@@ -0,0 +1,85 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.serializer.SerializeConfig;
+
+public class SerializerBuildCountsTest {
+
+    public static class Bean {
+
+        public int id;
+    }
+
+    /**
+     * defines its own copy of a class, the copy is unreachable once the loader is
+     */
+    static class IsolatedClassLoader extends ClassLoader {
+
+        private final String name;
+
+        IsolatedClassLoader(String name){
+            super(SerializerBuildCountsTest.class.getClassLoader());
+            this.name = name;
+        }
+
+        protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(className)) {
+                return super.loadClass(className, resolve);
+            }
+            synchronized (getClassLoadingLock(className)) {
+                Class<?> clazz = findLoadedClass(className);
+                if (clazz == null) {
+                    byte[] bytes = readClass(className);
+                    clazz = defineClass(className, bytes, 0, bytes.length);
+                }
+                return clazz;
+            }
+        }
+
+        private byte[] readClass(String className) throws ClassNotFoundException {
+            String resource = className.replace('.', '/') + ".class";
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buf = new byte[1024];
+                for (int len; (len = in.read(buf)) != -1;) {
+                    out.write(buf, 0, len);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(className, e);
+            }
+        }
+    }
+
+    @Test
+    public void test_counted() {
+        SerializeConfig config = new SerializeConfig();
+        config.createJavaBeanSerializer(Bean.class);
+        config.createJavaBeanSerializer(Bean.class);
+
+        Assert.assertEquals(Integer.valueOf(2), config.getSerializerBuildCounts().get(Bean.class));
+    }
+
+    @Test
+    public void test_weakKeys() throws Exception {
+        // the counts do not keep a class, and with it its loader, alive
+        SerializeConfig config = new SerializeConfig();
+        Class<?> clazz = new IsolatedClassLoader(Bean.class.getName()).loadClass(Bean.class.getName());
+        Assert.assertNotSame(Bean.class, clazz);
+        config.createJavaBeanSerializer(clazz);
+        Assert.assertEquals(1, config.getSerializerBuildCounts().size());
+        clazz = null;
+
+        for (int i = 0; i < 100 && !config.getSerializerBuildCounts().isEmpty(); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(config.getSerializerBuildCounts().isEmpty());
+    }
+}
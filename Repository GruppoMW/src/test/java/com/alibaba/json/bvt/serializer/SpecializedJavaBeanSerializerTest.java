@@ -0,0 +1,134 @@
+package com.alibaba.json.bvt.serializer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.serializer.ASMSerializerFactory;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeBeanInfo;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SpecializedJavaBeanSerializer;
+import com.alibaba.fastjson.util.TypeUtils;
+
+public class SpecializedJavaBeanSerializerTest {
+
+    private static final SerializerFeature[][] FEATURES = {
+            {},
+            { SerializerFeature.WRITE_MAP_NULL_VALUE },
+            { SerializerFeature.NOT_WRITE_DEFAULT_VALUE },
+            { SerializerFeature.WRITE_NULL_BOOLEAN_AS_FALSE },
+            { SerializerFeature.SORT_FIELD },
+            { SerializerFeature.BEAN_TO_ARRAY },
+            { SerializerFeature.WRITE_MAP_NULL_VALUE, SerializerFeature.NOT_WRITE_DEFAULT_VALUE } };
+
+    private static String write(ObjectSerializer serializer, SerializeConfig config, Object object,
+                                SerializerFeature... features) throws Exception {
+        SerializeWriter out = new SerializeWriter(features);
+        try {
+            serializer.write(new JSONSerializer(out, config), object, null, null, 0);
+            return out.toString();
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void test_variantsSameAsReflective() throws Exception {
+        SerializeBeanInfo beanInfo = TypeUtils.buildBeanInfo(Outer.class, null, null);
+        SerializeConfig config = new SerializeConfig();
+        JavaBeanSerializer reflective = new JavaBeanSerializer(beanInfo);
+
+        Set<Class<?>> generated = new HashSet<Class<?>>();
+        for (SerializerFeature[] features : FEATURES) {
+            JavaBeanSerializer variant = new ASMSerializerFactory() //
+                .createJavaBeanSerializer(beanInfo, SerializerFeature.of(features));
+            Assert.assertNotSame(JavaBeanSerializer.class, variant.getClass());
+            generated.add(variant.getClass());
+
+            for (Outer outer : new Outer[] { new Outer(), Outer.filled() }) {
+                Assert.assertEquals(write(reflective, config, outer, features), write(variant, config, outer, features));
+            }
+        }
+        Assert.assertEquals(FEATURES.length, generated.size());
+    }
+
+    @Test
+    public void test_variantPerWriterMask() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        SerializeBeanInfo beanInfo = TypeUtils.buildBeanInfo(Outer.class, null, null);
+        JavaBeanSerializer reflective = new JavaBeanSerializer(beanInfo);
+
+        ObjectSerializer serializer = config.getObjectWriter(Outer.class);
+        Assert.assertTrue(serializer instanceof SpecializedJavaBeanSerializer);
+        SpecializedJavaBeanSerializer specialized = (SpecializedJavaBeanSerializer) serializer;
+
+        for (SerializerFeature[] features : FEATURES) {
+            Assert.assertEquals(write(reflective, config, Outer.filled(), features),
+                                write(specialized, config, Outer.filled(), features));
+        }
+
+        int[] masks = specialized.getVariantFeatures();
+        Assert.assertTrue(masks.length >= 2);
+        for (int mask : masks) {
+            Assert.assertEquals(0, mask & ~ASMSerializerFactory.SPECIALIZED_FEATURES);
+        }
+    }
+
+    public static class Inner {
+
+        private int x = 1;
+
+        public int getX() {
+            return x;
+        }
+
+        public void setX(int x) {
+            this.x = x;
+        }
+    }
+
+    public static class Outer {
+
+        private int     a;
+        private long    b = 5;
+        private boolean c;
+        private Boolean d;
+        private Inner   in;
+
+        static Outer filled() {
+            Outer outer = new Outer();
+            outer.a = 3;
+            outer.c = true;
+            outer.d = Boolean.FALSE;
+            outer.in = new Inner();
+            return outer;
+        }
+
+        public int getA() {
+            return a;
+        }
+
+        public long getB() {
+            return b;
+        }
+
+        public boolean isC() {
+            return c;
+        }
+
+        public Boolean getD() {
+            return d;
+        }
+
+        public Inner getIn() {
+            return in;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.alibaba.json.bvt.serializer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.TieredJavaBeanSerializer;
+
+public class TieredJavaBeanSerializerTest {
+
+    public static class Bean {
+
+        private int    id   = 7;
+        private String name = "seven";
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static String expected() {
+        SerializeConfig config = new SerializeConfig();
+        config.setAsmEnable(false);
+        return JSON.toJSONString(new Bean(), config);
+    }
+
+    private static String write(ObjectSerializer serializer, SerializeConfig config) throws Exception {
+        SerializeWriter out = new SerializeWriter();
+        try {
+            serializer.write(new JSONSerializer(out, config), new Bean(), null, null, 0);
+            return out.toString();
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void test_promotedAtThreshold() {
+        SerializeConfig config = new SerializeConfig();
+        config.setTieredCompilation(3, false);
+
+        ObjectSerializer first = config.getObjectWriter(Bean.class);
+        Assert.assertTrue(first instanceof TieredJavaBeanSerializer);
+        TieredJavaBeanSerializer tier = (TieredJavaBeanSerializer) first;
+
+        for (int i = 1; i < 3; ++i) {
+            Assert.assertEquals(expected(), JSON.toJSONString(new Bean(), config));
+            Assert.assertFalse(tier.isPromoted());
+            Assert.assertSame(tier, config.getObjectWriter(Bean.class));
+        }
+        Assert.assertEquals(Integer.valueOf(2), config.getTieredCounts().get(Bean.class));
+
+        Assert.assertEquals(expected(), JSON.toJSONString(new Bean(), config));
+        Assert.assertTrue(tier.isPromoted());
+        Assert.assertEquals(Integer.valueOf(3), config.getTieredCounts().get(Bean.class));
+
+        ObjectSerializer promoted = config.getObjectWriter(Bean.class);
+        Assert.assertNotSame(tier, promoted);
+        Assert.assertFalse(promoted instanceof TieredJavaBeanSerializer);
+        Assert.assertEquals(expected(), JSON.toJSONString(new Bean(), config));
+    }
+
+    @Test
+    public void test_oldInstanceForwarded() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.setTieredCompilation(1, false);
+
+        TieredJavaBeanSerializer tier = (TieredJavaBeanSerializer) config.getObjectWriter(Bean.class);
+        Assert.assertEquals(expected(), write(tier, config));
+        Assert.assertTrue(tier.isPromoted());
+
+        // writers still holding the tier go to the generated serializer, the tier no longer counts them
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertEquals(expected(), write(tier, config));
+        }
+        Assert.assertEquals(1, tier.getInvocationCount());
+    }
+
+    @Test
+    public void test_asyncPromotion() throws Exception {
+        SerializeConfig config = new SerializeConfig();
+        config.setTieredCompilation(2, true);
+
+        TieredJavaBeanSerializer tier = (TieredJavaBeanSerializer) config.getObjectWriter(Bean.class);
+        Assert.assertEquals(expected(), JSON.toJSONString(new Bean(), config));
+        Assert.assertEquals(expected(), JSON.toJSONString(new Bean(), config));
+
+        for (int i = 0; i < 500 && !tier.isPromoted(); ++i) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(tier.isPromoted());
+        Assert.assertFalse(config.getObjectWriter(Bean.class) instanceof TieredJavaBeanSerializer);
+        Assert.assertEquals(expected(), JSON.toJSONString(new Bean(), config));
+    }
+
+    @Test
+    public void test_weakTiers() throws Exception {
+        // a tier nobody holds any more is not listed
+        SerializeConfig config = new SerializeConfig();
+        config.setTieredCompilation(10, false);
+        Assert.assertTrue(config.createJavaBeanSerializer(Bean.class) instanceof TieredJavaBeanSerializer);
+        Assert.assertTrue(config.getTieredCounts().containsKey(Bean.class));
+
+        for (int i = 0; i < 100 && config.getTieredCounts().containsKey(Bean.class); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(config.getTieredCounts().containsKey(Bean.class));
+    }
+}
@@ -0,0 +1,103 @@
+package com.alibaba.json.bvt.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alibaba.fastjson.util.ASMCodeCache;
+
+public class ASMCodeCacheTest {
+
+    private static final byte[] CODE = { (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 49 };
+
+    private Path                dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("asm-cache");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.toFile().delete();
+    }
+
+    private boolean isPosix() {
+        return Files.getFileAttributeView(dir, PosixFileAttributeView.class) != null;
+    }
+
+    @Test
+    public void test_storeAndLoad() {
+        ASMCodeCache cache = new ASMCodeCache(dir.toFile());
+        Assert.assertTrue(cache.isTrusted());
+
+        cache.store("A", "shape", CODE);
+        Assert.assertArrayEquals(CODE, cache.load("A", "shape"));
+        Assert.assertNull(cache.load("A", "other shape"));
+        Assert.assertNull(cache.load("B", "shape"));
+
+        cache.remove("A");
+        Assert.assertNull(cache.load("A", "shape"));
+    }
+
+    @Test
+    public void test_damagedEntry() throws IOException {
+        ASMCodeCache cache = new ASMCodeCache(dir.toFile());
+        cache.store("A", "shape", CODE);
+
+        // the last byte of the code, before the length and the 32 bytes of the digest
+        File file = new File(dir.toFile(), "A.class.cache");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long pos = raf.length() - 37;
+            raf.seek(pos);
+            int b = raf.read();
+            raf.seek(pos);
+            raf.write(b ^ 1);
+        }
+        Assert.assertNull(cache.load("A", "shape"));
+    }
+
+    @Test
+    public void test_sharedDirectory() throws IOException {
+        Assume.assumeTrue(isPosix());
+
+        new ASMCodeCache(dir.toFile()).store("A", "shape", CODE);
+        Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        ASMCodeCache cache = new ASMCodeCache(dir.toFile());
+        Assert.assertFalse(cache.isTrusted());
+        Assert.assertNull(cache.load("A", "shape"));
+
+        cache.store("B", "shape", CODE);
+        Assert.assertFalse(new File(dir.toFile(), "B.class.cache").exists());
+    }
+
+    @Test
+    public void test_sharedEntry() throws IOException {
+        Assume.assumeTrue(isPosix());
+
+        ASMCodeCache cache = new ASMCodeCache(dir.toFile());
+        cache.store("A", "shape", CODE);
+        Path file = dir.resolve("A.class.cache");
+        Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-rw-rw-"));
+        Assert.assertNull(cache.load("A", "shape"));
+    }
+}
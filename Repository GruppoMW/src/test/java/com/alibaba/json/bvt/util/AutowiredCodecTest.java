@@ -0,0 +1,163 @@
+package com.alibaba.json.bvt.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alibaba.fastjson.parser.DefaultJSONParser;
+import com.alibaba.fastjson.parser.JSONToken;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.parser.deserializer.AutowiredObjectDeserializer;
+import com.alibaba.fastjson.parser.deserializer.ObjectDeserializer;
+import com.alibaba.fastjson.serializer.AutowiredObjectSerializer;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+
+public class AutowiredCodecTest {
+
+    public static class Bean {
+
+        public int id;
+    }
+
+    public static class Other {
+
+        public int id;
+    }
+
+    public static class Another {
+
+        public int id;
+    }
+
+    public static class Codec implements AutowiredObjectSerializer, AutowiredObjectDeserializer {
+
+        static final AtomicInteger instances = new AtomicInteger();
+
+        public Codec(){
+            instances.incrementAndGet();
+        }
+
+        public Set<Type> getAutowiredFor() {
+            return Collections.<Type> singleton(Bean.class);
+        }
+
+        public void write(JSONSerializer serializer, Object object, Object fieldName, Type fieldType, int features) {
+            serializer.out.writeString("codec");
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName) {
+            parser.parse();
+            return (T) new Bean();
+        }
+
+        public int getFastMatchToken() {
+            return JSONToken.LBRACE;
+        }
+    }
+
+    private Path        dir;
+    private ClassLoader contextClassLoader;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("autowired");
+        Path services = Files.createDirectories(dir.resolve("META-INF/services"));
+        for (Class<?> service : new Class<?>[] { AutowiredObjectSerializer.class, AutowiredObjectDeserializer.class }) {
+            Files.write(services.resolve(service.getName()), Codec.class.getName().getBytes(StandardCharsets.UTF_8));
+        }
+
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        URL url = dir.toUri().toURL();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] { url },
+                                                                        AutowiredCodecTest.class.getClassLoader()));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        for (String service : new String[] { AutowiredObjectSerializer.class.getName(),
+                AutowiredObjectDeserializer.class.getName() }) {
+            Files.deleteIfExists(dir.resolve("META-INF/services").resolve(service));
+        }
+        new File(dir.toFile(), "META-INF/services").delete();
+        new File(dir.toFile(), "META-INF").delete();
+        dir.toFile().delete();
+    }
+
+    @Test
+    public void test_deserializerCreatedOnce() {
+        ParserConfig config = new ParserConfig();
+        int instances = Codec.instances.get();
+
+        config.getDeserializer(Other.class);
+        config.getDeserializer(Another.class);
+        Assert.assertEquals(instances + 1, Codec.instances.get());
+
+        ObjectDeserializer codec = config.getDeserializer(Bean.class);
+        Assert.assertTrue(codec instanceof Codec);
+        Assert.assertSame(codec, config.getDeserializer(Bean.class));
+        Assert.assertEquals(instances + 1, Codec.instances.get());
+    }
+
+    @Test
+    public void test_deserializerRegistrationKept() {
+        ParserConfig config = new ParserConfig();
+        ObjectDeserializer registered = config.getDeserializer(Other.class);
+        config.putDeserializer(Bean.class, registered);
+        config.getDeserializer(Another.class);
+        Assert.assertSame(registered, config.getDeserializer(Bean.class));
+
+        // registered after the codecs were wired, a later miss does not wire them again
+        config = new ParserConfig();
+        config.getDeserializer(Other.class);
+        config.putDeserializer(Bean.class, registered);
+        config.getDeserializer(Another.class);
+        Assert.assertSame(registered, config.getDeserializer(Bean.class));
+    }
+
+    @Test
+    public void test_serializerCreatedOnce() {
+        SerializeConfig config = new SerializeConfig();
+        int instances = Codec.instances.get();
+
+        config.getObjectWriter(Other.class);
+        config.getObjectWriter(Another.class);
+        Assert.assertEquals(instances + 1, Codec.instances.get());
+
+        ObjectSerializer codec = config.getObjectWriter(Bean.class);
+        Assert.assertTrue(codec instanceof Codec);
+        Assert.assertSame(codec, config.getObjectWriter(Bean.class));
+        Assert.assertEquals(instances + 1, Codec.instances.get());
+    }
+
+    @Test
+    public void test_serializerRegistrationKept() {
+        SerializeConfig config = new SerializeConfig();
+        ObjectSerializer registered = config.getObjectWriter(Other.class);
+        config.put(Bean.class, registered);
+        config.getObjectWriter(Another.class);
+        Assert.assertSame(registered, config.getObjectWriter(Bean.class));
+
+        config = new SerializeConfig();
+        config.getObjectWriter(Other.class);
+        config.put(Bean.class, registered);
+        config.getObjectWriter(Another.class);
+        Assert.assertSame(registered, config.getObjectWriter(Bean.class));
+    }
+}
@@ -0,0 +1,152 @@
+package com.alibaba.json.bvt.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.util.BufferPool;
+
+public class BufferPoolTest {
+
+    @Test
+    public void test_threadLocal() {
+        BufferPool pool = BufferPool.threadLocal(1024 * 16);
+        char[] chars = pool.takeChars(1000);
+        Assert.assertEquals(1024, chars.length);
+        Assert.assertNotSame(chars, pool.takeChars(1000));
+
+        pool.releaseChars(chars);
+        Assert.assertSame(chars, pool.takeChars(600));
+        Assert.assertNotSame(chars, pool.takeChars(600));
+
+        byte[] bytes = pool.takeBytes(5000);
+        Assert.assertEquals(8192, bytes.length);
+        pool.releaseBytes(bytes);
+        Assert.assertSame(bytes, pool.takeBytes(5000));
+    }
+
+    @Test
+    public void test_objects() {
+        BufferPool[] pools = { BufferPool.threadLocal(1024 * 16), BufferPool.striped(1024 * 16) };
+        for (BufferPool pool : pools) {
+            Object[] objects = pool.takeObjects(8);
+            Assert.assertEquals(BufferPool.MIN_SIZE, objects.length);
+            pool.releaseObjects(objects);
+            Assert.assertSame(objects, pool.takeObjects(100));
+            Assert.assertNotSame(objects, pool.takeObjects(100));
+            pool.releaseObjects(null);
+        }
+        Assert.assertEquals(8, BufferPool.none().takeObjects(8).length);
+    }
+
+    @Test
+    public void test_largerClass() {
+        // a buffer up to two classes larger serves the request
+        BufferPool pool = BufferPool.threadLocal(1024 * 16);
+        char[] chars = pool.takeChars(2048);
+        pool.releaseChars(chars);
+        Assert.assertSame(chars, pool.takeChars(600));
+
+        char[] large = pool.takeChars(8192);
+        pool.releaseChars(large);
+        Assert.assertNotSame(large, pool.takeChars(600));
+    }
+
+    @Test
+    public void test_maxRetained() {
+        BufferPool pool = BufferPool.threadLocal(4096);
+        char[] chars = pool.takeChars(5000);
+        Assert.assertEquals(5000, chars.length);
+        pool.releaseChars(chars);
+        Assert.assertNotSame(chars, pool.takeChars(5000));
+
+        // too small to be kept
+        pool.releaseBytes(new byte[100]);
+        Assert.assertEquals(BufferPool.MIN_SIZE, pool.takeBytes(100).length);
+    }
+
+    @Test
+    public void test_threadLocal_perThread() throws Exception {
+        final BufferPool pool = BufferPool.threadLocal(1024 * 16);
+        final char[] chars = pool.takeChars(1000);
+        pool.releaseChars(chars);
+
+        final AtomicReference<char[]> other = new AtomicReference<char[]>();
+        Thread thread = new Thread() {
+
+            public void run() {
+                other.set(pool.takeChars(1000));
+            }
+        };
+        thread.start();
+        thread.join();
+
+        Assert.assertNotSame(chars, other.get());
+        Assert.assertSame(chars, pool.takeChars(1000));
+    }
+
+    @Test
+    public void test_clear() {
+        BufferPool[] pools = { BufferPool.threadLocal(1024 * 16), BufferPool.striped(1024 * 16) };
+        for (BufferPool pool : pools) {
+            char[] chars = pool.takeChars(1000);
+            byte[] bytes = pool.takeBytes(1000);
+            Object[] objects = pool.takeObjects(1000);
+            pool.releaseChars(chars);
+            pool.releaseBytes(bytes);
+            pool.releaseObjects(objects);
+            pool.clear();
+            Assert.assertNotSame(chars, pool.takeChars(1000));
+            Assert.assertNotSame(bytes, pool.takeBytes(1000));
+            Assert.assertNotSame(objects, pool.takeObjects(1000));
+        }
+    }
+
+    @Test
+    public void test_striped() {
+        BufferPool pool = BufferPool.striped(1024 * 16);
+        char[] chars = pool.takeChars(3000);
+        Assert.assertEquals(4096, chars.length);
+        pool.releaseChars(chars);
+        Assert.assertSame(chars, pool.takeChars(3000));
+        Assert.assertNotSame(chars, pool.takeChars(3000));
+
+        byte[] bytes = pool.takeBytes(3000);
+        pool.releaseBytes(bytes);
+        Assert.assertSame(bytes, pool.takeBytes(2000));
+
+        pool.releaseChars(null);
+        pool.releaseBytes(null);
+    }
+
+    @Test
+    public void test_none() {
+        BufferPool pool = BufferPool.none();
+        char[] chars = pool.takeChars(1000);
+        Assert.assertEquals(1000, chars.length);
+        pool.releaseChars(chars);
+        Assert.assertNotSame(chars, pool.takeChars(1000));
+        Assert.assertEquals(10, pool.takeBytes(10).length);
+    }
+
+    @Test
+    public void test_setInstance() {
+        BufferPool previous = BufferPool.getInstance();
+        BufferPool pool = BufferPool.none();
+        try {
+            BufferPool.setInstance(pool);
+            Assert.assertSame(pool, BufferPool.getInstance());
+        } finally {
+            BufferPool.setInstance(previous);
+        }
+
+        try {
+            BufferPool.setInstance(null);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        Assert.assertSame(previous, BufferPool.getInstance());
+    }
+}
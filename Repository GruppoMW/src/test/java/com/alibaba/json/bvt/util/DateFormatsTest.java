@@ -0,0 +1,133 @@
+package com.alibaba.json.bvt.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.util.DateFormats;
+
+public class DateFormatsTest {
+
+    private static final String[]   PATTERNS = { "yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS",
+            "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss.SSS" };
+
+    private static final TimeZone[] ZONES    = { TimeZone.getTimeZone("UTC"), TimeZone.getTimeZone("Asia/Shanghai"),
+            TimeZone.getTimeZone("America/New_York"), TimeZone.getTimeZone("Europe/London"),
+            TimeZone.getTimeZone("Australia/Lord_Howe") };
+
+    private static SimpleDateFormat format(String pattern, Locale locale, TimeZone zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+        format.setTimeZone(zone);
+        return format;
+    }
+
+    @Test
+    public void test_sameAsSimpleDateFormat() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; ++i) {
+            // years 1500 to 2500, some out of the fast range
+            long millis = -14830000000000L + (long) (random.nextDouble() * 31560000000000L);
+            Date date = new Date(millis);
+            for (String pattern : PATTERNS) {
+                for (TimeZone zone : ZONES) {
+                    SimpleDateFormat format = format(pattern, Locale.US, zone);
+                    String text = format.format(date);
+                    Assert.assertEquals(pattern + " " + zone.getID(), text,
+                                        DateFormats.format(date, pattern, Locale.US, zone));
+                    Assert.assertEquals(text + " " + zone.getID(), format.parse(text),
+                                        DateFormats.parse(text, pattern, Locale.US, zone));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_transitions() throws Exception {
+        // the day of a daylight saving change and the skipped and repeated hours
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        String[] texts = { "2021-03-14 01:30:00", "2021-03-14 02:30:00", "2021-03-14 03:30:00",
+                "2021-11-07 01:30:00", "2021-11-07 02:30:00" };
+        for (String text : texts) {
+            Assert.assertEquals(text, format(DateFormats.DATE_TIME_PATTERN, Locale.US, zone).parse(text),
+                                DateFormats.parse(text, DateFormats.DATE_TIME_PATTERN, Locale.US, zone));
+        }
+
+        SimpleDateFormat format = format("yyyy-MM-dd", Locale.US, zone);
+        Assert.assertEquals(format.parse("2021-03-14"), DateFormats.parse("2021-03-14", "yyyy-MM-dd", Locale.US, zone));
+    }
+
+    @Test
+    public void test_otherLayout() throws ParseException {
+        // lenient input goes through the format
+        TimeZone zone = TimeZone.getTimeZone("UTC");
+        String[] texts = { "2021-1-5", "2021-02-30", "21-01-05", "2021-01-05x" };
+        for (String text : texts) {
+            Assert.assertEquals(text, format("yyyy-MM-dd", Locale.US, zone).parse(text),
+                                DateFormats.parse(text, "yyyy-MM-dd", Locale.US, zone));
+        }
+        Assert.assertNull(DateFormats.parse("not a date", "yyyy-MM-dd", Locale.US, zone));
+        Assert.assertNull(DateFormats.parse("2021-01-05 25:00:00", DateFormats.ISO8601_PATTERN, Locale.US, zone));
+    }
+
+    @Test
+    public void test_millis() {
+        Date date = new Date(1234567890123L);
+        Assert.assertEquals("1234567890123", DateFormats.format(date, DateFormats.MILLIS_PATTERN, null, null));
+        Assert.assertEquals(date, DateFormats.parse("1234567890123", DateFormats.MILLIS_PATTERN, null, null));
+        Assert.assertEquals(-5L, DateFormats.parseMillis("-5"));
+        Assert.assertEquals(Long.MIN_VALUE, DateFormats.parseMillis("12a"));
+        Assert.assertEquals(Long.MIN_VALUE, DateFormats.parseMillis("-"));
+        Assert.assertEquals(Long.MIN_VALUE, DateFormats.parseMillis(""));
+    }
+
+    @Test
+    public void test_otherLocale() {
+        // a Buddhist calendar with thai digits is not Gregorian with ascii digits
+        Locale thai = new Locale("th", "TH", "TH");
+        Assert.assertFalse(DateFormats.isFastLocale(thai));
+        Assert.assertTrue(DateFormats.isFastLocale(Locale.US));
+
+        TimeZone zone = TimeZone.getTimeZone("UTC");
+        Date date = new Date(1234567890123L);
+        Assert.assertEquals(format(DateFormats.DATE_TIME_PATTERN, thai, zone).format(date),
+                            DateFormats.format(date, DateFormats.DATE_TIME_PATTERN, thai, zone));
+    }
+
+    @Test
+    public void test_fastPattern() {
+        Assert.assertEquals(DateFormats.DATE, DateFormats.fastPattern("yyyy-MM-dd"));
+        Assert.assertEquals(DateFormats.ISO8601_MILLIS, DateFormats.fastPattern("yyyy-MM-dd'T'HH:mm:ss.SSS"));
+        Assert.assertEquals(DateFormats.NONE, DateFormats.fastPattern("yyyy/MM/dd"));
+        Assert.assertEquals(DateFormats.NONE, DateFormats.fastPattern(null));
+
+        char[] buf = new char[25];
+        long fields = DateFormats.fields(2009, 2, 13, 23, 31, 30, 7);
+        int end = DateFormats.getChars(fields, DateFormats.ISO8601_MILLIS, buf, 1);
+        Assert.assertEquals(24, end);
+        Assert.assertEquals("2009-02-13T23:31:30.007", new String(buf, 1, 23));
+        Assert.assertEquals(-1L, DateFormats.fields(1599, 1, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    public void test_registry() {
+        TimeZone zone = TimeZone.getTimeZone("Asia/Tokyo");
+        SimpleDateFormat a = DateFormats.getDateFormat("dd.MM.yyyy", Locale.GERMANY, zone);
+        SimpleDateFormat b = DateFormats.getDateFormat("dd.MM.yyyy", Locale.GERMANY, zone);
+        Assert.assertNotSame(a, b);
+        Assert.assertEquals("dd.MM.yyyy", b.toPattern());
+        Assert.assertEquals(zone, b.getTimeZone());
+
+        ZoneId zoneId = ZoneId.of("Asia/Tokyo");
+        Assert.assertSame(DateFormats.getFormatter("dd.MM.yyyy", Locale.GERMANY, zoneId),
+                          DateFormats.getFormatter("dd.MM.yyyy", Locale.GERMANY, zoneId));
+        Assert.assertNotSame(DateFormats.getFormatter("dd.MM.yyyy", Locale.GERMANY, zoneId),
+                             DateFormats.getFormatter("dd.MM.yyyy", Locale.GERMANY, null));
+    }
+}
@@ -0,0 +1,120 @@
+package com.alibaba.json.bvt.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.util.IdentityHashMap;
+
+public class IdentityHashMapTest {
+
+    @Test
+    public void test_identity() {
+        IdentityHashMap<String, Integer> map = new IdentityHashMap<String, Integer>(4);
+        String key = new String("k");
+        Assert.assertFalse(map.put(key, 1));
+        Assert.assertEquals(Integer.valueOf(1), map.get(key));
+        Assert.assertNull(map.get(new String("k")));
+
+        Assert.assertTrue(map.put(key, 2));
+        Assert.assertEquals(Integer.valueOf(2), map.get(key));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void test_putIfAbsent() {
+        IdentityHashMap<Object, String> map = new IdentityHashMap<Object, String>(4);
+        Object key = new Object();
+        Assert.assertNull(map.putIfAbsent(key, "a"));
+        Assert.assertEquals("a", map.putIfAbsent(key, "b"));
+        Assert.assertEquals("a", map.get(key));
+    }
+
+    @Test
+    public void test_nullKey() {
+        IdentityHashMap<Object, String> map = new IdentityHashMap<Object, String>(4);
+        Assert.assertNull(map.get(null));
+        map.put(null, "n");
+        Assert.assertEquals("n", map.get(null));
+    }
+
+    @Test
+    public void test_grow() {
+        // far past the initial table, every entry stays reachable
+        IdentityHashMap<Object, Integer> map = new IdentityHashMap<Object, Integer>(2);
+        Object[] keys = new Object[10000];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = new Object();
+            map.put(keys[i], i);
+        }
+        Assert.assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), map.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void test_clear() {
+        IdentityHashMap<Object, Integer> map = new IdentityHashMap<Object, Integer>(2);
+        Object key = new Object();
+        for (int i = 0; i < 100; ++i) {
+            map.put(new Object(), i);
+        }
+        map.put(key, 1);
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(key));
+        map.put(key, 2);
+        Assert.assertEquals(Integer.valueOf(2), map.get(key));
+    }
+
+    @Test
+    public void test_findClass() {
+        IdentityHashMap<Class<?>, String> map = new IdentityHashMap<Class<?>, String>(4);
+        map.put(String.class, "s");
+        map.put(Integer.class, "i");
+        Assert.assertSame(Integer.class, map.findClass("java.lang.Integer"));
+        Assert.assertNull(map.findClass("java.lang.Long"));
+    }
+
+    @Test
+    public void test_readWhileGrowing() throws Exception {
+        final IdentityHashMap<Object, Integer> map = new IdentityHashMap<Object, Integer>(2);
+        final Object[] keys = new Object[20000];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = new Object();
+        }
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread writer = new Thread() {
+
+            public void run() {
+                started.countDown();
+                for (int i = 0; i < keys.length; ++i) {
+                    map.put(keys[i], i);
+                }
+            }
+        };
+        writer.start();
+        started.await();
+
+        // a published key always has its value, the table swaps never lose an entry
+        while (writer.isAlive()) {
+            for (int i = 0; i < keys.length; i += 97) {
+                Integer value = map.get(keys[i]);
+                if (value != null && value.intValue() != i) {
+                    failure.set("key " + i + " read " + value);
+                }
+            }
+        }
+        writer.join();
+
+        Assert.assertNull(failure.get());
+        for (int i = 0; i < keys.length; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), map.get(keys[i]));
+        }
+    }
+}
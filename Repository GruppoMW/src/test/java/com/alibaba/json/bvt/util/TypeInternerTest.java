@@ -0,0 +1,61 @@
+package com.alibaba.json.bvt.util;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.fastjson.TypeReference;
+import com.alibaba.fastjson.util.ParameterizedTypeImpl;
+import com.alibaba.fastjson.util.TypeInterner;
+
+public class TypeInternerTest {
+
+    public static class Box<V> {
+
+        public V value;
+    }
+
+    public static class Outer<T> {
+
+        public class Inner<V> {
+
+            public T t;
+            public V v;
+        }
+    }
+
+    public Outer<String>.Inner<Integer> stringInner;
+    public Outer<Long>.Inner<Integer>   longInner;
+
+    @Test
+    public void test_sameStructure() {
+        Type reference = new TypeReference<List<Integer>>() {}.getType();
+        Type impl = new ParameterizedTypeImpl(new Type[] { Integer.class }, null, List.class);
+        Assert.assertSame(TypeInterner.intern(reference), TypeInterner.intern(impl));
+        Assert.assertSame(String.class, TypeInterner.intern(String.class));
+    }
+
+    @Test
+    public void test_missingOwner() {
+        // the jdk fills in the declaring class, a hand made type may leave it out
+        Type jdk = new TypeReference<Box<Integer>>() {}.getType();
+        Assert.assertSame(TypeInternerTest.class, ((ParameterizedType) jdk).getOwnerType());
+        Type impl = new ParameterizedTypeImpl(new Type[] { Integer.class }, null, Box.class);
+        Assert.assertSame(TypeInterner.intern(jdk), TypeInterner.intern(impl));
+    }
+
+    @Test
+    public void test_ownerArguments() throws Exception {
+        Type stringInner = TypeInternerTest.class.getField("stringInner").getGenericType();
+        Type longInner = TypeInternerTest.class.getField("longInner").getGenericType();
+        Assert.assertNotSame(TypeInterner.intern(stringInner), TypeInterner.intern(longInner));
+
+        Type owner = new ParameterizedTypeImpl(new Type[] { String.class }, TypeInternerTest.class, Outer.class);
+        Type impl = new ParameterizedTypeImpl(new Type[] { Integer.class }, owner, Outer.Inner.class);
+        Assert.assertSame(TypeInterner.intern(stringInner), TypeInterner.intern(impl));
+        Assert.assertNotSame(TypeInterner.intern(longInner), TypeInterner.intern(impl));
+    }
+}